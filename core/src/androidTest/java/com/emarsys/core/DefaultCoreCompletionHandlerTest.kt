@@ -219,6 +219,57 @@ class DefaultCoreCompletionHandlerTest {
         verify(listener3).onCompleted(ResponseErrorException(STATUS_CODE, MESSAGE, BODY))
     }
 
+    @Test(expected = IllegalArgumentException::class)
+    fun testOnSuperseded_requestModel_mustNotBeNull() {
+        coreCompletionHandler.onSuperseded(null, listOf("id_1"))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testOnSuperseded_supersededRequestIds_mustNotBeNull() {
+        coreCompletionHandler.onSuperseded(createRequestModelMock(REQUEST_ID), null)
+    }
+
+    @Test
+    fun testOnSuperseded_resolvesSupersededListeners_withNewerOutcome() {
+        val listener1 = mock(CompletionListener::class.java)
+        val listener2 = mock(CompletionListener::class.java)
+        val listener3 = mock(CompletionListener::class.java)
+
+        coreCompletionHandler.register(createRequestModelMock("id_1"), listener1)
+        coreCompletionHandler.register(createRequestModelMock("id_2"), listener2)
+        coreCompletionHandler.register(createRequestModelMock("id_3"), listener3)
+
+        coreCompletionHandler.onSuperseded(createRequestModelMock("id_3"), listOf("id_1", "id_2"))
+        coreCompletionHandler.onError("id_3", ResponseErrorException(STATUS_CODE, MESSAGE, BODY))
+
+        val inOrder = inOrder(listener1, listener2, listener3)
+        inOrder.verify(listener1).onCompleted(ResponseErrorException(STATUS_CODE, MESSAGE, BODY))
+        inOrder.verify(listener2).onCompleted(ResponseErrorException(STATUS_CODE, MESSAGE, BODY))
+        inOrder.verify(listener3).onCompleted(ResponseErrorException(STATUS_CODE, MESSAGE, BODY))
+    }
+
+    @Test
+    fun testOnSuperseded_resolvesSupersededListener_whenNewerRequestHasNoListener() {
+        val listener = mock(CompletionListener::class.java)
+        coreCompletionHandler.register(createRequestModelMock("id_1"), listener)
+
+        coreCompletionHandler.onSuperseded(createRequestModelMock("id_2"), listOf("id_1"))
+        coreCompletionHandler.onSuccess("id_2", createAnyResponseModel())
+
+        verify(listener).onCompleted(null)
+    }
+
+    @Test
+    fun testOnSuperseded_ignoresLateCompletionOfSupersededRequest() {
+        val listener = mock(CompletionListener::class.java)
+        coreCompletionHandler.register(createRequestModelMock("id_1"), listener)
+
+        coreCompletionHandler.onSuperseded(createRequestModelMock("id_2"), listOf("id_1"))
+        coreCompletionHandler.onSuccess("id_1", createAnyResponseModel())
+
+        verifyZeroInteractions(listener)
+    }
+
     private fun createAnyResponseModel() = createResponseModel(200, "", "")
 
     private fun createResponseModel(statusCode: Int, message: String, body: String) =
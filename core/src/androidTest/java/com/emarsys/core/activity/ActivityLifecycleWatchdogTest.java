@@ -27,6 +27,7 @@ public class ActivityLifecycleWatchdogTest {
     private ActivityLifecycleWatchdog watchdog;
     private ActivityLifecycleAction[] applicationStartActions;
     private ActivityLifecycleAction[] activityCreatedActions;
+    private ActivityLifecycleAction[] applicationBackgroundActions;
 
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
@@ -42,7 +43,8 @@ public class ActivityLifecycleWatchdogTest {
         activity3 = mock(Activity.class);
         applicationStartActions = initActions();
         activityCreatedActions = initActions();
-        watchdog = new ActivityLifecycleWatchdog(applicationStartActions, activityCreatedActions);
+        applicationBackgroundActions = initActions();
+        watchdog = new ActivityLifecycleWatchdog(applicationStartActions, activityCreatedActions, applicationBackgroundActions);
     }
 
     @Test
@@ -67,6 +69,51 @@ public class ActivityLifecycleWatchdogTest {
         Assert.assertArrayEquals(activityCreatedActions, watchdog.getActivityCreatedActions());
     }
 
+    @Test
+    public void testConstructor_applicationBackgroundActions_createEmptyArrayIfNull() {
+        ActivityLifecycleWatchdog watchdog = new ActivityLifecycleWatchdog(applicationStartActions, activityCreatedActions, null);
+
+        Assert.assertArrayEquals(new ActivityLifecycleAction[]{}, watchdog.getApplicationBackgroundActions());
+    }
+
+    @Test
+    public void testConstructor_applicationBackgroundActions_initialized_withConstructorArgument() {
+        Assert.assertArrayEquals(applicationBackgroundActions, watchdog.getApplicationBackgroundActions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_ApplicationBackgroundActions_mustNotContain_nullElements() {
+        ActivityLifecycleAction[] actions = {
+                mock(ActivityLifecycleAction.class),
+                null,
+                mock(ActivityLifecycleAction.class)};
+        new ActivityLifecycleWatchdog(applicationStartActions, activityCreatedActions, actions);
+    }
+
+    @Test
+    public void testApplicationBackground_onLastActivityStopped_shouldInvokeActions() {
+        watchdog.onActivityResumed(activity1);
+        watchdog.onActivityPaused(activity1);
+        watchdog.onActivityStopped(activity1);
+
+        verifyExecuteCalled(applicationBackgroundActions, 1);
+    }
+
+    @Test
+    public void testApplicationBackground_withActivityTransitions_shouldNotInvokeActions() {
+        watchdog.onActivityResumed(activity1);
+        watchdog.onActivityPaused(activity1);
+        watchdog.onActivityResumed(activity2);
+        watchdog.onActivityStopped(activity1);
+
+        verifyExecuteCalled(applicationBackgroundActions, 0);
+
+        watchdog.onActivityPaused(activity2);
+        watchdog.onActivityStopped(activity2);
+
+        verifyExecuteCalled(applicationBackgroundActions, 1);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_ApplicationStartedActions_mustNotContain_nullElements() {
         ActivityLifecycleAction[] actions = {
@@ -0,0 +1,81 @@
+package com.emarsys.core.benchmark
+
+import android.os.SystemClock
+import android.util.Log
+import com.emarsys.core.util.serialization.BlobCodec
+import com.emarsys.core.util.serialization.SerializationUtils
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.io.Serializable
+
+class BlobCodecBenchmark {
+
+    companion object {
+        const val TAG = "Benchmark"
+        const val ITERATIONS = 2000
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun benchmarkCustomEventPayload() {
+        val payload = hashMapOf<String, Any>(
+                "clicks" to arrayListOf<Any>(),
+                "viewedMessages" to arrayListOf<Any>(),
+                "events" to arrayListOf(hashMapOf<String, Any>(
+                        "type" to "custom",
+                        "name" to "purchase",
+                        "timestamp" to "2019-06-12T09:25:34.123Z",
+                        "attributes" to hashMapOf(
+                                "orderId" to "123456",
+                                "total" to "99.5",
+                                "currency" to "EUR"
+                        )
+                ))
+        )
+
+        benchmark("custom event", payload)
+    }
+
+    @Test
+    fun benchmarkLogPayload() {
+        val payload = hashMapOf<String, Any>(
+                "type" to "log_request",
+                "request_id" to "a2d8a4f6-0f1f-4a8e-9f7c-6a1c2b3d4e5f",
+                "url" to "https://mobile-events.eservice.emarsys.net/v3/apps/EMS11-C3FD3/client/events",
+                "status_code" to 200,
+                "in_database" to 12L,
+                "network_late" to 156L,
+                "timestamp" to 1560331534123L
+        )
+
+        benchmark("log", payload)
+    }
+
+    private fun benchmark(name: String, payload: Serializable) {
+        val legacyBlob = SerializationUtils.serializableToBlob(payload)
+        val codecBlob = BlobCodec.encode(payload)
+
+        val legacyEncode = measure { SerializationUtils.serializableToBlob(payload) }
+        val codecEncode = measure { BlobCodec.encode(payload) }
+        val legacyDecode = measure { SerializationUtils.blobToSerializable(legacyBlob) }
+        val codecDecode = measure { BlobCodec.decode(codecBlob) }
+
+        Log.i(TAG, "$name legacy: ${legacyBlob.size} bytes, encode $legacyEncode ms, decode $legacyDecode ms ($ITERATIONS iterations)")
+        Log.i(TAG, "$name codec: ${codecBlob.size} bytes, encode $codecEncode ms, decode $codecDecode ms ($ITERATIONS iterations)")
+
+        BlobCodec.decode(codecBlob) shouldBe payload
+        (codecBlob.size < legacyBlob.size) shouldBe true
+    }
+
+    private fun measure(block: () -> Unit): Long {
+        val start = SystemClock.elapsedRealtime()
+        repeat(ITERATIONS) { block() }
+        return Math.max(1, SystemClock.elapsedRealtime() - start)
+    }
+}
@@ -0,0 +1,93 @@
+package com.emarsys.core.benchmark
+
+import android.os.SystemClock
+import android.util.Log
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.shard.ShardModel
+import com.emarsys.core.shard.ShardModelRepository
+import com.emarsys.core.shard.specification.FilterByShardIds
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class RepositoryBatchBenchmark {
+
+    companion object {
+        const val TAG = "Benchmark"
+        const val SHARD_COUNT = 1000
+        const val CHUNK_SIZE = 10
+    }
+
+    private lateinit var repository: ShardModelRepository
+    private lateinit var chunks: List<List<ShardModel>>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+        repository = ShardModelRepository(CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf()))
+
+        chunks = (1..SHARD_COUNT).map {
+            ShardModel("shard$it", "log", mapOf<String, Any>("message" to "log entry $it"), it.toLong(), Long.MAX_VALUE)
+        }.chunked(CHUNK_SIZE)
+    }
+
+    @Test
+    fun benchmarkRemove_bulk_vs_perChunk() {
+        repository.addAll(chunks.flatten())
+        val perChunkDuration = measure {
+            chunks.forEach { repository.remove(FilterByShardIds(it)) }
+        }
+        repository.isEmpty() shouldBe true
+
+        repository.addAll(chunks.flatten())
+        val bulkDuration = measure {
+            repository.removeAll(chunks.map<List<ShardModel>, SqlSpecification> { FilterByShardIds(it) })
+        }
+        repository.isEmpty() shouldBe true
+
+        Log.i(TAG, "remove per chunk ($CHUNK_SIZE): ${throughput(perChunkDuration)} rows/s ($perChunkDuration ms)")
+        Log.i(TAG, "bulk remove: ${throughput(bulkDuration)} rows/s ($bulkDuration ms)")
+
+        (bulkDuration < perChunkDuration) shouldBe true
+    }
+
+    @Test
+    fun benchmarkAdd_unitOfWork_vs_singleTransactions() {
+        val shards = chunks.flatten()
+        val singleTransactionsDuration = measure {
+            shards.forEach { repository.add(it) }
+        }
+        DatabaseTestUtils.deleteCoreDatabase()
+        repository = ShardModelRepository(CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf()))
+
+        val unitOfWorkDuration = measure {
+            repository.inTransaction(Runnable {
+                shards.forEach { repository.add(it) }
+            })
+        }
+        repository.count() shouldBe SHARD_COUNT
+
+        Log.i(TAG, "add in separate transactions: ${throughput(singleTransactionsDuration)} rows/s ($singleTransactionsDuration ms)")
+        Log.i(TAG, "add in one unit of work: ${throughput(unitOfWorkDuration)} rows/s ($unitOfWorkDuration ms)")
+
+        (unitOfWorkDuration < singleTransactionsDuration) shouldBe true
+    }
+
+    private fun measure(block: () -> Unit): Long {
+        val start = SystemClock.elapsedRealtime()
+        block()
+        return Math.max(1, SystemClock.elapsedRealtime() - start)
+    }
+
+    private fun throughput(durationInMillis: Long) = SHARD_COUNT * 1000 / durationInMillis
+}
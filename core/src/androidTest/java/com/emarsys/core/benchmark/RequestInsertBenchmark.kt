@@ -0,0 +1,74 @@
+package com.emarsys.core.benchmark
+
+import android.os.SystemClock
+import android.util.Log
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class RequestInsertBenchmark {
+
+    companion object {
+        const val TAG = "Benchmark"
+        const val REQUEST_COUNT = 1000
+        const val BATCH_SIZE = 50
+    }
+
+    private lateinit var repository: RequestModelRepository
+    private lateinit var requestModels: List<RequestModel>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+        repository = RequestModelRepository(CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf()))
+
+        val timestampProvider = TimestampProvider()
+        val uuidProvider = UUIDProvider()
+        requestModels = (1..REQUEST_COUNT).map {
+            RequestModel.Builder(timestampProvider, uuidProvider)
+                    .url("https://mobile-events.eservice.emarsys.net/v3/apps/EMS11-C3FD3/client/events")
+                    .payload(mapOf<String, Any>("events" to listOf(mapOf("type" to "custom", "name" to "event$it"))))
+                    .build()
+        }
+    }
+
+    @Test
+    fun benchmarkInsert_groupCommit_vs_singleInserts() {
+        val singleInsertDuration = measure {
+            requestModels.forEach { repository.add(it) }
+        }
+        DatabaseTestUtils.deleteCoreDatabase()
+        repository = RequestModelRepository(CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf()))
+
+        val groupCommitDuration = measure {
+            requestModels.chunked(BATCH_SIZE).forEach { repository.addAll(it) }
+        }
+
+        Log.i(TAG, "single inserts: ${throughput(singleInsertDuration)} rows/s ($singleInsertDuration ms)")
+        Log.i(TAG, "group commit ($BATCH_SIZE): ${throughput(groupCommitDuration)} rows/s ($groupCommitDuration ms)")
+
+        (groupCommitDuration < singleInsertDuration) shouldBe true
+    }
+
+    private fun measure(block: () -> Unit): Long {
+        val start = SystemClock.elapsedRealtime()
+        block()
+        return Math.max(1, SystemClock.elapsedRealtime() - start)
+    }
+
+    private fun throughput(durationInMillis: Long) = REQUEST_COUNT * 1000 / durationInMillis
+}
@@ -0,0 +1,158 @@
+package com.emarsys.core.benchmark
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import android.util.Log
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.Registry
+import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.concurrency.DefaultNetworkExecutor
+import com.emarsys.core.connection.ConnectionWatchDog
+import com.emarsys.core.connection.loopback.LoopbackHandler
+import com.emarsys.core.connection.loopback.LoopbackResponse
+import com.emarsys.core.connection.loopback.LoopbackTransport
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.RequestBodyCompressor
+import com.emarsys.core.request.RequestManager
+import com.emarsys.core.request.RestClient
+import com.emarsys.core.request.factory.CoreCompletionHandlerMiddlewareProvider
+import com.emarsys.core.request.model.IndexedRequestModelRepository
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.response.ResponseBodyReader
+import com.emarsys.core.response.ResponseHandlersProcessor
+import com.emarsys.core.response.ResponseModel
+import com.emarsys.core.shard.ShardModel
+import com.emarsys.core.util.predicate.Predicate
+import com.emarsys.core.worker.PipelinedWorker
+import com.emarsys.core.worker.RetryScheduler
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.util.Collections
+import java.util.Random
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the full submit -> persist -> send -> callback path against an in-process transport,
+ * so the numbers reflect the SDK pipeline and not the network.
+ */
+class RequestPipelineBenchmark {
+
+    companion object {
+        const val TAG = "Benchmark"
+        const val REQUEST_COUNT = 500
+        const val MAX_IN_FLIGHT = 4
+        const val READ_AHEAD_SIZE = 32
+        const val LATENCY = 20L
+        const val MAX_RESPONSE_BODY_SIZE = 1024 * 1024
+        val HOSTS = listOf(
+                "https://mobile-events.eservice.emarsys.net/v3/apps/EMS11-C3FD3/client/events",
+                "https://me-client.eservice.emarsys.net/v3/apps/EMS11-C3FD3/client",
+                "https://recommender.scarabresearch.com/merchants/1428C8EE286EC34B/")
+    }
+
+    private lateinit var coreSdkHandler: Handler
+    private lateinit var transport: LoopbackTransport
+    private lateinit var requestManager: RequestManager
+    private lateinit var latch: CountDownLatch
+    private lateinit var latencies: MutableList<Long>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        latch = CountDownLatch(REQUEST_COUNT)
+        latencies = Collections.synchronizedList(mutableListOf())
+        val timestampProvider = TimestampProvider()
+        val completionHandler = object : CoreCompletionHandler {
+            override fun onSuccess(id: String, responseModel: ResponseModel) {
+                latencies.add(timestampProvider.provideTimestamp() - responseModel.requestModel.timestamp)
+                latch.countDown()
+            }
+
+            override fun onError(id: String, responseModel: ResponseModel) {}
+
+            override fun onError(id: String, cause: Exception) {}
+        }
+
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+        val uiHandler = Handler(Looper.getMainLooper())
+        val repository = IndexedRequestModelRepository(CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf()), READ_AHEAD_SIZE)
+        val connectionWatchDog = mock(ConnectionWatchDog::class.java).apply {
+            whenever(isConnected).thenReturn(true)
+        }
+        transport = LoopbackTransport(LoopbackHandler { LoopbackResponse(200, "") }, LATENCY)
+        val restClient = RestClient(transport, timestampProvider, mock(ResponseHandlersProcessor::class.java), listOf(), RequestBodyCompressor(0), ResponseBodyReader(MAX_RESPONSE_BODY_SIZE), DefaultNetworkExecutor(), coreSdkHandler)
+        val retryScheduler = RetryScheduler(coreSdkHandler, repository, timestampProvider, Random(), 60_000L, 60_000L, Int.MAX_VALUE)
+        val worker = PipelinedWorker(
+                repository,
+                connectionWatchDog,
+                uiHandler,
+                completionHandler,
+                restClient,
+                CoreCompletionHandlerMiddlewareProvider(completionHandler, repository, uiHandler, coreSdkHandler, retryScheduler),
+                retryScheduler,
+                Predicate<RequestModel> { false },
+                MAX_IN_FLIGHT)
+
+        requestManager = RequestManager(
+                coreSdkHandler,
+                repository,
+                mock(Repository::class.java) as Repository<ShardModel, SqlSpecification>,
+                worker,
+                restClient,
+                mock(Registry::class.java) as Registry<RequestModel, CompletionListener>,
+                completionHandler)
+    }
+
+    @After
+    fun tearDown() {
+        coreSdkHandler.looper.quit()
+    }
+
+    @Test
+    fun benchmarkSubmitToCallback() {
+        val timestampProvider = TimestampProvider()
+        val uuidProvider = UUIDProvider()
+
+        val start = SystemClock.elapsedRealtime()
+        for (i in 0 until REQUEST_COUNT) {
+            requestManager.submit(RequestModel.Builder(timestampProvider, uuidProvider)
+                    .url(HOSTS[i % HOSTS.size])
+                    .payload(mapOf<String, Any>("events" to listOf(mapOf("type" to "custom", "name" to "event$i"))))
+                    .build(), null)
+        }
+        requestManager.flush()
+        latch.await(2, TimeUnit.MINUTES)
+        val duration = Math.max(1, SystemClock.elapsedRealtime() - start)
+
+        val sorted = latencies.sorted()
+        Log.i(TAG, "pipeline: ${REQUEST_COUNT * 1000 / duration} requests/s ($duration ms, $LATENCY ms simulated round trip, $MAX_IN_FLIGHT in flight)")
+        Log.i(TAG, "pipeline latency: p50 ${percentile(sorted, 50)} ms, p95 ${percentile(sorted, 95)} ms, max ${sorted.last()} ms")
+
+        latch.count shouldBe 0L
+        transport.exchangeCount shouldBe REQUEST_COUNT
+    }
+
+    private fun percentile(sorted: List<Long>, percentile: Int) = sorted[(sorted.size - 1) * percentile / 100]
+}
@@ -0,0 +1,103 @@
+package com.emarsys.core.concurrency
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+
+class DefaultNetworkExecutorTest {
+
+    private lateinit var executor: DefaultNetworkExecutor
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        executor = DefaultNetworkExecutor()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testExecute_lane_mustNotBeNull() {
+        executor.execute(null, Runnable { })
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testExecute_task_mustNotBeNull() {
+        executor.execute(NetworkLane.QUEUED, null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testGetQueueDepth_lane_mustNotBeNull() {
+        executor.getQueueDepth(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testGetRemainingCapacity_lane_mustNotBeNull() {
+        executor.getRemainingCapacity(null)
+    }
+
+    @Test
+    fun testExecute_runsTaskOnLaneThread() {
+        NetworkLane.values().forEach { lane ->
+            val latch = CountDownLatch(1)
+            var threadName = ""
+
+            executor.execute(lane, Runnable {
+                threadName = Thread.currentThread().name
+                latch.countDown()
+            })
+
+            latch.await()
+            threadName.startsWith("EmarsysNetwork-${lane.name}-") shouldBe true
+        }
+    }
+
+    @Test
+    fun testGetQueueDepth() {
+        val blockingLatch = CountDownLatch(1)
+        val finishedLatch = CountDownLatch(2)
+
+        executor.execute(NetworkLane.TELEMETRY, Runnable {
+            blockingLatch.await()
+            finishedLatch.countDown()
+        })
+        executor.execute(NetworkLane.TELEMETRY, Runnable {
+            finishedLatch.countDown()
+        })
+
+        executor.getQueueDepth(NetworkLane.TELEMETRY) shouldBe 1
+        executor.getQueueDepth(NetworkLane.QUEUED) shouldBe 0
+
+        blockingLatch.countDown()
+        finishedLatch.await()
+
+        executor.getQueueDepth(NetworkLane.TELEMETRY) shouldBe 0
+    }
+
+    @Test
+    fun testExecute_telemetry_rejectsTasks_whenQueueIsFull() {
+        val blockingLatch = CountDownLatch(1)
+        executor.execute(NetworkLane.TELEMETRY, Runnable { blockingLatch.await() })
+        val capacity = executor.getRemainingCapacity(NetworkLane.TELEMETRY)
+        repeat(capacity) {
+            executor.execute(NetworkLane.TELEMETRY, Runnable { })
+        }
+
+        executor.getRemainingCapacity(NetworkLane.TELEMETRY) shouldBe 0
+        var rejected = false
+        try {
+            executor.execute(NetworkLane.TELEMETRY, Runnable { })
+        } catch (e: RejectedExecutionException) {
+            rejected = true
+        }
+        blockingLatch.countDown()
+
+        rejected shouldBe true
+    }
+}
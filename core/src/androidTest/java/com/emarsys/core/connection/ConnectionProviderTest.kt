@@ -1,9 +1,11 @@
 package com.emarsys.core.connection
 
+import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.testUtil.TimeoutUtils
 import io.kotlintest.matchers.beTheSameInstanceAs
 import io.kotlintest.should
+import io.kotlintest.shouldBe
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -11,6 +13,8 @@ import org.junit.rules.TestRule
 import org.mockito.Mockito.`when`
 import org.mockito.Mockito.mock
 import java.net.URL
+import javax.net.ssl.HttpsURLConnection
+import javax.net.ssl.SSLSocketFactory
 
 class ConnectionProviderTest {
     companion object {
@@ -55,4 +59,34 @@ class ConnectionProviderTest {
 
         provider.provideConnection(requestModel)
     }
-}
\ No newline at end of file
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_socketFactory_mustNotBeNull() {
+        ConnectionProvider(null)
+    }
+
+    @Test
+    fun testProvideConnection_usesSharedSocketFactory() {
+        val socketFactory = TrackingSSLSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory(), TimestampProvider())
+        provider = ConnectionProvider(socketFactory)
+
+        val requestModel = mock<RequestModel>(RequestModel::class.java)
+        `when`<URL>(requestModel.url).thenReturn(URL(HTTPS_PATH))
+
+        provider.provideConnection(requestModel).sslSocketFactory should beTheSameInstanceAs(socketFactory as SSLSocketFactory)
+        provider.provideConnection(requestModel).sslSocketFactory should beTheSameInstanceAs(socketFactory as SSLSocketFactory)
+    }
+
+    @Test
+    fun testProvideConnection_clearsStaleHandshakeStart() {
+        val socketFactory = TrackingSSLSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory(), TimestampProvider())
+        provider = ConnectionProvider(socketFactory)
+        socketFactory.createSocket()
+
+        val requestModel = mock<RequestModel>(RequestModel::class.java)
+        `when`<URL>(requestModel.url).thenReturn(URL(HTTPS_PATH))
+        provider.provideConnection(requestModel)
+
+        provider.takeHandshakeStart() shouldBe Transport.NO_HANDSHAKE
+    }
+}
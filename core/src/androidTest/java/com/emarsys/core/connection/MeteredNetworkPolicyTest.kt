@@ -0,0 +1,177 @@
+package com.emarsys.core.connection
+
+import android.os.Handler
+import android.os.Message
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+
+class MeteredNetworkPolicyTest {
+
+    companion object {
+        const val NOW = 100_000L
+        const val MAX_DELAY = 60_000L
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockCoreSdkHandler: Handler
+    private lateinit var mockConnectionWatchDog: ConnectionWatchDog
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var mockReleaseAction: Runnable
+    private lateinit var policy: MeteredNetworkPolicy
+
+    @Before
+    fun setUp() {
+        mockCoreSdkHandler = mock(Handler::class.java)
+        mockConnectionWatchDog = mock(ConnectionWatchDog::class.java).apply {
+            whenever(connectionState).thenReturn(ConnectionState.CONNECTED_MOBILE_DATA)
+        }
+        mockTimestampProvider = mock(TimestampProvider::class.java).apply {
+            whenever(provideTimestamp()).thenReturn(NOW)
+        }
+        mockReleaseAction = mock(Runnable::class.java)
+
+        policy = MeteredNetworkPolicy(mockCoreSdkHandler, mockConnectionWatchDog, mockTimestampProvider, MAX_DELAY)
+        policy.addReleaseActions(listOf(mockReleaseAction))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreSdkHandler_mustNotBeNull() {
+        MeteredNetworkPolicy(null, mockConnectionWatchDog, mockTimestampProvider, MAX_DELAY)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_connectionWatchDog_mustNotBeNull() {
+        MeteredNetworkPolicy(mockCoreSdkHandler, null, mockTimestampProvider, MAX_DELAY)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_timestampProvider_mustNotBeNull() {
+        MeteredNetworkPolicy(mockCoreSdkHandler, mockConnectionWatchDog, null, MAX_DELAY)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxDelay_mustBeGreaterThanZero() {
+        MeteredNetworkPolicy(mockCoreSdkHandler, mockConnectionWatchDog, mockTimestampProvider, 0)
+    }
+
+    @Test
+    fun testConstructor_registersForConnectionChanges() {
+        verify(mockConnectionWatchDog).registerReceiver(policy)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testShouldDefer_trafficClass_mustNotBeNull() {
+        policy.shouldDefer(null)
+    }
+
+    @Test
+    fun testShouldDefer_essentialTraffic_isNeverDeferred() {
+        policy.shouldDefer(TrafficClass.ESSENTIAL) shouldBe false
+        policy.isDeferring shouldBe false
+    }
+
+    @Test
+    fun testShouldDefer_deferrableTraffic_onUnmeteredNetwork() {
+        whenever(mockConnectionWatchDog.connectionState).thenReturn(ConnectionState.CONNECTED)
+
+        policy.shouldDefer(TrafficClass.DEFERRABLE) shouldBe false
+    }
+
+    @Test
+    fun testShouldDefer_deferrableTraffic_onMeteredNetwork_schedulesDeadline() {
+        policy.shouldDefer(TrafficClass.DEFERRABLE) shouldBe true
+
+        policy.isDeferring shouldBe true
+        verify(mockCoreSdkHandler).sendMessageAtTime(any(Message::class.java), anyLong())
+    }
+
+    @Test
+    fun testShouldDefer_releases_whenDeadlineHasPassed() {
+        policy.shouldDefer(TrafficClass.DEFERRABLE)
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + MAX_DELAY)
+
+        policy.shouldDefer(TrafficClass.DEFERRABLE) shouldBe false
+        policy.isDeferring shouldBe false
+        verify(mockReleaseAction).run()
+    }
+
+    @Test
+    fun testDeadlineCheck_releasesDeferredTraffic() {
+        policy.shouldDefer(TrafficClass.DEFERRABLE)
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockCoreSdkHandler).sendMessageAtTime(captor.capture(), anyLong())
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + MAX_DELAY)
+        captor.value.callback.run()
+
+        verify(mockReleaseAction).run()
+        policy.isDeferring shouldBe false
+    }
+
+    @Test
+    fun testDeadlineCheck_doesNothing_whenAlreadyReleased() {
+        policy.shouldDefer(TrafficClass.DEFERRABLE)
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockCoreSdkHandler).sendMessageAtTime(captor.capture(), anyLong())
+
+        policy.onConnectionChanged(ConnectionState.CONNECTED, true)
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + MAX_DELAY)
+        captor.value.callback.run()
+
+        verify(mockReleaseAction, times(1)).run()
+    }
+
+    @Test
+    fun testOnConnectionChanged_releases_onUnmeteredNetwork() {
+        policy.shouldDefer(TrafficClass.DEFERRABLE)
+
+        policy.onConnectionChanged(ConnectionState.CONNECTED, true)
+
+        verify(mockReleaseAction).run()
+        policy.isDeferring shouldBe false
+    }
+
+    @Test
+    fun testOnConnectionChanged_doesNotRelease_onMeteredNetwork() {
+        policy.shouldDefer(TrafficClass.DEFERRABLE)
+
+        policy.onConnectionChanged(ConnectionState.CONNECTED_MOBILE_DATA, true)
+
+        verifyZeroInteractions(mockReleaseAction)
+    }
+
+    @Test
+    fun testOnConnectionChanged_doesNothing_whenNothingIsDeferred() {
+        policy.onConnectionChanged(ConnectionState.CONNECTED, true)
+
+        verifyZeroInteractions(mockReleaseAction)
+    }
+
+    @Test
+    fun testShouldDefer_returnsFalse_whileReleasing() {
+        var deferredDuringRelease = true
+        policy.addReleaseActions(listOf(Runnable {
+            deferredDuringRelease = policy.shouldDefer(TrafficClass.DEFERRABLE)
+        }))
+        policy.shouldDefer(TrafficClass.DEFERRABLE)
+
+        policy.onConnectionChanged(ConnectionState.CONNECTED, true)
+
+        deferredDuringRelease shouldBe false
+    }
+}
@@ -0,0 +1,94 @@
+package com.emarsys.core.connection
+
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.net.Socket
+import javax.net.ssl.SSLSocket
+import javax.net.ssl.SSLSocketFactory
+import kotlin.concurrent.thread
+
+class TrackingSSLSocketFactoryTest {
+
+    companion object {
+        const val TIMESTAMP = 1234L
+    }
+
+    private lateinit var mockDelegate: SSLSocketFactory
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var factory: TrackingSSLSocketFactory
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockDelegate = mock(SSLSocketFactory::class.java)
+        mockTimestampProvider = mock(TimestampProvider::class.java).apply {
+            whenever(provideTimestamp()).thenReturn(TIMESTAMP)
+        }
+
+        factory = TrackingSSLSocketFactory(mockDelegate, mockTimestampProvider)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_delegate_mustNotBeNull() {
+        TrackingSSLSocketFactory(null, mockTimestampProvider)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_timestampProvider_mustNotBeNull() {
+        TrackingSSLSocketFactory(mockDelegate, null)
+    }
+
+    @Test
+    fun testTakeHandshakeStart_withoutNewSocket() {
+        factory.takeHandshakeStart() shouldBe Transport.NO_HANDSHAKE
+    }
+
+    @Test
+    fun testCreateSocket_layered_delegatesAndRecordsHandshakeStart() {
+        val rawSocket = Socket()
+        val sslSocket = mock(SSLSocket::class.java)
+        whenever(mockDelegate.createSocket(rawSocket, "emarsys.com", 443, true)).thenReturn(sslSocket)
+
+        factory.createSocket(rawSocket, "emarsys.com", 443, true) shouldBe sslSocket
+
+        factory.takeHandshakeStart() shouldBe TIMESTAMP
+    }
+
+    @Test
+    fun testTakeHandshakeStart_clearsRecordedValue() {
+        whenever(mockDelegate.createSocket("emarsys.com", 443)).thenReturn(mock(SSLSocket::class.java))
+        factory.createSocket("emarsys.com", 443)
+
+        factory.takeHandshakeStart()
+
+        factory.takeHandshakeStart() shouldBe Transport.NO_HANDSHAKE
+    }
+
+    @Test
+    fun testTakeHandshakeStart_isThreadLocal() {
+        whenever(mockDelegate.createSocket("emarsys.com", 443)).thenReturn(mock(SSLSocket::class.java))
+
+        thread { factory.createSocket("emarsys.com", 443) }.join()
+
+        factory.takeHandshakeStart() shouldBe Transport.NO_HANDSHAKE
+    }
+
+    @Test
+    fun testCipherSuites_areDelegated() {
+        whenever(mockDelegate.defaultCipherSuites).thenReturn(arrayOf("default"))
+        whenever(mockDelegate.supportedCipherSuites).thenReturn(arrayOf("supported"))
+
+        factory.defaultCipherSuites shouldBe arrayOf("default")
+        factory.supportedCipherSuites shouldBe arrayOf("supported")
+    }
+}
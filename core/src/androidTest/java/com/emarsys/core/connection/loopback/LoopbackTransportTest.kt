@@ -0,0 +1,140 @@
+package com.emarsys.core.connection.loopback
+
+import com.emarsys.core.connection.Transport
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.io.FileNotFoundException
+import java.net.ProtocolException
+import java.net.URL
+
+class LoopbackTransportTest {
+
+    companion object {
+        const val URL = "http://localhost/v3/apps/appCode/client/events"
+    }
+
+    private lateinit var mockRequestModel: RequestModel
+    private var receivedRequest: LoopbackRequest? = null
+    private var response = LoopbackResponse(200, "{\"key\":\"value\"}")
+    private lateinit var transport: LoopbackTransport
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL(URL))
+        }
+        transport = LoopbackTransport(LoopbackHandler { request ->
+            receivedRequest = request
+            response
+        })
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_handler_mustNotBeNull() {
+        LoopbackTransport(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_latency_mustNotBeNegative() {
+        LoopbackTransport(LoopbackHandler { response }, -1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testProvideConnection_requestModel_mustNotBeNull() {
+        transport.provideConnection(null)
+    }
+
+    @Test
+    fun testProvideConnection_acceptsPlainHttp() {
+        transport.provideConnection(mockRequestModel).url shouldBe URL(URL)
+    }
+
+    @Test
+    fun testTakeHandshakeStart_neverHandshakes() {
+        transport.takeHandshakeStart() shouldBe Transport.NO_HANDSHAKE
+    }
+
+    @Test
+    fun testExchange_handsRequestToHandler() {
+        val connection = transport.provideConnection(mockRequestModel)
+        connection.requestMethod = "POST"
+        connection.setRequestProperty("Content-Type", "application/json")
+        connection.doOutput = true
+        connection.connect()
+        connection.outputStream.use { it.write("body".toByteArray()) }
+
+        connection.responseCode
+
+        receivedRequest!!.method shouldBe "POST"
+        receivedRequest!!.url shouldBe URL(URL)
+        receivedRequest!!.headers shouldBe mapOf("Content-Type" to "application/json")
+        String(receivedRequest!!.body) shouldBe "body"
+    }
+
+    @Test
+    fun testExchange_returnsHandlerResponse() {
+        response = LoopbackResponse(201, "Created", mapOf("Content-Encoding" to listOf("gzip")), "body".toByteArray())
+        val connection = transport.provideConnection(mockRequestModel)
+
+        connection.responseCode shouldBe 201
+        connection.responseMessage shouldBe "Created"
+        connection.headerFields shouldBe mapOf("Content-Encoding" to listOf("gzip"))
+        connection.contentEncoding shouldBe "gzip"
+        connection.inputStream.readBytes() shouldBe "body".toByteArray()
+        connection.errorStream shouldBe null
+    }
+
+    @Test
+    fun testExchange_happensOnlyOnce() {
+        val connection = transport.provideConnection(mockRequestModel)
+
+        connection.responseCode
+        connection.responseMessage
+        connection.inputStream
+
+        transport.exchangeCount shouldBe 1
+    }
+
+    @Test
+    fun testExchange_errorResponse_isReadFromErrorStream() {
+        response = LoopbackResponse(404, "missing")
+        val connection = transport.provideConnection(mockRequestModel)
+
+        connection.responseCode shouldBe 404
+        connection.errorStream.readBytes() shouldBe "missing".toByteArray()
+    }
+
+    @Test(expected = FileNotFoundException::class)
+    fun testExchange_errorResponse_inputStreamThrows() {
+        response = LoopbackResponse(404, "missing")
+
+        transport.provideConnection(mockRequestModel).inputStream
+    }
+
+    @Test(expected = ProtocolException::class)
+    fun testGetOutputStream_withoutDoOutput_throws() {
+        transport.provideConnection(mockRequestModel).outputStream
+    }
+
+    @Test
+    fun testExchange_waitsForLatency() {
+        transport = LoopbackTransport(LoopbackHandler { response }, 50)
+        val connection = transport.provideConnection(mockRequestModel)
+        val start = System.currentTimeMillis()
+
+        connection.responseCode
+
+        (System.currentTimeMillis() - start >= 50) shouldBe true
+    }
+}
@@ -173,6 +173,38 @@ class DelegatingCoreSQLiteDatabase_registerTrigger_parameterizedTest {
                             },
                             Runnable {
                                 db.delete(TABLE_NAME, null, null)
+                            }),
+                    arrayOf(
+                            TABLE_NAME,
+                            TriggerType.BEFORE,
+                            TriggerEvent.UPDATE,
+                            Runnable {
+                                db.insert(TABLE_NAME, null, contentValues)
+                            },
+                            Runnable {
+                                db.backingDatabase.rawQuery("SELECT * FROM $TABLE_NAME WHERE $COLUMN_2 = 1234", emptyArray()).let {
+                                    assertEquals(1, it.count)
+                                }
+                                mockRunnable.run()
+                            },
+                            Runnable {
+                                db.update(TABLE_NAME, ContentValues().apply { put(COLUMN_2, 5678) }, null, null)
+                            }),
+                    arrayOf(
+                            TABLE_NAME,
+                            TriggerType.AFTER,
+                            TriggerEvent.UPDATE,
+                            Runnable {
+                                db.insert(TABLE_NAME, null, contentValues)
+                            },
+                            Runnable {
+                                db.backingDatabase.rawQuery("SELECT * FROM $TABLE_NAME WHERE $COLUMN_2 = 5678", emptyArray()).let {
+                                    assertEquals(1, it.count)
+                                }
+                                mockRunnable.run()
+                            },
+                            Runnable {
+                                db.update(TABLE_NAME, ContentValues().apply { put(COLUMN_2, 5678) }, null, null)
                             })
             )
         }
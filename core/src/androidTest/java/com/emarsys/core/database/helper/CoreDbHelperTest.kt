@@ -1,7 +1,10 @@
 package com.emarsys.core.database.helper;
 
+import android.content.ContentValues
 import android.database.Cursor
 import android.database.sqlite.SQLiteDatabase
+import com.emarsys.core.util.serialization.BlobCodec
+import com.emarsys.core.util.serialization.SerializationUtils
 import com.emarsys.testUtil.DatabaseTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
 import com.emarsys.testUtil.TimeoutUtils
@@ -16,7 +19,7 @@ import org.junit.rules.TestRule
 class CoreDbHelperTest {
 
     companion object {
-        const val LATEST_DB_VERSION = 4
+        const val LATEST_DB_VERSION = 9
     }
 
     @Rule
@@ -169,6 +172,140 @@ class CoreDbHelperTest {
         actualButtonClickedColumns shouldBe expectedButtonClickedColumns
     }
 
+    @Test
+    fun testOnUpgrade_from_4_to_5() {
+        initializeDatabaseWithVersion(4)
+
+        dbHelper.onUpgrade(db, 4, 5)
+
+        val expectedRequestColumns = setOf(
+                ColumnInfo("request_id", "TEXT"),
+                ColumnInfo("method", "TEXT"),
+                ColumnInfo("url", "TEXT"),
+                ColumnInfo("headers", "BLOB"),
+                ColumnInfo("payload", "BLOB"),
+                ColumnInfo("timestamp", "INTEGER"),
+                ColumnInfo("ttl", "INTEGER", defaultValue = Long.MAX_VALUE.toString()),
+                ColumnInfo("attempt", "INTEGER", defaultValue = "0")
+        )
+
+        val actualRequestColumns = getTableColumns(db, "request")
+
+        actualRequestColumns shouldBe expectedRequestColumns
+    }
+
+    @Test
+    fun testOnUpgrade_from_5_to_6() {
+        initializeDatabaseWithVersion(5)
+
+        dbHelper.onUpgrade(db, 5, 6)
+
+        val expectedRequestColumns = setOf(
+                ColumnInfo("request_id", "TEXT"),
+                ColumnInfo("method", "TEXT"),
+                ColumnInfo("url", "TEXT"),
+                ColumnInfo("headers", "BLOB"),
+                ColumnInfo("payload", "BLOB"),
+                ColumnInfo("timestamp", "INTEGER"),
+                ColumnInfo("ttl", "INTEGER", defaultValue = Long.MAX_VALUE.toString()),
+                ColumnInfo("attempt", "INTEGER", defaultValue = "0"),
+                ColumnInfo("priority", "INTEGER", defaultValue = "50")
+        )
+
+        val actualRequestColumns = getTableColumns(db, "request")
+
+        actualRequestColumns shouldBe expectedRequestColumns
+    }
+
+    @Test
+    fun testOnUpgrade_from_6_to_7() {
+        initializeDatabaseWithVersion(6)
+
+        dbHelper.onUpgrade(db, 6, 7)
+
+        val expectedRequestColumns = setOf(
+                ColumnInfo("request_id", "TEXT"),
+                ColumnInfo("method", "TEXT"),
+                ColumnInfo("url", "TEXT"),
+                ColumnInfo("headers", "BLOB"),
+                ColumnInfo("payload", "BLOB"),
+                ColumnInfo("timestamp", "INTEGER"),
+                ColumnInfo("ttl", "INTEGER", defaultValue = Long.MAX_VALUE.toString()),
+                ColumnInfo("attempt", "INTEGER", defaultValue = "0"),
+                ColumnInfo("priority", "INTEGER", defaultValue = "50"),
+                ColumnInfo("supersession_key", "TEXT")
+        )
+
+        val actualRequestColumns = getTableColumns(db, "request")
+
+        actualRequestColumns shouldBe expectedRequestColumns
+    }
+
+    @Test
+    fun testOnUpgrade_from_7_to_8_reEncodesLegacyBlobs() {
+        initializeDatabaseWithVersion(7)
+
+        val headers = hashMapOf("header1" to "value1")
+        val payload = hashMapOf<String, Any>("key1" to "value1", "key2" to 2L)
+        val shardData = hashMapOf<String, Any>("log" to "message", "level" to 3)
+
+        db.insert("request", null, ContentValues().apply {
+            put("request_id", "request_id")
+            put("method", "POST")
+            put("url", "https://emarsys.com")
+            put("headers", SerializationUtils.serializableToBlob(headers))
+            put("payload", SerializationUtils.serializableToBlob(payload))
+            put("timestamp", 1L)
+        })
+        db.insert("shard", null, ContentValues().apply {
+            put("shard_id", "shard_id")
+            put("type", "log")
+            put("data", SerializationUtils.serializableToBlob(shardData))
+            put("timestamp", 1L)
+            put("ttl", 1L)
+        })
+
+        dbHelper.onUpgrade(db, 7, 8)
+
+        db.rawQuery("SELECT headers, payload FROM request", null).use {
+            it.moveToFirst()
+            it.getBlob(0)[0].toInt() shouldBe BlobCodec.VERSION
+            it.getBlob(1)[0].toInt() shouldBe BlobCodec.VERSION
+            BlobCodec.decode(it.getBlob(0)) shouldBe headers
+            BlobCodec.decode(it.getBlob(1)) shouldBe payload
+        }
+        db.rawQuery("SELECT data FROM shard", null).use {
+            it.moveToFirst()
+            it.getBlob(0)[0].toInt() shouldBe BlobCodec.VERSION
+            BlobCodec.decode(it.getBlob(0)) shouldBe shardData
+        }
+    }
+
+    @Test
+    fun testOnUpgrade_from_8_to_9() {
+        initializeDatabaseWithVersion(8)
+
+        dbHelper.onUpgrade(db, 8, 9)
+
+        val expectedRequestColumns = setOf(
+                ColumnInfo("request_id", "TEXT"),
+                ColumnInfo("method", "TEXT"),
+                ColumnInfo("url", "TEXT"),
+                ColumnInfo("headers", "BLOB"),
+                ColumnInfo("payload", "BLOB"),
+                ColumnInfo("timestamp", "INTEGER"),
+                ColumnInfo("ttl", "INTEGER", defaultValue = Long.MAX_VALUE.toString()),
+                ColumnInfo("attempt", "INTEGER", defaultValue = "0"),
+                ColumnInfo("priority", "INTEGER", defaultValue = "50"),
+                ColumnInfo("supersession_key", "TEXT"),
+                ColumnInfo("body", "BLOB")
+        )
+
+        val actualRequestColumns = getTableColumns(db, "request")
+
+        actualRequestColumns shouldBe expectedRequestColumns
+    }
+
     @Test
     fun testOnCreate_indices_withLatestVersion() {
         initializeDatabaseWithVersion(LATEST_DB_VERSION)
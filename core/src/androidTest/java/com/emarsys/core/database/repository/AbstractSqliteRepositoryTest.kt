@@ -9,7 +9,9 @@ import com.emarsys.core.database.helper.CoreDbHelper
 import com.emarsys.core.database.helper.DbHelper
 import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.database.repository.specification.Everything
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
 import com.emarsys.core.util.serialization.SerializationUtils.serializableToBlob
 import com.emarsys.testUtil.DatabaseTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
@@ -22,7 +24,10 @@ import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito
+import org.mockito.Mockito.inOrder
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
 import org.mockito.Mockito.verify
 import java.util.*
 
@@ -113,6 +118,50 @@ class AbstractSqliteRepositoryTest {
         verify(dbMock).endTransaction()
     }
 
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddAll_shouldNotAcceptNull() {
+        repository.addAll(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddAll_shouldNotAcceptNullElements() {
+        repository.addAll(listOf(Any(), null))
+    }
+
+    @Test
+    fun testAddAll_shouldInsertEveryItem_inSingleTransaction() {
+        val contentValues1 = ContentValues().apply {
+            put("key", "value1")
+        }
+        val contentValues2 = ContentValues().apply {
+            put("key", "value2")
+        }
+        val input1 = Any()
+        val input2 = Any()
+        whenever(repository.contentValuesFromItem(input1)).thenReturn(contentValues1)
+        whenever(repository.contentValuesFromItem(input2)).thenReturn(contentValues2)
+
+        repository.addAll(listOf(input1, input2))
+
+        val inOrder = inOrder(dbMock)
+        inOrder.verify(dbMock).beginTransaction()
+        inOrder.verify(dbMock).insert(TABLE_NAME, null, contentValues1)
+        inOrder.verify(dbMock).insert(TABLE_NAME, null, contentValues2)
+        inOrder.verify(dbMock).setTransactionSuccessful()
+        inOrder.verify(dbMock).endTransaction()
+        verify(dbMock, times(1)).beginTransaction()
+    }
+
+    @Test
+    fun testAddAll_shouldPersistItems_withRealDatabase() {
+        val requestModelRepository = RequestModelRepository(CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf()))
+        val requestModels = listOf(requestModel("https://emarsys.com/1"), requestModel("https://emarsys.com/2"))
+
+        requestModelRepository.addAll(requestModels)
+
+        requestModelRepository.query(Everything()) shouldBe requestModels
+    }
+
     @Test(expected = IllegalArgumentException::class)
     fun testQuery_shouldNotAcceptNull() {
         repository.query(null)
@@ -195,6 +244,117 @@ class AbstractSqliteRepositoryTest {
         verify(dbMock).endTransaction()
     }
 
+    @Test(expected = IllegalArgumentException::class)
+    fun testRemoveAll_shouldNotAcceptNull() {
+        repository.removeAll(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testRemoveAll_shouldNotAcceptNullElements() {
+        repository.removeAll(listOf(dummySpecification, null))
+    }
+
+    @Test
+    fun testRemoveAll_shouldDeleteEverySpecification_inSingleTransaction() {
+        val specification2 = sqlSpecification(DISTINCT, COLUMNS, "other selection", arrayOf("arg2"), GROUP_BY, HAVING, ORDER_BY, LIMIT)
+
+        repository.removeAll(listOf(dummySpecification, specification2))
+
+        val inOrder = inOrder(dbMock)
+        inOrder.verify(dbMock).beginTransaction()
+        inOrder.verify(dbMock).delete(TABLE_NAME, dummySpecification.selection, dummySpecification.selectionArgs)
+        inOrder.verify(dbMock).delete(TABLE_NAME, specification2.selection, specification2.selectionArgs)
+        inOrder.verify(dbMock).setTransactionSuccessful()
+        inOrder.verify(dbMock).endTransaction()
+        verify(dbMock, times(1)).beginTransaction()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testInTransaction_shouldNotAcceptNull() {
+        repository.inTransaction(null)
+    }
+
+    @Test
+    fun testInTransaction_shouldRunUnitOfWork_betweenBeginAndCommit() {
+        val unitOfWork = mock(Runnable::class.java)
+
+        repository.inTransaction(unitOfWork)
+
+        val inOrder = inOrder(dbMock, unitOfWork)
+        inOrder.verify(dbMock).beginTransaction()
+        inOrder.verify(unitOfWork).run()
+        inOrder.verify(dbMock).setTransactionSuccessful()
+        inOrder.verify(dbMock).endTransaction()
+    }
+
+    @Test
+    fun testInTransaction_shouldEndTransaction_withoutCommit_whenUnitOfWorkFails() {
+        var exception: Exception? = null
+
+        try {
+            repository.inTransaction(Runnable { throw IllegalStateException() })
+        } catch (e: IllegalStateException) {
+            exception = e
+        }
+
+        (exception != null) shouldBe true
+        verify(dbMock).beginTransaction()
+        verify(dbMock, never()).setTransactionSuccessful()
+        verify(dbMock).endTransaction()
+    }
+
+    @Test
+    fun testInTransaction_shouldCommitWritesOfRepositories_sharingTheDatabase_together() {
+        val dbHelper = CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf())
+        val requestModelRepository = RequestModelRepository(dbHelper)
+        val otherRequestModelRepository = RequestModelRepository(dbHelper)
+
+        try {
+            requestModelRepository.inTransaction(Runnable {
+                requestModelRepository.add(requestModel("https://emarsys.com/1"))
+                otherRequestModelRepository.add(requestModel("https://emarsys.com/2"))
+                throw IllegalStateException()
+            })
+        } catch (ignored: IllegalStateException) {
+        }
+
+        requestModelRepository.isEmpty() shouldBe true
+
+        val requestModels = listOf(requestModel("https://emarsys.com/1"), requestModel("https://emarsys.com/2"))
+        requestModelRepository.inTransaction(Runnable {
+            requestModelRepository.add(requestModels[0])
+            otherRequestModelRepository.add(requestModels[1])
+        })
+
+        requestModelRepository.query(Everything()) shouldBe requestModels
+    }
+
+    @Test
+    fun testDelete_shouldReturnNumberOfDeletedRows() {
+        whenever(dbMock.delete(TABLE_NAME, dummySpecification.selection, dummySpecification.selectionArgs)).thenReturn(3)
+
+        repository.delete(dummySpecification) shouldBe 3
+    }
+
+    @Test
+    fun testCount_shouldReturnNumberOfRows() {
+        val helper = CoreDbHelper(
+                InstrumentationRegistry.getTargetContext(),
+                HashMap())
+
+        repository.dbHelper = helper
+        repository.tableName = DatabaseContract.REQUEST_TABLE_NAME
+        val db = helper.writableCoreDatabase
+
+        listOf("https://google.com", "https://emarsys.com")
+                .map(this::requestModel)
+                .forEach {
+                    db.insert(DatabaseContract.REQUEST_TABLE_NAME, null, contentValuesFrom(it))
+                }
+
+        repository.count() shouldBe 2
+    }
+
     @Test
     fun testIsEmpty_shouldReturnFalse_whenThereAreRows() {
         val helper = CoreDbHelper(
@@ -229,6 +389,37 @@ class AbstractSqliteRepositoryTest {
         repository.isEmpty shouldBe true
     }
 
+    @Test
+    fun testSizeInBytes_shouldReturnZero_whenTableIsEmpty() {
+        val helper = CoreDbHelper(
+                InstrumentationRegistry.getTargetContext(),
+                HashMap())
+
+        repository.dbHelper = helper
+        repository.tableName = DatabaseContract.REQUEST_TABLE_NAME
+
+        repository.sizeInBytes() shouldBe 0L
+    }
+
+    @Test
+    fun testSizeInBytes_shouldGrowWithStoredRows() {
+        val helper = CoreDbHelper(
+                InstrumentationRegistry.getTargetContext(),
+                HashMap())
+
+        repository.dbHelper = helper
+        repository.tableName = DatabaseContract.REQUEST_TABLE_NAME
+        val db = helper.writableCoreDatabase
+
+        db.insert(DatabaseContract.REQUEST_TABLE_NAME, null, contentValuesFrom(requestModel("https://emarsys.com")))
+        val sizeOfOneRow = repository.sizeInBytes()
+
+        db.insert(DatabaseContract.REQUEST_TABLE_NAME, null, contentValuesFrom(requestModel("https://emarsys.com")))
+
+        (sizeOfOneRow > serializableToBlob(requestModel("https://emarsys.com").headers).size) shouldBe true
+        repository.sizeInBytes() shouldBe 2 * sizeOfOneRow
+    }
+
     private fun contentValuesFrom(item: RequestModel): ContentValues {
         val contentValues = ContentValues()
         contentValues.put(REQUEST_COLUMN_NAME_REQUEST_ID, item.id)
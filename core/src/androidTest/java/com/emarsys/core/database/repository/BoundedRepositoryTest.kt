@@ -0,0 +1,228 @@
+package com.emarsys.core.database.repository
+
+import com.emarsys.core.database.DatabaseContract
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.eviction.EvictionListener
+import com.emarsys.core.database.repository.eviction.EvictionPolicy
+import com.emarsys.core.database.repository.eviction.LowestPriorityFirst
+import com.emarsys.core.database.repository.eviction.OldestFirst
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.provider.Gettable
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.core.request.model.specification.FilterByRequestId
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.*
+
+class BoundedRepositoryTest {
+
+    companion object {
+        const val MAX_ROWS = 10
+        const val MAX_BYTES = Long.MAX_VALUE
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var requestModelRepository: RequestModelRepository
+    private lateinit var protectedIds: Array<String>
+    private lateinit var protectedIdsGettable: Gettable<Array<String>>
+    private lateinit var mockEvictionListener: EvictionListener<RequestModel>
+    private lateinit var repository: BoundedRepository<RequestModel>
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun init() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        requestModelRepository = RequestModelRepository(CoreDbHelper(context, mapOf()))
+        protectedIds = arrayOf()
+        protectedIdsGettable = object : Gettable<Array<String>> {
+            override fun get() = protectedIds
+        }
+        mockEvictionListener = mock(EvictionListener::class.java) as EvictionListener<RequestModel>
+
+        repository = createRepository(OldestFirst(), MAX_ROWS, MAX_BYTES)
+        repository.addEvictionListeners(listOf(mockEvictionListener))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_repository_mustNotBeNull() {
+        BoundedRepository<RequestModel>(null, DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, OldestFirst(), MAX_ROWS, MAX_BYTES, protectedIdsGettable)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_idColumnName_mustNotBeNull() {
+        BoundedRepository(requestModelRepository, null, OldestFirst(), MAX_ROWS, MAX_BYTES, protectedIdsGettable)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_evictionPolicy_mustNotBeNull() {
+        BoundedRepository(requestModelRepository, DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, null, MAX_ROWS, MAX_BYTES, protectedIdsGettable)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxRows_mustBeGreaterThanZero() {
+        createRepository(OldestFirst(), 0, MAX_BYTES)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxBytes_mustBeGreaterThanZero() {
+        createRepository(OldestFirst(), MAX_ROWS, 0)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_protectedIds_mustNotBeNull() {
+        BoundedRepository(requestModelRepository, DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, OldestFirst(), MAX_ROWS, MAX_BYTES, null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddEvictionListeners_listeners_mustNotBeNull() {
+        repository.addEvictionListeners(null)
+    }
+
+    @Test
+    fun testAdd_doesNotEvict_belowCaps() {
+        (1..MAX_ROWS).forEach { repository.add(requestModel("id$it")) }
+
+        repository.count() shouldBe MAX_ROWS
+        repository.droppedCount shouldBe 0
+        verifyZeroInteractions(mockEvictionListener)
+    }
+
+    @Test
+    fun testAdd_evictsOldestFirst_downToHeadroom_whenRowCapIsExceeded() {
+        (1..MAX_ROWS).forEach { repository.add(requestModel("id$it")) }
+
+        repository.add(requestModel("id${MAX_ROWS + 1}"))
+
+        repository.count() shouldBe MAX_ROWS - 1
+        repository.droppedCount shouldBe 2
+        repository.query(Everything()).map { it.id } shouldBe (3..MAX_ROWS + 1).map { "id$it" }
+        verify(mockEvictionListener).onEvicted(listOf(requestModel("id1"), requestModel("id2")))
+    }
+
+    @Test
+    fun testAdd_notifiesEvictionListeners_afterTheTransactionIsCommitted() {
+        var inTransaction: Boolean? = null
+        repository.addEvictionListeners(listOf(object : EvictionListener<RequestModel> {
+            override fun onEvicted(evictedItems: List<RequestModel>) {
+                inTransaction = requestModelRepository.dbHelper.writableCoreDatabase.backingDatabase.inTransaction()
+            }
+        }))
+        (1..MAX_ROWS).forEach { repository.add(requestModel("id$it")) }
+
+        repository.add(requestModel("id${MAX_ROWS + 1}"))
+
+        inTransaction shouldBe false
+    }
+
+    @Test
+    fun testAddAll_evictsLowestPriorityFirst() {
+        repository = createRepository(LowestPriorityFirst(), MAX_ROWS, MAX_BYTES)
+        repository.addEvictionListeners(listOf(mockEvictionListener))
+
+        val models = (1..MAX_ROWS).map { requestModel("id$it") } +
+                requestModel("low1", RequestPriority.LOW) +
+                requestModel("high1", RequestPriority.HIGH)
+        repository.addAll(models)
+
+        repository.count() shouldBe MAX_ROWS - 1
+        verify(mockEvictionListener).onEvicted(listOf(requestModel("low1", RequestPriority.LOW), requestModel("id1"), requestModel("id2")))
+    }
+
+    @Test
+    fun testAdd_doesNotEvictProtectedItems() {
+        protectedIds = arrayOf("id1")
+        (1..MAX_ROWS + 1).forEach { repository.add(requestModel("id$it")) }
+
+        repository.query(Everything()).map { it.id } shouldBe listOf("id1") + (4..MAX_ROWS + 1).map { "id$it" }
+    }
+
+    @Test
+    fun testAdd_stopsEvicting_whenOnlyProtectedItemsAreLeft() {
+        repository = createRepository(OldestFirst(), 1, MAX_BYTES)
+        protectedIds = arrayOf("id1", "id2")
+
+        repository.add(requestModel("id1"))
+        repository.add(requestModel("id2"))
+
+        repository.count() shouldBe 2
+        repository.droppedCount shouldBe 0
+    }
+
+    @Test
+    fun testAdd_evicts_whenByteCapIsExceeded() {
+        repository.add(requestModel("id1"))
+        val rowSize = requestModelRepository.sizeInBytes()
+        repository.remove(Everything())
+
+        repository = createRepository(OldestFirst(), MAX_ROWS, rowSize * 3)
+        (1..4).forEach { repository.add(requestModel("id$it")) }
+
+        (requestModelRepository.sizeInBytes() <= rowSize * 3) shouldBe true
+        repository.query(Everything()).map { it.id } shouldBe listOf("id3", "id4")
+        repository.droppedCount shouldBe 2
+    }
+
+    @Test
+    fun testAdd_measuresTheTableOnlyOnce_belowCaps() {
+        val spyRepository = spy(requestModelRepository)
+        repository = BoundedRepository(spyRepository, DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, OldestFirst(), MAX_ROWS, MAX_BYTES, protectedIdsGettable)
+
+        (1..MAX_ROWS).forEach { repository.add(requestModel("id$it")) }
+        repository.remove(FilterByRequestId(requestModel("id1")))
+        repository.add(requestModel("id${MAX_ROWS + 1}"))
+
+        verify(spyRepository, times(1)).count()
+        verify(spyRepository, times(1)).sizeInBytes()
+    }
+
+    @Test
+    fun testAdd_tracksRemovals() {
+        (1..MAX_ROWS).forEach { repository.add(requestModel("id$it")) }
+        repository.removeAll((1..5).map { FilterByRequestId(requestModel("id$it")) })
+
+        (1..5).forEach { repository.add(requestModel("new$it")) }
+
+        repository.count() shouldBe MAX_ROWS
+        repository.droppedCount shouldBe 0
+    }
+
+    @Test
+    fun testAdd_remeasuresBeforeEvicting_whenRowsWereRemovedElsewhere() {
+        (1..MAX_ROWS).forEach { repository.add(requestModel("id$it")) }
+        requestModelRepository.remove(FilterByRequestId(requestModel("id1")))
+
+        repository.add(requestModel("id${MAX_ROWS + 1}"))
+
+        repository.count() shouldBe MAX_ROWS
+        repository.droppedCount shouldBe 0
+    }
+
+    @Test
+    fun testDroppedCount_accumulates() {
+        repository = createRepository(OldestFirst(), 2, MAX_BYTES)
+
+        (1..5).forEach { repository.add(requestModel("id$it")) }
+
+        repository.droppedCount shouldBe 4
+    }
+
+    private fun createRepository(evictionPolicy: EvictionPolicy, maxRows: Int, maxBytes: Long) =
+            BoundedRepository(requestModelRepository, DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, evictionPolicy, maxRows, maxBytes, protectedIdsGettable)
+
+    private fun requestModel(id: String, priority: Int = RequestPriority.NORMAL) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, mapOf(), mapOf(), 1000, Long.MAX_VALUE, id, 0, priority)
+}
@@ -0,0 +1,181 @@
+package com.emarsys.core.database.repository
+
+import android.os.Handler
+import android.os.HandlerThread
+import android.os.Message
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.anyList
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+import java.util.concurrent.CountDownLatch
+
+class WriteBehindBufferTest {
+
+    companion object {
+        const val MAX_BATCH_SIZE = 3
+        const val MAX_DELAY = 20L
+    }
+
+    private lateinit var handlerThread: HandlerThread
+    private lateinit var looperBlocker: CountDownLatch
+    private lateinit var mockHandler: Handler
+    private lateinit var mockRepository: Repository<String, SqlSpecification>
+    private lateinit var mockCommitAction: Runnable
+    private lateinit var buffer: WriteBehindBuffer<String>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        handlerThread = HandlerThread("WriteBehindBufferTest").apply { start() }
+        looperBlocker = CountDownLatch(1)
+        Handler(handlerThread.looper).post { looperBlocker.await() }
+        mockHandler = spy(Handler(handlerThread.looper))
+        mockRepository = mock(Repository::class.java) as Repository<String, SqlSpecification>
+        mockCommitAction = mock(Runnable::class.java)
+
+        buffer = WriteBehindBuffer(mockHandler, mockRepository, MAX_BATCH_SIZE, MAX_DELAY, mockCommitAction)
+    }
+
+    @After
+    fun tearDown() {
+        mockHandler.removeCallbacksAndMessages(null)
+        looperBlocker.countDown()
+        handlerThread.quit()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_handler_mustNotBeNull() {
+        WriteBehindBuffer(null, mockRepository, MAX_BATCH_SIZE, MAX_DELAY, mockCommitAction)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_repository_mustNotBeNull() {
+        WriteBehindBuffer<String>(mockHandler, null, MAX_BATCH_SIZE, MAX_DELAY, mockCommitAction)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_commitAction_mustNotBeNull() {
+        WriteBehindBuffer(mockHandler, mockRepository, MAX_BATCH_SIZE, MAX_DELAY, null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxBatchSize_mustBeGreaterThanZero() {
+        WriteBehindBuffer(mockHandler, mockRepository, 0, MAX_DELAY, mockCommitAction)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxDelay_mustNotBeNegative() {
+        WriteBehindBuffer(mockHandler, mockRepository, MAX_BATCH_SIZE, -1, mockCommitAction)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAdd_item_mustNotBeNull() {
+        buffer.add(null)
+    }
+
+    @Test
+    fun testAdd_shouldNotCommit_beforeBatchIsFull() {
+        buffer.add("item1")
+        buffer.add("item2")
+
+        buffer.pendingCount shouldBe 2
+        verifyZeroInteractions(mockRepository)
+        verifyZeroInteractions(mockCommitAction)
+    }
+
+    @Test
+    fun testAdd_shouldScheduleFlushOnlyOnce_perBatch() {
+        buffer.add("item1")
+        buffer.add("item2")
+
+        verify(mockHandler, times(1)).sendMessageAtTime(any(Message::class.java), anyLong())
+    }
+
+    @Test
+    fun testAdd_shouldCommitInOneBatch_whenBatchIsFull() {
+        buffer.add("item1")
+        buffer.add("item2")
+        buffer.add("item3")
+
+        val inOrder = inOrder(mockRepository, mockCommitAction)
+        inOrder.verify(mockRepository).addAll(listOf("item1", "item2", "item3"))
+        inOrder.verify(mockCommitAction).run()
+        buffer.pendingCount shouldBe 0
+    }
+
+    @Test
+    fun testAdd_shouldCommit_whenScheduledFlushRuns() {
+        buffer.add("item1")
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockHandler).sendMessageAtTime(captor.capture(), anyLong())
+        captor.value.callback.run()
+
+        verify(mockRepository).addAll(listOf("item1"))
+        verify(mockCommitAction).run()
+    }
+
+    @Test
+    fun testFlush_shouldCommitPendingItems() {
+        buffer.add("item1")
+        buffer.add("item2")
+
+        buffer.flush()
+
+        verify(mockRepository).addAll(listOf("item1", "item2"))
+        verify(mockCommitAction).run()
+        buffer.pendingCount shouldBe 0
+    }
+
+    @Test
+    fun testFlush_shouldDoNothing_whenEmpty() {
+        buffer.flush()
+
+        verify(mockRepository, never()).addAll(anyList())
+        verifyZeroInteractions(mockCommitAction)
+    }
+
+    @Test
+    fun testAdd_shouldScheduleNewFlush_afterCommit() {
+        buffer.add("item1")
+        buffer.flush()
+        buffer.add("item2")
+
+        verify(mockHandler, times(2)).sendMessageAtTime(any(Message::class.java), anyLong())
+    }
+
+    @Test
+    fun testAdd_shouldCancelScheduledFlush_whenBatchIsFull() {
+        buffer.add("item1")
+        mockHandler.hasMessages(0) shouldBe true
+
+        buffer.add("item2")
+        buffer.add("item3")
+
+        mockHandler.hasMessages(0) shouldBe false
+    }
+
+    @Test
+    fun testAdd_shouldNotKeepStaleFlush_afterSizeTriggeredCommit() {
+        (1..MAX_BATCH_SIZE).forEach { buffer.add("item$it") }
+        buffer.add("item4")
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockHandler, times(2)).sendMessageAtTime(captor.capture(), anyLong())
+        captor.allValues[1].callback.run()
+
+        mockHandler.hasMessages(0) shouldBe false
+        verify(mockRepository).addAll(listOf("item4"))
+    }
+}
@@ -0,0 +1,59 @@
+package com.emarsys.core.database.repository.specification
+
+import com.emarsys.core.database.repository.eviction.LowestPriorityFirst
+import com.emarsys.core.database.repository.eviction.OldestFirst
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class QueryEvictionCandidatesTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_tableName_mustNotBeNull() {
+        QueryEvictionCandidates(null, "request_id", OldestFirst(), arrayOf(), 1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_idColumnName_mustNotBeNull() {
+        QueryEvictionCandidates("request", null, OldestFirst(), arrayOf(), 1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_evictionPolicy_mustNotBeNull() {
+        QueryEvictionCandidates("request", "request_id", null, arrayOf(), 1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_protectedIds_mustNotBeNull() {
+        QueryEvictionCandidates("request", "request_id", OldestFirst(), null, 1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_limit_mustBeGreaterThanZero() {
+        QueryEvictionCandidates("request", "request_id", OldestFirst(), arrayOf(), 0)
+    }
+
+    @Test
+    fun testSpecification() {
+        with(QueryEvictionCandidates("shard", "shard_id", OldestFirst(), arrayOf(), 5)) {
+            selection shouldBe "ROWID IN (SELECT ROWID FROM shard ORDER BY ROWID ASC LIMIT 5)"
+            selectionArgs shouldBe null
+            orderBy shouldBe "ROWID ASC"
+        }
+    }
+
+    @Test
+    fun testSpecification_withProtectedIds() {
+        with(QueryEvictionCandidates("request", "request_id", LowestPriorityFirst(), arrayOf("id1", "id2"), 3)) {
+            selection shouldBe "ROWID IN (SELECT ROWID FROM request WHERE request_id NOT IN (?, ?) ORDER BY priority ASC, ROWID ASC LIMIT 3)"
+            selectionArgs shouldBe arrayOf("id1", "id2")
+            orderBy shouldBe "priority ASC, ROWID ASC"
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.request.model.RequestPriority
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel
 import com.emarsys.testUtil.DatabaseTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
@@ -38,7 +39,7 @@ class QueryLatestRequestModelTest {
             selectionArgs shouldBe null
             groupBy shouldBe null
             having shouldBe null
-            orderBy shouldBe "ROWID ASC"
+            orderBy shouldBe "priority DESC, ROWID ASC"
             limit shouldBe "1"
         }
     }
@@ -66,4 +67,23 @@ class QueryLatestRequestModelTest {
         resultList.size shouldBe 1
         resultList[0] shouldBe expectedRequestModel
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testQueryUsingQueryNewestRequestModel_prefersHigherPriority() {
+        val timestampProvider = TimestampProvider()
+        val uuidProvider = UUIDProvider()
+
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        val repository = RequestModelRepository(CoreDbHelper(context, mapOf()))
+
+        val requestModel1 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/1").priority(RequestPriority.LOW).build()
+        val requestModel2 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/2").build()
+        val expectedRequestModel = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/3").priority(RequestPriority.HIGH).build()
+
+        repository.add(requestModel1)
+        repository.add(requestModel2)
+        repository.add(expectedRequestModel)
+
+        repository.query(QueryLatestRequestModel()) shouldBe listOf(expectedRequestModel)
+    }
+}
@@ -0,0 +1,106 @@
+package com.emarsys.core.database.repository.specification
+
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.core.request.model.specification.QueryNextRequestModels
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class QueryNextRequestModelsTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var repository: RequestModelRepository
+
+    @Before
+    fun init() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        repository = RequestModelRepository(CoreDbHelper(context, mapOf()))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_excludedRequestIds_mustNotBeNull() {
+        QueryNextRequestModels(null, 1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_limit_mustBeGreaterThanZero() {
+        QueryNextRequestModels(arrayOf(), 0)
+    }
+
+    @Test
+    fun testSpecification_withoutExcludedIds() {
+        with(QueryNextRequestModels(arrayOf(), 3)) {
+            isDistinct shouldBe false
+            columns shouldBe null
+            selection shouldBe null
+            selectionArgs shouldBe null
+            groupBy shouldBe null
+            having shouldBe null
+            orderBy shouldBe "priority DESC, ROWID ASC"
+            limit shouldBe "3"
+        }
+    }
+
+    @Test
+    fun testSpecification_withExcludedIds() {
+        with(QueryNextRequestModels(arrayOf("id1", "id2"), 3)) {
+            selection shouldBe "request_id NOT IN (?, ?)"
+            selectionArgs shouldBe arrayOf("id1", "id2")
+        }
+    }
+
+    @Test
+    fun testQuery_returnsOldestRequestModels_exceptExcludedOnes() {
+        val timestampProvider = TimestampProvider()
+        val uuidProvider = UUIDProvider()
+
+        val requestModel1 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/1").build()
+        val requestModel2 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/2").build()
+        val requestModel3 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/3").build()
+        val requestModel4 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/4").build()
+
+        repository.add(requestModel1)
+        repository.add(requestModel2)
+        repository.add(requestModel3)
+        repository.add(requestModel4)
+
+        val result = repository.query(QueryNextRequestModels(arrayOf(requestModel1.id), 2))
+
+        result shouldBe listOf(requestModel2, requestModel3)
+    }
+
+    @Test
+    fun testQuery_ordersByPriority_thenByInsertionOrder() {
+        val timestampProvider = TimestampProvider()
+        val uuidProvider = UUIDProvider()
+
+        val lowPriority = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/1").priority(RequestPriority.LOW).build()
+        val normalPriority1 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/2").build()
+        val highPriority = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/3").priority(RequestPriority.HIGH).build()
+        val normalPriority2 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/4").build()
+
+        repository.add(lowPriority)
+        repository.add(normalPriority1)
+        repository.add(highPriority)
+        repository.add(normalPriority2)
+
+        val result = repository.query(QueryNextRequestModels(arrayOf(), 4))
+
+        result shouldBe listOf(highPriority, normalPriority1, normalPriority2, lowPriority)
+    }
+}
@@ -38,17 +38,16 @@ public class FakeRequestTask extends RequestTask {
     }
 
     @Override
-    protected Void doInBackground(Void... params) {
+    protected void doInBackground() {
         try {
             Thread.sleep(20);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
-        return null;
     }
 
     @Override
-    protected void onPostExecute(Void result) {
+    protected void onPostExecute() {
         if (fakeResult instanceof Exception) {
             handler.onError(requestModel.getId(), (Exception) fakeResult);
 
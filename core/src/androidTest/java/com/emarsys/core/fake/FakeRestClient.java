@@ -1,6 +1,10 @@
 package com.emarsys.core.fake;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import com.emarsys.core.CoreCompletionHandler;
+import com.emarsys.core.concurrency.NetworkLane;
 import com.emarsys.core.connection.ConnectionProvider;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.request.RequestTask;
@@ -30,8 +34,20 @@ public class FakeRestClient extends RestClient {
     }
 
     @Override
-    public void execute(RequestModel model, CoreCompletionHandler completionHandler) {
-        create(model, completionHandler).execute();
+    public void execute(RequestModel model, CoreCompletionHandler completionHandler, NetworkLane lane) {
+        final RequestTask task = create(model, completionHandler);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                task.doInBackground();
+                new Handler(Looper.getMainLooper()).post(new Runnable() {
+                    @Override
+                    public void run() {
+                        task.onPostExecute();
+                    }
+                });
+            }
+        }).start();
     }
 
     private RequestTask create(RequestModel model, CoreCompletionHandler completionHandler) {
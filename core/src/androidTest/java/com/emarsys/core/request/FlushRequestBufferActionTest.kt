@@ -0,0 +1,30 @@
+package com.emarsys.core.request
+
+import android.app.Activity
+import com.emarsys.testUtil.TimeoutUtils
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.verify
+
+class FlushRequestBufferActionTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestManager_mustNotBeNull() {
+        FlushRequestBufferAction(null)
+    }
+
+    @Test
+    fun testExecute_shouldFlushRequestManager() {
+        val mockRequestManager = mock(RequestManager::class.java)
+
+        FlushRequestBufferAction(mockRequestManager).execute(mock(Activity::class.java))
+
+        verify(mockRequestManager).flush()
+    }
+}
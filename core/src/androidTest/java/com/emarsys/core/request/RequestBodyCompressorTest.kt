@@ -0,0 +1,119 @@
+package com.emarsys.core.request
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.util.JsonUtils
+import com.emarsys.core.util.predicate.Predicate
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.util.zip.GZIPInputStream
+
+class RequestBodyCompressorTest {
+
+    companion object {
+        const val THRESHOLD = 10
+    }
+
+    private lateinit var compressor: RequestBodyCompressor
+    private lateinit var mockRequestModel: RequestModel
+    private lateinit var mockPredicate: Predicate<RequestModel>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        mockRequestModel = mock(RequestModel::class.java)
+        mockPredicate = (mock(Predicate::class.java) as Predicate<RequestModel>).apply {
+            whenever(evaluate(mockRequestModel)).thenReturn(true)
+        }
+
+        compressor = RequestBodyCompressor(THRESHOLD)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_threshold_mustNotBeNegative() {
+        RequestBodyCompressor(-1)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddCompressionPredicates_predicates_mustNotBeNull() {
+        compressor.addCompressionPredicates(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddCompressionPredicates_predicateElements_mustNotBeNull() {
+        compressor.addCompressionPredicates(listOf(null))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testShouldCompress_model_mustNotBeNull() {
+        compressor.shouldCompress(null, THRESHOLD.toLong())
+    }
+
+    @Test
+    fun testShouldCompress_false_withoutPredicates() {
+        compressor.shouldCompress(mockRequestModel, THRESHOLD.toLong()) shouldBe false
+    }
+
+    @Test
+    fun testShouldCompress_true_whenPredicateMatches_andBodyReachesThreshold() {
+        compressor.addCompressionPredicates(listOf(mockPredicate))
+
+        compressor.shouldCompress(mockRequestModel, THRESHOLD.toLong()) shouldBe true
+    }
+
+    @Test
+    fun testShouldCompress_false_whenBodyIsBelowThreshold() {
+        compressor.addCompressionPredicates(listOf(mockPredicate))
+
+        compressor.shouldCompress(mockRequestModel, THRESHOLD - 1L) shouldBe false
+    }
+
+    @Test
+    fun testShouldCompress_false_whenNoPredicateMatches() {
+        whenever(mockPredicate.evaluate(mockRequestModel)).thenReturn(false)
+        compressor.addCompressionPredicates(listOf(mockPredicate))
+
+        compressor.shouldCompress(mockRequestModel, THRESHOLD.toLong()) shouldBe false
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testCompress_payload_mustNotBeNull() {
+        compressor.compress(null as Map<String, Any>?)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testCompress_body_mustNotBeNull() {
+        compressor.compress(null as ByteArray?)
+    }
+
+    @Test
+    fun testCompress_producesGzippedJson() {
+        val payload = mapOf<String, Any>("logs" to List(100) { mapOf("device_info" to "value") })
+        val json = JsonUtils.fromMap(payload).toString().toByteArray()
+
+        val result = compressor.compress(payload)
+
+        (result.size < json.size) shouldBe true
+        GZIPInputStream(result.inputStream()).readBytes() shouldBe json
+    }
+
+    @Test
+    fun testCompress_producesGzippedBody() {
+        val payload = mapOf<String, Any>("logs" to List(100) { mapOf("device_info" to "value") })
+        val body = JsonUtils.fromMap(payload).toString().toByteArray()
+
+        val result = compressor.compress(body)
+
+        (result.size < body.size) shouldBe true
+        GZIPInputStream(result.inputStream()).readBytes() shouldBe body
+    }
+}
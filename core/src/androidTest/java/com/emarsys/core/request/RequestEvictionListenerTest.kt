@@ -0,0 +1,67 @@
+package com.emarsys.core.request
+
+import android.os.Handler
+import android.os.Message
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+
+class RequestEvictionListenerTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockUiHandler: Handler
+    private lateinit var mockCoreCompletionHandler: CoreCompletionHandler
+    private lateinit var listener: RequestEvictionListener
+
+    @Before
+    fun setUp() {
+        mockUiHandler = mock(Handler::class.java)
+        mockCoreCompletionHandler = mock(CoreCompletionHandler::class.java)
+
+        listener = RequestEvictionListener(mockUiHandler, mockCoreCompletionHandler)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_uiHandler_mustNotBeNull() {
+        RequestEvictionListener(null, mockCoreCompletionHandler)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreCompletionHandler_mustNotBeNull() {
+        RequestEvictionListener(mockUiHandler, null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testOnEvicted_evictedItems_mustNotBeNull() {
+        listener.onEvicted(null)
+    }
+
+    @Test
+    fun testOnEvicted_failsCompletionListeners_onUiThread() {
+        listener.onEvicted(listOf(createRequestModel("id1"), createRequestModel("id2")))
+
+        verifyZeroInteractions(mockCoreCompletionHandler)
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockUiHandler, times(1)).sendMessageAtTime(captor.capture(), anyLong())
+        captor.value.callback.run()
+
+        val inOrder = inOrder(mockCoreCompletionHandler)
+        inOrder.verify(mockCoreCompletionHandler).onError(eq("id1"), any(RequestEvictedException::class.java))
+        inOrder.verify(mockCoreCompletionHandler).onError(eq("id2"), any(RequestEvictedException::class.java))
+    }
+
+    private fun createRequestModel(id: String) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, mapOf(), mapOf(), 1000, Long.MAX_VALUE, id)
+}
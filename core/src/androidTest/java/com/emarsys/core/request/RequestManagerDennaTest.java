@@ -24,6 +24,7 @@ import com.emarsys.core.response.ResponseHandlersProcessor;
 import com.emarsys.core.shard.ShardModel;
 import com.emarsys.core.shard.ShardModelRepository;
 import com.emarsys.core.worker.DefaultWorker;
+import com.emarsys.core.worker.RetryScheduler;
 import com.emarsys.core.worker.Worker;
 import com.emarsys.testUtil.ConnectionTestUtils;
 import com.emarsys.testUtil.DatabaseTestUtils;
@@ -43,6 +44,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 
 import static com.emarsys.testUtil.TestUrls.DENNA_ECHO;
@@ -54,6 +56,8 @@ import static org.mockito.Mockito.when;
 
 public class RequestManagerDennaTest {
 
+    private static final long RETRY_DELAY = 60_000L;
+
     private RequestManager manager;
     private Map<String, String> headers;
     private RequestModel model;
@@ -98,13 +102,14 @@ public class RequestManagerDennaTest {
 
         ConnectionWatchDog connectionWatchDog = new ConnectionWatchDog(context, coreSdkHandler);
         CoreDbHelper coreDbHelper = new CoreDbHelper(context, new HashMap<TriggerKey, List<Runnable>>());
-        Repository<RequestModel, SqlSpecification> requestRepository = new RequestModelRepository(coreDbHelper);
+        RequestModelRepository requestRepository = new RequestModelRepository(coreDbHelper);
         Repository<ShardModel, SqlSpecification> shardRepository = new ShardModelRepository(coreDbHelper);
         latch = new CountDownLatch(1);
         fakeCompletionHandler = new FakeCompletionHandler(latch);
         RestClient restClient = new RestClient(new ConnectionProvider(), mock(TimestampProvider.class), mock(ResponseHandlersProcessor.class), requestModelMappers);
-        coreCompletionHandlerMiddlewareProvider = new CoreCompletionHandlerMiddlewareProvider(fakeCompletionHandler, requestRepository, uiHandler, coreSdkHandler);
-        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, fakeCompletionHandler, restClient, coreCompletionHandlerMiddlewareProvider);
+        RetryScheduler retryScheduler = new RetryScheduler(coreSdkHandler, requestRepository, new TimestampProvider(), new Random(), RETRY_DELAY, RETRY_DELAY, Integer.MAX_VALUE);
+        coreCompletionHandlerMiddlewareProvider = new CoreCompletionHandlerMiddlewareProvider(fakeCompletionHandler, requestRepository, uiHandler, coreSdkHandler, retryScheduler);
+        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, fakeCompletionHandler, restClient, coreCompletionHandlerMiddlewareProvider, retryScheduler);
         timestampProvider = new TimestampProvider();
         uuidProvider = new UUIDProvider();
         manager = new RequestManager(
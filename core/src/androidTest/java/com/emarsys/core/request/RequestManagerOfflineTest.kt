@@ -14,6 +14,7 @@ import com.emarsys.core.database.repository.specification.Everything
 import com.emarsys.core.fake.FakeCompletionHandler
 import com.emarsys.core.fake.FakeConnectionWatchDog
 import com.emarsys.core.fake.FakeRestClient
+import com.emarsys.core.provider.Gettable
 import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.request.factory.CoreCompletionHandlerMiddlewareProvider
@@ -24,6 +25,8 @@ import com.emarsys.core.request.model.specification.FilterByRequestId
 import com.emarsys.core.shard.ShardModel
 import com.emarsys.core.shard.ShardModelRepository
 import com.emarsys.core.worker.DefaultWorker
+import com.emarsys.core.worker.RequestExpirationSweeper
+import com.emarsys.core.worker.RetryScheduler
 import com.emarsys.core.worker.Worker
 import com.emarsys.testUtil.DatabaseTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
@@ -46,6 +49,7 @@ import java.util.concurrent.CountDownLatch
 class RequestManagerOfflineTest {
     companion object {
         const val URL = "https://www.emarsys.com/"
+        const val RETRY_DELAY = 60_000L
     }
 
     @Rule
@@ -231,7 +235,8 @@ class RequestManagerOfflineTest {
         watchDog = FakeConnectionWatchDog(watchDogLatch, *connectionStates)
 
         val coreDbHelper = CoreDbHelper(InstrumentationRegistry.getTargetContext(), HashMap())
-        requestRepository = RequestModelRepository(coreDbHelper)
+        val requestModelRepository = RequestModelRepository(coreDbHelper)
+        requestRepository = requestModelRepository
         shardRepository = ShardModelRepository(coreDbHelper)
 
         completionLatch = CountDownLatch(completionHandlerCountDown)
@@ -242,8 +247,10 @@ class RequestManagerOfflineTest {
         provider = CoreSdkHandlerProvider()
         coreSdkHandler = provider.provideHandler()
 
-        coreCompletionHandlerMiddlewareProvider = CoreCompletionHandlerMiddlewareProvider(completionHandler, requestRepository, uiHandler, coreSdkHandler)
-        worker = DefaultWorker(requestRepository, watchDog, uiHandler, completionHandler, fakeRestClient, coreCompletionHandlerMiddlewareProvider)
+        val retryScheduler = RetryScheduler(coreSdkHandler, requestModelRepository, TimestampProvider(), Random(), RETRY_DELAY, RETRY_DELAY, Int.MAX_VALUE)
+        coreCompletionHandlerMiddlewareProvider = CoreCompletionHandlerMiddlewareProvider(completionHandler, requestRepository, uiHandler, coreSdkHandler, retryScheduler)
+        worker = DefaultWorker(requestRepository, watchDog, uiHandler, completionHandler, fakeRestClient, coreCompletionHandlerMiddlewareProvider, retryScheduler)
+        val requestExpirationSweeper = RequestExpirationSweeper(coreSdkHandler, uiHandler, requestRepository, TimestampProvider(), completionHandler, Gettable { arrayOf<String>() }, RETRY_DELAY)
 
         manager = RequestManager(
                 coreSdkHandler,
@@ -256,6 +263,7 @@ class RequestManagerOfflineTest {
 
         coreSdkHandler.post {
             requestModels.forEach(requestRepository::add)
+            requestExpirationSweeper.sweep()
             worker.run()
         }
 
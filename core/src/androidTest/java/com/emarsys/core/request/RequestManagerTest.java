@@ -9,6 +9,7 @@ import com.emarsys.core.Mapper;
 import com.emarsys.core.Registry;
 import com.emarsys.core.api.result.CompletionListener;
 import com.emarsys.core.concurrency.CoreSdkHandlerProvider;
+import com.emarsys.core.concurrency.NetworkLane;
 import com.emarsys.core.connection.ConnectionProvider;
 import com.emarsys.core.connection.ConnectionWatchDog;
 import com.emarsys.core.database.repository.Repository;
@@ -20,10 +21,12 @@ import com.emarsys.core.provider.uuid.UUIDProvider;
 import com.emarsys.core.request.factory.CoreCompletionHandlerMiddlewareProvider;
 import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.RequestModelRepository;
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
 import com.emarsys.core.response.ResponseHandlersProcessor;
 import com.emarsys.core.shard.ShardModel;
 import com.emarsys.core.worker.DefaultWorker;
+import com.emarsys.core.worker.RetryScheduler;
 import com.emarsys.core.worker.Worker;
 import com.emarsys.testUtil.ConnectionTestUtils;
 import com.emarsys.testUtil.DatabaseTestUtils;
@@ -37,28 +40,35 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 
 import static com.emarsys.testUtil.TestUrls.DENNA_ECHO;
 import static com.emarsys.testUtil.TestUrls.customResponse;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RequestManagerTest {
 
+    private static final long RETRY_DELAY = 60_000L;
+
     private RequestManager manager;
     private RequestModel requestModel;
     private ShardModel shardModel;
@@ -124,8 +134,9 @@ public class RequestManagerTest {
         mockDefaultHandler = mock(CoreCompletionHandler.class);
         RestClient restClient = new RestClient(new ConnectionProvider(), mock(TimestampProvider.class), mock(ResponseHandlersProcessor.class), requestModelMappers);
         restClientMock = mock(RestClient.class);
-        coreCompletionHandlerMiddlewareProvider = new CoreCompletionHandlerMiddlewareProvider(handler, requestRepository, uiHandler, coreSdkHandler);
-        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, handler, restClient, coreCompletionHandlerMiddlewareProvider);
+        RetryScheduler retryScheduler = new RetryScheduler(coreSdkHandler, mock(RequestModelRepository.class), new TimestampProvider(), new Random(), RETRY_DELAY, RETRY_DELAY, Integer.MAX_VALUE);
+        coreCompletionHandlerMiddlewareProvider = new CoreCompletionHandlerMiddlewareProvider(handler, requestRepository, uiHandler, coreSdkHandler, retryScheduler);
+        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, handler, restClient, coreCompletionHandlerMiddlewareProvider, retryScheduler);
         manager = new RequestManager(
                 coreSdkHandler,
                 requestRepository,
@@ -258,7 +269,7 @@ public class RequestManagerTest {
 
         runnableFactoryLatch.await();
 
-        verify(requestRepository).add(requestModel);
+        verify(requestRepository).addAll(Collections.singletonList(requestModel));
     }
 
     @Test
@@ -283,15 +294,15 @@ public class RequestManagerTest {
         Map<String, String> defaultHeaders = new HashMap<>();
         defaultHeaders.put("connection", "close");
 
-        ArgumentCaptor<RequestModel> captor = ArgumentCaptor.forClass(RequestModel.class);
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
 
         manager.setDefaultHeaders(defaultHeaders);
         manager.submit(requestModel, null);
 
         runnableFactoryLatch.await();
 
-        verify(requestRepository).add(captor.capture());
-        RequestModel capturedRequestModel = captor.getValue();
+        verify(requestRepository).addAll(captor.capture());
+        RequestModel capturedRequestModel = (RequestModel) captor.getValue().get(0);
 
         assertEquals(expectedHeaders, capturedRequestModel.getHeaders());
     }
@@ -351,6 +362,58 @@ public class RequestManagerTest {
         verify(callbackRegistry).register(requestModel, null);
     }
 
+    @Test
+    public void testSubmit_withRequestModel_shouldRegisterCallback_beforeCommit() throws InterruptedException {
+        CompletionListener completionListener = mock(CompletionListener.class);
+        Worker worker = mock(Worker.class);
+        manager.worker = worker;
+
+        manager.submit(requestModel, completionListener);
+        runnableFactoryLatch.await();
+
+        InOrder inOrder = inOrder(callbackRegistry, requestRepository, worker);
+        inOrder.verify(callbackRegistry).register(requestModel, completionListener);
+        inOrder.verify(requestRepository).addAll(Collections.singletonList(requestModel));
+        inOrder.verify(worker).run();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_writeBufferSize_mustBeGreaterThanZero() {
+        new RequestManager(coreSdkHandler, requestRepository, shardRepository, worker, restClientMock, callbackRegistry, mockDefaultHandler, 0, 10);
+    }
+
+    @Test
+    public void testSubmit_withWriteBuffer_shouldCommitSubmissions_inOneBatch() throws InterruptedException {
+        Worker worker = mock(Worker.class);
+        manager = new RequestManager(coreSdkHandler, requestRepository, shardRepository, worker, restClientMock, callbackRegistry, mockDefaultHandler, 2, 60_000);
+        runnableFactoryLatch = new CountDownLatch(2);
+        manager.runnableFactory = new FakeRunnableFactory(runnableFactoryLatch);
+        RequestModel otherRequestModel = new RequestModel.Builder(timestampProvider, uuidProvider).url(DENNA_ECHO).build();
+
+        manager.submit(requestModel, null);
+        manager.submit(otherRequestModel, null);
+        runnableFactoryLatch.await();
+
+        verify(requestRepository).addAll(Arrays.asList(requestModel, otherRequestModel));
+        verify(requestRepository, never()).add(any(RequestModel.class));
+        verify(worker).run();
+    }
+
+    @Test
+    public void testFlush_shouldCommitPendingSubmissions() throws InterruptedException {
+        Worker worker = mock(Worker.class);
+        manager = new RequestManager(coreSdkHandler, requestRepository, shardRepository, worker, restClientMock, callbackRegistry, mockDefaultHandler, 10, 60_000);
+        runnableFactoryLatch = new CountDownLatch(2);
+        manager.runnableFactory = new FakeRunnableFactory(runnableFactoryLatch);
+
+        manager.submit(requestModel, null);
+        manager.flush();
+        runnableFactoryLatch.await();
+
+        verify(requestRepository).addAll(Collections.singletonList(requestModel));
+        verify(worker).run();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testSubmitNow_requestModel_mustNotBeNull() {
         manager.submitNow(null, handler);
@@ -358,21 +421,52 @@ public class RequestManagerTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testSubmitNow_completionHandler_mustNotBeNull() {
-        manager.submitNow(requestModel, null);
+        manager.submitNow(requestModel, (CoreCompletionHandler) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubmitNow_lane_mustNotBeNull() {
+        manager.submitNow(requestModel, handler, null);
     }
 
     @Test
     public void testSubmitNow_shouldCallRestClientsExecuteWithGivenParameters() {
         manager.submitNow(requestModel, handler);
 
-        verify(restClientMock).execute(requestModel, handler);
+        verify(restClientMock).execute(requestModel, handler, NetworkLane.INTERACTIVE);
     }
 
     @Test
     public void testSubmitNow_shouldCallRestClient_withDefaultHandler() {
         manager.submitNow(requestModel);
 
-        verify(restClientMock).execute(requestModel, mockDefaultHandler);
+        verify(restClientMock).execute(requestModel, mockDefaultHandler, NetworkLane.INTERACTIVE);
+    }
+
+    @Test
+    public void testSubmitNow_shouldCallRestClient_withGivenLane() {
+        manager.submitNow(requestModel, handler, NetworkLane.TELEMETRY);
+
+        verify(restClientMock).execute(requestModel, handler, NetworkLane.TELEMETRY);
+    }
+
+    @Test
+    public void testSubmitNow_shouldCallRestClient_withDefaultHandler_andGivenLane() {
+        manager.submitNow(requestModel, NetworkLane.TELEMETRY);
+
+        verify(restClientMock).execute(requestModel, mockDefaultHandler, NetworkLane.TELEMETRY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRemainingCapacity_lane_mustNotBeNull() {
+        manager.getRemainingCapacity(null);
+    }
+
+    @Test
+    public void testGetRemainingCapacity_delegatesToRestClient() {
+        when(restClientMock.getRemainingCapacity(NetworkLane.TELEMETRY)).thenReturn(12);
+
+        assertEquals(12, manager.getRemainingCapacity(NetworkLane.TELEMETRY));
     }
 
     @Test
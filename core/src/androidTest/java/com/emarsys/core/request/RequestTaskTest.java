@@ -4,8 +4,14 @@ import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.Mapper;
 import com.emarsys.core.connection.ConnectionProvider;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.request.header.HeaderInjector;
+import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.response.ResponseBodyReader;
 import com.emarsys.core.response.ResponseHandlersProcessor;
+import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.util.JsonUtils;
+import com.emarsys.core.util.predicate.Predicate;
 import com.emarsys.testUtil.TimeoutUtils;
 
 import org.junit.Assert;
@@ -13,17 +19,30 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import javax.net.ssl.HttpsURLConnection;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class RequestTaskTest {
@@ -40,6 +59,8 @@ public class RequestTaskTest {
     private TimestampProvider timestampProvider;
     private ResponseHandlersProcessor mockResponseHandlersProcessor;
     private List<Mapper<RequestModel, RequestModel>> requestModelMappers;
+    private RequestBodyCompressor requestBodyCompressor;
+    private ResponseBodyReader responseBodyReader;
 
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
@@ -53,6 +74,8 @@ public class RequestTaskTest {
         timestampProvider = mock(TimestampProvider.class);
         mockResponseHandlersProcessor = mock(ResponseHandlersProcessor.class);
         requestModelMappers = new ArrayList<>();
+        requestBodyCompressor = new RequestBodyCompressor(0);
+        responseBodyReader = new ResponseBodyReader(1024);
         when(timestampProvider.provideTimestamp()).thenReturn(TIMESTAMP_1, TIMESTAMP_2);
     }
 
@@ -64,7 +87,10 @@ public class RequestTaskTest {
                 connectionProvider,
                 timestampProvider,
                 mockResponseHandlersProcessor,
-                requestModelMappers);
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -75,7 +101,10 @@ public class RequestTaskTest {
                 connectionProvider,
                 timestampProvider,
                 mockResponseHandlersProcessor,
-                requestModelMappers);
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -86,7 +115,10 @@ public class RequestTaskTest {
                 null,
                 timestampProvider,
                 mockResponseHandlersProcessor,
-                requestModelMappers);
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -97,7 +129,10 @@ public class RequestTaskTest {
                 connectionProvider,
                 null,
                 mockResponseHandlersProcessor,
-                requestModelMappers);
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -108,7 +143,10 @@ public class RequestTaskTest {
                 connectionProvider,
                 timestampProvider,
                 null,
-                requestModelMappers);
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                false);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -119,7 +157,38 @@ public class RequestTaskTest {
                 connectionProvider,
                 timestampProvider,
                 mockResponseHandlersProcessor,
-                null);
+                null,
+                requestBodyCompressor,
+                responseBodyReader,
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_requestBodyCompressorMustNotBeNull() {
+        new RequestTask(
+                requestModel,
+                coreCompletionHandler,
+                connectionProvider,
+                timestampProvider,
+                mockResponseHandlersProcessor,
+                requestModelMappers,
+                null,
+                responseBodyReader,
+                false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_responseBodyReaderMustNotBeNull() {
+        new RequestTask(
+                requestModel,
+                coreCompletionHandler,
+                connectionProvider,
+                timestampProvider,
+                mockResponseHandlersProcessor,
+                requestModelMappers,
+                requestBodyCompressor,
+                null,
+                false);
     }
 
     @Test
@@ -134,7 +203,7 @@ public class RequestTaskTest {
 
         when(connectionProvider.provideConnection(requestModel)).thenReturn(connection);
 
-        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers);
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
 
         try {
             requestTask.doInBackground();
@@ -164,7 +233,7 @@ public class RequestTaskTest {
 
         when(connectionProvider.provideConnection(expectedRequestModel2)).thenReturn(connection);
 
-        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers);
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
 
         requestTask.doInBackground();
 
@@ -172,4 +241,334 @@ public class RequestTaskTest {
         verify(mapper2).map(expectedRequestModel1);
         verify(connectionProvider).provideConnection(expectedRequestModel2);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDoInBackground_sendsGzippedBody_whenCompressorAppliesToRequest() throws IOException {
+        connectionProvider = mock(ConnectionProvider.class);
+        RequestModel requestModel = createRequestModelWithPayload();
+        Predicate<RequestModel> predicate = mock(Predicate.class);
+        when(predicate.evaluate(requestModel)).thenReturn(true);
+        requestBodyCompressor.addCompressionPredicates(Collections.singletonList(predicate));
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(connection.getOutputStream()).thenReturn(outputStream);
+        when(connectionProvider.provideConnection(requestModel)).thenReturn(connection);
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).setRequestProperty("Content-Encoding", "gzip");
+        inOrder.verify(connection).setFixedLengthStreamingMode(outputStream.size());
+        inOrder.verify(connection).connect();
+        Assert.assertEquals(createPayloadJson(), gunzip(outputStream.toByteArray()));
+    }
+
+    @Test
+    public void testDoInBackground_sendsPlainBody_whenCompressorDoesNotApplyToRequest() throws IOException {
+        connectionProvider = mock(ConnectionProvider.class);
+        RequestModel requestModel = createRequestModelWithPayload();
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(connection.getOutputStream()).thenReturn(outputStream);
+        when(connectionProvider.provideConnection(requestModel)).thenReturn(connection);
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).setFixedLengthStreamingMode(createPayloadJson().getBytes(StandardCharsets.UTF_8).length);
+        inOrder.verify(connection).connect();
+        verify(connection, never()).setRequestProperty(eq("Content-Encoding"), anyString());
+        Assert.assertEquals(createPayloadJson(), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDoInBackground_sendsPreEncodedBody_withoutEncodingPayload() throws IOException {
+        connectionProvider = mock(ConnectionProvider.class);
+        RequestModel requestModel = createRequestModelWithBody();
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(connection.getOutputStream()).thenReturn(outputStream);
+        when(connectionProvider.provideConnection(requestModel)).thenReturn(connection);
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).setDoOutput(true);
+        inOrder.verify(connection).setFixedLengthStreamingMode(createPayloadJson().getBytes(StandardCharsets.UTF_8).length);
+        inOrder.verify(connection).connect();
+        verify(requestModel, never()).getPayload();
+        Assert.assertEquals(createPayloadJson(), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDoInBackground_sendsGzippedPreEncodedBody_whenCompressorAppliesToRequest() throws IOException {
+        connectionProvider = mock(ConnectionProvider.class);
+        RequestModel requestModel = createRequestModelWithBody();
+        Predicate<RequestModel> predicate = mock(Predicate.class);
+        when(predicate.evaluate(requestModel)).thenReturn(true);
+        requestBodyCompressor.addCompressionPredicates(Collections.singletonList(predicate));
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(connection.getOutputStream()).thenReturn(outputStream);
+        when(connectionProvider.provideConnection(requestModel)).thenReturn(connection);
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        verify(connection).setRequestProperty("Content-Encoding", "gzip");
+        verify(requestModel, never()).getPayload();
+        Assert.assertEquals(createPayloadJson(), gunzip(outputStream.toByteArray()));
+    }
+
+    private RequestModel createRequestModelWithBody() throws IOException {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getUrl()).thenReturn(new URL(URL));
+        when(requestModel.getMethod()).thenReturn(RequestMethod.POST);
+        when(requestModel.getHeaders()).thenReturn(Collections.<String, String>emptyMap());
+        when(requestModel.getBody()).thenReturn(createPayloadJson().getBytes(StandardCharsets.UTF_8));
+        return requestModel;
+    }
+
+    private RequestModel createRequestModelWithPayload() throws IOException {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getUrl()).thenReturn(new URL(URL));
+        when(requestModel.getMethod()).thenReturn(RequestMethod.POST);
+        when(requestModel.getHeaders()).thenReturn(Collections.<String, String>emptyMap());
+        when(requestModel.getPayload()).thenReturn(Collections.<String, Object>singletonMap("key", createCompressibleValue()));
+        return requestModel;
+    }
+
+    private String createPayloadJson() {
+        return JsonUtils.fromMap(Collections.<String, Object>singletonMap("key", createCompressibleValue())).toString();
+    }
+
+    private String createCompressibleValue() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append("value");
+        }
+        return builder.toString();
+    }
+
+    private String gunzip(byte[] bytes) throws IOException {
+        GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        inputStream.close();
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDoInBackground_skipsResponseBody_whenNobodyNeedsIt() throws Exception {
+        HttpsURLConnection connection = mockResponse(200, "{\"key\":\"value\"}");
+        ByteArrayInputStream inputStream = new ByteArrayInputStream("{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8));
+        when(connection.getInputStream()).thenReturn(inputStream);
+        when(mockResponseHandlersProcessor.isBodyRequired(requestModel)).thenReturn(false);
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+        requestTask.onPostExecute();
+
+        Assert.assertEquals(0, inputStream.available());
+        ArgumentCaptor<ResponseModel> captor = ArgumentCaptor.forClass(ResponseModel.class);
+        verify(coreCompletionHandler).onSuccess(eq("id"), captor.capture());
+        Assert.assertNull(captor.getValue().getBody());
+    }
+
+    @Test
+    public void testDoInBackground_readsResponseBody_whenResponseHandlerNeedsIt() throws Exception {
+        mockResponse(200, "{\"key\":\n\"value\"}");
+        when(mockResponseHandlersProcessor.isBodyRequired(requestModel)).thenReturn(true);
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+        requestTask.onPostExecute();
+
+        ArgumentCaptor<ResponseModel> captor = ArgumentCaptor.forClass(ResponseModel.class);
+        verify(coreCompletionHandler).onSuccess(eq("id"), captor.capture());
+        Assert.assertEquals("{\"key\":\n\"value\"}", captor.getValue().getBody());
+    }
+
+    @Test
+    public void testDoInBackground_readsResponseBody_whenCallerNeedsIt() throws Exception {
+        mockResponse(200, "body");
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, true);
+
+        requestTask.doInBackground();
+        requestTask.onPostExecute();
+
+        ArgumentCaptor<ResponseModel> captor = ArgumentCaptor.forClass(ResponseModel.class);
+        verify(coreCompletionHandler).onSuccess(eq("id"), captor.capture());
+        Assert.assertEquals("body", captor.getValue().getBody());
+    }
+
+    @Test
+    public void testDoInBackground_alwaysReadsErrorBody() throws Exception {
+        HttpsURLConnection connection = mockResponse(400, "error");
+        when(connection.getErrorStream()).thenReturn(new ByteArrayInputStream("error".getBytes(StandardCharsets.UTF_8)));
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+        requestTask.onPostExecute();
+
+        ArgumentCaptor<ResponseModel> captor = ArgumentCaptor.forClass(ResponseModel.class);
+        verify(coreCompletionHandler).onError(eq("id"), captor.capture());
+        Assert.assertEquals("error", captor.getValue().getBody());
+    }
+
+    @Test
+    public void testDoInBackground_keepsResponse_whenErrorBodyExceedsLimit() throws Exception {
+        String error = new String(new char[2048]).replace('\0', 'e');
+        HttpsURLConnection connection = mockResponse(400, error);
+        when(connection.getErrorStream()).thenReturn(new ByteArrayInputStream(error.getBytes(StandardCharsets.UTF_8)));
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+        requestTask.onPostExecute();
+
+        ArgumentCaptor<ResponseModel> captor = ArgumentCaptor.forClass(ResponseModel.class);
+        verify(coreCompletionHandler).onError(eq("id"), captor.capture());
+        Assert.assertEquals(400, captor.getValue().getStatusCode());
+        Assert.assertNull(captor.getValue().getBody());
+    }
+
+    @Test
+    public void testDoInBackground_requestsGzippedResponse() throws Exception {
+        HttpsURLConnection connection = mockResponse(200, "body");
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        verify(connection).setRequestProperty("Accept-Encoding", "gzip");
+    }
+
+    @Test
+    public void testDoInBackground_keepsConnectionAlive_onResponse() throws Exception {
+        HttpsURLConnection connection = mockResponse(500, "error");
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        verify(connection, never()).disconnect();
+    }
+
+    @Test
+    public void testDoInBackground_disconnects_onException() throws Exception {
+        HttpsURLConnection connection = mockResponse(200, "body");
+        Mockito.doThrow(new IOException("Connection reset")).when(connection).connect();
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        verify(connection).disconnect();
+    }
+
+    @Test
+    public void testDoInBackground_takesHandshakeStart_afterConnect() throws Exception {
+        HttpsURLConnection connection = mockResponse(200, "body");
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+
+        InOrder inOrder = inOrder(connection, connectionProvider);
+        inOrder.verify(connection).connect();
+        inOrder.verify(connectionProvider).takeHandshakeStart();
+    }
+
+    @Test
+    public void testProcessResponse_runsResponseHandlers() throws Exception {
+        mockResponse(200, "body");
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+        requestTask.processResponse();
+
+        verify(mockResponseHandlersProcessor).process(any(ResponseModel.class));
+        verifyZeroInteractions(coreCompletionHandler);
+    }
+
+    @Test
+    public void testProcessResponse_skipsResponseHandlers_onException() throws Exception {
+        HttpsURLConnection connection = mockResponse(200, "body");
+        Mockito.doThrow(new IOException("Connection reset")).when(connection).connect();
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+        requestTask.processResponse();
+
+        verify(mockResponseHandlersProcessor, never()).process(any(ResponseModel.class));
+    }
+
+    @Test
+    public void testOnPostExecute_doesNotRunResponseHandlers() throws Exception {
+        mockResponse(200, "body");
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, false);
+
+        requestTask.doInBackground();
+        requestTask.onPostExecute();
+
+        verify(coreCompletionHandler).onSuccess(eq("id"), any(ResponseModel.class));
+        verify(mockResponseHandlersProcessor, never()).process(any(ResponseModel.class));
+    }
+
+    @Test
+    public void testDoInBackground_injectsHeaders_afterModelHeaders() throws Exception {
+        HttpsURLConnection connection = mockResponse(200, "body");
+        when(requestModel.getHeaders()).thenReturn(Collections.singletonMap("X-Client-State", "old"));
+        HeaderInjector headerInjector = mock(HeaderInjector.class);
+
+        RequestTask requestTask = new RequestTask(requestModel, coreCompletionHandler, connectionProvider, timestampProvider, mockResponseHandlersProcessor, requestModelMappers, requestBodyCompressor, responseBodyReader, Collections.singletonList(headerInjector), false);
+
+        requestTask.doInBackground();
+
+        InOrder inOrder = inOrder(connection, headerInjector);
+        inOrder.verify(connection).setRequestProperty("X-Client-State", "old");
+        inOrder.verify(headerInjector).injectHeaders(requestModel, connection);
+        inOrder.verify(connection).connect();
+    }
+
+    private HttpsURLConnection mockResponse(int statusCode, String body) throws IOException {
+        connectionProvider = mock(ConnectionProvider.class);
+        when(requestModel.getId()).thenReturn("id");
+        when(requestModel.getUrl()).thenReturn(new URL(URL));
+        when(requestModel.getMethod()).thenReturn(RequestMethod.GET);
+        when(requestModel.getHeaders()).thenReturn(Collections.<String, String>emptyMap());
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(statusCode);
+        when(connection.getResponseMessage()).thenReturn("message");
+        when(connection.getHeaderFields()).thenReturn(Collections.<String, List<String>>emptyMap());
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        when(connectionProvider.provideConnection(requestModel)).thenReturn(connection);
+        return connection;
+    }
+}
@@ -1,15 +1,27 @@
 package com.emarsys.core.request
 
+import android.os.Handler
+import android.os.Looper
 import com.emarsys.core.Mapper
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.concurrency.DefaultNetworkExecutor
+import com.emarsys.core.concurrency.NetworkExecutor
+import com.emarsys.core.concurrency.NetworkLane
 import com.emarsys.core.connection.ConnectionProvider
+import com.emarsys.core.connection.loopback.LoopbackHandler
+import com.emarsys.core.connection.loopback.LoopbackResponse
+import com.emarsys.core.connection.loopback.LoopbackTransport
 import com.emarsys.core.fake.FakeCompletionHandler
 import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.header.HeaderInjector
 import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.request.model.RequestResult
 import com.emarsys.core.request.model.asRequestResult
+import com.emarsys.core.response.ResponseBodyReader
 import com.emarsys.core.response.ResponseHandlersProcessor
+import com.emarsys.core.response.ResponseModel
 import com.emarsys.core.testUtil.RequestModelTestUtils
 import com.emarsys.testUtil.ConnectionTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
@@ -22,14 +34,24 @@ import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.Mockito.doAnswer
+import org.mockito.Mockito.doThrow
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.verify
 import java.net.UnknownHostException
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.CountDownLatch
 
 class RestClientTest {
 
+    companion object {
+        const val MAX_BODY_SIZE = 1024
+    }
+
     private lateinit var client: RestClient
     private lateinit var latch: CountDownLatch
+    private lateinit var coreSdkHandler: Handler
 
     private lateinit var connectionProvider: ConnectionProvider
     private lateinit var mockTimestampProvider: TimestampProvider
@@ -57,12 +79,13 @@ class RestClientTest {
         }
 
         requestModelMappers = listOf(mockRequestModelMapper)
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
         client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers)
         latch = CountDownLatch(1)
     }
 
     @Test(expected = IllegalArgumentException::class)
-    fun testConstructor_connectionProvider_mustNotBeNull() {
+    fun testConstructor_transport_mustNotBeNull() {
         RestClient(null, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers)
     }
 
@@ -81,6 +104,108 @@ class RestClientTest {
         RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, null)
     }
 
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestBodyCompressor_mustNotBeNull() {
+        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, null, ResponseBodyReader(MAX_BODY_SIZE))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_responseBodyReader_mustNotBeNull() {
+        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_networkExecutor_mustNotBeNull() {
+        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), ResponseBodyReader(MAX_BODY_SIZE), null, coreSdkHandler)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreSdkHandler_mustNotBeNull() {
+        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), ResponseBodyReader(MAX_BODY_SIZE), mock(NetworkExecutor::class.java), null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddHeaderInjectors_headerInjectors_mustNotBeNull() {
+        client.addHeaderInjectors(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddHeaderInjectors_headerInjectorElements_mustNotBeNull() {
+        client.addHeaderInjectors(listOf(null))
+    }
+
+    @Test
+    fun testExecute_injectsHeaders() {
+        var requestHeaders: Map<String, String> = mapOf()
+        val transport = LoopbackTransport(LoopbackHandler {
+            requestHeaders = it.headers
+            LoopbackResponse(200, "{}")
+        })
+        client = RestClient(transport, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers)
+        client.addHeaderInjectors(listOf(HeaderInjector { _, connection -> connection.setRequestProperty("X-Injected", "value") }))
+
+        client.execute(RequestModelTestUtils.createRequestModel(RequestMethod.GET), FakeCompletionHandler(latch))
+
+        latch.await()
+
+        requestHeaders["X-Injected"] shouldBe "value"
+    }
+
+    @Test
+    fun testExecute_usesQueuedLane_byDefault() {
+        val mockNetworkExecutor = mock(NetworkExecutor::class.java)
+        client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), ResponseBodyReader(MAX_BODY_SIZE), mockNetworkExecutor, coreSdkHandler)
+
+        client.execute(RequestModelTestUtils.createRequestModel(RequestMethod.GET), FakeCompletionHandler(latch))
+
+        verify(mockNetworkExecutor).execute(eq(NetworkLane.QUEUED), any(Runnable::class.java))
+    }
+
+    @Test
+    fun testExecute_usesGivenLane() {
+        val mockNetworkExecutor = mock(NetworkExecutor::class.java)
+        client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), ResponseBodyReader(MAX_BODY_SIZE), mockNetworkExecutor, coreSdkHandler)
+
+        client.execute(RequestModelTestUtils.createRequestModel(RequestMethod.GET), FakeCompletionHandler(latch), NetworkLane.TELEMETRY)
+
+        verify(mockNetworkExecutor).execute(eq(NetworkLane.TELEMETRY), any(Runnable::class.java))
+    }
+
+    @Test
+    fun testExecute_callsOnError_whenLaneRejectsRequest() {
+        val mockNetworkExecutor = mock(NetworkExecutor::class.java)
+        doThrow(RejectedExecutionException()).`when`(mockNetworkExecutor).execute(eq(NetworkLane.QUEUED), any(Runnable::class.java))
+        client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), ResponseBodyReader(MAX_BODY_SIZE), mockNetworkExecutor, coreSdkHandler)
+        val handler = FakeCompletionHandler(latch)
+        val model = RequestModelTestUtils.createRequestModel(RequestMethod.GET)
+
+        client.execute(model, handler)
+
+        latch.await()
+
+        handler.asRequestResult() shouldBe RequestResult.failure(model.id, RejectedExecutionException::class.java)
+    }
+
+    @Test
+    fun testExecute_callsOnError_onCoreSdkThread_whenLaneRejectsRequest() {
+        val mockNetworkExecutor = mock(NetworkExecutor::class.java)
+        doThrow(RejectedExecutionException()).`when`(mockNetworkExecutor).execute(eq(NetworkLane.QUEUED), any(Runnable::class.java))
+        client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), ResponseBodyReader(MAX_BODY_SIZE), mockNetworkExecutor, coreSdkHandler)
+        var onCoreSdkThread = false
+        val handler = object : FakeCompletionHandler(latch) {
+            override fun onError(id: String, cause: Exception) {
+                onCoreSdkThread = Looper.myLooper() == coreSdkHandler.looper
+                super.onError(id, cause)
+            }
+        }
+
+        client.execute(RequestModelTestUtils.createRequestModel(RequestMethod.GET), handler)
+
+        latch.await()
+
+        onCoreSdkThread shouldBe true
+    }
+
     @Test
     fun testSendRequest_requestDoneSuccessfully() {
         val handler = FakeCompletionHandler(latch)
@@ -118,4 +243,55 @@ class RestClientTest {
         handler.asRequestResult() shouldBe RequestResult.failure(model.id, UnknownHostException::class.java)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun testSendRequest_overLoopbackTransport_success() {
+        val transport = LoopbackTransport(LoopbackHandler { LoopbackResponse(200, "{}") })
+        client = RestClient(transport, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers)
+        val handler = FakeCompletionHandler(latch)
+        val model = RequestModelTestUtils.createRequestModel(RequestMethod.POST)
+
+        client.execute(model, handler)
+
+        latch.await()
+
+        handler.asRequestResult() shouldBe RequestResult.success(model.id)
+        transport.exchangeCount shouldBe 1
+    }
+
+    @Test
+    fun testSendRequest_overLoopbackTransport_failure() {
+        val transport = LoopbackTransport(LoopbackHandler { LoopbackResponse(405, "error") })
+        client = RestClient(transport, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers)
+        val handler = FakeCompletionHandler(latch)
+        val model = RequestModelTestUtils.createRequestModel(RequestMethod.GET)
+
+        client.execute(model, handler)
+
+        latch.await()
+
+        handler.asRequestResult() shouldBe RequestResult.failure(model.id, 405)
+    }
+
+    @Test
+    fun testExecute_processesResponse_andCallsCallback_onCoreSdkThread() {
+        val transport = LoopbackTransport(LoopbackHandler { LoopbackResponse(200, "{}") })
+        client = RestClient(transport, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, RequestBodyCompressor(0), ResponseBodyReader(MAX_BODY_SIZE), DefaultNetworkExecutor(), coreSdkHandler)
+        val events = mutableListOf<String>()
+        doAnswer {
+            events.add("process:" + (Looper.myLooper() == coreSdkHandler.looper))
+            null
+        }.`when`(mockResponseHandlersProcessor).process(any(ResponseModel::class.java))
+        val handler = object : FakeCompletionHandler(latch) {
+            override fun onSuccess(id: String, responseModel: ResponseModel) {
+                events.add("onSuccess:" + (Looper.myLooper() == coreSdkHandler.looper))
+                super.onSuccess(id, responseModel)
+            }
+        }
+
+        client.execute(RequestModelTestUtils.createRequestModel(RequestMethod.POST), handler)
+
+        latch.await()
+
+        events shouldBe listOf("process:true", "onSuccess:true")
+    }
+}
@@ -0,0 +1,345 @@
+package com.emarsys.core.request.coalescing
+
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.provider.Gettable
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.CompositeRequestModel
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.core.request.model.specification.QueryNextRequestModels
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.*
+
+class CoalescingRequestRepositoryTest {
+
+    companion object {
+        const val TIMESTAMP = 80_000L
+        const val COMPOSITE_ID = "composite_id"
+    }
+
+    private lateinit var mockRequestModelRepository: Repository<RequestModel, SqlSpecification>
+    private lateinit var requestModelRepository: RequestModelRepository
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var mockUuidProvider: UUIDProvider
+    private lateinit var inFlightRequestIds: Array<String>
+    private lateinit var inFlightRequestIdsGettable: Gettable<Array<String>>
+    private lateinit var coalescingRepository: CoalescingRequestRepository
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        mockRequestModelRepository = mock(Repository::class.java) as Repository<RequestModel, SqlSpecification>
+        requestModelRepository = RequestModelRepository(CoreDbHelper(InstrumentationRegistry.getTargetContext(), mapOf()))
+        mockTimestampProvider = mock(TimestampProvider::class.java).apply {
+            whenever(provideTimestamp()).thenReturn(TIMESTAMP)
+        }
+        mockUuidProvider = mock(UUIDProvider::class.java).apply {
+            whenever(provideId()).thenReturn(COMPOSITE_ID)
+        }
+        inFlightRequestIds = arrayOf()
+        inFlightRequestIdsGettable = object : Gettable<Array<String>> {
+            override fun get() = inFlightRequestIds
+        }
+
+        coalescingRepository = CoalescingRequestRepository(requestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestRepository_mustNotBeNull() {
+        CoalescingRequestRepository(null, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_timestampProvider_mustNotBeNull() {
+        CoalescingRequestRepository(mockRequestModelRepository, null, mockUuidProvider, inFlightRequestIdsGettable)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_uuidProvider_mustNotBeNull() {
+        CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, null, inFlightRequestIdsGettable)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_inFlightRequestIds_mustNotBeNull() {
+        CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddStrategies_strategies_mustNotBeNull() {
+        coalescingRepository.addStrategies(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddStrategies_strategyElements_mustNotBeNull() {
+        coalescingRepository.addStrategies(listOf(null))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddStrategies_maxBatchSize_mustBeGreaterThanZero() {
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/%", 0)))
+    }
+
+    @Test
+    fun testAdd_shouldDelegate_toRequestModelRepository() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        val requestModel = mock(RequestModel::class.java)
+
+        coalescingRepository.add(requestModel)
+
+        verify(mockRequestModelRepository).add(requestModel)
+    }
+
+    @Test
+    fun testAdd_shouldNotStoreCompositeRequestModels() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+
+        coalescingRepository.add(mock(CompositeRequestModel::class.java))
+
+        verifyZeroInteractions(mockRequestModelRepository)
+    }
+
+    @Test
+    fun testAddAll_shouldDelegate_withoutCompositeRequestModels() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        val requestModel1 = mock(RequestModel::class.java)
+        val requestModel2 = mock(RequestModel::class.java)
+
+        coalescingRepository.addAll(listOf(requestModel1, mock(CompositeRequestModel::class.java), requestModel2))
+
+        verify(mockRequestModelRepository).addAll(listOf(requestModel1, requestModel2))
+    }
+
+    @Test
+    fun testRemove_shouldDelegate_toRequestModelRepository() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        val specification = mock(SqlSpecification::class.java)
+
+        coalescingRepository.remove(specification)
+
+        verify(mockRequestModelRepository).remove(specification)
+    }
+
+    @Test
+    fun testRemoveAll_shouldDelegate_toRequestModelRepository() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        val specifications = listOf(mock(SqlSpecification::class.java), mock(SqlSpecification::class.java))
+
+        coalescingRepository.removeAll(specifications)
+
+        verify(mockRequestModelRepository).removeAll(specifications)
+    }
+
+    @Test
+    fun testInTransaction_shouldDelegate_toRequestModelRepository() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        val unitOfWork = mock(Runnable::class.java)
+
+        coalescingRepository.inTransaction(unitOfWork)
+
+        verify(mockRequestModelRepository).inTransaction(unitOfWork)
+    }
+
+    @Test
+    fun testIsEmpty_shouldDelegate_toRequestModelRepository() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        whenever(mockRequestModelRepository.isEmpty).thenReturn(true)
+
+        coalescingRepository.isEmpty shouldBe true
+        verify(mockRequestModelRepository).isEmpty
+    }
+
+    @Test
+    fun testCount_shouldDelegate_toRequestModelRepository() {
+        coalescingRepository = CoalescingRequestRepository(mockRequestModelRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        whenever(mockRequestModelRepository.count()).thenReturn(5)
+
+        coalescingRepository.count() shouldBe 5
+    }
+
+    @Test
+    fun testQuery_withoutStrategies_returnsOriginalResult() {
+        val request1 = requestModel("id1", "https://emarsys.com/event/1")
+        val request2 = requestModel("id2", "https://emarsys.com/event/2")
+        requestModelRepository.add(request1)
+        requestModelRepository.add(request2)
+
+        coalescingRepository.query(Everything()) shouldBe listOf(request1, request2)
+    }
+
+    @Test
+    fun testQuery_mergesMatchingRequests_intoComposite_atFirstMatchingIndex() {
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 10)))
+        val other1 = requestModel("other1", "https://other.com/1")
+        val event1 = requestModel("event1", "https://emarsys.com/event/1")
+        val other2 = requestModel("other2", "https://other.com/2")
+        val event2 = requestModel("event2", "https://emarsys.com/event/2")
+        listOf(other1, event1, other2, event2).forEach { requestModelRepository.add(it) }
+
+        val expectedComposite = CompositeRequestModel(
+                COMPOSITE_ID,
+                "https://emarsys.com/event/1",
+                RequestMethod.POST,
+                mapOf<String, Any>("merged" to listOf("event1", "event2")),
+                mapOf("header" to "event1"),
+                TIMESTAMP,
+                Long.MAX_VALUE,
+                arrayOf("event1", "event2"))
+
+        coalescingRepository.query(Everything()) shouldBe listOf(other1, expectedComposite, other2)
+    }
+
+    @Test
+    fun testQuery_compositeContainsAtMostMaxBatchSizeRequests() {
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 2)))
+        listOf("event1", "event2", "event3").forEach {
+            requestModelRepository.add(requestModel(it, "https://emarsys.com/event/$it"))
+        }
+
+        val result = coalescingRepository.query(Everything())
+
+        result.size shouldBe 1
+        (result[0] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("event1", "event2")
+    }
+
+    @Test
+    fun testQuery_doesNotFoldInFlightRequests_intoComposite() {
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 10)))
+        listOf("event1", "event2", "event3").forEach {
+            requestModelRepository.add(requestModel(it, "https://emarsys.com/event/$it"))
+        }
+        inFlightRequestIds = arrayOf("event1")
+
+        val result = coalescingRepository.query(QueryNextRequestModels(inFlightRequestIds, 10))
+
+        result.size shouldBe 1
+        (result[0] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("event2", "event3")
+    }
+
+    @Test
+    fun testQuery_compositeCarriesHighestAttempt() {
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 10)))
+        requestModelRepository.add(requestModel("event1", "https://emarsys.com/event/1", 2))
+        requestModelRepository.add(requestModel("event2", "https://emarsys.com/event/2", 5))
+
+        coalescingRepository.query(Everything())[0].attempt shouldBe 5
+    }
+
+    @Test
+    fun testQuery_compositeCarriesHighestPriority() {
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 10)))
+        requestModelRepository.add(RequestModel.Builder(requestModel("event1", "https://emarsys.com/event/1")).priority(RequestPriority.LOW).build())
+        requestModelRepository.add(RequestModel.Builder(requestModel("event2", "https://emarsys.com/event/2")).priority(RequestPriority.HIGH).build())
+
+        coalescingRepository.query(Everything())[0].priority shouldBe RequestPriority.HIGH
+    }
+
+    @Test
+    fun testQuery_appliesEveryRegisteredStrategy() {
+        coalescingRepository.addStrategies(listOf(
+                FakeStrategy("https://emarsys.com/event/%", 10),
+                FakeStrategy("https://emarsys.com/click/%", 10)))
+        listOf(
+                requestModel("event1", "https://emarsys.com/event/1"),
+                requestModel("click1", "https://emarsys.com/click/1"),
+                requestModel("event2", "https://emarsys.com/event/2"),
+                requestModel("click2", "https://emarsys.com/click/2")
+        ).forEach { requestModelRepository.add(it) }
+
+        val result = coalescingRepository.query(Everything())
+
+        result.size shouldBe 2
+        (result[0] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("event1", "event2")
+        (result[1] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("click1", "click2")
+    }
+
+    @Test
+    fun testQuery_buildsCompositeFromResult_whenResultHoldsEveryCandidate() {
+        val spyRepository = spy(requestModelRepository)
+        coalescingRepository = CoalescingRequestRepository(spyRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 10)))
+        listOf("event1", "event2").forEach {
+            requestModelRepository.add(requestModel(it, "https://emarsys.com/event/$it"))
+        }
+        val specification = QueryNextRequestModels(arrayOf(), 10)
+
+        val result = coalescingRepository.query(specification)
+
+        (result[0] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("event1", "event2")
+        verify(spyRepository).query(specification)
+        verifyNoMoreInteractions(spyRepository)
+    }
+
+    @Test
+    fun testQuery_buildsCompositeFromResult_whenResultFillsTheBatch() {
+        val spyRepository = spy(requestModelRepository)
+        coalescingRepository = CoalescingRequestRepository(spyRepository, mockTimestampProvider, mockUuidProvider, inFlightRequestIdsGettable)
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 2)))
+        listOf("event1", "event2", "event3").forEach {
+            requestModelRepository.add(requestModel(it, "https://emarsys.com/event/$it"))
+        }
+        val specification = QueryNextRequestModels(arrayOf(), 2)
+
+        val result = coalescingRepository.query(specification)
+
+        (result[0] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("event1", "event2")
+        verify(spyRepository).query(specification)
+        verifyNoMoreInteractions(spyRepository)
+    }
+
+    @Test
+    fun testQuery_looksBeyondResult_whenResultIsCutOffByItsLimit() {
+        coalescingRepository.addStrategies(listOf(FakeStrategy("https://emarsys.com/event/%", 10)))
+        val other = requestModel("other", "https://other.com/1")
+        listOf(requestModel("event1", "https://emarsys.com/event/1"), other, requestModel("event2", "https://emarsys.com/event/2"))
+                .forEach { requestModelRepository.add(it) }
+
+        val result = coalescingRepository.query(QueryNextRequestModels(arrayOf(), 2))
+
+        result.size shouldBe 2
+        (result[0] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("event1", "event2")
+        result[1] shouldBe other
+    }
+
+    @Test
+    fun testCompileUrlPattern() {
+        with(CoalescingRequestRepository.compileUrlPattern("https://emarsys.com/v_/%")) {
+            matcher("https://emarsys.com/v3/events").matches() shouldBe true
+            matcher("HTTPS://EMARSYS.COM/V3/").matches() shouldBe true
+            matcher("https://emarsys.com/v33/events").matches() shouldBe false
+            matcher("https://emarsysXcom/v3/events").matches() shouldBe false
+        }
+    }
+
+    private fun requestModel(id: String, url: String, attempt: Int = 0) =
+            RequestModel(url, RequestMethod.POST, mapOf<String, Any>("id" to id), mapOf("header" to id), TIMESTAMP, Long.MAX_VALUE, id, attempt)
+
+    private class FakeStrategy(private val urlPattern: String, private val maxBatchSize: Int) : CoalescingStrategy {
+
+        override fun getUrlPattern() = urlPattern
+
+        override fun getMaxBatchSize() = maxBatchSize
+
+        override fun mergePayloads(requestModels: List<RequestModel>): Map<String, Any> =
+                mapOf("merged" to requestModels.map { it.payload!!["id"] })
+    }
+}
@@ -8,6 +8,7 @@ import com.emarsys.core.database.repository.SqlSpecification
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.response.ResponseModel
 import com.emarsys.core.worker.CoreCompletionHandlerMiddleware
+import com.emarsys.core.worker.RetryScheduler
 import com.emarsys.core.worker.Worker
 import com.emarsys.testUtil.TimeoutUtils
 import com.emarsys.testUtil.mockito.whenever
@@ -33,6 +34,7 @@ class CoreCompletionHandlerMiddlewareProviderTest {
     private lateinit var mockWorker: Worker
     private lateinit var mockRequestModel: RequestModel
     private lateinit var mockResponseModel: ResponseModel
+    private lateinit var mockRetryScheduler: RetryScheduler
 
     private lateinit var coreCompletionHandlerMiddlewareProvider: CoreCompletionHandlerMiddlewareProvider
     private lateinit var latch: CountDownLatch
@@ -55,8 +57,9 @@ class CoreCompletionHandlerMiddlewareProviderTest {
             whenever(it.onSuccess(any(), any())).thenAnswer { latch.countDown() }
         }
         mockWorker = mock(Worker::class.java)
+        mockRetryScheduler = mock(RetryScheduler::class.java)
 
-        coreCompletionHandlerMiddlewareProvider = CoreCompletionHandlerMiddlewareProvider(mockCoreCompletionHandler, mockRequestRepository, mockUiHandler, mockCoreSdkHandler)
+        coreCompletionHandlerMiddlewareProvider = CoreCompletionHandlerMiddlewareProvider(mockCoreCompletionHandler, mockRequestRepository, mockUiHandler, mockCoreSdkHandler, mockRetryScheduler)
     }
 
     @Test(expected = IllegalArgumentException::class)
@@ -65,7 +68,8 @@ class CoreCompletionHandlerMiddlewareProviderTest {
                 mockCoreCompletionHandler,
                 null,
                 mockUiHandler,
-                mockCoreSdkHandler
+                mockCoreSdkHandler,
+                mockRetryScheduler
         )
     }
 
@@ -75,7 +79,8 @@ class CoreCompletionHandlerMiddlewareProviderTest {
                 mockCoreCompletionHandler,
                 mockRequestRepository,
                 null,
-                mockCoreSdkHandler
+                mockCoreSdkHandler,
+                mockRetryScheduler
         )
     }
 
@@ -85,6 +90,18 @@ class CoreCompletionHandlerMiddlewareProviderTest {
                 mockCoreCompletionHandler,
                 mockRequestRepository,
                 mockUiHandler,
+                null,
+                mockRetryScheduler
+        )
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_retryScheduler_mustNotBeNull() {
+        CoreCompletionHandlerMiddlewareProvider(
+                mockCoreCompletionHandler,
+                mockRequestRepository,
+                mockUiHandler,
+                mockCoreSdkHandler,
                 null
         )
     }
@@ -95,18 +112,24 @@ class CoreCompletionHandlerMiddlewareProviderTest {
                 null,
                 mockRequestRepository,
                 mockUiHandler,
-                mockCoreSdkHandler
+                mockCoreSdkHandler,
+                mockRetryScheduler
         )
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testCreateCompletionHandler_worker_mustNotBeNull() {
-        coreCompletionHandlerMiddlewareProvider.provideProxy(null)
+        coreCompletionHandlerMiddlewareProvider.provideProxy(null, mockRequestModel)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testCreateCompletionHandler_requestModel_mustNotBeNull() {
+        coreCompletionHandlerMiddlewareProvider.provideProxy(mockWorker, null)
     }
 
     @Test
     fun testCreateCompletionHandler_shouldReturnWithMiddleware_withDefaultCompletionHandler_whenWorkerIsPresent() {
-        val result = coreCompletionHandlerMiddlewareProvider.provideProxy(mockWorker)
+        val result = coreCompletionHandlerMiddlewareProvider.provideProxy(mockWorker, mockRequestModel)
 
         result should beInstanceOf(CoreCompletionHandlerMiddleware::class)
 
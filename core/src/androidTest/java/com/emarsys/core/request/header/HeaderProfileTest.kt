@@ -0,0 +1,69 @@
+package com.emarsys.core.request.header
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.inOrder
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.verifyZeroInteractions
+import java.net.HttpURLConnection
+
+class HeaderProfileTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_headers_mustNotBeNull() {
+        HeaderProfile(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_headerValues_mustNotBeNull() {
+        HeaderProfile(mapOf("key" to null))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testApplyTo_connection_mustNotBeNull() {
+        HeaderProfile.EMPTY.applyTo(null)
+    }
+
+    @Test
+    fun testApplyTo_setsHeaders_inOrder() {
+        val connection = mock(HttpURLConnection::class.java)
+
+        HeaderProfile(linkedMapOf("first" to "1", "second" to "2")).applyTo(connection)
+
+        val inOrder = inOrder(connection)
+        inOrder.verify(connection).setRequestProperty("first", "1")
+        inOrder.verify(connection).setRequestProperty("second", "2")
+        inOrder.verifyNoMoreInteractions()
+    }
+
+    @Test
+    fun testApplyTo_empty_doesNothing() {
+        val connection = mock(HttpURLConnection::class.java)
+
+        HeaderProfile.EMPTY.applyTo(connection)
+
+        verifyZeroInteractions(connection)
+    }
+
+    @Test
+    fun testHeaders_areCopied() {
+        val headers = mutableMapOf("key" to "value")
+        val profile = HeaderProfile(headers)
+
+        headers["key"] = "changed"
+
+        profile.headers shouldBe mapOf("key" to "value")
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testHeaders_areImmutable() {
+        (HeaderProfile(mapOf("key" to "value")).headers as MutableMap<String, String>)["key"] = "changed"
+    }
+}
@@ -0,0 +1,159 @@
+package com.emarsys.core.request.model
+
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.request.model.specification.FilterByExpired
+import com.emarsys.core.request.model.specification.FilterByRequestId
+import com.emarsys.core.request.model.specification.QueryLatestRequestModel
+import com.emarsys.core.request.model.specification.QueryNextRequestModels
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class IndexedRequestModelRepositoryTest {
+
+    companion object {
+        const val READ_AHEAD_SIZE = 2
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var coreDbHelper: CoreDbHelper
+    private lateinit var databaseRepository: RequestModelRepository
+    private lateinit var repository: IndexedRequestModelRepository
+
+    @Before
+    fun init() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        coreDbHelper = CoreDbHelper(context, mapOf())
+        databaseRepository = RequestModelRepository(coreDbHelper)
+        repository = IndexedRequestModelRepository(coreDbHelper, READ_AHEAD_SIZE)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_readAheadSize_mustBeGreaterThanZero() {
+        IndexedRequestModelRepository(coreDbHelper, 0)
+    }
+
+    @Test
+    fun testCount_isRebuiltFromDatabase() {
+        listOf(requestModel("id1"), requestModel("id2"), requestModel("id3")).forEach(databaseRepository::add)
+
+        repository.count() shouldBe 3
+        repository.isEmpty shouldBe false
+    }
+
+    @Test
+    fun testCount_isServedFromMemory_afterLoad() {
+        repository.isEmpty shouldBe true
+
+        databaseRepository.add(requestModel("id1"))
+
+        repository.count() shouldBe 0
+    }
+
+    @Test
+    fun testCount_followsAddAndRemove() {
+        repository.count()
+
+        repository.add(requestModel("id1"))
+        repository.addAll(listOf(requestModel("id2"), requestModel("id3")))
+        repository.count() shouldBe 3
+
+        repository.remove(FilterByRequestId(requestModel("id2")))
+        repository.count() shouldBe 2
+
+        repository.remove(FilterByRequestId(requestModel("unknown")))
+        repository.count() shouldBe 2
+
+        repository.remove(Everything())
+        repository.count() shouldBe 0
+    }
+
+    @Test
+    fun testQuery_nextRequestModels_matchesDatabaseOrdering() {
+        databaseRepository.add(requestModel("id1", RequestPriority.LOW))
+        databaseRepository.add(requestModel("id2"))
+        repository.count()
+
+        repository.add(requestModel("id3", RequestPriority.HIGH))
+        repository.add(requestModel("id4"))
+        repository.add(requestModel("id5", RequestPriority.LOW))
+
+        val specification = QueryNextRequestModels(arrayOf(), 4)
+        repository.query(specification) shouldBe databaseRepository.query(specification)
+    }
+
+    @Test
+    fun testQuery_nextRequestModels_skipsExcludedRequests() {
+        repository.addAll(listOf(requestModel("id1"), requestModel("id2"), requestModel("id3")))
+
+        val specification = QueryNextRequestModels(arrayOf("id1"), 2)
+        repository.query(specification) shouldBe listOf(requestModel("id2"), requestModel("id3"))
+    }
+
+    @Test
+    fun testQuery_latestRequestModel_refillsHead_afterRemove() {
+        repository.addAll(listOf(requestModel("id1"), requestModel("id2"), requestModel("id3")))
+        repository.query(QueryLatestRequestModel()) shouldBe listOf(requestModel("id1"))
+
+        repository.remove(FilterByRequestId(requestModel("id1")))
+        repository.remove(FilterByRequestId(requestModel("id2")))
+
+        repository.head shouldBe listOf()
+        repository.query(QueryLatestRequestModel()) shouldBe listOf(requestModel("id3"))
+    }
+
+    @Test
+    fun testQuery_otherSpecifications_areDelegatedToDatabase() {
+        repository.addAll(listOf(requestModel("id1"), requestModel("id2"), requestModel("id3")))
+
+        repository.query(Everything()) shouldBe databaseRepository.query(Everything())
+    }
+
+    @Test
+    fun testRemove_withOtherSpecification_refillsHead() {
+        repository.add(RequestModel("https://emarsys.com/id1", RequestMethod.POST, mapOf(), mapOf(), 0, 1, "id1"))
+        repository.add(requestModel("id2"))
+        repository.query(QueryLatestRequestModel())
+
+        repository.remove(FilterByExpired(System.currentTimeMillis()))
+
+        repository.count() shouldBe 1
+        repository.head shouldBe listOf(requestModel("id2"))
+    }
+
+    @Test
+    fun testRemoveAll_updatesHeadAndCount() {
+        repository.addAll(listOf(requestModel("id1"), requestModel("id2")))
+        repository.query(QueryLatestRequestModel())
+
+        repository.removeAll(listOf(FilterByRequestId(requestModel("id1"))))
+
+        repository.count() shouldBe 1
+        repository.head shouldBe listOf(requestModel("id2"))
+    }
+
+    @Test
+    fun testUpdateAttempt_updatesCachedRequests() {
+        repository.addAll(listOf(requestModel("id1"), requestModel("id2")))
+        repository.query(QueryLatestRequestModel())
+
+        repository.updateAttempt(FilterByRequestId(requestModel("id1")), 3)
+
+        repository.query(QueryLatestRequestModel())[0].attempt shouldBe 3
+        databaseRepository.query(QueryLatestRequestModel())[0].attempt shouldBe 3
+    }
+
+    private fun requestModel(id: String, priority: Int = RequestPriority.NORMAL) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, mapOf(), mapOf(), 1000, Long.MAX_VALUE, id, 0, priority)
+}
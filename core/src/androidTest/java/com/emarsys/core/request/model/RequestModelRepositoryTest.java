@@ -9,6 +9,9 @@ import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.helper.CoreDbHelper;
 import com.emarsys.core.database.repository.specification.Everything;
 import com.emarsys.core.database.trigger.TriggerKey;
+import com.emarsys.core.request.model.specification.FilterByRequestId;
+import com.emarsys.core.util.JsonStreamWriter;
+import com.emarsys.core.util.serialization.BlobCodec;
 import com.emarsys.testUtil.DatabaseTestUtils;
 import com.emarsys.testUtil.InstrumentationRegistry;
 import com.emarsys.testUtil.TimeoutUtils;
@@ -23,9 +26,13 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_ATTEMPT;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_BODY;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HEADERS;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_METHOD;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PAYLOAD;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_SUPERSESSION_KEY;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TIMESTAMP;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TTL;
@@ -33,6 +40,7 @@ import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_URL
 import static com.emarsys.core.util.serialization.SerializationUtils.serializableToBlob;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -85,10 +93,36 @@ public class RequestModelRepositoryTest {
         assertEquals(request.getId(), result.getAsString(REQUEST_COLUMN_NAME_REQUEST_ID));
         assertEquals(request.getMethod().name(), result.getAsString(REQUEST_COLUMN_NAME_METHOD));
         assertEquals(request.getUrl().toString(), result.getAsString(REQUEST_COLUMN_NAME_URL));
-        assertArrayEquals(serializableToBlob(request.getHeaders()), result.getAsByteArray(REQUEST_COLUMN_NAME_HEADERS));
-        assertArrayEquals(serializableToBlob(request.getPayload()), result.getAsByteArray(REQUEST_COLUMN_NAME_PAYLOAD));
+        assertArrayEquals(BlobCodec.encode(request.getHeaders()), result.getAsByteArray(REQUEST_COLUMN_NAME_HEADERS));
+        assertArrayEquals(BlobCodec.encode(request.getPayload()), result.getAsByteArray(REQUEST_COLUMN_NAME_PAYLOAD));
         assertEquals(request.getTimestamp(), (long) result.getAsLong(REQUEST_COLUMN_NAME_TIMESTAMP));
         assertEquals(request.getTtl(), (long) result.getAsLong(REQUEST_COLUMN_NAME_TTL));
+        assertEquals(request.getAttempt(), (int) result.getAsInteger(REQUEST_COLUMN_NAME_ATTEMPT));
+        assertEquals(request.getPriority(), (int) result.getAsInteger(REQUEST_COLUMN_NAME_PRIORITY));
+        assertEquals(request.getSupersessionKey(), result.getAsString(REQUEST_COLUMN_NAME_SUPERSESSION_KEY));
+        assertNull(result.getAsByteArray(REQUEST_COLUMN_NAME_BODY));
+    }
+
+    @Test
+    public void testContentValuesFromItem_withBody_storesBodyInsteadOfPayload() {
+        RequestModel requestWithBody = new RequestModel.Builder(request).encodeBody().build();
+
+        ContentValues result = repository.contentValuesFromItem(requestWithBody);
+
+        assertNull(result.getAsByteArray(REQUEST_COLUMN_NAME_PAYLOAD));
+        assertArrayEquals(JsonStreamWriter.toByteArray(payload), result.getAsByteArray(REQUEST_COLUMN_NAME_BODY));
+    }
+
+    @Test
+    public void testQuery_withBody_returnsBodyWithoutDecodingPayloadBlob() {
+        RequestModel requestWithBody = new RequestModel.Builder(request).encodeBody().build();
+        repository.add(requestWithBody);
+
+        RequestModel result = repository.query(new Everything()).get(0);
+
+        assertArrayEquals(requestWithBody.getBody(), result.getBody());
+        assertEquals(requestWithBody, result);
+        assertEquals(payload, result.getPayload());
     }
 
     @Test
@@ -104,6 +138,41 @@ public class RequestModelRepositoryTest {
         when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_URL)).thenReturn(2);
         when(cursor.getString(2)).thenReturn(URL);
 
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_HEADERS)).thenReturn(3);
+        when(cursor.getBlob(3)).thenReturn(BlobCodec.encode(headers));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PAYLOAD)).thenReturn(4);
+        when(cursor.getBlob(4)).thenReturn(BlobCodec.encode(payload));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TIMESTAMP)).thenReturn(5);
+        when(cursor.getLong(5)).thenReturn(TIMESTAMP);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TTL)).thenReturn(6);
+        when(cursor.getLong(6)).thenReturn(TTL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PRIORITY)).thenReturn(8);
+        when(cursor.getInt(8)).thenReturn(RequestPriority.NORMAL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_SUPERSESSION_KEY)).thenReturn(9);
+
+        RequestModel result = repository.itemFromCursor(cursor);
+
+        assertEquals(request, result);
+    }
+
+    @Test
+    public void testItemFromCursor_withLegacyBlobs() {
+        Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_REQUEST_ID)).thenReturn(0);
+        when(cursor.getString(0)).thenReturn(REQUEST_ID);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_METHOD)).thenReturn(1);
+        when(cursor.getString(1)).thenReturn(RequestMethod.GET.name());
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_URL)).thenReturn(2);
+        when(cursor.getString(2)).thenReturn(URL);
+
         when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_HEADERS)).thenReturn(3);
         when(cursor.getBlob(3)).thenReturn(serializableToBlob(headers));
 
@@ -116,11 +185,150 @@ public class RequestModelRepositoryTest {
         when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TTL)).thenReturn(6);
         when(cursor.getLong(6)).thenReturn(TTL);
 
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PRIORITY)).thenReturn(8);
+        when(cursor.getInt(8)).thenReturn(RequestPriority.NORMAL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_SUPERSESSION_KEY)).thenReturn(9);
+
         RequestModel result = repository.itemFromCursor(cursor);
 
         assertEquals(request, result);
     }
 
+    @Test
+    public void testItemFromCursor_withAttempt() {
+        Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_REQUEST_ID)).thenReturn(0);
+        when(cursor.getString(0)).thenReturn(REQUEST_ID);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_METHOD)).thenReturn(1);
+        when(cursor.getString(1)).thenReturn(RequestMethod.GET.name());
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_URL)).thenReturn(2);
+        when(cursor.getString(2)).thenReturn(URL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_HEADERS)).thenReturn(3);
+        when(cursor.getBlob(3)).thenReturn(BlobCodec.encode(headers));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PAYLOAD)).thenReturn(4);
+        when(cursor.getBlob(4)).thenReturn(BlobCodec.encode(payload));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TIMESTAMP)).thenReturn(5);
+        when(cursor.getLong(5)).thenReturn(TIMESTAMP);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TTL)).thenReturn(6);
+        when(cursor.getLong(6)).thenReturn(TTL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_ATTEMPT)).thenReturn(7);
+        when(cursor.getInt(7)).thenReturn(3);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PRIORITY)).thenReturn(8);
+        when(cursor.getInt(8)).thenReturn(RequestPriority.NORMAL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_SUPERSESSION_KEY)).thenReturn(9);
+
+        RequestModel result = repository.itemFromCursor(cursor);
+
+        assertEquals(new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, REQUEST_ID, 3), result);
+    }
+
+    @Test
+    public void testItemFromCursor_withPriority() {
+        Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_REQUEST_ID)).thenReturn(0);
+        when(cursor.getString(0)).thenReturn(REQUEST_ID);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_METHOD)).thenReturn(1);
+        when(cursor.getString(1)).thenReturn(RequestMethod.GET.name());
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_URL)).thenReturn(2);
+        when(cursor.getString(2)).thenReturn(URL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_HEADERS)).thenReturn(3);
+        when(cursor.getBlob(3)).thenReturn(BlobCodec.encode(headers));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PAYLOAD)).thenReturn(4);
+        when(cursor.getBlob(4)).thenReturn(BlobCodec.encode(payload));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TIMESTAMP)).thenReturn(5);
+        when(cursor.getLong(5)).thenReturn(TIMESTAMP);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TTL)).thenReturn(6);
+        when(cursor.getLong(6)).thenReturn(TTL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_ATTEMPT)).thenReturn(7);
+        when(cursor.getInt(7)).thenReturn(0);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PRIORITY)).thenReturn(8);
+        when(cursor.getInt(8)).thenReturn(RequestPriority.HIGH);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_SUPERSESSION_KEY)).thenReturn(9);
+
+        RequestModel result = repository.itemFromCursor(cursor);
+
+        assertEquals(new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, REQUEST_ID, 0, RequestPriority.HIGH), result);
+    }
+
+    @Test
+    public void testItemFromCursor_withSupersessionKey() {
+        Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_REQUEST_ID)).thenReturn(0);
+        when(cursor.getString(0)).thenReturn(REQUEST_ID);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_METHOD)).thenReturn(1);
+        when(cursor.getString(1)).thenReturn(RequestMethod.GET.name());
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_URL)).thenReturn(2);
+        when(cursor.getString(2)).thenReturn(URL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_HEADERS)).thenReturn(3);
+        when(cursor.getBlob(3)).thenReturn(BlobCodec.encode(headers));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PAYLOAD)).thenReturn(4);
+        when(cursor.getBlob(4)).thenReturn(BlobCodec.encode(payload));
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TIMESTAMP)).thenReturn(5);
+        when(cursor.getLong(5)).thenReturn(TIMESTAMP);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TTL)).thenReturn(6);
+        when(cursor.getLong(6)).thenReturn(TTL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_ATTEMPT)).thenReturn(7);
+        when(cursor.getInt(7)).thenReturn(0);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PRIORITY)).thenReturn(8);
+        when(cursor.getInt(8)).thenReturn(RequestPriority.NORMAL);
+
+        when(cursor.getColumnIndex(REQUEST_COLUMN_NAME_SUPERSESSION_KEY)).thenReturn(9);
+        when(cursor.getString(9)).thenReturn("push-token");
+
+        RequestModel result = repository.itemFromCursor(cursor);
+
+        assertEquals(new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, REQUEST_ID, 0, RequestPriority.NORMAL, "push-token"), result);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateAttempt_specification_mustNotBeNull() {
+        repository.updateAttempt(null, 1);
+    }
+
+    @Test
+    public void testUpdateAttempt() {
+        RequestModel other = new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "otherId");
+        repository.add(request);
+        repository.add(other);
+
+        repository.updateAttempt(new FilterByRequestId(request), 2);
+
+        List<RequestModel> expected = Arrays.asList(
+                new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, REQUEST_ID, 2),
+                other);
+        assertEquals(expected, repository.query(new Everything()));
+    }
+
     @Test
     public void testQuery_shouldFallBack_toEmptyMap_shouldDeserializationFail() throws JSONException {
         initializeDatabaseWithCorrectAndIncorrectData();
@@ -164,8 +372,8 @@ public class RequestModelRepositoryTest {
         contentValues.put(REQUEST_COLUMN_NAME_REQUEST_ID, id);
         contentValues.put(REQUEST_COLUMN_NAME_METHOD, RequestMethod.POST.toString());
         contentValues.put(REQUEST_COLUMN_NAME_URL, URL_EMARSYS);
-        contentValues.put(REQUEST_COLUMN_NAME_HEADERS, serializableToBlob(new HashMap<>()));
-        contentValues.put(REQUEST_COLUMN_NAME_PAYLOAD, serializableToBlob(attributes));
+        contentValues.put(REQUEST_COLUMN_NAME_HEADERS, BlobCodec.encode(new HashMap<>()));
+        contentValues.put(REQUEST_COLUMN_NAME_PAYLOAD, BlobCodec.encode(attributes));
         contentValues.put(REQUEST_COLUMN_NAME_TIMESTAMP, 100);
         contentValues.put(REQUEST_COLUMN_NAME_TTL, 300);
         return contentValues;
@@ -4,6 +4,7 @@ import android.net.Uri;
 
 import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.provider.uuid.UUIDProvider;
+import com.emarsys.core.util.JsonStreamWriter;
 import com.emarsys.testUtil.TimeoutUtils;
 
 import org.junit.Before;
@@ -15,8 +16,12 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -198,6 +203,161 @@ public class RequestModelTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void testBuilder_from_keepsAttempt() {
+        RequestModel expected = new RequestModel(url, method, payload, headers, timestamp, ttl, id, 3);
+
+        RequestModel result = new RequestModel.Builder(expected).build();
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testBuilder_attemptCorrectlySet() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .attempt(2)
+                .build();
+
+        assertEquals(2, result.getAttempt());
+    }
+
+    @Test
+    public void testBuilder_priorityDefaultsToNormal() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .build();
+
+        assertEquals(RequestPriority.NORMAL, result.getPriority());
+    }
+
+    @Test
+    public void testBuilder_priorityCorrectlySet() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .priority(RequestPriority.HIGH)
+                .build();
+
+        assertEquals(RequestPriority.HIGH, result.getPriority());
+    }
+
+    @Test
+    public void testBuilder_from_keepsPriority() {
+        RequestModel expected = new RequestModel(url, method, payload, headers, timestamp, ttl, id, 0, RequestPriority.LOW);
+
+        RequestModel result = new RequestModel.Builder(expected).build();
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testBuilder_supersessionKeyDefaultsToNull() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .build();
+
+        assertNull(result.getSupersessionKey());
+    }
+
+    @Test
+    public void testBuilder_supersessionKeyCorrectlySet() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .supersessionKey("push-token")
+                .build();
+
+        assertEquals("push-token", result.getSupersessionKey());
+    }
+
+    @Test
+    public void testBuilder_from_keepsSupersessionKey() {
+        RequestModel expected = new RequestModel(url, method, payload, headers, timestamp, ttl, id, 0, RequestPriority.LOW, "push-token");
+
+        RequestModel result = new RequestModel.Builder(expected).build();
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testBuilder_bodyDefaultsToNull() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .payload(payload)
+                .build();
+
+        assertNull(result.getBody());
+    }
+
+    @Test
+    public void testBuilder_encodeBody_encodesPayloadToWireFormat() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .payload(payload)
+                .encodeBody()
+                .build();
+
+        assertArrayEquals(JsonStreamWriter.toByteArray(payload), result.getBody());
+    }
+
+    @Test
+    public void testBuilder_encodeBody_withoutPayload() {
+        RequestModel result = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(url)
+                .encodeBody()
+                .build();
+
+        assertNull(result.getBody());
+    }
+
+    @Test
+    public void testBuilder_from_keepsBody() {
+        RequestModel expected = new RequestModel(url, method, null, headers, timestamp, ttl, id, 0, RequestPriority.LOW, null, JsonStreamWriter.toByteArray(payload));
+
+        RequestModel result = new RequestModel.Builder(expected).build();
+
+        assertArrayEquals(expected.getBody(), result.getBody());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testBuilder_from_reEncodesBody_whenPayloadChanges() {
+        RequestModel original = new RequestModel(url, method, null, headers, timestamp, ttl, id, 0, RequestPriority.LOW, null, JsonStreamWriter.toByteArray(payload));
+        Map<String, Object> newPayload = new HashMap<>();
+        newPayload.put("key", "value");
+
+        RequestModel result = new RequestModel.Builder(original).payload(newPayload).build();
+
+        assertArrayEquals(JsonStreamWriter.toByteArray(newPayload), result.getBody());
+    }
+
+    @Test
+    public void testGetPayload_decodesBody_whenPayloadIsMissing() {
+        RequestModel result = new RequestModel(url, method, null, headers, timestamp, ttl, id, 0, RequestPriority.LOW, null, JsonStreamWriter.toByteArray(payload));
+
+        assertEquals(payload, result.getPayload());
+    }
+
+    @Test
+    public void testGetPayload_doesNotCacheDecodedBody() {
+        RequestModel result = new RequestModel(url, method, null, headers, timestamp, ttl, id, 0, RequestPriority.LOW, null, JsonStreamWriter.toByteArray(payload));
+
+        result.getPayload().put("key1", "changed");
+
+        assertEquals(payload, result.getPayload());
+        assertNotSame(result.getPayload(), result.getPayload());
+    }
+
+    @Test
+    public void testEquals_comparesBodies_whenPresent() {
+        RequestModel withBody = new RequestModel(url, method, payload, headers, timestamp, ttl, id, 0, RequestPriority.LOW, null, JsonStreamWriter.toByteArray(payload));
+        RequestModel withBodyOnly = new RequestModel(url, method, null, headers, timestamp, ttl, id, 0, RequestPriority.LOW, null, JsonStreamWriter.toByteArray(payload));
+        RequestModel withoutBody = new RequestModel(url, method, payload, headers, timestamp, ttl, id, 0, RequestPriority.LOW, null);
+
+        assertEquals(withBody, withBodyOnly);
+        assertEquals(withBody.hashCode(), withBodyOnly.hashCode());
+        assertNotEquals(withBody, withoutBody);
+    }
+
     private Map<String, Object> createPayload() {
         Map<String, Object> result = new HashMap<>();
         result.put("key1", "value1");
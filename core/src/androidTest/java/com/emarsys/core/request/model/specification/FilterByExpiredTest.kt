@@ -0,0 +1,87 @@
+package com.emarsys.core.request.model.specification
+
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class FilterByExpiredTest {
+
+    companion object {
+        const val NOW = 100_000L
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var repository: RequestModelRepository
+
+    @Before
+    fun init() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        repository = RequestModelRepository(CoreDbHelper(context, mapOf()))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_excludedRequestIds_mustNotBeNull() {
+        FilterByExpired(NOW, null)
+    }
+
+    @Test
+    fun testSpecification() {
+        with(FilterByExpired(NOW)) {
+            selection shouldBe "ttl < ? - timestamp"
+            selectionArgs shouldBe arrayOf("100000")
+            orderBy shouldBe null
+            limit shouldBe null
+        }
+    }
+
+    @Test
+    fun testSpecification_withExcludedRequestIds() {
+        with(FilterByExpired(NOW, arrayOf("id1", "id2"))) {
+            selection shouldBe "ttl < ? - timestamp AND request_id NOT IN (?, ?)"
+            selectionArgs shouldBe arrayOf("100000", "id1", "id2")
+        }
+    }
+
+    @Test
+    fun testQuery_returnsOnlyExpiredRequests() {
+        val expired = createRequestModel("id1", NOW - 500, 300)
+        val notExpired = createRequestModel("id2", NOW - 500, 600)
+        val exactlyAtTtl = createRequestModel("id3", NOW - 500, 500)
+        val neverExpires = createRequestModel("id4", NOW - 500, Long.MAX_VALUE)
+
+        listOf(expired, notExpired, exactlyAtTtl, neverExpires).forEach(repository::add)
+
+        repository.query(FilterByExpired(NOW)) shouldBe listOf(expired)
+    }
+
+    @Test
+    fun testRemove_deletesExpiredRequests_exceptExcluded() {
+        val expired1 = createRequestModel("id1", NOW - 500, 300)
+        val expired2 = createRequestModel("id2", NOW - 400, 100)
+        val notExpired = createRequestModel("id3", NOW, 600)
+
+        listOf(expired1, expired2, notExpired).forEach(repository::add)
+
+        repository.remove(FilterByExpired(NOW, arrayOf("id2")))
+
+        repository.query(Everything()) shouldBe listOf(expired2, notExpired)
+    }
+
+    private fun createRequestModel(id: String, timestamp: Long, ttl: Long) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, mapOf(), mapOf(), timestamp, ttl, id)
+}
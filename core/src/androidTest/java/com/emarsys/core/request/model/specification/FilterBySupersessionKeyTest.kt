@@ -0,0 +1,122 @@
+package com.emarsys.core.request.model.specification
+
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class FilterBySupersessionKeyTest {
+
+    companion object {
+        const val KEY = "push-token"
+        const val OTHER_KEY = "contact"
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var repository: RequestModelRepository
+
+    @Before
+    fun init() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        repository = RequestModelRepository(CoreDbHelper(context, mapOf()))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_supersessionKey_mustNotBeNull() {
+        FilterBySupersessionKey(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_excludedRequestIds_mustNotBeNull() {
+        FilterBySupersessionKey(KEY, false, null)
+    }
+
+    @Test
+    fun testSpecification() {
+        with(FilterBySupersessionKey(KEY)) {
+            selection shouldBe "supersession_key = ?"
+            selectionArgs shouldBe arrayOf(KEY)
+            orderBy shouldBe null
+            limit shouldBe null
+        }
+    }
+
+    @Test
+    fun testSpecification_trailingOnly() {
+        with(FilterBySupersessionKey(KEY, true)) {
+            selection shouldBe "supersession_key = ? AND ROWID > (SELECT IFNULL(MAX(ROWID), 0) FROM request WHERE supersession_key IS NULL OR supersession_key != ?)"
+            selectionArgs shouldBe arrayOf(KEY, KEY)
+        }
+    }
+
+    @Test
+    fun testSpecification_trailingOnly_withExcludedRequestIds() {
+        with(FilterBySupersessionKey(KEY, true, arrayOf("id1", "id2"))) {
+            selection shouldBe "supersession_key = ? AND ROWID > (SELECT IFNULL(MAX(ROWID), 0) FROM request WHERE supersession_key IS NULL OR supersession_key != ?) AND request_id NOT IN (?, ?)"
+            selectionArgs shouldBe arrayOf(KEY, KEY, "id1", "id2")
+        }
+    }
+
+    @Test
+    fun testRemove_keepsExcludedRequests() {
+        val keyed1 = createRequestModel("id1", KEY)
+        val keyed2 = createRequestModel("id2", KEY)
+
+        listOf(keyed1, keyed2).forEach(repository::add)
+
+        repository.remove(FilterBySupersessionKey(KEY, false, arrayOf("id1")))
+
+        repository.query(Everything()) shouldBe listOf(keyed1)
+    }
+
+    @Test
+    fun testRemove_deletesEveryRequestWithTheSameKey() {
+        val keyed1 = createRequestModel("id1", KEY)
+        val unkeyed = createRequestModel("id2", null)
+        val keyed2 = createRequestModel("id3", KEY)
+        val otherKeyed = createRequestModel("id4", OTHER_KEY)
+
+        listOf(keyed1, unkeyed, keyed2, otherKeyed).forEach(repository::add)
+
+        repository.remove(FilterBySupersessionKey(KEY))
+
+        repository.query(Everything()) shouldBe listOf(unkeyed, otherKeyed)
+    }
+
+    @Test
+    fun testQuery_trailingOnly_skipsRequestsFollowedByOtherRequests() {
+        val keyed1 = createRequestModel("id1", KEY)
+        val unkeyed = createRequestModel("id2", null)
+        val keyed2 = createRequestModel("id3", KEY)
+        val keyed3 = createRequestModel("id4", KEY)
+
+        listOf(keyed1, unkeyed, keyed2, keyed3).forEach(repository::add)
+
+        repository.query(FilterBySupersessionKey(KEY, true)) shouldBe listOf(keyed2, keyed3)
+    }
+
+    @Test
+    fun testQuery_trailingOnly_returnsNothing_whenOtherKeyIsLast() {
+        listOf(createRequestModel("id1", KEY), createRequestModel("id2", OTHER_KEY)).forEach(repository::add)
+
+        repository.query(FilterBySupersessionKey(KEY, true)) shouldBe listOf()
+    }
+
+    private fun createRequestModel(id: String, supersessionKey: String?) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, mapOf(), mapOf(), 1000, Long.MAX_VALUE, id, 0, RequestPriority.NORMAL, supersessionKey)
+}
@@ -55,11 +55,46 @@ class FilterByUrlPatternTest {
         }
     }
 
+    @Test
+    fun testSpecification_withLimit() {
+        with(FilterByUrlPattern(pattern, 5)) {
+            selection shouldBe "url LIKE ?"
+            selectionArgs shouldBe arrayOf(pattern)
+            orderBy shouldBe "ROWID ASC"
+            limit shouldBe "5"
+        }
+    }
+
+    @Test
+    fun testSpecification_withExcludedRequestIds() {
+        with(FilterByUrlPattern(pattern, arrayOf("id1", "id2"), 5)) {
+            selection shouldBe "url LIKE ? AND request_id NOT IN (?, ?)"
+            selectionArgs shouldBe arrayOf(pattern, "id1", "id2")
+            orderBy shouldBe "ROWID ASC"
+            limit shouldBe "5"
+        }
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_excludedRequestIds_mustNotBeNull() {
+        FilterByUrlPattern(pattern, null, 5)
+    }
+
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_patternMustNotBeNull() {
         FilterByUrlPattern(null)
     }
 
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_withLimit_patternMustNotBeNull() {
+        FilterByUrlPattern(null, 5)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_limit_mustBeGreaterThanZero() {
+        FilterByUrlPattern(pattern, 0)
+    }
+
     @Test
     fun testQueryUsingFilterByUrlPattern() {
         specification = FilterByUrlPattern("https://emarsys.com/%")
@@ -78,6 +113,36 @@ class FilterByUrlPatternTest {
         resultList.shouldContainAll(expectedRequestModel, expectedRequestModel2)
     }
 
+    @Test
+    fun testQueryUsingFilterByUrlPattern_withLimit() {
+        specification = FilterByUrlPattern("https://emarsys.com/%", 2)
+
+        val expectedRequestModel = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/1").build()
+        val requestModel1 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://google.com/2").build()
+        val expectedRequestModel2 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/3").build()
+        val requestModel2 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/4").build()
+
+        repository.add(expectedRequestModel)
+        repository.add(requestModel1)
+        repository.add(expectedRequestModel2)
+        repository.add(requestModel2)
+
+        repository.query(specification) shouldBe listOf(expectedRequestModel, expectedRequestModel2)
+    }
+
+    @Test
+    fun testQueryUsingFilterByUrlPattern_withExcludedRequestIds() {
+        val excludedRequestModel = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/1").build()
+        val expectedRequestModel = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/2").build()
+
+        repository.add(excludedRequestModel)
+        repository.add(expectedRequestModel)
+
+        specification = FilterByUrlPattern("https://emarsys.com/%", arrayOf(excludedRequestModel.id), 10)
+
+        repository.query(specification) shouldBe listOf(expectedRequestModel)
+    }
+
     @Test
     fun testDeleteUsingFilterByUrlPattern() {
         specification = FilterByUrlPattern("https://emarsys.com/%")
@@ -0,0 +1,239 @@
+package com.emarsys.core.request.supersession
+
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.provider.Gettable
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.core.request.model.specification.FilterBySupersessionKey
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.Mockito.*
+
+class SupersedingRequestRepositoryTest {
+
+    companion object {
+        const val KEY = "push-token"
+        const val TRAILING_KEY = "contact"
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockRepository: Repository<RequestModel, SqlSpecification>
+    private lateinit var mockListener: SupersessionListener
+    private lateinit var mockInFlightRequestIds: Gettable<Array<String>>
+    private lateinit var repository: SupersedingRequestRepository
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        mockRepository = mock(Repository::class.java) as Repository<RequestModel, SqlSpecification>
+        whenever(mockRepository.query(any(SqlSpecification::class.java))).thenReturn(listOf())
+        doAnswer {
+            (it.arguments[0] as Runnable).run()
+        }.`when`(mockRepository).inTransaction(any(Runnable::class.java))
+        mockListener = mock(SupersessionListener::class.java)
+        mockInFlightRequestIds = (mock(Gettable::class.java) as Gettable<Array<String>>).apply {
+            whenever(get()).thenReturn(arrayOf())
+        }
+
+        repository = SupersedingRequestRepository(mockRepository, mockListener, mockInFlightRequestIds)
+        repository.addTrailingOnlyKeys(listOf(TRAILING_KEY))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestRepository_mustNotBeNull() {
+        SupersedingRequestRepository(null, mockListener, mockInFlightRequestIds)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_supersessionListener_mustNotBeNull() {
+        SupersedingRequestRepository(mockRepository, null, mockInFlightRequestIds)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_inFlightRequestIds_mustNotBeNull() {
+        SupersedingRequestRepository(mockRepository, mockListener, null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddTrailingOnlyKeys_keys_mustNotBeNull() {
+        repository.addTrailingOnlyKeys(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddTrailingOnlyKeys_keyElements_mustNotBeNull() {
+        repository.addTrailingOnlyKeys(listOf(KEY, null))
+    }
+
+    @Test
+    fun testAdd_withoutKey_isDelegatedWithoutQuery() {
+        val model = createRequestModel("id1", null)
+
+        repository.add(model)
+
+        verify(mockRepository).add(model)
+        verifyNoMoreInteractions(mockRepository)
+        verifyZeroInteractions(mockListener)
+    }
+
+    @Test
+    fun testAdd_withKey_removesSupersededRequests_andNotifiesListener() {
+        val model = createRequestModel("id3", KEY)
+        whenever(mockRepository.query(any(SqlSpecification::class.java))).thenReturn(listOf(
+                createRequestModel("id1", KEY),
+                createRequestModel("id2", KEY)))
+
+        repository.add(model)
+
+        val captor = ArgumentCaptor.forClass(SqlSpecification::class.java)
+        val inOrder = inOrder(mockRepository, mockListener)
+        inOrder.verify(mockRepository).inTransaction(any(Runnable::class.java))
+        inOrder.verify(mockRepository).query(captor.capture())
+        inOrder.verify(mockRepository).remove(captor.value)
+        inOrder.verify(mockRepository).add(model)
+        inOrder.verify(mockListener).onSuperseded(model, listOf("id1", "id2"))
+
+        captor.value.selection shouldBe FilterBySupersessionKey(KEY).selection
+        captor.value.selectionArgs shouldBe arrayOf(KEY)
+    }
+
+    @Test
+    fun testAdd_withKey_whenNothingIsSuperseded() {
+        val model = createRequestModel("id1", KEY)
+
+        repository.add(model)
+
+        verify(mockRepository).inTransaction(any(Runnable::class.java))
+        verify(mockRepository).query(any(SqlSpecification::class.java))
+        verify(mockRepository).add(model)
+        verifyNoMoreInteractions(mockRepository)
+        verifyZeroInteractions(mockListener)
+    }
+
+    @Test
+    fun testAdd_withTrailingOnlyKey_usesTrailingOnlySpecification() {
+        repository.add(createRequestModel("id1", TRAILING_KEY))
+
+        val captor = ArgumentCaptor.forClass(SqlSpecification::class.java)
+        verify(mockRepository).query(captor.capture())
+
+        captor.value.selection shouldBe FilterBySupersessionKey(TRAILING_KEY, true).selection
+        captor.value.selectionArgs shouldBe arrayOf(TRAILING_KEY, TRAILING_KEY)
+    }
+
+    @Test
+    fun testAdd_withKey_doesNotSupersedeInFlightRequests() {
+        whenever(mockInFlightRequestIds.get()).thenReturn(arrayOf("id1", "id2"))
+
+        repository.add(createRequestModel("id3", KEY))
+
+        val captor = ArgumentCaptor.forClass(SqlSpecification::class.java)
+        verify(mockRepository).query(captor.capture())
+
+        captor.value.selection shouldBe FilterBySupersessionKey(KEY, false, arrayOf("id1", "id2")).selection
+        captor.value.selectionArgs shouldBe arrayOf(KEY, "id1", "id2")
+    }
+
+    @Test
+    fun testAddAll_flushesPendingRequests_beforeSupersedingKeyedRequest() {
+        val unkeyed1 = createRequestModel("id1", null)
+        val keyed = createRequestModel("id2", TRAILING_KEY)
+        val unkeyed2 = createRequestModel("id3", null)
+
+        repository.addAll(listOf(unkeyed1, keyed, unkeyed2))
+
+        val inOrder = inOrder(mockRepository)
+        inOrder.verify(mockRepository).inTransaction(any(Runnable::class.java))
+        inOrder.verify(mockRepository).addAll(listOf(unkeyed1))
+        inOrder.verify(mockRepository).query(any(SqlSpecification::class.java))
+        inOrder.verify(mockRepository).addAll(listOf(keyed, unkeyed2))
+        verifyNoMoreInteractions(mockRepository)
+    }
+
+    @Test
+    fun testAddAll_notifiesListener_afterEveryRequestIsAdded() {
+        val keyed = createRequestModel("id2", KEY)
+        val unkeyed = createRequestModel("id3", null)
+        whenever(mockRepository.query(any(SqlSpecification::class.java))).thenReturn(listOf(createRequestModel("id1", KEY)))
+
+        repository.addAll(listOf(keyed, unkeyed))
+
+        val inOrder = inOrder(mockRepository, mockListener)
+        inOrder.verify(mockRepository).addAll(listOf(keyed, unkeyed))
+        inOrder.verify(mockListener).onSuperseded(keyed, listOf("id1"))
+    }
+
+    @Test
+    fun testAddAll_withoutKeys_isDelegatedInOneCall() {
+        val models = listOf(createRequestModel("id1", null), createRequestModel("id2", null))
+
+        repository.addAll(models)
+
+        verify(mockRepository).addAll(models)
+        verifyNoMoreInteractions(mockRepository)
+    }
+
+    @Test
+    fun testRemove_isDelegated() {
+        val specification = Everything()
+
+        repository.remove(specification)
+
+        verify(mockRepository).remove(specification)
+    }
+
+    @Test
+    fun testRemoveAll_isDelegated() {
+        val specifications = listOf<SqlSpecification>(Everything(), Everything())
+
+        repository.removeAll(specifications)
+
+        verify(mockRepository).removeAll(specifications)
+    }
+
+    @Test
+    fun testInTransaction_isDelegated() {
+        val unitOfWork = mock(Runnable::class.java)
+
+        repository.inTransaction(unitOfWork)
+
+        verify(mockRepository).inTransaction(unitOfWork)
+    }
+
+    @Test
+    fun testQuery_isDelegated() {
+        val specification = Everything()
+        val expected = listOf(createRequestModel("id1", null))
+        whenever(mockRepository.query(specification)).thenReturn(expected)
+
+        repository.query(specification) shouldBe expected
+    }
+
+    @Test
+    fun testIsEmpty_isDelegated() {
+        whenever(mockRepository.isEmpty).thenReturn(true)
+
+        repository.isEmpty shouldBe true
+    }
+
+    @Test
+    fun testCount_isDelegated() {
+        whenever(mockRepository.count()).thenReturn(5)
+
+        repository.count() shouldBe 5
+    }
+
+    private fun createRequestModel(id: String, supersessionKey: String?) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, mapOf(), mapOf(), 1000, Long.MAX_VALUE, id, 0, RequestPriority.NORMAL, supersessionKey)
+}
@@ -0,0 +1,137 @@
+package com.emarsys.core.response
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.spy
+import org.mockito.Mockito.verify
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.util.zip.GZIPOutputStream
+
+class ResponseBodyReaderTest {
+
+    companion object {
+        const val MAX_BODY_SIZE = 64
+    }
+
+    private lateinit var reader: ResponseBodyReader
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        reader = ResponseBodyReader(MAX_BODY_SIZE)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxBodySize_mustBeGreaterThanZero() {
+        ResponseBodyReader(0)
+    }
+
+    @Test
+    fun testRead_returnsNull_withoutInputStream() {
+        reader.read(null, null) shouldBe null
+    }
+
+    @Test
+    fun testRead_emptyBody() {
+        reader.read(ByteArrayInputStream(ByteArray(0)), null) shouldBe ""
+    }
+
+    @Test
+    fun testRead_keepsNewlines() {
+        val body = "{\n  \"key\": \"value\"\r\n}\n"
+
+        reader.read(body.byteInputStream(), null) shouldBe body
+    }
+
+    @Test
+    fun testRead_decodesUtf8() {
+        val body = "árvíztűrő 漢字 😀"
+
+        reader.read(ByteArrayInputStream(body.toByteArray(Charsets.UTF_8)), null) shouldBe body
+    }
+
+    @Test
+    fun testRead_decodesUtf8_acrossBufferBoundaries() {
+        val body = "é".repeat(3000)
+
+        ResponseBodyReader(1024 * 1024).read(ByteArrayInputStream(body.toByteArray(Charsets.UTF_8)), null) shouldBe body
+    }
+
+    @Test
+    fun testRead_replacesMalformedInput() {
+        reader.read(ByteArrayInputStream(byteArrayOf(0x61, 0xC3.toByte())), null) shouldBe "a�"
+    }
+
+    @Test
+    fun testRead_gzip() {
+        val body = "{\"key\":\"value\"}"
+
+        reader.read(ByteArrayInputStream(gzip(body)), "gzip") shouldBe body
+    }
+
+    @Test(expected = ResponseBodyTooLargeException::class)
+    fun testRead_throws_whenBodyExceedsLimit() {
+        reader.read(ByteArrayInputStream(ByteArray(MAX_BODY_SIZE + 1)), null)
+    }
+
+    @Test(expected = ResponseBodyTooLargeException::class)
+    fun testRead_throws_whenDecompressedBodyExceedsLimit() {
+        reader.read(ByteArrayInputStream(gzip("a".repeat(MAX_BODY_SIZE + 1))), "gzip")
+    }
+
+    @Test
+    fun testRead_closesStream_whenBodyExceedsLimit() {
+        val inputStream = spy(ByteArrayInputStream(ByteArray(MAX_BODY_SIZE + 1)))
+
+        try {
+            reader.read(inputStream, null)
+        } catch (expected: ResponseBodyTooLargeException) {
+            expected.maxBodySize shouldBe MAX_BODY_SIZE
+        }
+
+        verify(inputStream).close()
+    }
+
+    @Test
+    fun testRead_bodyAtLimit() {
+        reader.read(ByteArrayInputStream("a".repeat(MAX_BODY_SIZE).toByteArray()), null) shouldBe "a".repeat(MAX_BODY_SIZE)
+    }
+
+    @Test
+    fun testDiscard_withoutInputStream() {
+        reader.discard(null)
+    }
+
+    @Test
+    fun testDiscard_drainsAndClosesStream() {
+        val inputStream = spy(ByteArrayInputStream(ByteArray(MAX_BODY_SIZE)))
+
+        reader.discard(inputStream)
+
+        inputStream.available() shouldBe 0
+        verify(inputStream).close()
+    }
+
+    @Test
+    fun testDiscard_stopsAtLimit() {
+        val inputStream = ByteArrayInputStream(ByteArray(MAX_BODY_SIZE * 100))
+
+        reader.discard(inputStream)
+
+        (inputStream.available() > 0) shouldBe true
+    }
+
+    private fun gzip(body: String): ByteArray {
+        val output = ByteArrayOutputStream()
+        GZIPOutputStream(output).use { it.write(body.toByteArray(Charsets.UTF_8)) }
+        return output.toByteArray()
+    }
+}
@@ -1,13 +1,21 @@
 package com.emarsys.core.response
 
+import com.emarsys.core.request.model.RequestModel
 import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
 import io.kotlintest.matchers.collections.shouldContainAll
+import io.kotlintest.shouldBe
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
+import org.mockito.Mockito.atLeastOnce
 import org.mockito.Mockito.inOrder
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.verifyNoMoreInteractions
+import java.net.URL
 
 class ResponseHandlersProcessorTest {
 
@@ -29,19 +37,75 @@ class ResponseHandlersProcessorTest {
 
     @Test
     fun testRun() {
-        val mockResponseHandler1 = mock(AbstractResponseHandler::class.java)
-        val mockResponseHandler2 = mock(AbstractResponseHandler::class.java)
+        val mockResponseHandler1 = createResponseHandler(ResponseRoute.ANY)
+        val mockResponseHandler2 = createResponseHandler(ResponseRoute.ANY)
 
         val responseHandlers = listOf(mockResponseHandler1, mockResponseHandler2)
 
         val handler = ResponseHandlersProcessor(responseHandlers)
-        val mockResponseModel = mock(ResponseModel::class.java)
-        handler.process(mockResponseModel)
+        val responseModel = createResponseModel("https://emarsys.com")
+        handler.process(responseModel)
         inOrder(mockResponseHandler1, mockResponseHandler2).apply {
-            verify(mockResponseHandler1).processResponse(mockResponseModel)
-            verify(mockResponseHandler2).processResponse(mockResponseModel)
-            verifyNoMoreInteractions()
+            verify(mockResponseHandler1).processResponse(responseModel)
+            verify(mockResponseHandler2).processResponse(responseModel)
         }
+        verify(mockResponseHandler1, atLeastOnce()).route
+        verify(mockResponseHandler2, atLeastOnce()).route
+        verifyNoMoreInteractions(mockResponseHandler1, mockResponseHandler2)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testProcess_responseModel_mustNotBeNull() {
+        responseHandlersProcessor.process(null)
+    }
+
+    @Test
+    fun testProcess_onlyReachesHandlersRoutedToHost() {
+        val emarsysHandler = createResponseHandler(ResponseRoute.Builder().host("emarsys.com").build())
+        val predictHandler = createResponseHandler(ResponseRoute.Builder().host("predict.com").build())
+        val anyHostHandler = createResponseHandler(ResponseRoute.ANY)
+        val responseModel = createResponseModel("https://emarsys.com")
+
+        ResponseHandlersProcessor(listOf(emarsysHandler, predictHandler, anyHostHandler)).process(responseModel)
+
+        inOrder(emarsysHandler, anyHostHandler).apply {
+            verify(emarsysHandler).processResponse(responseModel)
+            verify(anyHostHandler).processResponse(responseModel)
+        }
+        verify(predictHandler, never()).processResponse(responseModel)
+    }
+
+    @Test
+    fun testProcess_unknownHost_onlyReachesAnyHostHandlers() {
+        val emarsysHandler = createResponseHandler(ResponseRoute.Builder().host("emarsys.com").build())
+        val anyHostHandler = createResponseHandler(ResponseRoute.ANY)
+        val responseModel = createResponseModel("https://log-dealer.com")
+
+        ResponseHandlersProcessor(listOf(emarsysHandler, anyHostHandler)).process(responseModel)
+
+        verify(emarsysHandler, never()).processResponse(responseModel)
+        verify(anyHostHandler).processResponse(responseModel)
+    }
+
+    @Test
+    fun testProcess_skipsHandlers_whenRestOfRouteDoesNotMatch() {
+        val responseHandler = createResponseHandler(ResponseRoute.Builder().host("emarsys.com").path("/client").build())
+        val responseModel = createResponseModel("https://emarsys.com/events")
+
+        ResponseHandlersProcessor(listOf(responseHandler)).process(responseModel)
+
+        verify(responseHandler, never()).processResponse(responseModel)
+    }
+
+    @Test
+    fun testProcess_reachesAddedHandlers() {
+        val responseHandler = createResponseHandler(ResponseRoute.Builder().host("emarsys.com").build())
+        val responseModel = createResponseModel("https://emarsys.com")
+
+        responseHandlersProcessor.addResponseHandlers(listOf(responseHandler))
+        responseHandlersProcessor.process(responseModel)
+
+        verify(responseHandler).processResponse(responseModel)
     }
 
     @Test(expected = IllegalArgumentException::class)
@@ -51,8 +115,8 @@ class ResponseHandlersProcessorTest {
 
     @Test
     fun testAddReponseHandler() {
-        val mockResponseHandler1 = mock(AbstractResponseHandler::class.java)
-        val mockResponseHandler2 = mock(AbstractResponseHandler::class.java)
+        val mockResponseHandler1 = createResponseHandler(ResponseRoute.ANY)
+        val mockResponseHandler2 = createResponseHandler(ResponseRoute.ANY)
 
         val responseHandlers = mutableListOf(mockResponseHandler1)
         responseHandlersProcessor = ResponseHandlersProcessor(responseHandlers)
@@ -62,4 +126,51 @@ class ResponseHandlersProcessorTest {
         responseHandlersProcessor.responseHandlers shouldContainAll responseHandlers + mockResponseHandler2
     }
 
-}
\ No newline at end of file
+    @Test(expected = IllegalArgumentException::class)
+    fun testIsBodyRequired_requestModel_mustNotBeNull() {
+        responseHandlersProcessor.isBodyRequired(null)
+    }
+
+    @Test
+    fun testIsBodyRequired_false_whenNoHandlerNeedsIt() {
+        val mockRequestModel = createRequestModel("https://emarsys.com")
+        val mockResponseHandler = createResponseHandler(ResponseRoute.ANY).apply {
+            whenever(isBodyRequired(mockRequestModel)).thenReturn(false)
+        }
+
+        ResponseHandlersProcessor(listOf(mockResponseHandler)).isBodyRequired(mockRequestModel) shouldBe false
+    }
+
+    @Test
+    fun testIsBodyRequired_true_whenAnyHandlerNeedsIt() {
+        val mockRequestModel = createRequestModel("https://emarsys.com")
+        val mockResponseHandler1 = createResponseHandler(ResponseRoute.ANY).apply {
+            whenever(isBodyRequired(mockRequestModel)).thenReturn(false)
+        }
+        val mockResponseHandler2 = createResponseHandler(ResponseRoute.ANY).apply {
+            whenever(isBodyRequired(mockRequestModel)).thenReturn(true)
+        }
+
+        ResponseHandlersProcessor(listOf(mockResponseHandler1, mockResponseHandler2)).isBodyRequired(mockRequestModel) shouldBe true
+    }
+
+    @Test
+    fun testIsBodyRequired_onlyAsksHandlersRoutedToHost() {
+        val mockRequestModel = createRequestModel("https://log-dealer.com")
+        val responseHandler = createResponseHandler(ResponseRoute.Builder().host("emarsys.com").build()).apply {
+            whenever(isBodyRequired(mockRequestModel)).thenReturn(true)
+        }
+
+        ResponseHandlersProcessor(listOf(responseHandler)).isBodyRequired(mockRequestModel) shouldBe false
+    }
+
+    private fun createResponseHandler(route: ResponseRoute) = mock(AbstractResponseHandler::class.java).apply {
+        whenever(this.route).thenReturn(route)
+    }
+
+    private fun createRequestModel(url: String) = mock(RequestModel::class.java).apply {
+        whenever(this.url).thenReturn(URL(url))
+    }
+
+    private fun createResponseModel(url: String) = ResponseModel(200, "", mapOf(), mapOf(), null, 0, createRequestModel(url))
+}
@@ -7,6 +7,7 @@ import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -15,6 +16,7 @@ import org.mockito.Mockito.`when`
 import org.mockito.Mockito.mock
 import java.net.HttpCookie
 import java.util.*
+import kotlin.concurrent.thread
 
 class ResponseModelTest {
 
@@ -132,6 +134,66 @@ class ResponseModelTest {
         assertNull(result)
     }
 
+    @Test
+    fun testGetParsedBody_returnsSameInstance() {
+        val responseModel = ResponseModel(200, "", mapOf(), mapOf(), "{\"foo\":\"bar\"}", timestamp, requestModel)
+
+        val result = responseModel.parsedBody
+
+        assertSame(result, responseModel.parsedBody)
+    }
+
+    @Test
+    fun testGetParsedBody_invalidJson_isParsedOnce() {
+        val responseModel = ResponseModel(200, "", mapOf(), mapOf(), "not json", timestamp, requestModel)
+
+        responseModel.parsedBody
+        assertNull(responseModel.parsedBody)
+    }
+
+    @Test
+    fun testGetParsedBody_isParsedOnce_acrossThreads() {
+        val responseModel = ResponseModel(200, "", mapOf(), mapOf(), "{\"foo\":\"bar\"}", timestamp, requestModel)
+        val results = Collections.synchronizedSet(Collections.newSetFromMap(IdentityHashMap<JSONObject, Boolean>()))
+
+        (1..8).map { thread { results.add(responseModel.parsedBody) } }.forEach { it.join() }
+
+        assertEquals(1, results.size)
+    }
+
+    @Test
+    fun testBuilder_headersAndCookies_areMaterializedOnce() {
+        val result = ResponseModel.Builder(timestampProvider)
+                .statusCode(statusCode)
+                .message(message)
+                .headers(listHeaders)
+                .requestModel(requestModel)
+                .build()
+
+        assertSame(result.headers, result.headers)
+        assertSame(result.cookies, result.cookies)
+        assertEquals(headers, result.headers)
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testGetHeaders_isImmutable() {
+        val result = ResponseModel.Builder(timestampProvider)
+                .statusCode(statusCode)
+                .message(message)
+                .headers(listHeaders)
+                .requestModel(requestModel)
+                .build()
+
+        (result.headers as MutableMap<String, String>)["key"] = "value"
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testGetCookies_isImmutable() {
+        val result = ResponseModel(statusCode, message, headers, cookies, body, timestamp, requestModel)
+
+        (result.cookies as MutableMap<String, HttpCookie>).clear()
+    }
+
     @Test
     fun testBuilder_withAllArguments() {
         val expected = ResponseModel(statusCode, message, headers, cookies, body, timestamp, requestModel)
@@ -158,16 +220,16 @@ class ResponseModelTest {
     }
 
     @Test
-    fun testBuilder_joinShouldReturnConcatenatedValue() {
+    fun testJoin_shouldReturnConcatenatedValue() {
         val expected = "alma, korte, szilva, malna"
         val inputList = Arrays.asList("alma", "korte", "szilva", "malna")
         val delimiter = ", "
-        val actual = ResponseModel.Builder().join(delimiter, inputList)
+        val actual = ResponseModel.join(delimiter, inputList)
         assertEquals(expected, actual)
     }
 
     @Test
-    fun testBuilder_convertHeadersShouldReturnJoinedHeaderValues() {
+    fun testConvertHeaders_shouldReturnJoinedHeaderValues() {
         val expected = HashMap<String, String>()
         expected["one"] = "alma, szilva"
         expected["two"] = "korte, malna"
@@ -176,7 +238,7 @@ class ResponseModelTest {
         inputHeaders["one"] = listOf("alma", "szilva")
         inputHeaders["two"] = listOf("korte", "malna")
 
-        val result = ResponseModel.Builder().convertHeaders(inputHeaders)
+        val result = ResponseModel.convertHeaders(inputHeaders)
         assertEquals(expected, result)
     }
 
@@ -0,0 +1,95 @@
+package com.emarsys.core.response
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.net.URL
+
+class ResponseRouteTest {
+
+    companion object {
+        const val URL = "https://emarsys.com/v3/apps/appCode/client"
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testMatches_responseModel_mustNotBeNull() {
+        ResponseRoute.ANY.matches(null)
+    }
+
+    @Test
+    fun testAny_matchesEverything() {
+        ResponseRoute.ANY.hosts shouldBe setOf<String>()
+        ResponseRoute.ANY.matches(createResponseModel(URL)) shouldBe true
+        ResponseRoute.ANY.matches(createResponseModel("https://other.com", 500)) shouldBe true
+    }
+
+    @Test
+    fun testHost() {
+        val route = ResponseRoute.Builder().host("emarsys.com").host("emarsys.net").build()
+
+        route.hosts shouldBe setOf("emarsys.com", "emarsys.net")
+        route.matches(createResponseModel(URL)) shouldBe true
+        route.matches(createResponseModel("https://other.com")) shouldBe false
+    }
+
+    @Test
+    fun testHostOf() {
+        ResponseRoute.Builder().hostOf("https://emarsys.com/merchants").build().hosts shouldBe setOf("emarsys.com")
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testHostOf_url_mustBeValid() {
+        ResponseRoute.Builder().hostOf("not a url")
+    }
+
+    @Test
+    fun testPath() {
+        val route = ResponseRoute.Builder().path(".*/client").build()
+
+        route.matches(createResponseModel(URL)) shouldBe true
+        route.matches(createResponseModel("$URL/contact")) shouldBe false
+    }
+
+    @Test
+    fun testStatusClass() {
+        val route = ResponseRoute.Builder().statusClass(2).build()
+
+        route.matches(createResponseModel(URL, 204)) shouldBe true
+        route.matches(createResponseModel(URL, 401)) shouldBe false
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testStatusClass_mustBeValid() {
+        ResponseRoute.Builder().statusClass(6)
+    }
+
+    @Test
+    fun testHeader_isMatchedCaseInsensitively() {
+        val route = ResponseRoute.Builder().header("X-Client-State").build()
+
+        route.matches(createResponseModel(URL, headers = mapOf("x-client-state" to "state"))) shouldBe true
+        route.matches(createResponseModel(URL)) shouldBe false
+    }
+
+    @Test
+    fun testBuild_combinesConditions() {
+        val route = ResponseRoute.Builder().host("emarsys.com").path(".*/client").statusClass(2).header("Set-Cookie").build()
+
+        route.matches(createResponseModel(URL, headers = mapOf("Set-Cookie" to "cdv=1"))) shouldBe true
+        route.matches(createResponseModel(URL, 500, mapOf("Set-Cookie" to "cdv=1"))) shouldBe false
+    }
+
+    private fun createResponseModel(url: String, statusCode: Int = 200, headers: Map<String, String> = mapOf()) =
+            ResponseModel(statusCode, "", headers, mapOf(), null, 0, mock(RequestModel::class.java).apply {
+                whenever(this.url).thenReturn(URL(url))
+            })
+}
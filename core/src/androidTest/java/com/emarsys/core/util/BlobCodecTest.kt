@@ -0,0 +1,136 @@
+package com.emarsys.core.util
+
+import com.emarsys.core.util.serialization.BlobCodec
+import com.emarsys.core.util.serialization.SerializationException
+import com.emarsys.core.util.serialization.SerializationUtils
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.util.*
+
+class BlobCodecTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testEncode_startsWithVersion() {
+        BlobCodec.encode(mapOf("key" to "value"))[0].toInt() shouldBe BlobCodec.VERSION
+    }
+
+    @Test
+    fun testEncode_isNotLegacy() {
+        BlobCodec.isLegacy(BlobCodec.encode(mapOf("key" to "value"))) shouldBe false
+    }
+
+    @Test
+    fun testIsLegacy() {
+        BlobCodec.isLegacy(SerializationUtils.serializableToBlob(hashMapOf("key" to "value"))) shouldBe true
+    }
+
+    @Test
+    fun testDecode_roundTrip_scalars() {
+        listOf<Any?>(
+                null,
+                true,
+                false,
+                0,
+                -1,
+                Int.MAX_VALUE,
+                Int.MIN_VALUE,
+                Long.MAX_VALUE,
+                Long.MIN_VALUE,
+                -12345L,
+                3.14,
+                -0.5f,
+                42.toShort(),
+                (-7).toByte(),
+                "",
+                "árvíztűrő tükörfúrógép 😀"
+        ).forEach {
+            BlobCodec.decode(BlobCodec.encode(it)) shouldBe it
+        }
+    }
+
+    @Test
+    fun testDecode_roundTrip_nestedCollections() {
+        val payload = mapOf(
+                "events" to listOf(
+                        mapOf(
+                                "type" to "custom",
+                                "name" to "event",
+                                "timestamp" to 1234L,
+                                "attributes" to mapOf("key" to "value", "empty" to null)
+                        )
+                ),
+                "hardwareId" to "hwid",
+                "dnd" to false
+        )
+
+        BlobCodec.decode(BlobCodec.encode(payload)) shouldBe payload
+    }
+
+    @Test
+    fun testDecode_roundTrip_serializableFallback() {
+        val date = Date(1234L)
+
+        BlobCodec.decode(BlobCodec.encode(mapOf("date" to date))) shouldBe mapOf("date" to date)
+    }
+
+    @Test
+    fun testDecode_legacyBlob() {
+        val payload = hashMapOf<String, Any>("key" to "value", "nested" to hashMapOf("key2" to true))
+
+        BlobCodec.decode(SerializationUtils.serializableToBlob(payload)) shouldBe payload
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testEncode_unsupportedType() {
+        BlobCodec.encode(mapOf("key" to Any()))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testEncode_nonStringKey() {
+        BlobCodec.encode(mapOf(1 to "value"))
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_null() {
+        BlobCodec.decode(null)
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_empty() {
+        BlobCodec.decode(ByteArray(0))
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_unknownVersion() {
+        val blob = BlobCodec.encode("value")
+        blob[0] = (BlobCodec.VERSION + 1).toByte()
+
+        BlobCodec.decode(blob)
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_truncated() {
+        val blob = BlobCodec.encode(mapOf("key" to "value"))
+
+        BlobCodec.decode(blob.copyOf(blob.size - 1))
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_trailingBytes() {
+        val blob = BlobCodec.encode("value")
+
+        BlobCodec.decode(blob.copyOf(blob.size + 1))
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_unknownType() {
+        BlobCodec.decode(byteArrayOf(BlobCodec.VERSION.toByte(), 0x7F))
+    }
+}
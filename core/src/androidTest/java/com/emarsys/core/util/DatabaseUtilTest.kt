@@ -17,4 +17,10 @@ class DatabaseUtilTest {
         val result = DatabaseUtil.generateInStatement("request_id", arrayOf("123", "12", "1"))
         Assert.assertEquals("request_id IN (?, ?, ?)", result)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testGenerateNotInStatement_shouldGenerateValidStatementEnding() {
+        val result = DatabaseUtil.generateNotInStatement("request_id", arrayOf("123", "12", "1"))
+        Assert.assertEquals("request_id NOT IN (?, ?, ?)", result)
+    }
+}
@@ -0,0 +1,150 @@
+package com.emarsys.core.util
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.io.ByteArrayOutputStream
+
+class JsonStreamWriterTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_outputStream_mustNotBeNull() {
+        JsonStreamWriter(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testWrite_map_mustNotBeNull() {
+        JsonStreamWriter(ByteArrayOutputStream()).write(null as Map<String, Any>?)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testWrite_list_mustNotBeNull() {
+        JsonStreamWriter(ByteArrayOutputStream()).write(null as List<Any>?)
+    }
+
+    @Test
+    fun testWrite_emptyMap() {
+        write(mapOf()) shouldBe "{}"
+    }
+
+    @Test
+    fun testWrite_matchesJsonUtils_forBasicValues() {
+        val payload = linkedMapOf<String, Any?>(
+                "int" to 2,
+                "long" to 4L,
+                "double" to 3.5,
+                "integralDouble" to 3.0,
+                "negativeZero" to -0.0,
+                "float" to 1.25f,
+                "boolean" to true,
+                "string" to "value",
+                "null" to null,
+                "jsonNull" to JSONObject.NULL)
+
+        write(payload) shouldBe JsonUtils.fromMap(payload).toString()
+    }
+
+    @Test
+    fun testWrite_matchesJsonUtils_forNestedValues() {
+        val payload = linkedMapOf<String, Any?>(
+                "map" to linkedMapOf("key" to "value", "list" to listOf(1, "2", null)),
+                "list" to listOf(mapOf("key" to 1), listOf(true, false)),
+                "jsonObject" to JSONObject().put("key", "value"),
+                "jsonArray" to JSONArray().put(1).put("2"))
+
+        write(payload) shouldBe JsonUtils.fromMap(payload).toString()
+    }
+
+    @Test
+    fun testWrite_matchesJsonUtils_forEscapedStrings() {
+        val payload = linkedMapOf<String, Any?>(
+                "quote\"" to "\"quoted\"",
+                "slashes" to "a/b\\c",
+                "whitespace" to "\t\b\n\r\u000c",
+                "control" to "\u0001\u001f",
+                "unicode" to "árvíztűrő 漢字 😀")
+
+        write(payload) shouldBe JsonUtils.fromMap(payload).toString()
+    }
+
+    @Test
+    fun testWrite_writesUtf8() {
+        val output = ByteArrayOutputStream()
+        val writer = JsonStreamWriter(output)
+
+        writer.write(mapOf<String, Any>("key" to "é😀"))
+        writer.flush()
+
+        output.toByteArray() shouldBe "{\"key\":\"é😀\"}".toByteArray(Charsets.UTF_8)
+    }
+
+    @Test
+    fun testWrite_list() {
+        val output = ByteArrayOutputStream()
+        val writer = JsonStreamWriter(output)
+
+        writer.write(listOf(1, "2", mapOf("key" to null)))
+        writer.flush()
+
+        output.toString("UTF-8") shouldBe "[1,\"2\",{}]"
+    }
+
+    @Test
+    fun testWrite_largerThanBuffer() {
+        val payload = mapOf<String, Any>("logs" to List(1000) { mapOf("index" to it, "value" to "log entry") })
+
+        write(payload) shouldBe JsonUtils.fromMap(payload).toString()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testWrite_nonFiniteNumber_isRejected() {
+        write(mapOf("key" to Double.NaN))
+    }
+
+    @Test
+    fun testMeasure_returnsUtf8ByteCount() {
+        val payload = mapOf<String, Any>("key" to "é😀", "logs" to List(100) { "log entry" })
+
+        JsonStreamWriter.measure(payload) shouldBe write(payload).toByteArray(Charsets.UTF_8).size.toLong()
+    }
+
+    @Test
+    fun testWrite_rawJson_isWrittenVerbatim() {
+        val payload = linkedMapOf<String, Any?>(
+                "events" to listOf(RawJson("{\"name\":\"event1\"}".toByteArray()), mapOf("name" to "event2")),
+                "raw" to RawJson("[1,2]".toByteArray())
+        )
+
+        write(payload) shouldBe "{\"events\":[{\"name\":\"event1\"},{\"name\":\"event2\"}],\"raw\":[1,2]}"
+    }
+
+    @Test
+    fun testWrite_rawJson_largerThanBuffer() {
+        val raw = "\"" + "a".repeat(10_000) + "\""
+
+        write(mapOf("key" to RawJson(raw.toByteArray()))) shouldBe "{\"key\":$raw}"
+    }
+
+    @Test
+    fun testToByteArray() {
+        val payload = mapOf<String, Any>("key" to "é😀", "logs" to List(100) { "log entry" })
+
+        String(JsonStreamWriter.toByteArray(payload), Charsets.UTF_8) shouldBe write(payload)
+    }
+
+    private fun write(payload: Map<String, Any?>): String {
+        val output = ByteArrayOutputStream()
+        val writer = JsonStreamWriter(output)
+        writer.write(payload)
+        writer.flush()
+        return output.toString("UTF-8")
+    }
+}
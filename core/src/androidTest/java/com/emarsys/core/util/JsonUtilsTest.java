@@ -396,6 +396,42 @@ public class JsonUtilsTest {
         assertEquals(expected, result);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testToMap_shouldNotAcceptNull() {
+        JsonUtils.toMap(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToList_shouldNotAcceptNull() {
+        JsonUtils.toList(null);
+    }
+
+    @Test
+    public void testToMap_withNestedValues() throws JSONException {
+        JSONObject input = new JSONObject()
+                .put("key1", "value1")
+                .put("key2", 3.14)
+                .put("key3", false)
+                .put("key4", JSONObject.NULL)
+                .put("key5", new JSONObject()
+                        .put("nestedKey1", "nestedValue1")
+                        .put("nestedKey2", new JSONArray().put(900).put(new JSONObject().put("deepKey", true))));
+
+        Map<String, Object> deep = new HashMap<>();
+        deep.put("deepKey", true);
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("nestedKey1", "nestedValue1");
+        nested.put("nestedKey2", Arrays.<Object>asList(900, deep));
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("key1", "value1");
+        expected.put("key2", 3.14);
+        expected.put("key3", false);
+        expected.put("key4", null);
+        expected.put("key5", nested);
+
+        assertEquals(expected, JsonUtils.toMap(input));
+    }
+
     private Map<String, Object> provideNewMap() {
         if (android.os.Build.VERSION.SDK_INT <= Build.VERSION_CODES.KITKAT) {
             return new HashMap<>();
@@ -0,0 +1,95 @@
+package com.emarsys.core.util
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class RawJsonTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_bytes_mustNotBeNull() {
+        RawJson(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testGetArrayElements_key_mustNotBeNull() {
+        raw("{}").getArrayElements(null)
+    }
+
+    @Test
+    fun testGetArrayElements() {
+        val json = JsonStreamWriter.toByteArray(linkedMapOf<String, Any>(
+                "clicks" to listOf<Any>(),
+                "events" to listOf(
+                        mapOf("name" to "event1", "attributes" to mapOf("key" to "va\"l}ue]")),
+                        mapOf("name" to "event2", "list" to listOf(1, 2, 3))
+                ),
+                "dnd" to true
+        ))
+
+        val result = RawJson(json).getArrayElements("events")
+
+        result.map { it.toString() } shouldBe listOf(
+                "{\"name\":\"event1\",\"attributes\":{\"key\":\"va\\\"l}ue]\"}}",
+                "{\"name\":\"event2\",\"list\":[1,2,3]}"
+        )
+    }
+
+    @Test
+    fun testGetArrayElements_withPrimitivesAndWhitespace() {
+        raw(" { \"a\" : 1 , \"events\" : [ 1 , \"two\" , null , true ] } ")
+                .getArrayElements("events")
+                .map { it.toString() } shouldBe listOf("1", "\"two\"", "null", "true")
+    }
+
+    @Test
+    fun testGetArrayElements_emptyArray() {
+        raw("{\"events\":[]}").getArrayElements("events") shouldBe listOf<RawJson>()
+    }
+
+    @Test
+    fun testGetArrayElements_missingKey() {
+        raw("{\"clicks\":[1],\"nested\":{\"events\":[1]}}").getArrayElements("events") shouldBe listOf<RawJson>()
+    }
+
+    @Test
+    fun testGetArrayElements_notAnArray() {
+        raw("{\"events\":{\"key\":[1]}}").getArrayElements("events") shouldBe listOf<RawJson>()
+    }
+
+    @Test
+    fun testGetArrayElements_emptyObject() {
+        raw("{}").getArrayElements("events") shouldBe listOf<RawJson>()
+    }
+
+    @Test
+    fun testGetArrayElements_escapedKey() {
+        val json = JsonStreamWriter.toByteArray(mapOf<String, Any>("a/b" to listOf(1)))
+
+        RawJson(json).getArrayElements("a/b").map { it.toString() } shouldBe listOf("1")
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testGetArrayElements_truncated() {
+        raw("{\"events\":[{\"name\":\"ev").getArrayElements("events")
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testGetArrayElements_notAnObject() {
+        raw("[1,2]").getArrayElements("events")
+    }
+
+    @Test
+    fun testEquals() {
+        raw("[1]") shouldBe raw("[1]")
+        raw("[1]").hashCode() shouldBe raw("[1]").hashCode()
+    }
+
+    private fun raw(json: String) = RawJson(json.toByteArray(Charsets.UTF_8))
+}
@@ -1,6 +1,7 @@
 package com.emarsys.core.util.batch
 
 import com.emarsys.core.Mapper
+import com.emarsys.core.concurrency.NetworkLane
 import com.emarsys.core.database.repository.Repository
 import com.emarsys.core.database.repository.SqlSpecification
 import com.emarsys.core.request.RequestManager
@@ -43,7 +44,9 @@ class BatchingShardTriggerTest {
         querySpecification = mock(SqlSpecification::class.java)
         chunker = mock(Mapper::class.java) as Mapper<List<ShardModel>, List<List<ShardModel>>>
         merger = mock(Mapper::class.java) as Mapper<List<ShardModel>, RequestModel>
-        manager = mock(RequestManager::class.java)
+        manager = mock(RequestManager::class.java).apply {
+            whenever(getRemainingCapacity(NetworkLane.TELEMETRY)).thenReturn(Int.MAX_VALUE)
+        }
     }
 
     @Test(expected = IllegalArgumentException::class)
@@ -102,9 +105,10 @@ class BatchingShardTriggerTest {
         transientTrigger().run()
 
         Mockito.inOrder(manager).run {
-            verify(manager).submitNow(requestModel1)
-            verify(manager).submitNow(requestModel2)
-            verify(manager).submitNow(requestModel3)
+            verify(manager).getRemainingCapacity(NetworkLane.TELEMETRY)
+            verify(manager).submitNow(requestModel1, NetworkLane.TELEMETRY)
+            verify(manager).submitNow(requestModel2, NetworkLane.TELEMETRY)
+            verify(manager).submitNow(requestModel3, NetworkLane.TELEMETRY)
             verifyNoMoreInteractions(manager)
         }
     }
@@ -120,16 +124,45 @@ class BatchingShardTriggerTest {
         Mockito.inOrder(manager, repository).run {
             this.verify(repository).query(querySpecification)
             this.verify(manager, Mockito.timeout(50)).submit(requestModel1, null)
-            this.verify(repository).remove(FilterByShardIds(listOf(shard1)))
             this.verify(manager, Mockito.timeout(50)).submit(requestModel2, null)
-            this.verify(repository).remove(FilterByShardIds(listOf(shard2)))
             this.verify(manager, Mockito.timeout(50)).submit(requestModel3, null)
-            this.verify(repository).remove(FilterByShardIds(listOf(shard3)))
+            this.verify(repository).removeAll(listOf(
+                    FilterByShardIds(listOf(shard1)),
+                    FilterByShardIds(listOf(shard2)),
+                    FilterByShardIds(listOf(shard3))))
             this.verifyNoMoreInteractions()
         }
 
     }
 
+    @Test
+    fun testRun_transient_keepsChunksOverLaneCapacity_inDatabase() {
+        val (shards, requests) = setupMocks()
+        val (shard1, shard2) = shards
+        val (requestModel1, requestModel2, requestModel3) = requests
+        whenever(manager.getRemainingCapacity(NetworkLane.TELEMETRY)).thenReturn(2)
+
+        transientTrigger().run()
+
+        verify(manager).submitNow(requestModel1, NetworkLane.TELEMETRY)
+        verify(manager).submitNow(requestModel2, NetworkLane.TELEMETRY)
+        verify(manager, never()).submitNow(requestModel3, NetworkLane.TELEMETRY)
+        verify(repository).removeAll(listOf(
+                FilterByShardIds(listOf(shard1)),
+                FilterByShardIds(listOf(shard2))))
+    }
+
+    @Test
+    fun testRun_transient_doesNotRemoveShards_whenLaneIsFull() {
+        setupMocks()
+        whenever(manager.getRemainingCapacity(NetworkLane.TELEMETRY)).thenReturn(0)
+
+        transientTrigger().run()
+
+        verify(manager, never()).submitNow(ArgumentMatchers.any(RequestModel::class.java), ArgumentMatchers.any(NetworkLane::class.java))
+        verify(repository, never()).removeAll(ArgumentMatchers.anyList())
+    }
+
     @Test
     fun testRun_doesNothing_whenPredicateReturns_false() {
         whenever(predicate.evaluate(ArgumentMatchers.anyList())).thenReturn(false)
@@ -0,0 +1,77 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.connection.MeteredNetworkPolicy
+import com.emarsys.core.connection.TrafficClass
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.*
+
+class DeferrableTriggerTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockTrigger: Runnable
+    private lateinit var mockReleaseTrigger: Runnable
+    private lateinit var mockPolicy: MeteredNetworkPolicy
+    private lateinit var deferrableTrigger: DeferrableTrigger
+
+    @Before
+    fun setUp() {
+        mockTrigger = mock(Runnable::class.java)
+        mockReleaseTrigger = mock(Runnable::class.java)
+        mockPolicy = mock(MeteredNetworkPolicy::class.java)
+
+        deferrableTrigger = DeferrableTrigger(mockTrigger, mockReleaseTrigger, TrafficClass.DEFERRABLE, mockPolicy)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_trigger_mustNotBeNull() {
+        DeferrableTrigger(null, mockReleaseTrigger, TrafficClass.DEFERRABLE, mockPolicy)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_releaseTrigger_mustNotBeNull() {
+        DeferrableTrigger(mockTrigger, null, TrafficClass.DEFERRABLE, mockPolicy)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_trafficClass_mustNotBeNull() {
+        DeferrableTrigger(mockTrigger, mockReleaseTrigger, null, mockPolicy)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_meteredNetworkPolicy_mustNotBeNull() {
+        DeferrableTrigger(mockTrigger, mockReleaseTrigger, TrafficClass.DEFERRABLE, null)
+    }
+
+    @Test
+    fun testRun_runsTrigger_whenNotDeferred() {
+        whenever(mockPolicy.shouldDefer(TrafficClass.DEFERRABLE)).thenReturn(false)
+
+        deferrableTrigger.run()
+
+        verify(mockTrigger).run()
+        verifyZeroInteractions(mockReleaseTrigger)
+    }
+
+    @Test
+    fun testRun_holdsTrigger_whenDeferred() {
+        whenever(mockPolicy.shouldDefer(TrafficClass.DEFERRABLE)).thenReturn(true)
+
+        deferrableTrigger.run()
+
+        verifyZeroInteractions(mockTrigger)
+    }
+
+    @Test
+    fun testGetReleaseTrigger() {
+        deferrableTrigger.releaseTrigger shouldBe mockReleaseTrigger
+    }
+}
@@ -0,0 +1,49 @@
+package com.emarsys.core.util.log
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.net.URL
+
+class LogRequestPredicateTest {
+
+    private lateinit var predicate: LogRequestPredicate
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        predicate = LogRequestPredicate()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testEvaluate_requestModel_mustNotBeNull() {
+        predicate.evaluate(null)
+    }
+
+    @Test
+    fun testEvaluate_true_whenItIsLogRequest() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL("https://log-dealer.eservice.emarsys.net/v1/log"))
+        }
+
+        predicate.evaluate(mockRequestModel) shouldBe true
+    }
+
+    @Test
+    fun testEvaluate_false_whenItIsNotLogRequest() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL("https://emarsys.com"))
+        }
+
+        predicate.evaluate(mockRequestModel) shouldBe false
+    }
+}
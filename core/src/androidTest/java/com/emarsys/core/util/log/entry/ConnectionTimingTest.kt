@@ -0,0 +1,70 @@
+package com.emarsys.core.util.log.entry
+
+import com.emarsys.core.connection.Transport
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.response.ResponseModel
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.net.URL
+
+class ConnectionTimingTest {
+
+    private lateinit var mockResponseModel: ResponseModel
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(id).thenReturn("requestId")
+            whenever(url).thenReturn(URL("https://emarsys.com"))
+        }
+        mockResponseModel = mock(ResponseModel::class.java).apply {
+            whenever(requestModel).thenReturn(mockRequestModel)
+            whenever(timestamp).thenReturn(1000L)
+        }
+    }
+
+    @Test
+    fun testTopic() {
+        val result = ConnectionTiming(mockResponseModel, 0, Transport.NO_HANDSHAKE, 0)
+
+        result.topic shouldBe "log_connection_timing"
+    }
+
+    @Test
+    fun testData_newConnection() {
+        val result = ConnectionTiming(mockResponseModel, 100, 300, 700)
+
+        result.data shouldBe mapOf(
+                "request_id" to "requestId",
+                "url" to "https://emarsys.com",
+                "connection_reused" to false,
+                "connect_duration" to 600L,
+                "tls_handshake_duration" to 400L,
+                "transfer_duration" to 300L
+        )
+    }
+
+    @Test
+    fun testData_reusedConnection() {
+        val result = ConnectionTiming(mockResponseModel, 100, Transport.NO_HANDSHAKE, 110)
+
+        result.data shouldBe mapOf(
+                "request_id" to "requestId",
+                "url" to "https://emarsys.com",
+                "connection_reused" to true,
+                "connect_duration" to 10L,
+                "tls_handshake_duration" to 0L,
+                "transfer_duration" to 890L
+        )
+    }
+}
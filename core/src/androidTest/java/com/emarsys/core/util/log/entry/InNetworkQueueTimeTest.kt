@@ -0,0 +1,61 @@
+package com.emarsys.core.util.log.entry
+
+import com.emarsys.core.concurrency.NetworkLane
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.net.URL
+
+class InNetworkQueueTimeTest {
+    companion object {
+        const val ID = "id12345"
+        const val QUEUE_DEPTH = 3
+        const val ENQUEUED = 40L
+        const val STARTED = 200L
+        val URL = URL("https://emarsys.com")
+    }
+
+    private lateinit var inNetworkQueueTime: InNetworkQueueTime
+    private lateinit var requestModel: RequestModel
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun init() {
+        requestModel = RequestModel(
+                URL.toString(),
+                RequestMethod.GET,
+                null,
+                mapOf(),
+                ENQUEUED,
+                Long.MAX_VALUE, ID)
+        inNetworkQueueTime = InNetworkQueueTime(requestModel, NetworkLane.INTERACTIVE, QUEUE_DEPTH, ENQUEUED, STARTED)
+    }
+
+    @Test
+    fun testTopic() {
+        inNetworkQueueTime.topic shouldBe "log_in_network_queue_time"
+    }
+
+    @Test
+    fun testGetData() {
+        val result = inNetworkQueueTime.data
+        val expected = mapOf(
+                "request_id" to ID,
+                "lane" to "INTERACTIVE",
+                "queue_depth" to QUEUE_DEPTH,
+                "start" to ENQUEUED,
+                "end" to STARTED,
+                "duration" to STARTED - ENQUEUED,
+                "url" to URL.toString()
+        )
+        result shouldBe expected
+    }
+}
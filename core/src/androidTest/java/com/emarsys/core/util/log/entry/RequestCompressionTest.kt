@@ -0,0 +1,49 @@
+package com.emarsys.core.util.log.entry
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.net.URL
+
+class RequestCompressionTest {
+
+    private lateinit var mockRequestModel: RequestModel
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(id).thenReturn("requestId")
+            whenever(url).thenReturn(URL("https://emarsys.com"))
+        }
+    }
+
+    @Test
+    fun testTopic() {
+        val result = RequestCompression(mockRequestModel, 0, 0)
+
+        result.topic shouldBe "log_request_compression"
+    }
+
+    @Test
+    fun testData() {
+        val result = RequestCompression(mockRequestModel, 1000, 200)
+
+        result.data shouldBe mapOf(
+                "request_id" to "requestId",
+                "url" to "https://emarsys.com",
+                "uncompressed_size" to 1000,
+                "compressed_size" to 200,
+                "saved_bytes" to 800
+        )
+    }
+}
@@ -0,0 +1,41 @@
+package com.emarsys.core.util.log.entry
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.net.URL
+
+class ResponseBodyTooLargeTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testTopic() {
+        val result = ResponseBodyTooLarge(createRequestModel(), 200, 1024)
+
+        result.topic shouldBe "log_response_body_too_large"
+    }
+
+    @Test
+    fun testData() {
+        val result = ResponseBodyTooLarge(createRequestModel(), 400, 1024)
+
+        result.data shouldBe mapOf(
+                "request_id" to "requestId",
+                "url" to "https://emarsys.com",
+                "status_code" to 400,
+                "max_body_size" to 1024)
+    }
+
+    private fun createRequestModel() = mock(RequestModel::class.java).apply {
+        whenever(id).thenReturn("requestId")
+        whenever(url).thenReturn(URL("https://emarsys.com"))
+    }
+}
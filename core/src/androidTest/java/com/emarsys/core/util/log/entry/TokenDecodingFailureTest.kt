@@ -0,0 +1,28 @@
+package com.emarsys.core.util.log.entry
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class TokenDecodingFailureTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testTopic() {
+        val result = TokenDecodingFailure("reason")
+
+        result.topic shouldBe "log_token_decoding_failure"
+    }
+
+    @Test
+    fun testData() {
+        val result = TokenDecodingFailure("Token must have 3 parts, but had 1")
+
+        result.data shouldBe mapOf("reason" to "Token must have 3 parts, but had 1")
+    }
+}
@@ -28,9 +28,11 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -42,6 +44,8 @@ public class CoreCompletionHandlerMiddlewareTest {
     private CoreCompletionHandler coreCompletionHandler;
     private Repository<RequestModel, SqlSpecification> requestRepository;
     private Worker worker;
+    private RequestModel requestModel;
+    private RetryScheduler retryScheduler;
 
     private String expectedId;
     private CoreCompletionHandlerMiddleware middleware;
@@ -60,9 +64,14 @@ public class CoreCompletionHandlerMiddlewareTest {
         worker = mock(Worker.class);
         coreCompletionHandler = mock(CoreCompletionHandler.class);
         requestRepository = mock(Repository.class);
+        requestModel = mock(RequestModel.class);
+        when(requestModel.getId()).thenReturn(expectedId);
+        retryScheduler = mock(RetryScheduler.class);
+        when(retryScheduler.scheduleRetry(any(ResponseModel.class), any(Worker.class))).thenReturn(true);
+        when(retryScheduler.scheduleRetry(any(RequestModel.class), any(Worker.class))).thenReturn(true);
         uiHandler = new Handler(Looper.getMainLooper());
         coreSdkHandler = new CoreSdkHandlerProvider().provideHandler();
-        middleware = new CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler);
+        middleware = new CoreCompletionHandlerMiddleware(worker, requestModel, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, retryScheduler);
         captor = ArgumentCaptor.forClass(Message.class);
     }
 
@@ -73,28 +82,38 @@ public class CoreCompletionHandlerMiddlewareTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_workerShouldNotBeNull() {
-        new CoreCompletionHandlerMiddleware(null, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler);
+        new CoreCompletionHandlerMiddleware(null, requestModel, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, retryScheduler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_requestModelShouldNotBeNull() {
+        new CoreCompletionHandlerMiddleware(worker, null, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, retryScheduler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_queueShouldNotBeNull() {
-        new CoreCompletionHandlerMiddleware(worker, null, uiHandler, coreSdkHandler, coreCompletionHandler);
+        new CoreCompletionHandlerMiddleware(worker, requestModel, null, uiHandler, coreSdkHandler, coreCompletionHandler, retryScheduler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_coreCompletionHandlerShouldNotBeNull() {
-        new CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, null);
+        new CoreCompletionHandlerMiddleware(worker, requestModel, requestRepository, uiHandler, coreSdkHandler, null, retryScheduler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_retrySchedulerShouldNotBeNull() {
+        new CoreCompletionHandlerMiddleware(worker, requestModel, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, null);
     }
 
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_uiHandlerShouldNotBeNull() {
-        new CoreCompletionHandlerMiddleware(worker, requestRepository, null, coreSdkHandler, coreCompletionHandler);
+        new CoreCompletionHandlerMiddleware(worker, requestModel, requestRepository, null, coreSdkHandler, coreCompletionHandler, retryScheduler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_coreHandlerShouldNotBeNull() {
-        new CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, null, coreCompletionHandler);
+        new CoreCompletionHandlerMiddleware(worker, requestModel, requestRepository, uiHandler, null, coreCompletionHandler, retryScheduler);
     }
 
     @Test
@@ -133,6 +152,26 @@ public class CoreCompletionHandlerMiddlewareTest {
         verify(worker).run();
     }
 
+    @Test
+    public void testOnSuccess_runsInline_whenCalledOnCoreSdkThread() {
+        final ResponseModel expectedModel = createResponseModel(200);
+        final boolean[] removedInline = new boolean[1];
+
+        coreSdkHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                middleware.onSuccess(expectedId, expectedModel);
+                removedInline[0] = mockingDetails(requestRepository).getInvocations().size() == 1;
+            }
+        });
+        HandlerUtils.waitForEventLoopToFinish(coreSdkHandler);
+        HandlerUtils.waitForEventLoopToFinish(uiHandler);
+
+        assertTrue(removedInline[0]);
+        verify(worker).run();
+        verify(coreCompletionHandler).onSuccess(expectedId, expectedModel);
+    }
+
     @Test
     public void testOnSuccess_withCompositeModel() {
         String[] ids = new String[]{"id1", "id2", "id3"};
@@ -217,6 +256,23 @@ public class CoreCompletionHandlerMiddlewareTest {
         verifyZeroInteractions(requestRepository);
     }
 
+    @Test
+    public void testOnError_429_shouldHandleErrorAsRetriable() {
+        ResponseModel expectedModel = createResponseModel(429);
+
+        middleware.onError(expectedId, expectedModel);
+
+        HandlerUtils.waitForEventLoopToFinish(coreSdkHandler);
+        HandlerUtils.waitForEventLoopToFinish(uiHandler);
+
+        verify(retryScheduler).scheduleRetry(expectedModel, worker);
+        verify(worker).unlock();
+        verifyNoMoreInteractions(worker);
+
+        verifyZeroInteractions(coreCompletionHandler);
+        verifyZeroInteractions(requestRepository);
+    }
+
     @Test
     public void testOnError_5xx() {
         ResponseModel expectedModel = createResponseModel(500);
@@ -226,6 +282,7 @@ public class CoreCompletionHandlerMiddlewareTest {
         HandlerUtils.waitForEventLoopToFinish(coreSdkHandler);
         HandlerUtils.waitForEventLoopToFinish(uiHandler);
 
+        verify(retryScheduler).scheduleRetry(expectedModel, worker);
         verify(worker).unlock();
         verifyNoMoreInteractions(worker);
 
@@ -233,6 +290,26 @@ public class CoreCompletionHandlerMiddlewareTest {
         verifyZeroInteractions(requestRepository);
     }
 
+    @Test
+    public void testOnError_5xx_whenRetryBudgetIsExhausted() {
+        ArgumentCaptor<FilterByRequestId> captor = ArgumentCaptor.forClass(FilterByRequestId.class);
+        ResponseModel expectedModel = createResponseModel(500);
+        when(retryScheduler.scheduleRetry(expectedModel, worker)).thenReturn(false);
+
+        middleware.onError(expectedId, expectedModel);
+
+        HandlerUtils.waitForEventLoopToFinish(coreSdkHandler);
+        HandlerUtils.waitForEventLoopToFinish(uiHandler);
+
+        verify(requestRepository).remove(captor.capture());
+        assertEquals(expectedId, captor.getValue().getSelectionArgs()[0]);
+        verify(coreCompletionHandler).onError(expectedId, expectedModel);
+
+        verify(worker).unlock();
+        verify(worker).run();
+        verifyNoMoreInteractions(worker);
+    }
+
     @Test
     public void testOnError_4xx_withCompositeModel() {
         String[] ids = new String[]{"id1", "id2", "id3"};
@@ -276,6 +353,7 @@ public class CoreCompletionHandlerMiddlewareTest {
         HandlerUtils.waitForEventLoopToFinish(coreSdkHandler);
         HandlerUtils.waitForEventLoopToFinish(uiHandler);
 
+        verify(retryScheduler).scheduleRetry(requestModel, worker);
         verify(worker).unlock();
         verifyNoMoreInteractions(worker);
 
@@ -285,6 +363,53 @@ public class CoreCompletionHandlerMiddlewareTest {
         verifyZeroInteractions(requestRepository);
     }
 
+    @Test
+    public void testOnError_withException_whenRetryBudgetIsExhausted() {
+        ArgumentCaptor<FilterByRequestId> captor = ArgumentCaptor.forClass(FilterByRequestId.class);
+        Exception expectedException = new Exception("Expected exception");
+        when(retryScheduler.scheduleRetry(requestModel, worker)).thenReturn(false);
+
+        middleware.onError(expectedId, expectedException);
+
+        HandlerUtils.waitForEventLoopToFinish(coreSdkHandler);
+        HandlerUtils.waitForEventLoopToFinish(uiHandler);
+
+        verify(requestRepository).remove(captor.capture());
+        assertEquals(expectedId, captor.getValue().getSelectionArgs()[0]);
+        verify(coreCompletionHandler).onError(expectedId, expectedException);
+
+        verify(worker).unlock();
+        verify(worker).run();
+        verifyNoMoreInteractions(worker);
+    }
+
+    @Test
+    public void testOnError_withException_withCompositeModel_whenRetryBudgetIsExhausted() {
+        String[] ids = new String[]{"id1", "id2", "id3"};
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        Exception expectedException = new Exception("Expected exception");
+        RequestModel compositeModel = new CompositeRequestModel(
+                "0",
+                "https://emarsys.com",
+                RequestMethod.POST,
+                null,
+                new HashMap<String, String>(),
+                100,
+                900000,
+                ids);
+        when(retryScheduler.scheduleRetry(compositeModel, worker)).thenReturn(false);
+        middleware = new CoreCompletionHandlerMiddleware(worker, compositeModel, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, retryScheduler);
+
+        middleware.onError("0", expectedException);
+
+        HandlerUtils.waitForEventLoopToFinish(coreSdkHandler);
+        HandlerUtils.waitForEventLoopToFinish(uiHandler);
+
+        verify(coreCompletionHandler, times(3)).onError(captor.capture(), eq(expectedException));
+        assertEquals(Arrays.asList(ids), captor.getAllValues());
+        verifyNoMoreInteractions(coreCompletionHandler);
+    }
+
     private ResponseModel createResponseModel(int statusCode) {
         RequestModel requestModel = mock(RequestModel.class);
         when(requestModel.getId()).thenReturn(expectedId);
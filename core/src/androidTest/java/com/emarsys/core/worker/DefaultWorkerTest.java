@@ -8,7 +8,6 @@ import com.emarsys.core.connection.ConnectionState;
 import com.emarsys.core.connection.ConnectionWatchDog;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
-import com.emarsys.core.fake.FakeCompletionHandler;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.core.request.factory.CompletionHandlerProxyProvider;
 import com.emarsys.core.request.model.RequestMethod;
@@ -24,12 +23,8 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.ArgumentCaptor;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
-import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -38,8 +33,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -53,13 +48,11 @@ public class DefaultWorkerTest {
     private Repository<RequestModel, SqlSpecification> requestRepository;
     private CoreCompletionHandler mockCoreCompletionHandler;
     private CompletionHandlerProxyProvider mockProxyProvider;
+    private RetryScheduler mockRetryScheduler;
     private RestClient restClient;
     private Handler uiHandler;
 
-    private long now;
-    private RequestModel expiredModel1;
-    private RequestModel expiredModel2;
-    private RequestModel notExpiredModel;
+    private RequestModel expiredModel;
 
     @Rule
     public TestRule timeout = TimeoutUtils.getTimeoutRule();
@@ -79,59 +72,44 @@ public class DefaultWorkerTest {
 
         uiHandler = new Handler(Looper.getMainLooper());
         mockProxyProvider = mock(CompletionHandlerProxyProvider.class);
+        mockRetryScheduler = mock(RetryScheduler.class);
 
-        worker = new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        worker = new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, mockRetryScheduler);
 
-        when(mockProxyProvider.provideProxy(any(Worker.class))).thenReturn(mock(CoreCompletionHandler.class));
+        when(mockProxyProvider.provideProxy(any(Worker.class), any(RequestModel.class))).thenReturn(mock(CoreCompletionHandler.class));
 
-        now = System.currentTimeMillis();
-
-        expiredModel1 = new RequestModel(
+        expiredModel = new RequestModel(
                 URL,
                 RequestMethod.GET,
                 new HashMap<String, Object>(),
                 new HashMap<String, String>(),
-                now - 500, 300,
+                System.currentTimeMillis() - 500, 300,
                 "id1");
-        expiredModel2 = new RequestModel(
-                URL,
-                RequestMethod.GET,
-                new HashMap<String, Object>(),
-                new HashMap<String, String>(),
-                now - 400, 150,
-                "id2");
-        notExpiredModel = new RequestModel(
-                URL,
-                RequestMethod.GET,
-                new HashMap<String, Object>(),
-                new HashMap<String, String>(),
-                now, 60_000,
-                "id2");
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_queueShouldNotBeNull() {
-        new DefaultWorker(null, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        new DefaultWorker(null, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, mockRetryScheduler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_watchDogShouldNotBeNull() {
-        new DefaultWorker(requestRepository, null, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        new DefaultWorker(requestRepository, null, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, mockRetryScheduler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_uiHandlerShouldNotBeNull() {
-        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), null, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), null, mockCoreCompletionHandler, restClient, mockProxyProvider, mockRetryScheduler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_restClientShouldNotBeNull() {
-        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, null, mockProxyProvider);
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, null, mockProxyProvider, mockRetryScheduler);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_proxyProvider_mustNotBeNull() {
-        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, null);
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, null, mockRetryScheduler);
     }
 
     @Test
@@ -149,16 +127,34 @@ public class DefaultWorkerTest {
         assertTrue(worker.isLocked());
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_retryScheduler_mustNotBeNull() {
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, null);
+    }
+
+    @Test
+    public void testRun_shouldNotSend_whenFirstModelIsBackingOff() {
+        RequestModel model = RequestModelTestUtils.createRequestModel(RequestMethod.GET);
+        when(requestRepository.query(any(SqlSpecification.class))).thenReturn(Collections.singletonList(model));
+        when(requestRepository.isEmpty()).thenReturn(false);
+        when(mockRetryScheduler.isBackingOff(model)).thenReturn(true);
+
+        worker.run();
+
+        verifyZeroInteractions(restClient);
+        assertFalse(worker.isLocked());
+    }
+
     @Test
     public void testConstructor_setRepositorySuccessfully() {
-        worker = new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        worker = new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, mockRetryScheduler);
         assertEquals(requestRepository, worker.requestRepository);
     }
 
     @Test
     public void testConstructor_setWatchDogSuccessfully() {
         ConnectionWatchDog watchDog = mock(ConnectionWatchDog.class);
-        worker = new DefaultWorker(requestRepository, watchDog, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        worker = new DefaultWorker(requestRepository, watchDog, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, mockRetryScheduler);
         assertEquals(watchDog, worker.connectionWatchDog);
     }
 
@@ -223,73 +219,26 @@ public class DefaultWorkerTest {
     }
 
     @Test
-    @SuppressWarnings("unchecked")
-    public void testRun_expiration_shouldPopExpiredRequestModels() {
-        worker = spy(this.worker);
-
-        when(requestRepository.query(any(QueryLatestRequestModel.class)))
-                .thenReturn(
-                        Collections.singletonList(expiredModel1),
-                        Collections.singletonList(expiredModel2),
-                        Collections.singletonList(notExpiredModel)
-                );
-        when(requestRepository.isEmpty()).thenReturn(false, false, false, false, true);
-
-        worker.run();
-
-        verify(requestRepository, times(3)).query(any(SqlSpecification.class));
-        verify(requestRepository, times(2)).remove(any(SqlSpecification.class));
-        verify(worker.restClient).execute(eq(notExpiredModel), any(CoreCompletionHandler.class));
-
-        assertTrue(worker.isLocked());
-    }
-
-    @Test
-    @SuppressWarnings("unchecked")
-    public void testRun_expiration_expiredRequestModelsShouldBeReportedAsError() throws InterruptedException {
-        worker = spy(this.worker);
-        CountDownLatch latch = new CountDownLatch(2);
-        worker.coreCompletionHandler = spy(new FakeCompletionHandler(latch));
-
-        when(requestRepository.query(any(QueryLatestRequestModel.class)))
-                .thenReturn(
-                        Collections.singletonList(expiredModel1),
-                        Collections.singletonList(expiredModel2),
-                        Collections.singletonList(notExpiredModel)
-                );
-        when(requestRepository.isEmpty()).thenReturn(false, false, false, false, true);
+    public void testRun_expiration_shouldBeLeftToTheSweeper() {
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.singletonList(expiredModel));
+        when(requestRepository.isEmpty()).thenReturn(false);
 
         worker.run();
 
-        latch.await();
-
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-
-        verify(worker.coreCompletionHandler, times(2)).onError(captor.capture(), any(Exception.class));
-        List<String> expectedIds = new ArrayList<>(Arrays.asList(expiredModel1.getId(), expiredModel2.getId()));
-        assertEquals(expectedIds, captor.getAllValues());
+        verify(requestRepository, never()).remove(any(SqlSpecification.class));
+        verify(worker.restClient).execute(eq(expiredModel), any(CoreCompletionHandler.class));
+        verifyZeroInteractions(mockCoreCompletionHandler);
     }
 
     @Test
-    @SuppressWarnings("unchecked")
-    public void testRun_expiration_whenOnlyExpiredModelsWereInQueue() {
-        worker = spy(this.worker);
-
-        when(worker.requestRepository.query(any(QueryLatestRequestModel.class)))
-                .thenReturn(
-                        Collections.singletonList(expiredModel1),
-                        Collections.singletonList(expiredModel2)
-                );
-        when(worker.requestRepository.isEmpty()).thenReturn(false, false, false, true);
+    public void testRun_shouldUnlock_whenQueryReturnsNothing() {
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.<RequestModel>emptyList());
+        when(requestRepository.isEmpty()).thenReturn(false);
 
         worker.run();
 
-        verify(worker.requestRepository, times(2)).query(any(SqlSpecification.class));
-        verify(worker.requestRepository, times(2)).remove(any(SqlSpecification.class));
         verifyZeroInteractions(worker.restClient);
-
-        assertTrue(worker.requestRepository.isEmpty());
         assertFalse(worker.isLocked());
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.emarsys.core.worker
+
+import android.os.Handler
+import android.os.Looper
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.connection.ConnectionWatchDog
+import com.emarsys.core.database.DatabaseContract
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.BoundedRepository
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.database.repository.eviction.LowestPriorityFirst
+import com.emarsys.core.provider.Gettable
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.RestClient
+import com.emarsys.core.request.coalescing.CoalescingRequestRepository
+import com.emarsys.core.request.factory.CompletionHandlerProxyProvider
+import com.emarsys.core.request.model.IndexedRequestModelRepository
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.specification.FilterByRequestId
+import com.emarsys.core.request.supersession.SupersedingRequestRepository
+import com.emarsys.core.request.supersession.SupersessionListener
+import com.emarsys.core.util.predicate.Predicate
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+
+class PipelinedWorkerRepositoryChainTest {
+
+    private companion object {
+        const val READ_AHEAD_SIZE = 10
+        const val MAX_IN_FLIGHT = 1
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var repository: Repository<RequestModel, SqlSpecification>
+    private lateinit var mockRestClient: RestClient
+    private lateinit var slots: MutableMap<String, Worker>
+    private lateinit var worker: PipelinedWorker
+
+    @Before
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+
+        val coreDbHelper = CoreDbHelper(InstrumentationRegistry.getTargetContext().applicationContext, mapOf())
+        val inFlightRequestIds = object : Gettable<Array<String>> {
+            override fun get() = if (::worker.isInitialized) worker.inFlightRequestIds else arrayOf()
+        }
+        val boundedRepository = BoundedRepository(
+                IndexedRequestModelRepository(coreDbHelper, READ_AHEAD_SIZE),
+                DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID,
+                LowestPriorityFirst(),
+                100,
+                Long.MAX_VALUE,
+                inFlightRequestIds)
+        repository = CoalescingRequestRepository(
+                SupersedingRequestRepository(boundedRepository, mock(SupersessionListener::class.java), inFlightRequestIds),
+                mock(TimestampProvider::class.java),
+                mock(UUIDProvider::class.java),
+                inFlightRequestIds)
+
+        mockRestClient = mock(RestClient::class.java)
+        slots = mutableMapOf()
+        val mockProxyProvider = mock(CompletionHandlerProxyProvider::class.java).apply {
+            whenever(provideProxy(any(Worker::class.java), any(RequestModel::class.java))).thenAnswer {
+                slots[(it.arguments[1] as RequestModel).id] = it.arguments[0] as Worker
+                mock(CoreCompletionHandler::class.java)
+            }
+        }
+        val mockConnectionWatchDog = mock(ConnectionWatchDog::class.java).apply {
+            whenever(isConnected).thenReturn(true)
+        }
+
+        worker = PipelinedWorker(
+                repository,
+                mockConnectionWatchDog,
+                Handler(Looper.getMainLooper()),
+                mock(CoreCompletionHandler::class.java),
+                mockRestClient,
+                mockProxyProvider,
+                mock(RetryScheduler::class.java),
+                Predicate { false },
+                MAX_IN_FLIGHT)
+    }
+
+    @Test
+    fun testRun_sendsRequestAddedAfterHeadIsLoaded_andDoesNotResendCompletedOnes() {
+        val model1 = createRequestModel("id1")
+        val model2 = createRequestModel("id2")
+        val model3 = createRequestModel("id3")
+        repository.add(model1)
+        repository.add(model2)
+
+        worker.run()
+        repository.add(model3)
+        complete(model1)
+        complete(model2)
+        complete(model3)
+
+        inOrder(mockRestClient).apply {
+            verify(mockRestClient).execute(eq(model1), any(CoreCompletionHandler::class.java))
+            verify(mockRestClient).execute(eq(model2), any(CoreCompletionHandler::class.java))
+            verify(mockRestClient).execute(eq(model3), any(CoreCompletionHandler::class.java))
+        }
+        verifyNoMoreInteractions(mockRestClient)
+        repository.isEmpty shouldBe true
+    }
+
+    private fun complete(model: RequestModel) {
+        repository.remove(FilterByRequestId(model))
+        slots.getValue(model.id).unlock()
+        worker.run()
+    }
+
+    private fun createRequestModel(id: String) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, null, mapOf(), System.currentTimeMillis(), Long.MAX_VALUE, id)
+}
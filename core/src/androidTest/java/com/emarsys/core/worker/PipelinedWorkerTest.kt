@@ -0,0 +1,374 @@
+package com.emarsys.core.worker
+
+import android.os.Handler
+import android.os.Looper
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.connection.ConnectionState
+import com.emarsys.core.connection.ConnectionWatchDog
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.request.RestClient
+import com.emarsys.core.request.factory.CompletionHandlerProxyProvider
+import com.emarsys.core.request.model.CompositeRequestModel
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.specification.QueryNextRequestModels
+import com.emarsys.core.util.predicate.Predicate
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.*
+
+class PipelinedWorkerTest {
+
+    private lateinit var worker: PipelinedWorker
+    private lateinit var mockRepository: Repository<RequestModel, SqlSpecification>
+    private lateinit var mockConnectionWatchDog: ConnectionWatchDog
+    private lateinit var mockCoreCompletionHandler: CoreCompletionHandler
+    private lateinit var mockRestClient: RestClient
+    private lateinit var mockProxyProvider: CompletionHandlerProxyProvider
+    private lateinit var mockRetryScheduler: RetryScheduler
+    private lateinit var barrierPredicate: Predicate<RequestModel>
+    private lateinit var uiHandler: Handler
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        mockRepository = mock(Repository::class.java) as Repository<RequestModel, SqlSpecification>
+        mockConnectionWatchDog = mock(ConnectionWatchDog::class.java).apply {
+            whenever(isConnected).thenReturn(true)
+        }
+        mockCoreCompletionHandler = mock(CoreCompletionHandler::class.java)
+        mockRestClient = mock(RestClient::class.java)
+        mockProxyProvider = mock(CompletionHandlerProxyProvider::class.java).apply {
+            whenever(provideProxy(any(Worker::class.java), any(RequestModel::class.java))).thenReturn(mock(CoreCompletionHandler::class.java))
+        }
+        mockRetryScheduler = mock(RetryScheduler::class.java)
+        barrierPredicate = Predicate { it.url.host == "barrier.emarsys.com" }
+        uiHandler = Handler(Looper.getMainLooper())
+
+        worker = PipelinedWorker(mockRepository, mockConnectionWatchDog, uiHandler, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, mockRetryScheduler, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_repository_mustNotBeNull() {
+        PipelinedWorker(null, mockConnectionWatchDog, uiHandler, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, mockRetryScheduler, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_connectionWatchDog_mustNotBeNull() {
+        PipelinedWorker(mockRepository, null, uiHandler, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, mockRetryScheduler, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_uiHandler_mustNotBeNull() {
+        PipelinedWorker(mockRepository, mockConnectionWatchDog, null, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, mockRetryScheduler, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreCompletionHandler_mustNotBeNull() {
+        PipelinedWorker(mockRepository, mockConnectionWatchDog, uiHandler, null, mockRestClient, mockProxyProvider, mockRetryScheduler, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_restClient_mustNotBeNull() {
+        PipelinedWorker(mockRepository, mockConnectionWatchDog, uiHandler, mockCoreCompletionHandler, null, mockProxyProvider, mockRetryScheduler, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_proxyProvider_mustNotBeNull() {
+        PipelinedWorker(mockRepository, mockConnectionWatchDog, uiHandler, mockCoreCompletionHandler, mockRestClient, null, mockRetryScheduler, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_retryScheduler_mustNotBeNull() {
+        PipelinedWorker(mockRepository, mockConnectionWatchDog, uiHandler, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, null, barrierPredicate, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_barrierPredicate_mustNotBeNull() {
+        PipelinedWorker(mockRepository, mockConnectionWatchDog, uiHandler, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, mockRetryScheduler, null, 4)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxInFlight_mustBeGreaterThanZero() {
+        PipelinedWorker(mockRepository, mockConnectionWatchDog, uiHandler, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, mockRetryScheduler, barrierPredicate, 0)
+    }
+
+    @Test
+    fun testConstructor_registersReceiver() {
+        verify(mockConnectionWatchDog).registerReceiver(worker)
+    }
+
+    @Test
+    fun testOnConnectionChanged_readsQueueSizeFromCount() {
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(listOf())
+
+        worker.onConnectionChanged(ConnectionState.CONNECTED, true)
+
+        verify(mockRepository).count()
+        verify(mockRepository, never()).query(any(Everything::class.java))
+    }
+
+    @Test
+    fun testRun_doesNothing_whenNotConnected() {
+        whenever(mockConnectionWatchDog.isConnected).thenReturn(false)
+
+        worker.run()
+
+        verifyZeroInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testRun_sendsRequestsToDifferentHostsInParallel() {
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        val model2 = createRequestModel("https://b.emarsys.com/1", "id2")
+        val model3 = createRequestModel("https://c.emarsys.com/1", "id3")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1, model2, model3),
+                listOf(model2, model3),
+                listOf(model3),
+                listOf())
+
+        worker.run()
+
+        inOrder(mockRestClient).apply {
+            verify(mockRestClient).execute(eq(model1), any(CoreCompletionHandler::class.java))
+            verify(mockRestClient).execute(eq(model2), any(CoreCompletionHandler::class.java))
+            verify(mockRestClient).execute(eq(model3), any(CoreCompletionHandler::class.java))
+        }
+        worker.inFlightCount shouldBe 3
+    }
+
+    @Test
+    fun testRun_sendsRequestsToTheSameHostInParallel_upToMaxInFlight() {
+        val models = (1..6).map { createRequestModel("https://a.emarsys.com/$it", "id$it") }
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                models,
+                models.drop(1),
+                models.drop(2),
+                models.drop(3))
+
+        worker.run()
+
+        inOrder(mockRestClient).apply {
+            models.take(4).forEach {
+                verify(mockRestClient).execute(eq(it), any(CoreCompletionHandler::class.java))
+            }
+        }
+        verifyNoMoreInteractions(mockRestClient)
+        worker.inFlightCount shouldBe 4
+        worker.isLocked shouldBe true
+    }
+
+    @Test
+    fun testRun_skipsExpiredRequests() {
+        val expired = RequestModel("https://a.emarsys.com/1", RequestMethod.POST, null, mapOf(), System.currentTimeMillis() - 1000, 500, "id1")
+        val model2 = createRequestModel("https://a.emarsys.com/2", "id2")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(expired, model2),
+                listOf(expired))
+
+        worker.run()
+
+        verify(mockRestClient).execute(eq(model2), any(CoreCompletionHandler::class.java))
+        verifyNoMoreInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testRun_doesNotExceedMaxInFlight() {
+        worker = PipelinedWorker(mockRepository, mock(ConnectionWatchDog::class.java).apply {
+            whenever(isConnected).thenReturn(true)
+        }, uiHandler, mockCoreCompletionHandler, mockRestClient, mockProxyProvider, mockRetryScheduler, barrierPredicate, 2)
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        val model2 = createRequestModel("https://b.emarsys.com/1", "id2")
+        val model3 = createRequestModel("https://c.emarsys.com/1", "id3")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1, model2, model3),
+                listOf(model2, model3),
+                listOf(model3))
+
+        worker.run()
+
+        verify(mockRestClient, times(2)).execute(any(RequestModel::class.java), any(CoreCompletionHandler::class.java))
+        worker.isLocked shouldBe true
+    }
+
+    @Test
+    fun testRun_barrier_waitsForInFlightRequests() {
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        val barrier = createRequestModel("https://barrier.emarsys.com/contact", "id2")
+        val model3 = createRequestModel("https://c.emarsys.com/1", "id3")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1, barrier, model3),
+                listOf(barrier, model3))
+
+        worker.run()
+
+        verify(mockRestClient).execute(eq(model1), any(CoreCompletionHandler::class.java))
+        verifyNoMoreInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testRun_barrier_blocksFollowingRequests_whileInFlight() {
+        val barrier = createRequestModel("https://barrier.emarsys.com/contact", "id1")
+        val model2 = createRequestModel("https://c.emarsys.com/1", "id2")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(barrier, model2),
+                listOf(model2))
+
+        worker.run()
+
+        verify(mockRestClient).execute(eq(barrier), any(CoreCompletionHandler::class.java))
+        verifyNoMoreInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testRun_excludesInFlightRequestIds_fromQuery() {
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1),
+                listOf())
+
+        worker.run()
+
+        val captor = ArgumentCaptor.forClass(SqlSpecification::class.java)
+        verify(mockRepository, times(2)).query(captor.capture())
+        captor.allValues[1].selectionArgs shouldBe arrayOf("id1")
+    }
+
+    @Test
+    fun testRun_skipsComposite_whenOriginalRequestIsAlreadyInFlight() {
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        val composite = CompositeRequestModel("cid", "https://b.emarsys.com/1", RequestMethod.POST, null, mapOf(), 0, Long.MAX_VALUE, arrayOf("id1", "id2"))
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1),
+                listOf(composite))
+
+        worker.run()
+
+        verify(mockRestClient).execute(eq(model1), any(CoreCompletionHandler::class.java))
+        verifyNoMoreInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testSlotUnlock_releasesOnlyItsOwnRequest() {
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        val model2 = createRequestModel("https://b.emarsys.com/1", "id2")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1, model2),
+                listOf(model2),
+                listOf())
+
+        worker.run()
+
+        val captor = ArgumentCaptor.forClass(Worker::class.java)
+        verify(mockProxyProvider, times(2)).provideProxy(captor.capture(), any(RequestModel::class.java))
+
+        captor.allValues[0].unlock()
+
+        worker.inFlightCount shouldBe 1
+    }
+
+    @Test
+    fun testRun_skipsRequestsBackingOff_andKeepsOrderingOfTheirHost() {
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        val model2 = createRequestModel("https://a.emarsys.com/2", "id2")
+        val model3 = createRequestModel("https://b.emarsys.com/1", "id3")
+        whenever(mockRetryScheduler.isBackingOff(model1)).thenReturn(true)
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1, model2, model3),
+                listOf(model1, model2))
+
+        worker.run()
+
+        verify(mockRestClient).execute(eq(model3), any(CoreCompletionHandler::class.java))
+        verifyNoMoreInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testRun_barrierBackingOff_blocksFollowingRequests() {
+        val barrier = createRequestModel("https://barrier.emarsys.com/contact", "id1")
+        val model2 = createRequestModel("https://c.emarsys.com/1", "id2")
+        whenever(mockRetryScheduler.isBackingOff(barrier)).thenReturn(true)
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(listOf(barrier, model2))
+
+        worker.run()
+
+        verifyZeroInteractions(mockRestClient)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testAddHoldPredicates_predicates_mustNotBeNull() {
+        worker.addHoldPredicates(null)
+    }
+
+    @Test
+    fun testRun_skipsHeldRequests_andKeepsOrderingOfTheirHost() {
+        val model1 = createRequestModel("https://held.emarsys.com/1", "id1")
+        val model2 = createRequestModel("https://held.emarsys.com/2", "id2")
+        val model3 = createRequestModel("https://b.emarsys.com/1", "id3")
+        worker.addHoldPredicates(listOf(Predicate { it.id == "id1" }))
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1, model2, model3),
+                listOf(model1, model2))
+
+        worker.run()
+
+        verify(mockRestClient).execute(eq(model3), any(CoreCompletionHandler::class.java))
+        verifyNoMoreInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testRun_heldBarrier_isNotDispatched() {
+        val barrier = createRequestModel("https://barrier.emarsys.com/contact", "id1")
+        worker.addHoldPredicates(listOf(Predicate { it.url.host == "barrier.emarsys.com" }))
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(listOf(barrier))
+
+        worker.run()
+
+        verifyZeroInteractions(mockRestClient)
+    }
+
+    @Test
+    fun testGetInFlightRequestIds() {
+        val model1 = createRequestModel("https://a.emarsys.com/1", "id1")
+        val composite = CompositeRequestModel("cid", "https://b.emarsys.com/1", RequestMethod.POST, null, mapOf(), 0, Long.MAX_VALUE, arrayOf("id2", "id3"))
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(model1, composite),
+                listOf(composite),
+                listOf())
+
+        worker.run()
+
+        worker.inFlightRequestIds shouldBe arrayOf("id1", "id2", "id3")
+    }
+
+    @Test
+    fun testRun_dispatchesExpiredRequests_withoutRemovingThem() {
+        val expired = RequestModel("https://a.emarsys.com/1", RequestMethod.POST, null, mapOf(), 0, 1, "id1")
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(
+                listOf(expired),
+                listOf())
+
+        worker.run()
+
+        verify(mockRestClient).execute(eq(expired), any(CoreCompletionHandler::class.java))
+        verify(mockRepository, never()).remove(any(SqlSpecification::class.java))
+        verifyZeroInteractions(mockCoreCompletionHandler)
+    }
+
+    private fun createRequestModel(url: String, id: String) =
+            RequestModel(url, RequestMethod.POST, null, mapOf(), System.currentTimeMillis(), Long.MAX_VALUE, id)
+}
@@ -0,0 +1,166 @@
+package com.emarsys.core.worker
+
+import android.os.Handler
+import android.os.Message
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.provider.Gettable
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.request.RequestExpiredException
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.specification.FilterByExpired
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+
+class RequestExpirationSweeperTest {
+
+    companion object {
+        const val NOW = 100_000L
+        const val SWEEP_INTERVAL = 60_000L
+    }
+
+    private lateinit var sweeper: RequestExpirationSweeper
+    private lateinit var mockCoreSdkHandler: Handler
+    private lateinit var mockUiHandler: Handler
+    private lateinit var mockRepository: Repository<RequestModel, SqlSpecification>
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var mockCoreCompletionHandler: CoreCompletionHandler
+    private lateinit var inFlightRequestIds: Gettable<Array<String>>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        mockCoreSdkHandler = mock(Handler::class.java)
+        mockUiHandler = mock(Handler::class.java)
+        mockRepository = (mock(Repository::class.java) as Repository<RequestModel, SqlSpecification>).apply {
+            whenever(query(any(SqlSpecification::class.java))).thenReturn(listOf())
+        }
+        mockTimestampProvider = mock(TimestampProvider::class.java).apply {
+            whenever(provideTimestamp()).thenReturn(NOW)
+        }
+        mockCoreCompletionHandler = mock(CoreCompletionHandler::class.java)
+        inFlightRequestIds = Gettable { arrayOf("id3") }
+
+        sweeper = RequestExpirationSweeper(mockCoreSdkHandler, mockUiHandler, mockRepository, mockTimestampProvider, mockCoreCompletionHandler, inFlightRequestIds, SWEEP_INTERVAL)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreSdkHandler_mustNotBeNull() {
+        RequestExpirationSweeper(null, mockUiHandler, mockRepository, mockTimestampProvider, mockCoreCompletionHandler, inFlightRequestIds, SWEEP_INTERVAL)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_uiHandler_mustNotBeNull() {
+        RequestExpirationSweeper(mockCoreSdkHandler, null, mockRepository, mockTimestampProvider, mockCoreCompletionHandler, inFlightRequestIds, SWEEP_INTERVAL)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestRepository_mustNotBeNull() {
+        RequestExpirationSweeper(mockCoreSdkHandler, mockUiHandler, null, mockTimestampProvider, mockCoreCompletionHandler, inFlightRequestIds, SWEEP_INTERVAL)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_timestampProvider_mustNotBeNull() {
+        RequestExpirationSweeper(mockCoreSdkHandler, mockUiHandler, mockRepository, null, mockCoreCompletionHandler, inFlightRequestIds, SWEEP_INTERVAL)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreCompletionHandler_mustNotBeNull() {
+        RequestExpirationSweeper(mockCoreSdkHandler, mockUiHandler, mockRepository, mockTimestampProvider, null, inFlightRequestIds, SWEEP_INTERVAL)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_inFlightRequestIds_mustNotBeNull() {
+        RequestExpirationSweeper(mockCoreSdkHandler, mockUiHandler, mockRepository, mockTimestampProvider, mockCoreCompletionHandler, null, SWEEP_INTERVAL)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_sweepInterval_mustBeGreaterThanZero() {
+        RequestExpirationSweeper(mockCoreSdkHandler, mockUiHandler, mockRepository, mockTimestampProvider, mockCoreCompletionHandler, inFlightRequestIds, 0)
+    }
+
+    @Test
+    fun testSweep_queriesAndRemovesWithTheSameSpecification() {
+        whenever(mockRepository.query(any(SqlSpecification::class.java))).thenReturn(listOf(createRequestModel("id1")))
+
+        sweeper.sweep()
+
+        val queryCaptor = ArgumentCaptor.forClass(SqlSpecification::class.java)
+        val removeCaptor = ArgumentCaptor.forClass(SqlSpecification::class.java)
+        verify(mockRepository).query(queryCaptor.capture())
+        verify(mockRepository).remove(removeCaptor.capture())
+
+        (queryCaptor.value is FilterByExpired) shouldBe true
+        queryCaptor.value.selectionArgs shouldBe arrayOf(NOW.toString(), "id3")
+        removeCaptor.value shouldBe queryCaptor.value
+    }
+
+    @Test
+    fun testSweep_doesNothing_whenNothingExpired() {
+        val result = sweeper.sweep()
+
+        result shouldBe 0
+        verify(mockRepository, never()).remove(any(SqlSpecification::class.java))
+        verifyZeroInteractions(mockUiHandler)
+    }
+
+    @Test
+    fun testSweep_reportsExpiredRequests_inOneUiPost() {
+        whenever(mockRepository.query(any(SqlSpecification::class.java))).thenReturn(listOf(
+                createRequestModel("id1"),
+                createRequestModel("id2")))
+
+        val result = sweeper.sweep()
+
+        result shouldBe 2
+        verifyZeroInteractions(mockCoreCompletionHandler)
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockUiHandler, times(1)).sendMessageAtTime(captor.capture(), anyLong())
+        captor.value.callback.run()
+
+        val inOrder = inOrder(mockCoreCompletionHandler)
+        inOrder.verify(mockCoreCompletionHandler).onError(eq("id1"), any(RequestExpiredException::class.java))
+        inOrder.verify(mockCoreCompletionHandler).onError(eq("id2"), any(RequestExpiredException::class.java))
+    }
+
+    @Test
+    fun testStart_sweepsImmediately_andReschedulesItself() {
+        sweeper.start()
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockCoreSdkHandler).sendMessageAtTime(captor.capture(), anyLong())
+        verifyZeroInteractions(mockRepository)
+
+        captor.value.callback.run()
+
+        verify(mockRepository).query(any(SqlSpecification::class.java))
+        verify(mockCoreSdkHandler, times(2)).sendMessageAtTime(captor.capture(), anyLong())
+    }
+
+    @Test
+    fun testStart_onlyOnce() {
+        sweeper.start()
+        sweeper.start()
+
+        verify(mockCoreSdkHandler, times(1)).sendMessageAtTime(any(Message::class.java), anyLong())
+    }
+
+    private fun createRequestModel(id: String) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, null, mapOf(), 0, 1, id)
+}
@@ -0,0 +1,229 @@
+package com.emarsys.core.worker
+
+import android.os.Handler
+import android.os.Message
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.request.model.CompositeRequestModel
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.response.ResponseModel
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+import java.util.*
+
+class RetrySchedulerTest {
+
+    companion object {
+        const val NOW = 100_000L
+        const val BASE_DELAY = 1000L
+        const val MAX_DELAY = 8000L
+        const val MAX_ATTEMPTS = 5
+    }
+
+    private lateinit var retryScheduler: RetryScheduler
+    private lateinit var mockCoreSdkHandler: Handler
+    private lateinit var mockRequestModelRepository: RequestModelRepository
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var mockRandom: Random
+    private lateinit var mockWorker: Worker
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockCoreSdkHandler = mock(Handler::class.java)
+        mockRequestModelRepository = mock(RequestModelRepository::class.java)
+        mockTimestampProvider = mock(TimestampProvider::class.java).apply {
+            whenever(provideTimestamp()).thenReturn(NOW)
+        }
+        mockRandom = mock(Random::class.java).apply {
+            whenever(nextDouble()).thenReturn(1.0)
+        }
+        mockWorker = mock(Worker::class.java)
+
+        retryScheduler = RetryScheduler(mockCoreSdkHandler, mockRequestModelRepository, mockTimestampProvider, mockRandom, BASE_DELAY, MAX_DELAY, MAX_ATTEMPTS)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreSdkHandler_mustNotBeNull() {
+        RetryScheduler(null, mockRequestModelRepository, mockTimestampProvider, mockRandom, BASE_DELAY, MAX_DELAY, MAX_ATTEMPTS)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestModelRepository_mustNotBeNull() {
+        RetryScheduler(mockCoreSdkHandler, null, mockTimestampProvider, mockRandom, BASE_DELAY, MAX_DELAY, MAX_ATTEMPTS)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_timestampProvider_mustNotBeNull() {
+        RetryScheduler(mockCoreSdkHandler, mockRequestModelRepository, null, mockRandom, BASE_DELAY, MAX_DELAY, MAX_ATTEMPTS)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_random_mustNotBeNull() {
+        RetryScheduler(mockCoreSdkHandler, mockRequestModelRepository, mockTimestampProvider, null, BASE_DELAY, MAX_DELAY, MAX_ATTEMPTS)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_baseDelay_mustBeGreaterThanZero() {
+        RetryScheduler(mockCoreSdkHandler, mockRequestModelRepository, mockTimestampProvider, mockRandom, 0, MAX_DELAY, MAX_ATTEMPTS)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxDelay_mustNotBeLessThanBaseDelay() {
+        RetryScheduler(mockCoreSdkHandler, mockRequestModelRepository, mockTimestampProvider, mockRandom, BASE_DELAY, BASE_DELAY - 1, MAX_ATTEMPTS)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxAttempts_mustBeGreaterThanZero() {
+        RetryScheduler(mockCoreSdkHandler, mockRequestModelRepository, mockTimestampProvider, mockRandom, BASE_DELAY, MAX_DELAY, 0)
+    }
+
+    @Test
+    fun testScheduleRetry_persistsIncrementedAttempt() {
+        val requestModel = createRequestModel("id1", 2)
+
+        val result = retryScheduler.scheduleRetry(requestModel, mockWorker)
+
+        val captor = ArgumentCaptor.forClass(SqlSpecification::class.java)
+        verify(mockRequestModelRepository).updateAttempt(captor.capture(), eq(3))
+        captor.value.selectionArgs shouldBe arrayOf("id1")
+        result shouldBe true
+    }
+
+    @Test
+    fun testScheduleRetry_runsWorker_afterBackoff() {
+        retryScheduler.scheduleRetry(createRequestModel("id1", 0), mockWorker)
+
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockCoreSdkHandler).sendMessageAtTime(captor.capture(), anyLong())
+        verifyZeroInteractions(mockWorker)
+
+        captor.value.callback.run()
+
+        verify(mockWorker).run()
+    }
+
+    @Test
+    fun testScheduleRetry_returnsFalse_whenBudgetIsExhausted() {
+        val result = retryScheduler.scheduleRetry(createRequestModel("id1", MAX_ATTEMPTS - 1), mockWorker)
+
+        result shouldBe false
+        verify(mockRequestModelRepository, never()).updateAttempt(any(SqlSpecification::class.java), anyInt())
+        verifyZeroInteractions(mockCoreSdkHandler)
+    }
+
+    @Test
+    fun testIsBackingOff_untilBackoffElapses() {
+        val requestModel = createRequestModel("id1", 0)
+
+        retryScheduler.scheduleRetry(requestModel, mockWorker)
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + BASE_DELAY - 1)
+        retryScheduler.isBackingOff(requestModel) shouldBe true
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + BASE_DELAY)
+        retryScheduler.isBackingOff(requestModel) shouldBe false
+    }
+
+    @Test
+    fun testIsBackingOff_returnsFalse_forUnknownRequest() {
+        retryScheduler.isBackingOff(createRequestModel("id1", 0)) shouldBe false
+    }
+
+    @Test
+    fun testIsBackingOff_composite_whenAnyOriginalRequestIsBackingOff() {
+        retryScheduler.scheduleRetry(createRequestModel("id2", 0), mockWorker)
+
+        val composite = CompositeRequestModel("cid", "https://emarsys.com", RequestMethod.POST, null, mapOf(), NOW, Long.MAX_VALUE, arrayOf("id1", "id2"))
+
+        retryScheduler.isBackingOff(composite) shouldBe true
+    }
+
+    @Test
+    fun testScheduleRetry_honorsRetryAfter_whenLongerThanBackoff() {
+        val requestModel = createRequestModel("id1", 0)
+        val responseModel = createResponseModel(requestModel, mapOf("retry-after" to listOf("30")))
+
+        retryScheduler.scheduleRetry(responseModel, mockWorker)
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + 29_999)
+        retryScheduler.isBackingOff(requestModel) shouldBe true
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + 30_000)
+        retryScheduler.isBackingOff(requestModel) shouldBe false
+    }
+
+    @Test
+    fun testCalculateBackoff_growsExponentially() {
+        retryScheduler.calculateBackoff(1) shouldBe 1000L
+        retryScheduler.calculateBackoff(2) shouldBe 2000L
+        retryScheduler.calculateBackoff(3) shouldBe 4000L
+    }
+
+    @Test
+    fun testCalculateBackoff_isCappedAtMaxDelay() {
+        retryScheduler.calculateBackoff(4) shouldBe MAX_DELAY
+        retryScheduler.calculateBackoff(100) shouldBe MAX_DELAY
+    }
+
+    @Test
+    fun testCalculateBackoff_appliesJitter() {
+        whenever(mockRandom.nextDouble()).thenReturn(0.0)
+
+        retryScheduler.calculateBackoff(3) shouldBe 2000L
+    }
+
+    @Test
+    fun testParseRetryAfter_withSeconds() {
+        val responseModel = createResponseModel(createRequestModel("id1", 0), mapOf("Retry-After" to listOf("120")))
+
+        retryScheduler.parseRetryAfter(responseModel) shouldBe 120_000L
+    }
+
+    @Test
+    fun testParseRetryAfter_withHttpDate() {
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(784_111_717_000L)
+        val responseModel = createResponseModel(createRequestModel("id1", 0), mapOf("Retry-After" to listOf("Sun, 06 Nov 1994 08:49:37 GMT")))
+
+        retryScheduler.parseRetryAfter(responseModel) shouldBe 60_000L
+    }
+
+    @Test
+    fun testParseRetryAfter_withoutHeader() {
+        val responseModel = createResponseModel(createRequestModel("id1", 0), mapOf())
+
+        retryScheduler.parseRetryAfter(responseModel) shouldBe 0L
+    }
+
+    @Test
+    fun testParseRetryAfter_withInvalidValue() {
+        val responseModel = createResponseModel(createRequestModel("id1", 0), mapOf("Retry-After" to listOf("soon")))
+
+        retryScheduler.parseRetryAfter(responseModel) shouldBe 0L
+    }
+
+    private fun createRequestModel(id: String, attempt: Int) =
+            RequestModel("https://emarsys.com", RequestMethod.POST, null, mapOf(), NOW, Long.MAX_VALUE, id, attempt)
+
+    private fun createResponseModel(requestModel: RequestModel, headers: Map<String, List<String>>) =
+            ResponseModel.Builder()
+                    .statusCode(503)
+                    .message("Service Unavailable")
+                    .headers(headers)
+                    .requestModel(requestModel)
+                    .build()
+}
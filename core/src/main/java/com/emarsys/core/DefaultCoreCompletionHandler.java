@@ -3,12 +3,15 @@ package com.emarsys.core;
 import com.emarsys.core.api.ResponseErrorException;
 import com.emarsys.core.api.result.CompletionListener;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.supersession.SupersessionListener;
 import com.emarsys.core.response.ResponseModel;
 import com.emarsys.core.util.Assert;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-public class DefaultCoreCompletionHandler implements CoreCompletionHandler, Registry<RequestModel, CompletionListener> {
+public class DefaultCoreCompletionHandler implements CoreCompletionHandler, Registry<RequestModel, CompletionListener>, SupersessionListener {
     private final Map<String, CompletionListener> completionListenerMap;
 
     public DefaultCoreCompletionHandler(Map<String, CompletionListener> completionListenerMap) {
@@ -23,6 +26,35 @@ public class DefaultCoreCompletionHandler implements CoreCompletionHandler, Regi
         }
     }
 
+    @Override
+    public void onSuperseded(RequestModel requestModel, List<String> supersededRequestIds) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+        Assert.notNull(supersededRequestIds, "SupersededRequestIds must not be null!");
+
+        final List<CompletionListener> listeners = new ArrayList<>();
+        for (String supersededRequestId : supersededRequestIds) {
+            CompletionListener listener = completionListenerMap.remove(supersededRequestId);
+            if (listener != null) {
+                listeners.add(listener);
+            }
+        }
+        CompletionListener currentListener = completionListenerMap.get(requestModel.getId());
+        if (currentListener != null) {
+            listeners.add(currentListener);
+        }
+
+        if (!listeners.isEmpty()) {
+            completionListenerMap.put(requestModel.getId(), new CompletionListener() {
+                @Override
+                public void onCompleted(Throwable errorCause) {
+                    for (CompletionListener listener : listeners) {
+                        listener.onCompleted(errorCause);
+                    }
+                }
+            });
+        }
+    }
+
     @Override
     public void onSuccess(final String id, final ResponseModel responseModel) {
         callCompletionListener(id, null);
@@ -15,13 +15,20 @@ public class ActivityLifecycleWatchdog implements Application.ActivityLifecycleC
     private Activity currentActivity;
     private final ActivityLifecycleAction[] applicationStartActions;
     private final ActivityLifecycleAction[] activityCreatedActions;
+    private final ActivityLifecycleAction[] applicationBackgroundActions;
     private List<ActivityLifecycleAction> triggerOnActivityActions;
 
     public ActivityLifecycleWatchdog(ActivityLifecycleAction[] applicationStartActions, ActivityLifecycleAction[] activityCreatedActions) {
+        this(applicationStartActions, activityCreatedActions, null);
+    }
+
+    public ActivityLifecycleWatchdog(ActivityLifecycleAction[] applicationStartActions, ActivityLifecycleAction[] activityCreatedActions, ActivityLifecycleAction[] applicationBackgroundActions) {
         this.applicationStartActions = initializeActionsIfNull(applicationStartActions);
         this.activityCreatedActions = initializeActionsIfNull(activityCreatedActions);
+        this.applicationBackgroundActions = initializeActionsIfNull(applicationBackgroundActions);
         Assert.elementsNotNull(this.applicationStartActions, "ApplicationStartActions must not contain null elements!");
         Assert.elementsNotNull(this.activityCreatedActions, "ActivityCreatedActions must not contain null elements!");
+        Assert.elementsNotNull(this.applicationBackgroundActions, "ApplicationBackgroundActions must not contain null elements!");
         triggerOnActivityActions = new ArrayList<>();
     }
 
@@ -40,6 +47,10 @@ public class ActivityLifecycleWatchdog implements Application.ActivityLifecycleC
         return activityCreatedActions;
     }
 
+    public ActivityLifecycleAction[] getApplicationBackgroundActions() {
+        return applicationBackgroundActions;
+    }
+
     public List<ActivityLifecycleAction> getTriggerOnActivityActions() {
         return triggerOnActivityActions;
     }
@@ -75,6 +86,9 @@ public class ActivityLifecycleWatchdog implements Application.ActivityLifecycleC
     public void onActivityStopped(Activity activity) {
         if (currentActivity == activity) {
             currentActivity = null;
+            for (ActivityLifecycleAction action : applicationBackgroundActions) {
+                action.execute(activity);
+            }
         }
     }
 
@@ -0,0 +1,70 @@
+package com.emarsys.core.concurrency;
+
+import com.emarsys.core.util.Assert;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DefaultNetworkExecutor implements NetworkExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final Map<NetworkLane, ThreadPoolExecutor> executors;
+
+    public DefaultNetworkExecutor() {
+        executors = new EnumMap<>(NetworkLane.class);
+        executors.put(NetworkLane.QUEUED, createExecutor(NetworkLane.QUEUED, 4, 128));
+        executors.put(NetworkLane.INTERACTIVE, createExecutor(NetworkLane.INTERACTIVE, 2, 64));
+        executors.put(NetworkLane.TELEMETRY, createExecutor(NetworkLane.TELEMETRY, 1, 32));
+    }
+
+    @Override
+    public void execute(NetworkLane lane, Runnable task) {
+        Assert.notNull(lane, "Lane must not be null!");
+        Assert.notNull(task, "Task must not be null!");
+
+        executors.get(lane).execute(task);
+    }
+
+    @Override
+    public int getQueueDepth(NetworkLane lane) {
+        Assert.notNull(lane, "Lane must not be null!");
+
+        return executors.get(lane).getQueue().size();
+    }
+
+    @Override
+    public int getRemainingCapacity(NetworkLane lane) {
+        Assert.notNull(lane, "Lane must not be null!");
+
+        return executors.get(lane).getQueue().remainingCapacity();
+    }
+
+    private ThreadPoolExecutor createExecutor(
+            final NetworkLane lane,
+            int threadCount,
+            int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactory() {
+                    private final AtomicInteger threadCount = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        return new Thread(runnable, "EmarsysNetwork-" + lane.name() + "-" + threadCount.incrementAndGet());
+                    }
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,10 @@
+package com.emarsys.core.concurrency;
+
+public interface NetworkExecutor {
+
+    void execute(NetworkLane lane, Runnable task);
+
+    int getQueueDepth(NetworkLane lane);
+
+    int getRemainingCapacity(NetworkLane lane);
+}
@@ -0,0 +1,5 @@
+package com.emarsys.core.concurrency;
+
+public enum NetworkLane {
+    QUEUED, INTERACTIVE, TELEMETRY
+}
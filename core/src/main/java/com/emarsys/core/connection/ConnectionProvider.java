@@ -2,6 +2,7 @@ package com.emarsys.core.connection;
 
 import android.webkit.URLUtil;
 
+import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
 
@@ -10,8 +11,21 @@ import java.net.URL;
 
 import javax.net.ssl.HttpsURLConnection;
 
-public class ConnectionProvider {
+public class ConnectionProvider implements Transport {
 
+    private final TrackingSSLSocketFactory socketFactory;
+
+    public ConnectionProvider() {
+        this(new TrackingSSLSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory(), new TimestampProvider()));
+    }
+
+    public ConnectionProvider(TrackingSSLSocketFactory socketFactory) {
+        Assert.notNull(socketFactory, "SocketFactory must not be null!");
+
+        this.socketFactory = socketFactory;
+    }
+
+    @Override
     public HttpsURLConnection provideConnection(RequestModel requestModel) throws IOException {
         Assert.notNull(requestModel, "RequestModel must not be null!");
 
@@ -21,6 +35,15 @@ public class ConnectionProvider {
             throw new IllegalArgumentException("Expected HTTPS request model, but got: " + url.getProtocol().toUpperCase());
         }
 
-        return (HttpsURLConnection) requestModel.getUrl().openConnection();
+        socketFactory.takeHandshakeStart();
+
+        HttpsURLConnection connection = (HttpsURLConnection) requestModel.getUrl().openConnection();
+        connection.setSSLSocketFactory(socketFactory);
+        return connection;
+    }
+
+    @Override
+    public long takeHandshakeStart() {
+        return socketFactory.takeHandshakeStart();
     }
 }
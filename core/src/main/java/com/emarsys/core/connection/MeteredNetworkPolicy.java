@@ -0,0 +1,98 @@
+package com.emarsys.core.connection;
+
+import android.os.Handler;
+
+import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MeteredNetworkPolicy implements ConnectionChangeListener {
+
+    private final Handler coreSdkHandler;
+    private final ConnectionWatchDog connectionWatchDog;
+    private final TimestampProvider timestampProvider;
+    private final long maxDelay;
+    private final List<Runnable> releaseActions;
+    private final Runnable deadlineCheck;
+    private long deferredSince;
+    private boolean releasing;
+
+    public MeteredNetworkPolicy(
+            Handler coreSdkHandler,
+            ConnectionWatchDog connectionWatchDog,
+            TimestampProvider timestampProvider,
+            long maxDelay) {
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(connectionWatchDog, "ConnectionWatchDog must not be null!");
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        if (maxDelay < 1) {
+            throw new IllegalArgumentException("MaxDelay must be greater than 0!");
+        }
+
+        this.coreSdkHandler = coreSdkHandler;
+        this.connectionWatchDog = connectionWatchDog;
+        this.connectionWatchDog.registerReceiver(this);
+        this.timestampProvider = timestampProvider;
+        this.maxDelay = maxDelay;
+        this.releaseActions = new ArrayList<>();
+        this.deadlineCheck = new Runnable() {
+            @Override
+            public void run() {
+                if (isDeferring() && MeteredNetworkPolicy.this.timestampProvider.provideTimestamp() - deferredSince >= MeteredNetworkPolicy.this.maxDelay) {
+                    release();
+                }
+            }
+        };
+    }
+
+    public void addReleaseActions(List<Runnable> actions) {
+        Assert.notNull(actions, "Actions must not be null!");
+        Assert.elementsNotNull(actions, "Action elements must not be null!");
+
+        releaseActions.addAll(actions);
+    }
+
+    public boolean shouldDefer(TrafficClass trafficClass) {
+        Assert.notNull(trafficClass, "TrafficClass must not be null!");
+
+        if (releasing || trafficClass == TrafficClass.ESSENTIAL
+                || connectionWatchDog.getConnectionState() != ConnectionState.CONNECTED_MOBILE_DATA) {
+            return false;
+        }
+
+        long now = timestampProvider.provideTimestamp();
+        if (!isDeferring()) {
+            deferredSince = now;
+            coreSdkHandler.postDelayed(deadlineCheck, maxDelay);
+        } else if (now - deferredSince >= maxDelay) {
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isDeferring() {
+        return deferredSince != 0;
+    }
+
+    @Override
+    public void onConnectionChanged(ConnectionState connectionState, boolean isConnected) {
+        if (connectionState == ConnectionState.CONNECTED && isDeferring()) {
+            release();
+        }
+    }
+
+    private void release() {
+        deferredSince = 0;
+        releasing = true;
+        try {
+            for (Runnable action : releaseActions) {
+                action.run();
+            }
+        } finally {
+            releasing = false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.emarsys.core.connection;
+
+import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.util.Assert;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Shares one delegate factory (and with it the TLS session cache and connection pool key) between all SDK
+ * connections, and remembers on the calling thread when a new TLS socket was last layered, so that the
+ * handshake can be told apart from the TCP connect.
+ */
+public class TrackingSSLSocketFactory extends SSLSocketFactory {
+
+    private final SSLSocketFactory delegate;
+    private final TimestampProvider timestampProvider;
+    private final ThreadLocal<Long> handshakeStart;
+
+    public TrackingSSLSocketFactory(SSLSocketFactory delegate, TimestampProvider timestampProvider) {
+        Assert.notNull(delegate, "Delegate must not be null!");
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+
+        this.delegate = delegate;
+        this.timestampProvider = timestampProvider;
+        this.handshakeStart = new ThreadLocal<>();
+    }
+
+    public long takeHandshakeStart() {
+        Long result = handshakeStart.get();
+        handshakeStart.remove();
+        return result == null ? Transport.NO_HANDSHAKE : result;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return track(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+        return track(delegate.createSocket(socket, host, port, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        return track(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+        return track(delegate.createSocket(address, port, localAddress, localPort));
+    }
+
+    private Socket track(Socket socket) {
+        handshakeStart.set(timestampProvider.provideTimestamp());
+        return socket;
+    }
+}
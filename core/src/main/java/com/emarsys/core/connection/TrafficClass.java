@@ -0,0 +1,5 @@
+package com.emarsys.core.connection;
+
+public enum TrafficClass {
+    ESSENTIAL, DEFERRABLE
+}
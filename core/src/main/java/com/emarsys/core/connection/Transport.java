@@ -0,0 +1,23 @@
+package com.emarsys.core.connection;
+
+import com.emarsys.core.request.model.RequestModel;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Opens the connection a single request is exchanged over. {@link ConnectionProvider} talks HTTPS to the
+ * SDK hosts, {@link com.emarsys.core.connection.loopback.LoopbackTransport} answers in-process.
+ */
+public interface Transport {
+
+    long NO_HANDSHAKE = -1;
+
+    HttpURLConnection provideConnection(RequestModel requestModel) throws IOException;
+
+    /**
+     * Returns when the TLS handshake of the last connection opened on this thread started,
+     * or {@link #NO_HANDSHAKE} when no handshake was needed.
+     */
+    long takeHandshakeStart();
+}
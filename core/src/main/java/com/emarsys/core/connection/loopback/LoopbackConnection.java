@@ -0,0 +1,147 @@
+package com.emarsys.core.connection.loopback;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class LoopbackConnection extends HttpURLConnection {
+
+    private final LoopbackTransport transport;
+    private final Map<String, String> requestProperties;
+    private final ByteArrayOutputStream requestBody;
+    private LoopbackResponse response;
+
+    LoopbackConnection(URL url, LoopbackTransport transport) {
+        super(url);
+        this.transport = transport;
+        this.requestProperties = new LinkedHashMap<>();
+        this.requestBody = new ByteArrayOutputStream();
+    }
+
+    @Override
+    public void connect() {
+        connected = true;
+    }
+
+    @Override
+    public void disconnect() {
+        connected = false;
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    @Override
+    public void setRequestProperty(String key, String value) {
+        if (connected) {
+            throw new IllegalStateException("Already connected");
+        }
+        if (key == null) {
+            throw new NullPointerException("key is null");
+        }
+        requestProperties.put(key, value);
+    }
+
+    @Override
+    public String getRequestProperty(String key) {
+        return requestProperties.get(key);
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestProperties() {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : requestProperties.entrySet()) {
+            result.put(entry.getKey(), Collections.singletonList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (!doOutput) {
+            throw new ProtocolException("Output is not enabled, call setDoOutput(true) first");
+        }
+        if (response != null) {
+            throw new ProtocolException("Cannot write output after reading input");
+        }
+        connect();
+        return requestBody;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        return exchange().getStatusCode();
+    }
+
+    @Override
+    public String getResponseMessage() throws IOException {
+        return exchange().getMessage();
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        try {
+            return exchange().getHeaders();
+        } catch (IOException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        for (Map.Entry<String, List<String>> entry : getHeaderFields().entrySet()) {
+            List<String> values = entry.getValue();
+            if (name.equalsIgnoreCase(entry.getKey()) && !values.isEmpty()) {
+                return values.get(values.size() - 1);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        LoopbackResponse response = exchange();
+        if (response.getStatusCode() >= HTTP_BAD_REQUEST) {
+            throw new FileNotFoundException(url.toString());
+        }
+        return new ByteArrayInputStream(response.getBody());
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        if (response == null || response.getStatusCode() < HTTP_BAD_REQUEST) {
+            return null;
+        }
+        return new ByteArrayInputStream(response.getBody());
+    }
+
+    private LoopbackResponse exchange() throws IOException {
+        if (response == null) {
+            connect();
+            try {
+                response = transport.exchange(new LoopbackRequest(
+                        getRequestMethod(),
+                        url,
+                        new LinkedHashMap<>(requestProperties),
+                        requestBody.toByteArray()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Loopback exchange interrupted");
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,10 @@
+package com.emarsys.core.connection.loopback;
+
+/**
+ * Answers requests sent through a {@link LoopbackTransport}. Called on the network threads, so
+ * implementations must be thread safe.
+ */
+public interface LoopbackHandler {
+
+    LoopbackResponse handle(LoopbackRequest request);
+}
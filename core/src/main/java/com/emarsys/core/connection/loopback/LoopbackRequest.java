@@ -0,0 +1,47 @@
+package com.emarsys.core.connection.loopback;
+
+import com.emarsys.core.util.Assert;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+
+public class LoopbackRequest {
+
+    private final String method;
+    private final URL url;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    public LoopbackRequest(String method, URL url, Map<String, String> headers, byte[] body) {
+        Assert.notNull(method, "Method must not be null!");
+        Assert.notNull(url, "Url must not be null!");
+        Assert.notNull(headers, "Headers must not be null!");
+        Assert.notNull(body, "Body must not be null!");
+
+        this.method = method;
+        this.url = url;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public URL getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the body exactly as it was written to the connection, so it is still gzipped when
+     * the request carries a Content-Encoding header.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+}
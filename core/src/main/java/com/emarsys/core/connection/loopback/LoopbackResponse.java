@@ -0,0 +1,50 @@
+package com.emarsys.core.connection.loopback;
+
+import com.emarsys.core.util.Assert;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class LoopbackResponse {
+
+    private final int statusCode;
+    private final String message;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    public LoopbackResponse(int statusCode, String message, Map<String, List<String>> headers, byte[] body) {
+        Assert.notNull(message, "Message must not be null!");
+        Assert.notNull(headers, "Headers must not be null!");
+        Assert.notNull(body, "Body must not be null!");
+
+        this.statusCode = statusCode;
+        this.message = message;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    public LoopbackResponse(int statusCode, String body) {
+        this(statusCode,
+                "",
+                Collections.<String, List<String>>emptyMap(),
+                body == null ? new byte[0] : body.getBytes(Charset.forName("UTF-8")));
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,60 @@
+package com.emarsys.core.connection.loopback;
+
+import com.emarsys.core.connection.Transport;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+
+import java.net.HttpURLConnection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process {@link Transport} for tests and benchmarks: requests never leave the process, they are handed
+ * to a {@link LoopbackHandler} after an optional simulated round trip latency.
+ */
+public class LoopbackTransport implements Transport {
+
+    private final LoopbackHandler handler;
+    private final long latency;
+    private final AtomicInteger exchangeCount;
+
+    public LoopbackTransport(LoopbackHandler handler) {
+        this(handler, 0);
+    }
+
+    public LoopbackTransport(LoopbackHandler handler, long latency) {
+        Assert.notNull(handler, "Handler must not be null!");
+        if (latency < 0) {
+            throw new IllegalArgumentException("Latency must not be negative!");
+        }
+
+        this.handler = handler;
+        this.latency = latency;
+        this.exchangeCount = new AtomicInteger();
+    }
+
+    @Override
+    public HttpURLConnection provideConnection(RequestModel requestModel) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+
+        return new LoopbackConnection(requestModel.getUrl(), this);
+    }
+
+    @Override
+    public long takeHandshakeStart() {
+        return NO_HANDSHAKE;
+    }
+
+    public int getExchangeCount() {
+        return exchangeCount.get();
+    }
+
+    LoopbackResponse exchange(LoopbackRequest request) throws InterruptedException {
+        if (latency > 0) {
+            Thread.sleep(latency);
+        }
+        exchangeCount.incrementAndGet();
+        LoopbackResponse response = handler.handle(request);
+        Assert.notNull(response, "LoopbackHandler must not return null!");
+        return response;
+    }
+}
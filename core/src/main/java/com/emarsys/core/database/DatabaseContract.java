@@ -17,6 +17,12 @@ public final class DatabaseContract {
     public static final String REQUEST_COLUMN_NAME_PAYLOAD = "payload";
     public static final String REQUEST_COLUMN_NAME_TIMESTAMP = "timestamp";
     public static final String REQUEST_COLUMN_NAME_TTL = "ttl";
+    public static final String REQUEST_COLUMN_NAME_ATTEMPT = "attempt";
+    public static final String REQUEST_COLUMN_NAME_PRIORITY = "priority";
+    public static final String REQUEST_COLUMN_NAME_SUPERSESSION_KEY = "supersession_key";
+    public static final String REQUEST_COLUMN_NAME_BODY = "body";
+
+    public static final int REQUEST_DEFAULT_PRIORITY = 50;
 
     public static final String SHARD_COLUMN_ID = "shard_id";
     public static final String SHARD_COLUMN_TYPE = "type";
@@ -78,10 +84,37 @@ public final class DatabaseContract {
             UPGRADE_TO_4_CREATE_TABLE_BUTTON_CLICKED
     };
 
+    public static final String[] UPGRADE_TO_5 = {
+            "ALTER TABLE request ADD COLUMN attempt INTEGER DEFAULT 0;"
+    };
+
+    public static final String[] UPGRADE_TO_6 = {
+            "ALTER TABLE request ADD COLUMN priority INTEGER DEFAULT " + REQUEST_DEFAULT_PRIORITY + ";"
+    };
+
+    public static final String[] UPGRADE_TO_7 = {
+            "ALTER TABLE request ADD COLUMN supersession_key TEXT;"
+    };
+
+    // No schema change, CoreDbHelper re-encodes the existing blobs with BlobCodec after this step.
+    public static final String[] UPGRADE_TO_8 = {
+    };
+
+    public static final int BLOB_CODEC_VERSION = 8;
+
+    public static final String[] UPGRADE_TO_9 = {
+            "ALTER TABLE request ADD COLUMN body BLOB;"
+    };
+
     public static final String[][] MIGRATION = {
             UPGRADE_TO_1,
             UPGRADE_TO_2,
             UPGRADE_TO_3,
-            UPGRADE_TO_4
+            UPGRADE_TO_4,
+            UPGRADE_TO_5,
+            UPGRADE_TO_6,
+            UPGRADE_TO_7,
+            UPGRADE_TO_8,
+            UPGRADE_TO_9
     };
 }
@@ -89,6 +89,14 @@ public class DelegatingCoreSQLiteDatabase implements CoreSQLiteDatabase {
         return rowId;
     }
 
+    @Override
+    public int update(String table, ContentValues values, String whereClause, String[] whereArgs) {
+        runTriggers(table, TriggerType.BEFORE, TriggerEvent.UPDATE);
+        int rowsAffected = database.update(table, values, whereClause, whereArgs);
+        runTriggers(table, TriggerType.AFTER, TriggerEvent.UPDATE);
+        return rowsAffected;
+    }
+
     @Override
     public int delete(String table, String whereClause, String[] whereArgs) {
         runTriggers(table, TriggerType.BEFORE, TriggerEvent.DELETE);
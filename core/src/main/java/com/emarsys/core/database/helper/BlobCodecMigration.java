@@ -0,0 +1,83 @@
+package com.emarsys.core.database.helper;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.emarsys.core.util.serialization.BlobCodec;
+import com.emarsys.core.util.serialization.SerializationException;
+import com.emarsys.core.util.serialization.SerializationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HEADERS;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PAYLOAD;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_TABLE_NAME;
+import static com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_DATA;
+import static com.emarsys.core.database.DatabaseContract.SHARD_TABLE_NAME;
+
+class BlobCodecMigration {
+
+    private static final String ROW_ID = "rowid";
+    private static final int PAGE_SIZE = 100;
+
+    void migrate(SQLiteDatabase db) {
+        migrateTable(db, REQUEST_TABLE_NAME, REQUEST_COLUMN_NAME_HEADERS, REQUEST_COLUMN_NAME_PAYLOAD);
+        migrateTable(db, SHARD_TABLE_NAME, SHARD_COLUMN_DATA);
+    }
+
+    private void migrateTable(SQLiteDatabase db, String tableName, String... blobColumns) {
+        String[] columns = new String[blobColumns.length + 1];
+        columns[0] = ROW_ID;
+        System.arraycopy(blobColumns, 0, columns, 1, blobColumns.length);
+
+        long lastRowId = Long.MIN_VALUE;
+        boolean hasMore = true;
+        while (hasMore) {
+            List<Long> rowIds = new ArrayList<>();
+            List<ContentValues> updates = new ArrayList<>();
+
+            Cursor cursor = db.query(
+                    tableName,
+                    columns,
+                    ROW_ID + ">?",
+                    new String[]{String.valueOf(lastRowId)},
+                    null,
+                    null,
+                    ROW_ID + " ASC",
+                    String.valueOf(PAGE_SIZE));
+            try {
+                hasMore = cursor.getCount() == PAGE_SIZE;
+                while (cursor.moveToNext()) {
+                    lastRowId = cursor.getLong(0);
+                    ContentValues contentValues = reencode(cursor, blobColumns);
+                    if (contentValues.size() > 0) {
+                        rowIds.add(lastRowId);
+                        updates.add(contentValues);
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+
+            for (int i = 0; i < updates.size(); i++) {
+                db.update(tableName, updates.get(i), ROW_ID + "=?", new String[]{String.valueOf(rowIds.get(i))});
+            }
+        }
+    }
+
+    private ContentValues reencode(Cursor cursor, String[] blobColumns) {
+        ContentValues contentValues = new ContentValues();
+        for (int i = 0; i < blobColumns.length; i++) {
+            byte[] blob = cursor.getBlob(i + 1);
+            if (BlobCodec.isLegacy(blob)) {
+                try {
+                    contentValues.put(blobColumns[i], BlobCodec.encode(SerializationUtils.blobToSerializable(blob)));
+                } catch (SerializationException | IllegalArgumentException ignored) {
+                }
+            }
+        }
+        return contentValues;
+    }
+}
@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Map;
 
 public class CoreDbHelper extends AbstractDbHelper {
-    public static final int DATABASE_VERSION = 4;
+    public static final int DATABASE_VERSION = 9;
     public static final String DATABASE_NAME = "EmarsysCore.db";
 
     public CoreDbHelper(Context context, Map<TriggerKey, List<Runnable>> triggerMap) {
@@ -28,6 +28,9 @@ public class CoreDbHelper extends AbstractDbHelper {
             for (String sqlCommand:DatabaseContract.MIGRATION[i]) {
                 db.execSQL(sqlCommand);
             }
+            if (i + 1 == DatabaseContract.BLOB_CODEC_VERSION) {
+                new BlobCodecMigration().migrate(db);
+            }
         }
     }
 }
@@ -39,6 +39,32 @@ public abstract class AbstractSqliteRepository<T> implements Repository<T, SqlSp
         database.endTransaction();
     }
 
+    @Override
+    public void addAll(List<T> items) {
+        insertAll(items);
+    }
+
+    /**
+     * Inserts the given items in a single transaction and returns the estimated size of the inserted
+     * rows, measured the same way as {@link #sizeInBytes()}.
+     */
+    protected long insertAll(List<T> items) {
+        Assert.notNull(items, "Items must not be null!");
+        Assert.elementsNotNull(items, "Item elements must not be null!");
+
+        long size = 0;
+        CoreSQLiteDatabase database = dbHelper.getWritableCoreDatabase();
+        database.beginTransaction();
+        for (T item : items) {
+            ContentValues contentValues = contentValuesFromItem(item);
+            database.insert(tableName, null, contentValues);
+            size += sizeOf(contentValues);
+        }
+        database.setTransactionSuccessful();
+        database.endTransaction();
+        return size;
+    }
+
     @Override
     public List<T> query(SqlSpecification specification) {
         Assert.notNull(specification, "Specification must not be null!");
@@ -61,12 +87,64 @@ public abstract class AbstractSqliteRepository<T> implements Repository<T, SqlSp
 
     @Override
     public void remove(SqlSpecification specification) {
+        delete(specification);
+    }
+
+    @Override
+    public void removeAll(List<SqlSpecification> specifications) {
+        Assert.notNull(specifications, "Specifications must not be null!");
+        Assert.elementsNotNull(specifications, "Specification elements must not be null!");
+
+        CoreSQLiteDatabase database = dbHelper.getWritableCoreDatabase();
+        database.beginTransaction();
+        for (SqlSpecification specification : specifications) {
+            delete(specification);
+        }
+        database.setTransactionSuccessful();
+        database.endTransaction();
+    }
+
+    /**
+     * Runs the given unit of work in a single transaction. Repositories sharing the same database
+     * join the transaction, so all of their writes are committed together.
+     */
+    @Override
+    public void inTransaction(Runnable unitOfWork) {
+        Assert.notNull(unitOfWork, "UnitOfWork must not be null!");
+
+        CoreSQLiteDatabase database = dbHelper.getWritableCoreDatabase();
+        database.beginTransaction();
+        try {
+            unitOfWork.run();
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    protected int delete(SqlSpecification specification) {
+        Assert.notNull(specification, "Specification must not be null!");
+
+        CoreSQLiteDatabase database = dbHelper.getWritableCoreDatabase();
+        database.beginTransaction();
+        int deletedRows = database.delete(
+                tableName,
+                specification.getSelection(),
+                specification.getSelectionArgs());
+        database.setTransactionSuccessful();
+        database.endTransaction();
+        return deletedRows;
+    }
+
+    protected void update(ContentValues contentValues, SqlSpecification specification) {
+        Assert.notNull(contentValues, "ContentValues must not be null!");
         Assert.notNull(specification, "Specification must not be null!");
 
         CoreSQLiteDatabase database = dbHelper.getWritableCoreDatabase();
         database.beginTransaction();
-        database.delete(
+        database.update(
                 tableName,
+                contentValues,
                 specification.getSelection(),
                 specification.getSelectionArgs());
         database.setTransactionSuccessful();
@@ -75,6 +153,11 @@ public abstract class AbstractSqliteRepository<T> implements Repository<T, SqlSp
 
     @Override
     public boolean isEmpty() {
+        return count() == 0;
+    }
+
+    @Override
+    public int count() {
         CoreSQLiteDatabase database = dbHelper.getReadableCoreDatabase();
         Cursor cursor = database.rawQuery(
                 String.format("SELECT COUNT(*) FROM %s;", tableName),
@@ -82,7 +165,33 @@ public abstract class AbstractSqliteRepository<T> implements Repository<T, SqlSp
         cursor.moveToFirst();
         int count = cursor.getInt(cursor.getColumnIndex("COUNT(*)"));
         cursor.close();
-        return count == 0;
+        return count;
+    }
+
+    public long sizeInBytes() {
+        CoreSQLiteDatabase database = dbHelper.getReadableCoreDatabase();
+        Cursor cursor = database.rawQuery(
+                String.format("SELECT %s AS size FROM %s;", createRowSizeExpression(database), tableName),
+                null);
+        cursor.moveToFirst();
+        long size = cursor.getLong(cursor.getColumnIndex("size"));
+        cursor.close();
+        return size;
+    }
+
+    private long sizeOf(ContentValues contentValues) {
+        long size = 0;
+        for (String key : contentValues.keySet()) {
+            Object value = contentValues.get(key);
+            if (value instanceof byte[]) {
+                size += ((byte[]) value).length;
+            } else if (value instanceof Boolean) {
+                size += 1;
+            } else if (value != null) {
+                size += value.toString().length();
+            }
+        }
+        return size;
     }
 
     private List<T> mapCursorToResultList(Cursor cursor) {
@@ -99,4 +208,17 @@ public abstract class AbstractSqliteRepository<T> implements Repository<T, SqlSp
 
         return result;
     }
+
+    private String createRowSizeExpression(CoreSQLiteDatabase database) {
+        StringBuilder sb = new StringBuilder("IFNULL(SUM(0");
+        Cursor cursor = database.rawQuery(String.format("PRAGMA table_info(%s);", tableName), null);
+        if (cursor.moveToFirst()) {
+            while (!cursor.isAfterLast()) {
+                sb.append(" + IFNULL(LENGTH(").append(cursor.getString(cursor.getColumnIndex("name"))).append("), 0)");
+                cursor.moveToNext();
+            }
+        }
+        cursor.close();
+        return sb.append("), 0)").toString();
+    }
 }
@@ -0,0 +1,205 @@
+package com.emarsys.core.database.repository;
+
+import com.emarsys.core.database.repository.eviction.EvictionListener;
+import com.emarsys.core.database.repository.eviction.EvictionPolicy;
+import com.emarsys.core.database.repository.specification.QueryEvictionCandidates;
+import com.emarsys.core.provider.Gettable;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.Logger;
+import com.emarsys.core.util.log.entry.QueueOverflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BoundedRepository<T> implements Repository<T, SqlSpecification> {
+
+    private static final int UNMEASURED = -1;
+
+    private final AbstractSqliteRepository<T> repository;
+    private final String idColumnName;
+    private final EvictionPolicy evictionPolicy;
+    private final int maxRows;
+    private final long maxBytes;
+    private final Gettable<String[]> protectedIds;
+    private final List<EvictionListener<T>> evictionListeners;
+    private int droppedCount;
+    private int rowCount = UNMEASURED;
+    private long byteCount;
+
+    public BoundedRepository(
+            AbstractSqliteRepository<T> repository,
+            String idColumnName,
+            EvictionPolicy evictionPolicy,
+            int maxRows,
+            long maxBytes,
+            Gettable<String[]> protectedIds) {
+        Assert.notNull(repository, "Repository must not be null!");
+        Assert.notNull(idColumnName, "IdColumnName must not be null!");
+        Assert.notNull(evictionPolicy, "EvictionPolicy must not be null!");
+        Assert.notNull(protectedIds, "ProtectedIds must not be null!");
+        if (maxRows < 1) {
+            throw new IllegalArgumentException("MaxRows must be greater than 0!");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("MaxBytes must be greater than 0!");
+        }
+
+        this.repository = repository;
+        this.idColumnName = idColumnName;
+        this.evictionPolicy = evictionPolicy;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.protectedIds = protectedIds;
+        this.evictionListeners = new ArrayList<>();
+    }
+
+    public void addEvictionListeners(List<EvictionListener<T>> listeners) {
+        Assert.notNull(listeners, "Listeners must not be null!");
+        Assert.elementsNotNull(listeners, "Listener elements must not be null!");
+
+        evictionListeners.addAll(listeners);
+    }
+
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public void add(T item) {
+        Assert.notNull(item, "Item must not be null!");
+
+        addAll(Collections.singletonList(item));
+    }
+
+    @Override
+    public void addAll(final List<T> items) {
+        final List<T> evictedItems = new ArrayList<>();
+        try {
+            repository.inTransaction(new Runnable() {
+                @Override
+                public void run() {
+                    long addedBytes = repository.insertAll(items);
+                    if (rowCount == UNMEASURED) {
+                        measure();
+                    } else {
+                        rowCount += items.size();
+                        byteCount += addedBytes;
+                    }
+                    evictedItems.addAll(evictIfNeeded());
+                }
+            });
+        } catch (RuntimeException e) {
+            rowCount = UNMEASURED;
+            throw e;
+        }
+        notifyEvicted(evictedItems);
+    }
+
+    @Override
+    public void remove(SqlSpecification specification) {
+        onRemoved(repository.delete(specification));
+    }
+
+    @Override
+    public void removeAll(final List<SqlSpecification> specifications) {
+        Assert.notNull(specifications, "Specifications must not be null!");
+        Assert.elementsNotNull(specifications, "Specification elements must not be null!");
+
+        final int[] deletedRows = new int[1];
+        try {
+            repository.inTransaction(new Runnable() {
+                @Override
+                public void run() {
+                    for (SqlSpecification specification : specifications) {
+                        deletedRows[0] += repository.delete(specification);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            rowCount = UNMEASURED;
+            throw e;
+        }
+        onRemoved(deletedRows[0]);
+    }
+
+    @Override
+    public void inTransaction(Runnable unitOfWork) {
+        repository.inTransaction(unitOfWork);
+    }
+
+    @Override
+    public List<T> query(SqlSpecification specification) {
+        return repository.query(specification);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return repository.isEmpty();
+    }
+
+    @Override
+    public int count() {
+        return repository.count();
+    }
+
+    private List<T> evictIfNeeded() {
+        List<T> evictedItems = new ArrayList<>();
+        if (rowCount <= maxRows && byteCount <= maxBytes) {
+            return evictedItems;
+        }
+
+        // the running counts are estimates, so the table is measured before anything is evicted
+        measure();
+        if (rowCount <= maxRows && byteCount <= maxBytes) {
+            return evictedItems;
+        }
+
+        // trimming below the caps leaves headroom, so the overflow log entry itself can not trigger another eviction
+        int targetRows = maxRows - Math.max(1, maxRows / 10);
+        long targetBytes = maxBytes - Math.max(1, maxBytes / 10);
+
+        while (rowCount > 0 && (rowCount > targetRows || byteCount > targetBytes)) {
+            int limit = Math.max(rowCount - targetRows, 1);
+            if (byteCount > targetBytes) {
+                long averageRowSize = Math.max(byteCount / rowCount, 1);
+                limit = (int) Math.max(limit, (byteCount - targetBytes + averageRowSize - 1) / averageRowSize);
+            }
+
+            SqlSpecification candidates = new QueryEvictionCandidates(repository.tableName, idColumnName, evictionPolicy, protectedIds.get(), limit);
+            List<T> evicted = repository.query(candidates);
+            if (evicted.isEmpty()) {
+                break;
+            }
+            repository.remove(candidates);
+            evictedItems.addAll(evicted);
+
+            measure();
+        }
+        return evictedItems;
+    }
+
+    private void measure() {
+        rowCount = repository.count();
+        byteCount = repository.sizeInBytes();
+    }
+
+    private void onRemoved(int deletedRows) {
+        if (rowCount == UNMEASURED || deletedRows == 0) {
+            return;
+        }
+        long averageRowSize = rowCount > 0 ? byteCount / rowCount : 0;
+        rowCount = Math.max(rowCount - deletedRows, 0);
+        byteCount = rowCount == 0 ? 0 : Math.max(byteCount - deletedRows * averageRowSize, 0);
+    }
+
+    private void notifyEvicted(List<T> evictedItems) {
+        if (!evictedItems.isEmpty()) {
+            droppedCount += evictedItems.size();
+            Logger.log(new QueueOverflow(repository.tableName, evictedItems.size(), droppedCount));
+            for (EvictionListener<T> listener : evictionListeners) {
+                listener.onEvicted(evictedItems);
+            }
+        }
+    }
+}
@@ -6,10 +6,18 @@ public interface Repository<T, S> {
 
     void add(T item);
 
+    void addAll(List<T> items);
+
     void remove(S specification);
 
+    void removeAll(List<S> specifications);
+
+    void inTransaction(Runnable unitOfWork);
+
     List<T> query(S specification);
 
     boolean isEmpty();
 
+    int count();
+
 }
@@ -0,0 +1,79 @@
+package com.emarsys.core.database.repository;
+
+import android.os.Handler;
+
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WriteBehindBuffer<T> {
+
+    private final Handler handler;
+    private final Repository<T, SqlSpecification> repository;
+    private final int maxBatchSize;
+    private final long maxDelay;
+    private final Runnable commitAction;
+    private final List<T> pendingItems;
+    private final Runnable flushRunnable;
+    private boolean flushScheduled;
+
+    public WriteBehindBuffer(
+            Handler handler,
+            Repository<T, SqlSpecification> repository,
+            int maxBatchSize,
+            long maxDelay,
+            Runnable commitAction) {
+        Assert.notNull(handler, "Handler must not be null!");
+        Assert.notNull(repository, "Repository must not be null!");
+        Assert.notNull(commitAction, "CommitAction must not be null!");
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("MaxBatchSize must be greater than 0!");
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("MaxDelay must not be negative!");
+        }
+
+        this.handler = handler;
+        this.repository = repository;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.commitAction = commitAction;
+        this.pendingItems = new ArrayList<>();
+        this.flushRunnable = new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+    }
+
+    public void add(T item) {
+        Assert.notNull(item, "Item must not be null!");
+
+        pendingItems.add(item);
+        if (pendingItems.size() >= maxBatchSize) {
+            flush();
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            handler.postDelayed(flushRunnable, maxDelay);
+        }
+    }
+
+    public void flush() {
+        if (flushScheduled) {
+            handler.removeCallbacks(flushRunnable);
+            flushScheduled = false;
+        }
+        if (!pendingItems.isEmpty()) {
+            List<T> items = new ArrayList<>(pendingItems);
+            pendingItems.clear();
+            repository.addAll(items);
+            commitAction.run();
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingItems.size();
+    }
+}
@@ -0,0 +1,9 @@
+package com.emarsys.core.database.repository.eviction;
+
+import java.util.List;
+
+public interface EvictionListener<T> {
+
+    void onEvicted(List<T> evictedItems);
+
+}
@@ -0,0 +1,7 @@
+package com.emarsys.core.database.repository.eviction;
+
+public interface EvictionPolicy {
+
+    String getOrderBy();
+
+}
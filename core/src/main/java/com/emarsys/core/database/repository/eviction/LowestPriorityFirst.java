@@ -0,0 +1,11 @@
+package com.emarsys.core.database.repository.eviction;
+
+import com.emarsys.core.database.DatabaseContract;
+
+public class LowestPriorityFirst implements EvictionPolicy {
+
+    @Override
+    public String getOrderBy() {
+        return DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY + " ASC, ROWID ASC";
+    }
+}
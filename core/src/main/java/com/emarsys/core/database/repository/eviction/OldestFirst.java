@@ -0,0 +1,9 @@
+package com.emarsys.core.database.repository.eviction;
+
+public class OldestFirst implements EvictionPolicy {
+
+    @Override
+    public String getOrderBy() {
+        return "ROWID ASC";
+    }
+}
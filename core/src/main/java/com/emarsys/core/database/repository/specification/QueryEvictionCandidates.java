@@ -0,0 +1,47 @@
+package com.emarsys.core.database.repository.specification;
+
+import com.emarsys.core.database.repository.AbstractSqlSpecification;
+import com.emarsys.core.database.repository.eviction.EvictionPolicy;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.DatabaseUtil;
+
+public class QueryEvictionCandidates extends AbstractSqlSpecification {
+
+    private final String tableName;
+    private final String idColumnName;
+    private final EvictionPolicy evictionPolicy;
+    private final String[] protectedIds;
+    private final int limit;
+
+    public QueryEvictionCandidates(String tableName, String idColumnName, EvictionPolicy evictionPolicy, String[] protectedIds, int limit) {
+        Assert.notNull(tableName, "TableName must not be null!");
+        Assert.notNull(idColumnName, "IdColumnName must not be null!");
+        Assert.notNull(evictionPolicy, "EvictionPolicy must not be null!");
+        Assert.notNull(protectedIds, "ProtectedIds must not be null!");
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than 0!");
+        }
+
+        this.tableName = tableName;
+        this.idColumnName = idColumnName;
+        this.evictionPolicy = evictionPolicy;
+        this.protectedIds = protectedIds;
+        this.limit = limit;
+    }
+
+    @Override
+    public String getSelection() {
+        String where = protectedIds.length > 0 ? " WHERE " + DatabaseUtil.generateNotInStatement(idColumnName, protectedIds) : "";
+        return String.format("ROWID IN (SELECT ROWID FROM %s%s ORDER BY %s LIMIT %d)", tableName, where, evictionPolicy.getOrderBy(), limit);
+    }
+
+    @Override
+    public String[] getSelectionArgs() {
+        return protectedIds.length > 0 ? protectedIds : null;
+    }
+
+    @Override
+    public String getOrderBy() {
+        return evictionPolicy.getOrderBy();
+    }
+}
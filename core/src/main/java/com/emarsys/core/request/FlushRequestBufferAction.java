@@ -0,0 +1,21 @@
+package com.emarsys.core.request;
+
+import android.app.Activity;
+
+import com.emarsys.core.activity.ActivityLifecycleAction;
+import com.emarsys.core.util.Assert;
+
+public class FlushRequestBufferAction implements ActivityLifecycleAction {
+
+    private final RequestManager requestManager;
+
+    public FlushRequestBufferAction(RequestManager requestManager) {
+        Assert.notNull(requestManager, "RequestManager must not be null!");
+        this.requestManager = requestManager;
+    }
+
+    @Override
+    public void execute(Activity activity) {
+        requestManager.flush();
+    }
+}
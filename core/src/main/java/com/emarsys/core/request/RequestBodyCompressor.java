@@ -0,0 +1,80 @@
+package com.emarsys.core.request;
+
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.JsonStreamWriter;
+import com.emarsys.core.util.predicate.Predicate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+public class RequestBodyCompressor {
+
+    public static final String CONTENT_ENCODING = "gzip";
+
+    private final int threshold;
+    private final List<Predicate<RequestModel>> compressionPredicates;
+
+    public RequestBodyCompressor(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative!");
+        }
+
+        this.threshold = threshold;
+        this.compressionPredicates = new ArrayList<>();
+    }
+
+    public void addCompressionPredicates(List<Predicate<RequestModel>> predicates) {
+        Assert.notNull(predicates, "Predicates must not be null!");
+        Assert.elementsNotNull(predicates, "Predicate elements must not be null!");
+
+        compressionPredicates.addAll(predicates);
+    }
+
+    public boolean shouldCompress(RequestModel model, long bodySize) {
+        Assert.notNull(model, "Model must not be null!");
+
+        if (bodySize < threshold) {
+            return false;
+        }
+
+        for (Predicate<RequestModel> predicate : compressionPredicates) {
+            if (predicate.evaluate(model)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] compress(Map<String, Object> payload) throws IOException {
+        Assert.notNull(payload, "Payload must not be null!");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+        try {
+            JsonStreamWriter writer = new JsonStreamWriter(gzipOutputStream);
+            writer.write(payload);
+            writer.flush();
+        } finally {
+            gzipOutputStream.close();
+        }
+        return outputStream.toByteArray();
+    }
+
+    public byte[] compress(byte[] body) throws IOException {
+        Assert.notNull(body, "Body must not be null!");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+        try {
+            gzipOutputStream.write(body);
+        } finally {
+            gzipOutputStream.close();
+        }
+        return outputStream.toByteArray();
+    }
+}
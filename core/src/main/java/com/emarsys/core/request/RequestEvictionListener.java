@@ -0,0 +1,38 @@
+package com.emarsys.core.request;
+
+import android.os.Handler;
+
+import com.emarsys.core.CoreCompletionHandler;
+import com.emarsys.core.database.repository.eviction.EvictionListener;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+
+import java.util.List;
+
+public class RequestEvictionListener implements EvictionListener<RequestModel> {
+
+    private final Handler uiHandler;
+    private final CoreCompletionHandler coreCompletionHandler;
+
+    public RequestEvictionListener(Handler uiHandler, CoreCompletionHandler coreCompletionHandler) {
+        Assert.notNull(uiHandler, "UiHandler must not be null!");
+        Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
+
+        this.uiHandler = uiHandler;
+        this.coreCompletionHandler = coreCompletionHandler;
+    }
+
+    @Override
+    public void onEvicted(final List<RequestModel> evictedItems) {
+        Assert.notNull(evictedItems, "EvictedItems must not be null!");
+
+        uiHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (RequestModel evictedItem : evictedItems) {
+                    coreCompletionHandler.onError(evictedItem.getId(), new RequestEvictedException("Request evicted from full queue", evictedItem.getUrl().getPath()));
+                }
+            }
+        });
+    }
+}
@@ -5,8 +5,10 @@ import android.os.Handler;
 import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.Registry;
 import com.emarsys.core.api.result.CompletionListener;
+import com.emarsys.core.concurrency.NetworkLane;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.database.repository.WriteBehindBuffer;
 import com.emarsys.core.request.factory.DefaultRunnableFactory;
 import com.emarsys.core.request.factory.RunnableFactory;
 import com.emarsys.core.request.model.RequestModel;
@@ -19,6 +21,9 @@ import java.util.Map;
 
 public class RequestManager {
 
+    private static final int DEFAULT_WRITE_BUFFER_SIZE = 1;
+    private static final long DEFAULT_WRITE_BUFFER_DELAY = 0;
+
     Worker worker;
     RunnableFactory runnableFactory;
 
@@ -29,6 +34,7 @@ public class RequestManager {
     private final Repository<ShardModel, SqlSpecification> shardRepository;
     private final Registry<RequestModel, CompletionListener> callbackRegistry;
     private final CoreCompletionHandler defaultCoreCompletionHandler;
+    private final WriteBehindBuffer<RequestModel> requestWriteBuffer;
 
     public RequestManager(
             Handler coreSDKHandler,
@@ -38,6 +44,27 @@ public class RequestManager {
             RestClient restClient,
             Registry<RequestModel, CompletionListener> callbackRegistry,
             CoreCompletionHandler defaultCoreCompletionHandler) {
+        this(coreSDKHandler,
+                requestRepository,
+                shardRepository,
+                worker,
+                restClient,
+                callbackRegistry,
+                defaultCoreCompletionHandler,
+                DEFAULT_WRITE_BUFFER_SIZE,
+                DEFAULT_WRITE_BUFFER_DELAY);
+    }
+
+    public RequestManager(
+            Handler coreSDKHandler,
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            Repository<ShardModel, SqlSpecification> shardRepository,
+            Worker worker,
+            RestClient restClient,
+            Registry<RequestModel, CompletionListener> callbackRegistry,
+            CoreCompletionHandler defaultCoreCompletionHandler,
+            int writeBufferSize,
+            long writeBufferDelay) {
         Assert.notNull(coreSDKHandler, "CoreSDKHandler must not be null!");
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(shardRepository, "ShardRepository must not be null!");
@@ -55,6 +82,17 @@ public class RequestManager {
         this.runnableFactory = new DefaultRunnableFactory();
         this.callbackRegistry = callbackRegistry;
         this.defaultCoreCompletionHandler = defaultCoreCompletionHandler;
+        this.requestWriteBuffer = new WriteBehindBuffer<>(
+                coreSDKHandler,
+                requestRepository,
+                writeBufferSize,
+                writeBufferDelay,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        RequestManager.this.worker.run();
+                    }
+                });
     }
 
     public void setDefaultHeaders(Map<String, String> defaultHeaders) {
@@ -68,14 +106,22 @@ public class RequestManager {
             @Override
             public void run() {
                 injectDefaultHeaders(model);
-                requestRepository.add(model);
                 callbackRegistry.register(model, callback);
-                worker.run();
+                requestWriteBuffer.add(model);
             }
         }));
 
     }
 
+    public void flush() {
+        coreSDKHandler.post(runnableFactory.runnableFrom(new Runnable() {
+            @Override
+            public void run() {
+                requestWriteBuffer.flush();
+            }
+        }));
+    }
+
     public void submit(final ShardModel model) {
         Assert.notNull(model, "ShardModel must not be null!");
 
@@ -95,10 +141,25 @@ public class RequestManager {
     }
 
     public void submitNow(RequestModel requestModel, CoreCompletionHandler completionHandler) {
+        submitNow(requestModel, completionHandler, NetworkLane.INTERACTIVE);
+    }
+
+    public void submitNow(RequestModel requestModel, NetworkLane lane) {
+        submitNow(requestModel, defaultCoreCompletionHandler, lane);
+    }
+
+    public void submitNow(RequestModel requestModel, CoreCompletionHandler completionHandler, NetworkLane lane) {
         Assert.notNull(requestModel, "RequestModel must not be null!");
         Assert.notNull(completionHandler, "CompletionHandler must not be null!");
+        Assert.notNull(lane, "Lane must not be null!");
+
+        restClient.execute(requestModel, completionHandler, lane);
+    }
+
+    public int getRemainingCapacity(NetworkLane lane) {
+        Assert.notNull(lane, "Lane must not be null!");
 
-        restClient.execute(requestModel, completionHandler);
+        return restClient.getRemainingCapacity(lane);
     }
 
     void injectDefaultHeaders(RequestModel model) {
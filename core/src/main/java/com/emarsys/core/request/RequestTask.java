@@ -1,41 +1,46 @@
 package com.emarsys.core.request;
 
-import android.os.AsyncTask;
-
 import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.Mapper;
-import com.emarsys.core.connection.ConnectionProvider;
+import com.emarsys.core.connection.Transport;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.request.header.HeaderInjector;
 import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.response.ResponseBodyReader;
+import com.emarsys.core.response.ResponseBodyTooLargeException;
 import com.emarsys.core.response.ResponseHandlersProcessor;
 import com.emarsys.core.response.ResponseModel;
 import com.emarsys.core.util.Assert;
-import com.emarsys.core.util.JsonUtils;
+import com.emarsys.core.util.JsonStreamWriter;
 import com.emarsys.core.util.log.Logger;
+import com.emarsys.core.util.log.entry.ConnectionTiming;
 import com.emarsys.core.util.log.entry.InDatabaseTime;
 import com.emarsys.core.util.log.entry.NetworkingTime;
+import com.emarsys.core.util.log.entry.RequestCompression;
+import com.emarsys.core.util.log.entry.ResponseBodyTooLarge;
 
-import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import javax.net.ssl.HttpsURLConnection;
-
 
-public class RequestTask extends AsyncTask<Void, Long, Void> {
+public class RequestTask {
     private static final int TIMEOUT = 30_000;
 
     private final RequestModel requestModel;
     private final CoreCompletionHandler handler;
-    private final ConnectionProvider connectionProvider;
+    private final Transport transport;
     private final ResponseHandlersProcessor responseHandlersProcessor;
     private final List<Mapper<RequestModel, RequestModel>> requestModelMappers;
+    private final RequestBodyCompressor requestBodyCompressor;
+    private final ResponseBodyReader responseBodyReader;
+    private final List<HeaderInjector> headerInjectors;
+    private final boolean bodyRequiredOnSuccess;
     private TimestampProvider timestampProvider;
 
     private ResponseModel responseModel;
@@ -44,59 +49,98 @@ public class RequestTask extends AsyncTask<Void, Long, Void> {
     public RequestTask(
             RequestModel requestModel,
             CoreCompletionHandler handler,
-            ConnectionProvider connectionProvider,
+            Transport transport,
+            TimestampProvider timestampProvider,
+            ResponseHandlersProcessor responseHandlersProcessor,
+            List<Mapper<RequestModel, RequestModel>> requestModelMappers,
+            RequestBodyCompressor requestBodyCompressor,
+            ResponseBodyReader responseBodyReader,
+            boolean bodyRequiredOnSuccess) {
+        this(requestModel,
+                handler,
+                transport,
+                timestampProvider,
+                responseHandlersProcessor,
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                Collections.<HeaderInjector>emptyList(),
+                bodyRequiredOnSuccess);
+    }
+
+    public RequestTask(
+            RequestModel requestModel,
+            CoreCompletionHandler handler,
+            Transport transport,
             TimestampProvider timestampProvider,
             ResponseHandlersProcessor responseHandlersProcessor,
-            List<Mapper<RequestModel, RequestModel>> requestModelMappers) {
+            List<Mapper<RequestModel, RequestModel>> requestModelMappers,
+            RequestBodyCompressor requestBodyCompressor,
+            ResponseBodyReader responseBodyReader,
+            List<HeaderInjector> headerInjectors,
+            boolean bodyRequiredOnSuccess) {
         Assert.notNull(requestModel, "RequestModel must not be null!");
         Assert.notNull(handler, "CoreCompletionHandler must not be null!");
-        Assert.notNull(connectionProvider, "ConnectionProvider must not be null!");
+        Assert.notNull(transport, "Transport must not be null!");
         Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
         Assert.notNull(responseHandlersProcessor, "ResponseHandlersProcessor must not be null!");
         Assert.notNull(requestModelMappers, "RequestModelMappers must not be null!");
+        Assert.notNull(requestBodyCompressor, "RequestBodyCompressor must not be null!");
+        Assert.notNull(responseBodyReader, "ResponseBodyReader must not be null!");
+        Assert.notNull(headerInjectors, "HeaderInjectors must not be null!");
 
         this.requestModel = requestModel;
         this.handler = handler;
-        this.connectionProvider = connectionProvider;
+        this.transport = transport;
         this.timestampProvider = timestampProvider;
         this.responseHandlersProcessor = responseHandlersProcessor;
         this.requestModelMappers = requestModelMappers;
+        this.requestBodyCompressor = requestBodyCompressor;
+        this.responseBodyReader = responseBodyReader;
+        this.headerInjectors = headerInjectors;
+        this.bodyRequiredOnSuccess = bodyRequiredOnSuccess;
     }
 
-    @Override
-    protected Void doInBackground(Void... params) {
+    protected void doInBackground() {
         long dbEnd = timestampProvider.provideTimestamp();
         Logger.log(new InDatabaseTime(requestModel, dbEnd));
 
-        HttpsURLConnection connection = null;
+        HttpURLConnection connection = null;
         try {
             RequestModel updatedRequestModel = mapRequestModel(requestModel);
 
-            connection = connectionProvider.provideConnection(updatedRequestModel);
+            connection = transport.provideConnection(updatedRequestModel);
 
             initializeConnection(connection, updatedRequestModel);
+            byte[] preparedBody = prepareBody(connection, updatedRequestModel);
             connection.setConnectTimeout(20_000);
+            long connectStart = timestampProvider.provideTimestamp();
             connection.connect();
-            sendBody(connection, updatedRequestModel);
+            long connectEnd = timestampProvider.provideTimestamp();
+            long handshakeStart = transport.takeHandshakeStart();
+            sendBody(connection, preparedBody);
             responseModel = readResponse(connection);
 
             Logger.log(new NetworkingTime(responseModel, dbEnd));
+            Logger.log(new ConnectionTiming(responseModel, connectStart, handshakeStart, connectEnd));
         } catch (Exception e) {
             exception = e;
-        } finally {
             if (connection != null) {
                 connection.disconnect();
             }
         }
-        return null;
     }
 
-    @Override
-    protected void onPostExecute(Void result) {
+    protected void processResponse() {
+        if (exception == null && responseModel != null) {
+            responseHandlersProcessor.process(responseModel);
+        }
+    }
+
+    protected void onPostExecute() {
         if (exception != null) {
             handler.onError(requestModel.getId(), exception);
         } else if (responseModel != null) {
-            responseHandlersProcessor.process(responseModel);
             if (isStatusCodeOK(responseModel.getStatusCode())) {
                 handler.onSuccess(requestModel.getId(), responseModel);
             } else {
@@ -113,16 +157,20 @@ public class RequestTask extends AsyncTask<Void, Long, Void> {
         return handler;
     }
 
-    private void initializeConnection(HttpsURLConnection connection, RequestModel model) throws IOException {
+    private void initializeConnection(HttpURLConnection connection, RequestModel model) throws IOException {
         connection.setRequestMethod(model.getMethod().name());
+        connection.setRequestProperty("Accept-Encoding", ResponseBodyReader.ACCEPT_ENCODING);
         setHeaders(connection, model.getHeaders());
+        for (HeaderInjector headerInjector : headerInjectors) {
+            headerInjector.injectHeaders(model, connection);
+        }
         connection.setConnectTimeout(TIMEOUT);
-        if (model.getMethod() != RequestMethod.GET && model.getPayload() != null) {
+        if (model.getMethod() != RequestMethod.GET && hasBody(model)) {
             connection.setDoOutput(true);
         }
     }
 
-    private void setHeaders(HttpsURLConnection connection, Map<String, String> headers) {
+    private void setHeaders(HttpURLConnection connection, Map<String, String> headers) {
         for (Map.Entry<String, String> entry : headers.entrySet()) {
             String key = entry.getKey();
             String value = entry.getValue();
@@ -130,20 +178,55 @@ public class RequestTask extends AsyncTask<Void, Long, Void> {
         }
     }
 
-    private void sendBody(HttpsURLConnection connection, RequestModel model) throws IOException {
-        if (model.getPayload() != null) {
-            byte[] payload = JsonUtils.fromMap(model.getPayload()).toString().getBytes(StandardCharsets.UTF_8);
-            BufferedOutputStream writer = new BufferedOutputStream(connection.getOutputStream());
-            writer.write(payload);
-            writer.close();
+    private byte[] prepareBody(HttpURLConnection connection, RequestModel model) throws IOException {
+        if (!hasBody(model)) {
+            return null;
+        }
+
+        byte[] body = model.getBody() != null ? model.getBody() : JsonStreamWriter.toByteArray(model.getPayload());
+        if (requestBodyCompressor.shouldCompress(model, body.length)) {
+            byte[] compressedBody = requestBodyCompressor.compress(body);
+            if (compressedBody.length < body.length) {
+                connection.setRequestProperty("Content-Encoding", RequestBodyCompressor.CONTENT_ENCODING);
+                connection.setFixedLengthStreamingMode(compressedBody.length);
+                Logger.log(new RequestCompression(model, body.length, compressedBody.length));
+                return compressedBody;
+            }
+        }
+        connection.setFixedLengthStreamingMode(body.length);
+        return body;
+    }
+
+    private void sendBody(HttpURLConnection connection, byte[] preparedBody) throws IOException {
+        if (preparedBody != null) {
+            OutputStream outputStream = connection.getOutputStream();
+            try {
+                outputStream.write(preparedBody);
+            } finally {
+                outputStream.close();
+            }
         }
     }
 
-    private ResponseModel readResponse(HttpsURLConnection connection) throws IOException {
+    private boolean hasBody(RequestModel model) {
+        return model.getBody() != null || model.getPayload() != null;
+    }
+
+    private ResponseModel readResponse(HttpURLConnection connection) throws IOException {
         int statusCode = connection.getResponseCode();
         String message = connection.getResponseMessage();
         Map<String, List<String>> headers = connection.getHeaderFields();
-        String body = readBody(connection);
+        InputStream inputStream = isStatusCodeOK(statusCode) ? connection.getInputStream() : connection.getErrorStream();
+        String body = null;
+        if (!isStatusCodeOK(statusCode) || bodyRequiredOnSuccess || responseHandlersProcessor.isBodyRequired(requestModel)) {
+            try {
+                body = responseBodyReader.read(inputStream, connection.getContentEncoding());
+            } catch (ResponseBodyTooLargeException e) {
+                Logger.log(new ResponseBodyTooLarge(requestModel, statusCode, e.getMaxBodySize()));
+            }
+        } else {
+            responseBodyReader.discard(inputStream);
+        }
         return new ResponseModel.Builder(timestampProvider)
                 .statusCode(statusCode)
                 .message(message)
@@ -153,26 +236,6 @@ public class RequestTask extends AsyncTask<Void, Long, Void> {
                 .build();
     }
 
-    private String readBody(HttpsURLConnection connection) throws IOException {
-        int responseCode = connection.getResponseCode();
-        InputStream inputStream;
-        if (isStatusCodeOK(responseCode)) {
-            inputStream = connection.getInputStream();
-        } else {
-            inputStream = connection.getErrorStream();
-        }
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        String inputLine;
-        StringBuilder sb = new StringBuilder();
-
-        while ((inputLine = reader.readLine()) != null) {
-            sb.append(inputLine);
-        }
-
-        reader.close();
-        return sb.toString();
-    }
-
     private boolean isStatusCodeOK(int responseCode) {
         return 200 <= responseCode && responseCode < 300;
     }
@@ -1,64 +1,170 @@
 package com.emarsys.core.request;
 
-import android.os.AsyncTask;
 import android.os.Handler;
-import android.os.Looper;
 
 import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.Mapper;
-import com.emarsys.core.connection.ConnectionProvider;
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider;
+import com.emarsys.core.concurrency.DefaultNetworkExecutor;
+import com.emarsys.core.concurrency.NetworkExecutor;
+import com.emarsys.core.concurrency.NetworkLane;
+import com.emarsys.core.connection.Transport;
+import com.emarsys.core.request.header.HeaderInjector;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.response.ResponseBodyReader;
 import com.emarsys.core.response.ResponseHandlersProcessor;
 import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.Logger;
+import com.emarsys.core.util.log.entry.InNetworkQueueTime;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 public class RestClient {
 
-    private ConnectionProvider connectionProvider;
+    private static final int DEFAULT_MAX_RESPONSE_BODY_SIZE = 1024 * 1024;
+
+    private Transport transport;
     private TimestampProvider timestampProvider;
     private ResponseHandlersProcessor responseHandlersProcessor;
     private List<Mapper<RequestModel, RequestModel>> requestModelMappers;
-    private final Handler handler = new Handler(Looper.getMainLooper());
+    private RequestBodyCompressor requestBodyCompressor;
+    private ResponseBodyReader responseBodyReader;
+    private NetworkExecutor networkExecutor;
+    private Handler coreSdkHandler;
+    private volatile List<HeaderInjector> headerInjectors;
 
     public RestClient(
-            ConnectionProvider connectionProvider,
+            Transport transport,
             TimestampProvider timestampProvider,
             ResponseHandlersProcessor responseHandlersProcessor,
             List<Mapper<RequestModel, RequestModel>> requestModelMappers) {
-        Assert.notNull(connectionProvider, "ConnectionProvider must not be null!");
+        this(transport,
+                timestampProvider,
+                responseHandlersProcessor,
+                requestModelMappers,
+                new RequestBodyCompressor(0),
+                new ResponseBodyReader(DEFAULT_MAX_RESPONSE_BODY_SIZE));
+    }
+
+    public RestClient(
+            Transport transport,
+            TimestampProvider timestampProvider,
+            ResponseHandlersProcessor responseHandlersProcessor,
+            List<Mapper<RequestModel, RequestModel>> requestModelMappers,
+            RequestBodyCompressor requestBodyCompressor,
+            ResponseBodyReader responseBodyReader) {
+        this(transport,
+                timestampProvider,
+                responseHandlersProcessor,
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                new DefaultNetworkExecutor(),
+                new CoreSdkHandlerProvider().provideHandler());
+    }
+
+    public RestClient(
+            Transport transport,
+            TimestampProvider timestampProvider,
+            ResponseHandlersProcessor responseHandlersProcessor,
+            List<Mapper<RequestModel, RequestModel>> requestModelMappers,
+            RequestBodyCompressor requestBodyCompressor,
+            ResponseBodyReader responseBodyReader,
+            NetworkExecutor networkExecutor,
+            Handler coreSdkHandler) {
+        Assert.notNull(transport, "Transport must not be null!");
         Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
         Assert.notNull(responseHandlersProcessor, "ResponseHandlersProcessor must not be null!");
         Assert.notNull(requestModelMappers, "RequestModelMappers must not be null!");
+        Assert.notNull(requestBodyCompressor, "RequestBodyCompressor must not be null!");
+        Assert.notNull(responseBodyReader, "ResponseBodyReader must not be null!");
+        Assert.notNull(networkExecutor, "NetworkExecutor must not be null!");
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
 
-        this.connectionProvider = connectionProvider;
+        this.transport = transport;
         this.timestampProvider = timestampProvider;
         this.responseHandlersProcessor = responseHandlersProcessor;
         this.requestModelMappers = requestModelMappers;
+        this.requestBodyCompressor = requestBodyCompressor;
+        this.responseBodyReader = responseBodyReader;
+        this.networkExecutor = networkExecutor;
+        this.coreSdkHandler = coreSdkHandler;
+        this.headerInjectors = Collections.emptyList();
+    }
+
+    public void addHeaderInjectors(List<HeaderInjector> headerInjectors) {
+        Assert.notNull(headerInjectors, "HeaderInjectors must not be null!");
+        Assert.elementsNotNull(headerInjectors, "HeaderInjector elements must not be null!");
+
+        List<HeaderInjector> updatedHeaderInjectors = new ArrayList<>(this.headerInjectors);
+        updatedHeaderInjectors.addAll(headerInjectors);
+        this.headerInjectors = Collections.unmodifiableList(updatedHeaderInjectors);
     }
 
     public void execute(RequestModel model, CoreCompletionHandler completionHandler) {
+        execute(model, completionHandler, NetworkLane.QUEUED);
+    }
+
+    /**
+     * Sends the request on the given lane. Response handlers and the completion handler are called on
+     * the core SDK thread, completion handlers that reach user code have to switch to main themselves.
+     */
+    public void execute(final RequestModel model, final CoreCompletionHandler completionHandler, final NetworkLane lane) {
         Assert.notNull(model, "Model must not be null!");
         Assert.notNull(completionHandler, "CoreCompletionHandler must not be null!");
+        Assert.notNull(lane, "Lane must not be null!");
 
+        // Interactive callers read the response body in their own completion handlers,
+        // queued and telemetry requests only need it when a response handler does.
+        boolean bodyRequiredOnSuccess = lane == NetworkLane.INTERACTIVE;
         final RequestTask task = new RequestTask(
                 model,
                 completionHandler,
-                connectionProvider,
+                transport,
                 timestampProvider,
                 responseHandlersProcessor,
-                requestModelMappers);
+                requestModelMappers,
+                requestBodyCompressor,
+                responseBodyReader,
+                headerInjectors,
+                bodyRequiredOnSuccess);
 
-        if (Looper.myLooper() == Looper.getMainLooper()) {
-            task.executeOnExecutor(AsyncTask.SERIAL_EXECUTOR);
-        } else {
-            handler.post(new Runnable() {
+        final int queueDepth = networkExecutor.getQueueDepth(lane);
+        final long enqueued = timestampProvider.provideTimestamp();
+        try {
+            networkExecutor.execute(lane, new Runnable() {
+                @Override
+                public void run() {
+                    Logger.log(new InNetworkQueueTime(model, lane, queueDepth, enqueued, timestampProvider.provideTimestamp()));
+                    task.doInBackground();
+                    coreSdkHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            task.processResponse();
+                            task.onPostExecute();
+                        }
+                    });
+                }
+            });
+        } catch (final RejectedExecutionException ree) {
+            coreSdkHandler.post(new Runnable() {
                 @Override
                 public void run() {
-                    task.executeOnExecutor(AsyncTask.SERIAL_EXECUTOR);
+                    completionHandler.onError(model.getId(), ree);
                 }
             });
         }
     }
+
+    public int getQueueDepth(NetworkLane lane) {
+        return networkExecutor.getQueueDepth(lane);
+    }
+
+    public int getRemainingCapacity(NetworkLane lane) {
+        return networkExecutor.getRemainingCapacity(lane);
+    }
 }
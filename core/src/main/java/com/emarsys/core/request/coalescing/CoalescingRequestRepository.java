@@ -0,0 +1,204 @@
+package com.emarsys.core.request.coalescing;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.provider.Gettable;
+import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.provider.uuid.UUIDProvider;
+import com.emarsys.core.request.model.CompositeRequestModel;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.specification.FilterByUrlPattern;
+import com.emarsys.core.request.model.specification.QueryNextRequestModels;
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class CoalescingRequestRepository implements Repository<RequestModel, SqlSpecification> {
+
+    private final Repository<RequestModel, SqlSpecification> requestRepository;
+    private final TimestampProvider timestampProvider;
+    private final UUIDProvider uuidProvider;
+    private final Gettable<String[]> inFlightRequestIds;
+    private final Map<CoalescingStrategy, Pattern> strategies;
+
+    public CoalescingRequestRepository(
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            TimestampProvider timestampProvider,
+            UUIDProvider uuidProvider,
+            Gettable<String[]> inFlightRequestIds) {
+        Assert.notNull(requestRepository, "RequestRepository must not be null!");
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        Assert.notNull(uuidProvider, "UuidProvider must not be null!");
+        Assert.notNull(inFlightRequestIds, "InFlightRequestIds must not be null!");
+
+        this.requestRepository = requestRepository;
+        this.timestampProvider = timestampProvider;
+        this.uuidProvider = uuidProvider;
+        this.inFlightRequestIds = inFlightRequestIds;
+        this.strategies = new LinkedHashMap<>();
+    }
+
+    public void addStrategies(List<CoalescingStrategy> coalescingStrategies) {
+        Assert.notNull(coalescingStrategies, "CoalescingStrategies must not be null!");
+        Assert.elementsNotNull(coalescingStrategies, "CoalescingStrategy elements must not be null!");
+
+        for (CoalescingStrategy strategy : coalescingStrategies) {
+            Assert.notNull(strategy.getUrlPattern(), "UrlPattern must not be null!");
+            if (strategy.getMaxBatchSize() < 1) {
+                throw new IllegalArgumentException("MaxBatchSize must be greater than 0!");
+            }
+            strategies.put(strategy, compileUrlPattern(strategy.getUrlPattern()));
+        }
+    }
+
+    @Override
+    public void add(RequestModel item) {
+        if (!(item instanceof CompositeRequestModel)) {
+            requestRepository.add(item);
+        }
+    }
+
+    @Override
+    public void addAll(List<RequestModel> items) {
+        List<RequestModel> originalItems = new ArrayList<>();
+        for (RequestModel item : items) {
+            if (!(item instanceof CompositeRequestModel)) {
+                originalItems.add(item);
+            }
+        }
+        requestRepository.addAll(originalItems);
+    }
+
+    @Override
+    public void remove(SqlSpecification specification) {
+        requestRepository.remove(specification);
+    }
+
+    @Override
+    public void removeAll(List<SqlSpecification> specifications) {
+        requestRepository.removeAll(specifications);
+    }
+
+    @Override
+    public void inTransaction(Runnable unitOfWork) {
+        requestRepository.inTransaction(unitOfWork);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return requestRepository.isEmpty();
+    }
+
+    @Override
+    public int count() {
+        return requestRepository.count();
+    }
+
+    @Override
+    public List<RequestModel> query(SqlSpecification specification) {
+        List<RequestModel> result = requestRepository.query(specification);
+        boolean holdsEveryCandidate = holdsEveryCandidate(specification, result);
+        for (Map.Entry<CoalescingStrategy, Pattern> entry : strategies.entrySet()) {
+            coalesce(result, holdsEveryCandidate, entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private void coalesce(List<RequestModel> result, boolean holdsEveryCandidate, CoalescingStrategy strategy, Pattern urlPattern) {
+        List<String> excludedRequestIds = Arrays.asList(inFlightRequestIds.get());
+        List<RequestModel> matchingModelsInResult = new ArrayList<>();
+        List<RequestModel> batch = new ArrayList<>();
+        for (RequestModel requestModel : result) {
+            if (!(requestModel instanceof CompositeRequestModel) && urlPattern.matcher(requestModel.getUrl().toString()).matches()) {
+                matchingModelsInResult.add(requestModel);
+                if (batch.size() < strategy.getMaxBatchSize() && !excludedRequestIds.contains(requestModel.getId())) {
+                    batch.add(requestModel);
+                }
+            }
+        }
+
+        if (!matchingModelsInResult.isEmpty()) {
+            if (batch.size() < strategy.getMaxBatchSize() && !holdsEveryCandidate) {
+                // the result was cut off by its limit, so more candidates may wait behind it
+                batch = requestRepository.query(new FilterByUrlPattern(strategy.getUrlPattern(), inFlightRequestIds.get(), strategy.getMaxBatchSize()));
+            }
+            if (!batch.isEmpty()) {
+                int firstMatchingIndex = result.indexOf(matchingModelsInResult.get(0));
+                result.add(firstMatchingIndex, createComposite(batch, strategy));
+                result.removeAll(matchingModelsInResult);
+            }
+        }
+    }
+
+    private boolean holdsEveryCandidate(SqlSpecification specification, List<RequestModel> result) {
+        if (specification instanceof QueryNextRequestModels) {
+            return result.size() < Integer.parseInt(specification.getLimit());
+        }
+        return specification.getSelection() == null && specification.getLimit() == null;
+    }
+
+    private CompositeRequestModel createComposite(List<RequestModel> models, CoalescingStrategy strategy) {
+        RequestModel first = models.get(0);
+        return new CompositeRequestModel.Builder(timestampProvider, uuidProvider)
+                .url(first.getUrl().toString())
+                .method(first.getMethod())
+                .payload(strategy.mergePayloads(models))
+                .headers(first.getHeaders())
+                .ttl(Long.MAX_VALUE)
+                .attempt(collectMaxAttempt(models))
+                .priority(collectMaxPriority(models))
+                .originalRequestIds(collectRequestIds(models)).build();
+    }
+
+    private int collectMaxAttempt(List<RequestModel> models) {
+        int result = 0;
+        for (RequestModel model : models) {
+            result = Math.max(result, model.getAttempt());
+        }
+        return result;
+    }
+
+    private int collectMaxPriority(List<RequestModel> models) {
+        int result = Integer.MIN_VALUE;
+        for (RequestModel model : models) {
+            result = Math.max(result, model.getPriority());
+        }
+        return result;
+    }
+
+    private String[] collectRequestIds(List<RequestModel> models) {
+        int size = models.size();
+        String[] result = new String[size];
+
+        for (int i = 0; i < size; ++i) {
+            result[i] = models.get(i).getId();
+        }
+
+        return result;
+    }
+
+    static Pattern compileUrlPattern(String likePattern) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : likePattern.toCharArray()) {
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+}
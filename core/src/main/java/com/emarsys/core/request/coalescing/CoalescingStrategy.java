@@ -0,0 +1,16 @@
+package com.emarsys.core.request.coalescing;
+
+import com.emarsys.core.request.model.RequestModel;
+
+import java.util.List;
+import java.util.Map;
+
+public interface CoalescingStrategy {
+
+    String getUrlPattern();
+
+    int getMaxBatchSize();
+
+    Map<String, Object> mergePayloads(List<RequestModel> requestModels);
+
+}
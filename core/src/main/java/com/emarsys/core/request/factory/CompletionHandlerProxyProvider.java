@@ -1,9 +1,10 @@
 package com.emarsys.core.request.factory;
 
 import com.emarsys.core.CoreCompletionHandler;
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.worker.Worker;
 
 public interface CompletionHandlerProxyProvider {
 
-    CoreCompletionHandler provideProxy(Worker worker);
+    CoreCompletionHandler provideProxy(Worker worker, RequestModel requestModel);
 }
@@ -8,6 +8,7 @@ import com.emarsys.core.database.repository.SqlSpecification;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
 import com.emarsys.core.worker.CoreCompletionHandlerMiddleware;
+import com.emarsys.core.worker.RetryScheduler;
 import com.emarsys.core.worker.Worker;
 
 public class CoreCompletionHandlerMiddlewareProvider implements CompletionHandlerProxyProvider {
@@ -16,22 +17,25 @@ public class CoreCompletionHandlerMiddlewareProvider implements CompletionHandle
     private Handler uiHandler;
     private Handler coreSdkHandler;
     private CoreCompletionHandler defaultCoreCompletionHandler;
+    private RetryScheduler retryScheduler;
 
-    public CoreCompletionHandlerMiddlewareProvider(CoreCompletionHandler defaultCoreCompletionHandler, Repository<RequestModel, SqlSpecification> requestRepository, Handler uiHandler, Handler coreSdkHandler) {
+    public CoreCompletionHandlerMiddlewareProvider(CoreCompletionHandler defaultCoreCompletionHandler, Repository<RequestModel, SqlSpecification> requestRepository, Handler uiHandler, Handler coreSdkHandler, RetryScheduler retryScheduler) {
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(uiHandler, "UiHandler must not be null!");
         Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
         Assert.notNull(defaultCoreCompletionHandler, "DefaultCoreCompletionHandler must not be null!");
+        Assert.notNull(retryScheduler, "RetryScheduler must not be null!");
 
         this.requestRepository = requestRepository;
         this.uiHandler = uiHandler;
         this.coreSdkHandler = coreSdkHandler;
         this.defaultCoreCompletionHandler = defaultCoreCompletionHandler;
+        this.retryScheduler = retryScheduler;
     }
 
     @Override
-    public CoreCompletionHandler provideProxy(Worker worker) {
-        return new CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, defaultCoreCompletionHandler);
+    public CoreCompletionHandler provideProxy(Worker worker, RequestModel requestModel) {
+        return new CoreCompletionHandlerMiddleware(worker, requestModel, requestRepository, uiHandler, coreSdkHandler, defaultCoreCompletionHandler, retryScheduler);
     }
 
 }
@@ -0,0 +1,11 @@
+package com.emarsys.core.request.header;
+
+import com.emarsys.core.request.model.RequestModel;
+
+import java.net.HttpURLConnection;
+
+public interface HeaderInjector {
+
+    void injectHeaders(RequestModel requestModel, HttpURLConnection connection);
+
+}
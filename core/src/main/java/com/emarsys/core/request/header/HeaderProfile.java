@@ -0,0 +1,70 @@
+package com.emarsys.core.request.header;
+
+import com.emarsys.core.util.Assert;
+
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of headers that is built once and written onto every matching connection.
+ */
+public final class HeaderProfile {
+
+    public static final HeaderProfile EMPTY = new HeaderProfile(Collections.<String, String>emptyMap());
+
+    private final Map<String, String> headers;
+    private final String[] names;
+    private final String[] values;
+
+    public HeaderProfile(Map<String, String> headers) {
+        Assert.notNull(headers, "Headers must not be null!");
+
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.names = new String[headers.size()];
+        this.values = new String[headers.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : this.headers.entrySet()) {
+            Assert.notNull(entry.getKey(), "Header names must not be null!");
+            Assert.notNull(entry.getValue(), "Header values must not be null!");
+            names[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void applyTo(HttpURLConnection connection) {
+        Assert.notNull(connection, "Connection must not be null!");
+
+        for (int i = 0; i < names.length; i++) {
+            connection.setRequestProperty(names[i], values[i]);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        HeaderProfile that = (HeaderProfile) o;
+
+        return headers.equals(that.headers);
+    }
+
+    @Override
+    public int hashCode() {
+        return headers.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "HeaderProfile{" +
+                "headers=" + headers +
+                '}';
+    }
+}
@@ -20,7 +20,34 @@ public class CompositeRequestModel extends RequestModel {
             long timestamp,
             long ttl,
             String[] originalRequestIds) {
-        super(url, method, payload, headers, timestamp, ttl, id);
+        this(id, url, method, payload, headers, timestamp, ttl, 0, originalRequestIds);
+    }
+
+    public CompositeRequestModel(
+            String id,
+            String url,
+            RequestMethod method,
+            Map<String, Object> payload,
+            Map<String, String> headers,
+            long timestamp,
+            long ttl,
+            int attempt,
+            String[] originalRequestIds) {
+        this(id, url, method, payload, headers, timestamp, ttl, attempt, RequestPriority.NORMAL, originalRequestIds);
+    }
+
+    public CompositeRequestModel(
+            String id,
+            String url,
+            RequestMethod method,
+            Map<String, Object> payload,
+            Map<String, String> headers,
+            long timestamp,
+            long ttl,
+            int attempt,
+            int priority,
+            String[] originalRequestIds) {
+        super(url, method, payload, headers, timestamp, ttl, id, attempt, priority);
         this.originalRequestIds = originalRequestIds;
     }
 
@@ -103,13 +130,25 @@ public class CompositeRequestModel extends RequestModel {
             return this;
         }
 
+        @Override
+        public CompositeRequestModel.Builder attempt(int attempt) {
+            super.attempt(attempt);
+            return this;
+        }
+
+        @Override
+        public CompositeRequestModel.Builder priority(int priority) {
+            super.priority(priority);
+            return this;
+        }
+
         public CompositeRequestModel.Builder originalRequestIds(String[] originalRequestIds) {
             this.originalRequestIds = originalRequestIds;
             return this;
         }
 
         public CompositeRequestModel build() {
-            return new CompositeRequestModel(id, buildUrl(), method, payload, headers, timestamp, ttl, originalRequestIds);
+            return new CompositeRequestModel(id, buildUrl(), method, payload, headers, timestamp, ttl, attempt, priority, originalRequestIds);
         }
     }
 }
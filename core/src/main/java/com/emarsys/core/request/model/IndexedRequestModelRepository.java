@@ -0,0 +1,173 @@
+package com.emarsys.core.request.model;
+
+import com.emarsys.core.database.helper.DbHelper;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.request.model.specification.FilterByRequestId;
+import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
+import com.emarsys.core.request.model.specification.QueryNextRequestModels;
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class IndexedRequestModelRepository extends RequestModelRepository {
+
+    private final int readAheadSize;
+    private final List<RequestModel> head;
+    private boolean loaded;
+    private boolean headComplete;
+    private int count;
+
+    public IndexedRequestModelRepository(DbHelper coreDbHelper, int readAheadSize) {
+        super(coreDbHelper);
+        if (readAheadSize < 1) {
+            throw new IllegalArgumentException("ReadAheadSize must be greater than 0!");
+        }
+        this.readAheadSize = readAheadSize;
+        this.head = new ArrayList<>();
+    }
+
+    @Override
+    public void add(RequestModel item) {
+        super.add(item);
+        if (loaded) {
+            count++;
+            insertIntoHead(item);
+        }
+    }
+
+    @Override
+    protected long insertAll(List<RequestModel> items) {
+        long size = super.insertAll(items);
+        if (loaded) {
+            for (RequestModel item : items) {
+                count++;
+                insertIntoHead(item);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    protected int delete(SqlSpecification specification) {
+        int deletedRows = super.delete(specification);
+        if (loaded) {
+            if (specification instanceof FilterByRequestId) {
+                count -= deletedRows;
+                removeFromHead(Arrays.asList(specification.getSelectionArgs()));
+            } else {
+                count = super.count();
+                refillHead();
+            }
+        }
+        return deletedRows;
+    }
+
+    @Override
+    public void updateAttempt(SqlSpecification specification, int attempt) {
+        super.updateAttempt(specification, attempt);
+        if (loaded) {
+            if (specification instanceof FilterByRequestId) {
+                List<String> ids = Arrays.asList(specification.getSelectionArgs());
+                for (int i = 0; i < head.size(); i++) {
+                    if (ids.contains(head.get(i).getId())) {
+                        head.set(i, new RequestModel.Builder(head.get(i)).attempt(attempt).build());
+                    }
+                }
+            } else {
+                refillHead();
+            }
+        }
+    }
+
+    @Override
+    public List<RequestModel> query(SqlSpecification specification) {
+        Assert.notNull(specification, "Specification must not be null!");
+
+        List<RequestModel> result = null;
+        if (specification instanceof QueryLatestRequestModel) {
+            result = queryHead(new String[0], 1);
+        } else if (specification instanceof QueryNextRequestModels) {
+            String[] excludedRequestIds = specification.getSelectionArgs();
+            result = queryHead(
+                    excludedRequestIds == null ? new String[0] : excludedRequestIds,
+                    Integer.parseInt(specification.getLimit()));
+        }
+        return result == null ? super.query(specification) : result;
+    }
+
+    @Override
+    public int count() {
+        ensureLoaded();
+        return count;
+    }
+
+    private List<RequestModel> queryHead(String[] excludedRequestIds, int limit) {
+        ensureLoaded();
+        List<RequestModel> result = collectFromHead(excludedRequestIds, limit);
+        if (result.size() < limit && !headComplete) {
+            refillHead();
+            result = collectFromHead(excludedRequestIds, limit);
+        }
+        return result.size() < limit && !headComplete ? null : result;
+    }
+
+    private List<RequestModel> collectFromHead(String[] excludedRequestIds, int limit) {
+        List<String> excluded = Arrays.asList(excludedRequestIds);
+        List<RequestModel> result = new ArrayList<>();
+        for (RequestModel model : head) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (!excluded.contains(model.getId())) {
+                result.add(model);
+            }
+        }
+        return result;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            count = super.count();
+            refillHead();
+            loaded = true;
+        }
+    }
+
+    private void refillHead() {
+        head.clear();
+        head.addAll(super.query(new QueryNextRequestModels(new String[0], readAheadSize)));
+        headComplete = head.size() < readAheadSize;
+    }
+
+    private void insertIntoHead(RequestModel item) {
+        int position = 0;
+        while (position < head.size() && head.get(position).getPriority() >= item.getPriority()) {
+            position++;
+        }
+
+        if (position < head.size() || headComplete) {
+            head.add(position, item);
+            if (head.size() > readAheadSize) {
+                head.remove(head.size() - 1);
+                headComplete = false;
+            }
+        }
+    }
+
+    private void removeFromHead(List<String> ids) {
+        Iterator<RequestModel> iterator = head.iterator();
+        while (iterator.hasNext()) {
+            if (ids.contains(iterator.next().getId())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    List<RequestModel> getHead() {
+        return Collections.unmodifiableList(head);
+    }
+}
@@ -5,10 +5,17 @@ import android.net.Uri;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.provider.uuid.UUIDProvider;
 import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.JsonStreamWriter;
+import com.emarsys.core.util.JsonUtils;
+
+import org.json.JSONException;
+import org.json.JSONObject;
 
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,8 +27,28 @@ public class RequestModel implements Serializable {
     private long timestamp;
     private long ttl;
     private String id;
+    private int attempt;
+    private int priority;
+    private String supersessionKey;
+    private byte[] body;
 
     public RequestModel(String url, RequestMethod method, Map<String, Object> payload, Map<String, String> headers, long timestamp, long ttl, String id) {
+        this(url, method, payload, headers, timestamp, ttl, id, 0);
+    }
+
+    public RequestModel(String url, RequestMethod method, Map<String, Object> payload, Map<String, String> headers, long timestamp, long ttl, String id, int attempt) {
+        this(url, method, payload, headers, timestamp, ttl, id, attempt, RequestPriority.NORMAL);
+    }
+
+    public RequestModel(String url, RequestMethod method, Map<String, Object> payload, Map<String, String> headers, long timestamp, long ttl, String id, int attempt, int priority) {
+        this(url, method, payload, headers, timestamp, ttl, id, attempt, priority, null);
+    }
+
+    public RequestModel(String url, RequestMethod method, Map<String, Object> payload, Map<String, String> headers, long timestamp, long ttl, String id, int attempt, int priority, String supersessionKey) {
+        this(url, method, payload, headers, timestamp, ttl, id, attempt, priority, supersessionKey, null);
+    }
+
+    public RequestModel(String url, RequestMethod method, Map<String, Object> payload, Map<String, String> headers, long timestamp, long ttl, String id, int attempt, int priority, String supersessionKey, byte[] body) {
         Assert.notNull(url, "Url must not be null!");
         Assert.notNull(method, "Method must not be null!");
         Assert.notNull(headers, "Headers must not be null!");
@@ -37,6 +64,10 @@ public class RequestModel implements Serializable {
         this.timestamp = timestamp;
         this.ttl = ttl;
         this.id = id;
+        this.attempt = attempt;
+        this.priority = priority;
+        this.supersessionKey = supersessionKey;
+        this.body = body;
     }
 
     public URL getUrl() {
@@ -47,10 +78,31 @@ public class RequestModel implements Serializable {
         return method;
     }
 
+    /**
+     * For models holding only a pre-encoded {@link #getBody() body}, the payload is decoded from the
+     * body on every call and not cached. The result is only an approximation of the original map:
+     * numbers come back as Integer, Long or Double, as parsed by JSONObject, which may differ from
+     * the types the payload was built with.
+     */
     public Map<String, Object> getPayload() {
+        if (payload == null && body != null) {
+            try {
+                return JsonUtils.toMap(new JSONObject(new String(body, Charset.forName("UTF-8"))));
+            } catch (JSONException je) {
+                throw new IllegalStateException(je);
+            }
+        }
         return payload;
     }
 
+    /**
+     * The payload encoded to its final UTF-8 JSON wire format at enqueue time, or null if the
+     * payload is encoded when the request is sent.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
     public Map<String, String> getHeaders() {
         return headers;
     }
@@ -67,6 +119,18 @@ public class RequestModel implements Serializable {
         return id;
     }
 
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public String getSupersessionKey() {
+        return supersessionKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -76,10 +140,16 @@ public class RequestModel implements Serializable {
 
         if (timestamp != that.timestamp) return false;
         if (ttl != that.ttl) return false;
+        if (attempt != that.attempt) return false;
+        if (priority != that.priority) return false;
         if (url != null ? !url.equals(that.url) : that.url != null) return false;
         if (method != that.method) return false;
-        if (payload != null ? !payload.equals(that.payload) : that.payload != null) return false;
+        if (body != null || that.body != null) {
+            if (!Arrays.equals(body, that.body)) return false;
+        } else if (payload != null ? !payload.equals(that.payload) : that.payload != null) return false;
         if (headers != null ? !headers.equals(that.headers) : that.headers != null) return false;
+        if (supersessionKey != null ? !supersessionKey.equals(that.supersessionKey) : that.supersessionKey != null)
+            return false;
         return id != null ? id.equals(that.id) : that.id == null;
     }
 
@@ -87,11 +157,14 @@ public class RequestModel implements Serializable {
     public int hashCode() {
         int result = url != null ? url.hashCode() : 0;
         result = 31 * result + (method != null ? method.hashCode() : 0);
-        result = 31 * result + (payload != null ? payload.hashCode() : 0);
+        result = 31 * result + (body != null ? Arrays.hashCode(body) : payload != null ? payload.hashCode() : 0);
         result = 31 * result + (headers != null ? headers.hashCode() : 0);
         result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
         result = 31 * result + (int) (ttl ^ (ttl >>> 32));
         result = 31 * result + (id != null ? id.hashCode() : 0);
+        result = 31 * result + attempt;
+        result = 31 * result + priority;
+        result = 31 * result + (supersessionKey != null ? supersessionKey.hashCode() : 0);
         return result;
     }
 
@@ -105,6 +178,10 @@ public class RequestModel implements Serializable {
                 ", timestamp=" + timestamp +
                 ", ttl=" + ttl +
                 ", id='" + id + '\'' +
+                ", attempt=" + attempt +
+                ", priority=" + priority +
+                ", supersessionKey='" + supersessionKey + '\'' +
+                ", body=" + (body != null ? body.length + " bytes" : null) +
                 '}';
     }
 
@@ -116,7 +193,12 @@ public class RequestModel implements Serializable {
         protected long timestamp;
         protected long ttl;
         protected String id;
+        protected int attempt;
+        protected int priority;
+        protected String supersessionKey;
         protected Map<String, String> queryParams;
+        protected byte[] body;
+        protected boolean encodeBody;
 
         public Builder(TimestampProvider timestampProvider, UUIDProvider uuidProvider) {
             method = RequestMethod.POST;
@@ -124,6 +206,7 @@ public class RequestModel implements Serializable {
             timestamp = timestampProvider.provideTimestamp();
             ttl = Long.MAX_VALUE;
             id = uuidProvider.provideId();
+            priority = RequestPriority.NORMAL;
         }
 
         public Builder(RequestModel requestModel) {
@@ -136,6 +219,11 @@ public class RequestModel implements Serializable {
             timestamp = requestModel.timestamp;
             ttl = requestModel.ttl;
             id = requestModel.id;
+            attempt = requestModel.attempt;
+            priority = requestModel.priority;
+            supersessionKey = requestModel.supersessionKey;
+            body = requestModel.body;
+            encodeBody = requestModel.body != null;
         }
 
         public Builder url(String url) {
@@ -155,6 +243,7 @@ public class RequestModel implements Serializable {
 
         public Builder payload(Map<String, Object> payload) {
             this.payload = payload;
+            this.body = null;
             return this;
         }
 
@@ -168,8 +257,38 @@ public class RequestModel implements Serializable {
             return this;
         }
 
+        public Builder attempt(int attempt) {
+            this.attempt = attempt;
+            return this;
+        }
+
+        public Builder priority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder supersessionKey(String supersessionKey) {
+            this.supersessionKey = supersessionKey;
+            return this;
+        }
+
+        public Builder encodeBody() {
+            this.encodeBody = true;
+            return this;
+        }
+
         public RequestModel build() {
-            return new RequestModel(buildUrl(), method, payload, headers, timestamp, ttl, id);
+            return new RequestModel(buildUrl(), method, payload, headers, timestamp, ttl, id, attempt, priority, supersessionKey, buildBody());
+        }
+
+        byte[] buildBody() {
+            if (!encodeBody) {
+                return null;
+            }
+            if (body == null && payload != null) {
+                return JsonStreamWriter.toByteArray(payload);
+            }
+            return body;
         }
 
         String buildUrl() {
@@ -6,20 +6,25 @@ import android.database.Cursor;
 import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.helper.DbHelper;
 import com.emarsys.core.database.repository.AbstractSqliteRepository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.serialization.BlobCodec;
 import com.emarsys.core.util.serialization.SerializationException;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_ATTEMPT;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_BODY;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HEADERS;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_METHOD;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PAYLOAD;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_SUPERSESSION_KEY;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TIMESTAMP;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TTL;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_URL;
-import static com.emarsys.core.util.serialization.SerializationUtils.blobToSerializable;
-import static com.emarsys.core.util.serialization.SerializationUtils.serializableToBlob;
 
 public class RequestModelRepository extends AbstractSqliteRepository<RequestModel> {
 
@@ -33,10 +38,19 @@ public class RequestModelRepository extends AbstractSqliteRepository<RequestMode
         contentValues.put(REQUEST_COLUMN_NAME_REQUEST_ID, item.getId());
         contentValues.put(REQUEST_COLUMN_NAME_METHOD, item.getMethod().name());
         contentValues.put(REQUEST_COLUMN_NAME_URL, item.getUrl().toString());
-        contentValues.put(REQUEST_COLUMN_NAME_HEADERS, serializableToBlob(item.getHeaders()));
-        contentValues.put(REQUEST_COLUMN_NAME_PAYLOAD, serializableToBlob(item.getPayload()));
+        contentValues.put(REQUEST_COLUMN_NAME_HEADERS, BlobCodec.encode(item.getHeaders()));
+        if (item.getBody() != null) {
+            contentValues.putNull(REQUEST_COLUMN_NAME_PAYLOAD);
+            contentValues.put(REQUEST_COLUMN_NAME_BODY, item.getBody());
+        } else {
+            contentValues.put(REQUEST_COLUMN_NAME_PAYLOAD, BlobCodec.encode(item.getPayload()));
+            contentValues.putNull(REQUEST_COLUMN_NAME_BODY);
+        }
         contentValues.put(REQUEST_COLUMN_NAME_TIMESTAMP, item.getTimestamp());
         contentValues.put(REQUEST_COLUMN_NAME_TTL, item.getTtl());
+        contentValues.put(REQUEST_COLUMN_NAME_ATTEMPT, item.getAttempt());
+        contentValues.put(REQUEST_COLUMN_NAME_PRIORITY, item.getPriority());
+        contentValues.put(REQUEST_COLUMN_NAME_SUPERSESSION_KEY, item.getSupersessionKey());
         return contentValues;
     }
 
@@ -49,20 +63,36 @@ public class RequestModelRepository extends AbstractSqliteRepository<RequestMode
 
         Map<String, String> headers = new HashMap<>();
         try {
-            headers = (Map<String, String>) blobToSerializable(cursor.getBlob(cursor.getColumnIndex(REQUEST_COLUMN_NAME_HEADERS)));
+            headers = (Map<String, String>) BlobCodec.decode(cursor.getBlob(cursor.getColumnIndex(REQUEST_COLUMN_NAME_HEADERS)));
         } catch (SerializationException | ClassCastException ignored) {
         }
 
-        Map<String, Object> payload = new HashMap<>();
-        try {
-            payload = (Map<String, Object>) blobToSerializable(cursor.getBlob(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PAYLOAD)));
-        } catch (SerializationException | ClassCastException ignored) {
+        byte[] body = cursor.getBlob(cursor.getColumnIndex(REQUEST_COLUMN_NAME_BODY));
+
+        Map<String, Object> payload = null;
+        if (body == null) {
+            payload = new HashMap<>();
+            try {
+                payload = (Map<String, Object>) BlobCodec.decode(cursor.getBlob(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PAYLOAD)));
+            } catch (SerializationException | ClassCastException ignored) {
+            }
         }
 
         long timeStamp = cursor.getLong(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TIMESTAMP));
         long ttl = cursor.getLong(cursor.getColumnIndex(REQUEST_COLUMN_NAME_TTL));
+        int attempt = cursor.getInt(cursor.getColumnIndex(REQUEST_COLUMN_NAME_ATTEMPT));
+        int priority = cursor.getInt(cursor.getColumnIndex(REQUEST_COLUMN_NAME_PRIORITY));
+        String supersessionKey = cursor.getString(cursor.getColumnIndex(REQUEST_COLUMN_NAME_SUPERSESSION_KEY));
 
-        return new RequestModel(url, method, payload, headers, timeStamp, ttl, requestId);
+        return new RequestModel(url, method, payload, headers, timeStamp, ttl, requestId, attempt, priority, supersessionKey, body);
+    }
+
+    public void updateAttempt(SqlSpecification specification, int attempt) {
+        Assert.notNull(specification, "Specification must not be null!");
+
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(REQUEST_COLUMN_NAME_ATTEMPT, attempt);
+        update(contentValues, specification);
     }
 
 }
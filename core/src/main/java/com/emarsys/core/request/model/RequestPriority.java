@@ -0,0 +1,11 @@
+package com.emarsys.core.request.model;
+
+public final class RequestPriority {
+
+    private RequestPriority() {
+    }
+
+    public static final int LOW = 0;
+    public static final int NORMAL = 50;
+    public static final int HIGH = 100;
+}
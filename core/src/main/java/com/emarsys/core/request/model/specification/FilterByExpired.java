@@ -0,0 +1,41 @@
+package com.emarsys.core.request.model.specification;
+
+import com.emarsys.core.database.DatabaseContract;
+import com.emarsys.core.database.repository.AbstractSqlSpecification;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.DatabaseUtil;
+
+public class FilterByExpired extends AbstractSqlSpecification {
+
+    private final long now;
+    private final String[] excludedRequestIds;
+
+    public FilterByExpired(long now) {
+        this(now, new String[0]);
+    }
+
+    public FilterByExpired(long now, String[] excludedRequestIds) {
+        Assert.notNull(excludedRequestIds, "ExcludedRequestIds must not be null!");
+
+        this.now = now;
+        this.excludedRequestIds = excludedRequestIds;
+    }
+
+    @Override
+    public String getSelection() {
+        // ttl < now - timestamp instead of timestamp + ttl < now, so Long.MAX_VALUE ttl can not overflow
+        String selection = DatabaseContract.REQUEST_COLUMN_NAME_TTL + " < ? - " + DatabaseContract.REQUEST_COLUMN_NAME_TIMESTAMP;
+        if (excludedRequestIds.length > 0) {
+            selection += " AND " + DatabaseUtil.generateNotInStatement(DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, excludedRequestIds);
+        }
+        return selection;
+    }
+
+    @Override
+    public String[] getSelectionArgs() {
+        String[] selectionArgs = new String[excludedRequestIds.length + 1];
+        selectionArgs[0] = String.valueOf(now);
+        System.arraycopy(excludedRequestIds, 0, selectionArgs, 1, excludedRequestIds.length);
+        return selectionArgs;
+    }
+}
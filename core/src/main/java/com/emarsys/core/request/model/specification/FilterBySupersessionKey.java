@@ -0,0 +1,55 @@
+package com.emarsys.core.request.model.specification;
+
+import com.emarsys.core.database.DatabaseContract;
+import com.emarsys.core.database.repository.AbstractSqlSpecification;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.DatabaseUtil;
+
+public class FilterBySupersessionKey extends AbstractSqlSpecification {
+
+    private final String supersessionKey;
+    private final boolean trailingOnly;
+    private final String[] excludedRequestIds;
+
+    public FilterBySupersessionKey(String supersessionKey) {
+        this(supersessionKey, false);
+    }
+
+    public FilterBySupersessionKey(String supersessionKey, boolean trailingOnly) {
+        this(supersessionKey, trailingOnly, new String[0]);
+    }
+
+    public FilterBySupersessionKey(String supersessionKey, boolean trailingOnly, String[] excludedRequestIds) {
+        Assert.notNull(supersessionKey, "SupersessionKey must not be null!");
+        Assert.notNull(excludedRequestIds, "ExcludedRequestIds must not be null!");
+
+        this.supersessionKey = supersessionKey;
+        this.trailingOnly = trailingOnly;
+        this.excludedRequestIds = excludedRequestIds;
+    }
+
+    @Override
+    public String getSelection() {
+        String selection = DatabaseContract.REQUEST_COLUMN_NAME_SUPERSESSION_KEY + " = ?";
+        if (trailingOnly) {
+            selection += String.format(
+                    " AND ROWID > (SELECT IFNULL(MAX(ROWID), 0) FROM %s WHERE %s IS NULL OR %s != ?)",
+                    DatabaseContract.REQUEST_TABLE_NAME,
+                    DatabaseContract.REQUEST_COLUMN_NAME_SUPERSESSION_KEY,
+                    DatabaseContract.REQUEST_COLUMN_NAME_SUPERSESSION_KEY);
+        }
+        if (excludedRequestIds.length > 0) {
+            selection += " AND " + DatabaseUtil.generateNotInStatement(DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, excludedRequestIds);
+        }
+        return selection;
+    }
+
+    @Override
+    public String[] getSelectionArgs() {
+        String[] keyArgs = trailingOnly ? new String[]{supersessionKey, supersessionKey} : new String[]{supersessionKey};
+        String[] selectionArgs = new String[keyArgs.length + excludedRequestIds.length];
+        System.arraycopy(keyArgs, 0, selectionArgs, 0, keyArgs.length);
+        System.arraycopy(excludedRequestIds, 0, selectionArgs, keyArgs.length, excludedRequestIds.length);
+        return selectionArgs;
+    }
+}
@@ -3,23 +3,60 @@ package com.emarsys.core.request.model.specification;
 import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.repository.AbstractSqlSpecification;
 import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.DatabaseUtil;
 
 public class FilterByUrlPattern extends AbstractSqlSpecification {
 
     private final String pattern;
+    private final String[] excludedRequestIds;
+    private final Integer limit;
 
     public FilterByUrlPattern(String pattern) {
         Assert.notNull(pattern, "Pattern must not be null!");
         this.pattern = pattern;
+        this.excludedRequestIds = new String[0];
+        this.limit = null;
+    }
+
+    public FilterByUrlPattern(String pattern, int limit) {
+        this(pattern, new String[0], limit);
+    }
+
+    public FilterByUrlPattern(String pattern, String[] excludedRequestIds, int limit) {
+        Assert.notNull(pattern, "Pattern must not be null!");
+        Assert.notNull(excludedRequestIds, "ExcludedRequestIds must not be null!");
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than 0!");
+        }
+        this.pattern = pattern;
+        this.excludedRequestIds = excludedRequestIds;
+        this.limit = limit;
     }
 
     @Override
     public String getSelection() {
-        return DatabaseContract.REQUEST_COLUMN_NAME_URL + " LIKE ?";
+        String selection = DatabaseContract.REQUEST_COLUMN_NAME_URL + " LIKE ?";
+        if (excludedRequestIds.length > 0) {
+            selection += " AND " + DatabaseUtil.generateNotInStatement(DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, excludedRequestIds);
+        }
+        return selection;
     }
 
     @Override
     public String[] getSelectionArgs() {
-        return new String[]{pattern};
+        String[] selectionArgs = new String[excludedRequestIds.length + 1];
+        selectionArgs[0] = pattern;
+        System.arraycopy(excludedRequestIds, 0, selectionArgs, 1, excludedRequestIds.length);
+        return selectionArgs;
+    }
+
+    @Override
+    public String getOrderBy() {
+        return limit == null ? null : "ROWID ASC";
+    }
+
+    @Override
+    public String getLimit() {
+        return limit == null ? null : String.valueOf(limit);
     }
 }
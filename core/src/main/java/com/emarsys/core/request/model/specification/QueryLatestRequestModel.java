@@ -1,5 +1,6 @@
 package com.emarsys.core.request.model.specification;
 
+import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.repository.AbstractSqlSpecification;
 
 public class QueryLatestRequestModel extends AbstractSqlSpecification {
@@ -9,7 +10,7 @@ public class QueryLatestRequestModel extends AbstractSqlSpecification {
 
     @Override
     public String getOrderBy() {
-        return "ROWID ASC";
+        return DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY + " DESC, ROWID ASC";
     }
 
     @Override
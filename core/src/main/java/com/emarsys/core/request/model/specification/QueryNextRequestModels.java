@@ -0,0 +1,50 @@
+package com.emarsys.core.request.model.specification;
+
+import com.emarsys.core.database.DatabaseContract;
+import com.emarsys.core.database.repository.AbstractSqlSpecification;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.DatabaseUtil;
+
+public class QueryNextRequestModels extends AbstractSqlSpecification {
+
+    private final String[] excludedRequestIds;
+    private final int limit;
+
+    public QueryNextRequestModels(String[] excludedRequestIds, int limit) {
+        Assert.notNull(excludedRequestIds, "ExcludedRequestIds must not be null!");
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than 0!");
+        }
+
+        this.excludedRequestIds = excludedRequestIds;
+        this.limit = limit;
+    }
+
+    @Override
+    public String getSelection() {
+        String selection = null;
+        if (excludedRequestIds.length > 0) {
+            selection = DatabaseUtil.generateNotInStatement(DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, excludedRequestIds);
+        }
+        return selection;
+    }
+
+    @Override
+    public String[] getSelectionArgs() {
+        String[] selectionArgs = null;
+        if (excludedRequestIds.length > 0) {
+            selectionArgs = excludedRequestIds;
+        }
+        return selectionArgs;
+    }
+
+    @Override
+    public String getOrderBy() {
+        return DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY + " DESC, ROWID ASC";
+    }
+
+    @Override
+    public String getLimit() {
+        return String.valueOf(limit);
+    }
+}
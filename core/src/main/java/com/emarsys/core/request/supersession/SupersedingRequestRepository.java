@@ -0,0 +1,160 @@
+package com.emarsys.core.request.supersession;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.provider.Gettable;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.specification.FilterBySupersessionKey;
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class SupersedingRequestRepository implements Repository<RequestModel, SqlSpecification> {
+
+    private final Repository<RequestModel, SqlSpecification> requestRepository;
+    private final SupersessionListener supersessionListener;
+    private final Gettable<String[]> inFlightRequestIds;
+    private final Set<String> trailingOnlyKeys;
+
+    public SupersedingRequestRepository(
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            SupersessionListener supersessionListener,
+            Gettable<String[]> inFlightRequestIds) {
+        Assert.notNull(requestRepository, "RequestRepository must not be null!");
+        Assert.notNull(supersessionListener, "SupersessionListener must not be null!");
+        Assert.notNull(inFlightRequestIds, "InFlightRequestIds must not be null!");
+
+        this.requestRepository = requestRepository;
+        this.supersessionListener = supersessionListener;
+        this.inFlightRequestIds = inFlightRequestIds;
+        this.trailingOnlyKeys = new HashSet<>();
+    }
+
+    public void addTrailingOnlyKeys(List<String> supersessionKeys) {
+        Assert.notNull(supersessionKeys, "SupersessionKeys must not be null!");
+        Assert.elementsNotNull(supersessionKeys, "SupersessionKey elements must not be null!");
+
+        trailingOnlyKeys.addAll(supersessionKeys);
+    }
+
+    @Override
+    public void add(final RequestModel item) {
+        Assert.notNull(item, "Item must not be null!");
+
+        if (item.getSupersessionKey() == null) {
+            requestRepository.add(item);
+            return;
+        }
+
+        final List<String> supersededRequestIds = new ArrayList<>();
+        requestRepository.inTransaction(new Runnable() {
+            @Override
+            public void run() {
+                supersededRequestIds.addAll(supersede(item));
+                requestRepository.add(item);
+            }
+        });
+        notifySuperseded(item, supersededRequestIds);
+    }
+
+    @Override
+    public void addAll(final List<RequestModel> items) {
+        Assert.notNull(items, "Items must not be null!");
+        Assert.elementsNotNull(items, "Item elements must not be null!");
+
+        if (!hasSupersessionKey(items)) {
+            requestRepository.addAll(items);
+            return;
+        }
+
+        final Map<RequestModel, List<String>> supersededRequestIds = new LinkedHashMap<>();
+        requestRepository.inTransaction(new Runnable() {
+            @Override
+            public void run() {
+                List<RequestModel> pendingItems = new ArrayList<>();
+                for (RequestModel item : items) {
+                    if (item.getSupersessionKey() != null) {
+                        if (!pendingItems.isEmpty()) {
+                            requestRepository.addAll(pendingItems);
+                            pendingItems = new ArrayList<>();
+                        }
+                        supersededRequestIds.put(item, supersede(item));
+                    }
+                    pendingItems.add(item);
+                }
+                requestRepository.addAll(pendingItems);
+            }
+        });
+        for (Map.Entry<RequestModel, List<String>> entry : supersededRequestIds.entrySet()) {
+            notifySuperseded(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void remove(SqlSpecification specification) {
+        requestRepository.remove(specification);
+    }
+
+    @Override
+    public void removeAll(List<SqlSpecification> specifications) {
+        requestRepository.removeAll(specifications);
+    }
+
+    @Override
+    public void inTransaction(Runnable unitOfWork) {
+        requestRepository.inTransaction(unitOfWork);
+    }
+
+    @Override
+    public List<RequestModel> query(SqlSpecification specification) {
+        return requestRepository.query(specification);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return requestRepository.isEmpty();
+    }
+
+    @Override
+    public int count() {
+        return requestRepository.count();
+    }
+
+    private List<String> supersede(RequestModel item) {
+        String supersessionKey = item.getSupersessionKey();
+        SqlSpecification superseded = new FilterBySupersessionKey(
+                supersessionKey,
+                trailingOnlyKeys.contains(supersessionKey),
+                inFlightRequestIds.get());
+        List<RequestModel> supersededModels = requestRepository.query(superseded);
+
+        List<String> supersededRequestIds = new ArrayList<>();
+        if (!supersededModels.isEmpty()) {
+            requestRepository.remove(superseded);
+            for (RequestModel supersededModel : supersededModels) {
+                supersededRequestIds.add(supersededModel.getId());
+            }
+        }
+        return supersededRequestIds;
+    }
+
+    private void notifySuperseded(RequestModel item, List<String> supersededRequestIds) {
+        if (!supersededRequestIds.isEmpty()) {
+            supersessionListener.onSuperseded(item, supersededRequestIds);
+        }
+    }
+
+    private boolean hasSupersessionKey(List<RequestModel> items) {
+        for (RequestModel item : items) {
+            if (item.getSupersessionKey() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,11 @@
+package com.emarsys.core.request.supersession;
+
+import com.emarsys.core.request.model.RequestModel;
+
+import java.util.List;
+
+public interface SupersessionListener {
+
+    void onSuperseded(RequestModel requestModel, List<String> supersededRequestIds);
+
+}
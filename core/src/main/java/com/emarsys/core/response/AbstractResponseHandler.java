@@ -1,5 +1,6 @@
 package com.emarsys.core.response;
 
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
 
 public abstract class AbstractResponseHandler {
@@ -11,6 +12,14 @@ public abstract class AbstractResponseHandler {
         }
     }
 
+    public boolean isBodyRequired(RequestModel requestModel) {
+        return true;
+    }
+
+    public ResponseRoute getRoute() {
+        return ResponseRoute.ANY;
+    }
+
     protected abstract boolean shouldHandleResponse(ResponseModel responseModel);
 
     protected abstract void handleResponse(ResponseModel responseModel);
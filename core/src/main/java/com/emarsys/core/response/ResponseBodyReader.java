@@ -0,0 +1,86 @@
+package com.emarsys.core.response;
+
+import com.emarsys.core.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+public class ResponseBodyReader {
+
+    public static final String ACCEPT_ENCODING = "gzip";
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final int maxBodySize;
+
+    public ResponseBodyReader(int maxBodySize) {
+        if (maxBodySize < 1) {
+            throw new IllegalArgumentException("MaxBodySize must be greater than 0!");
+        }
+
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Returns null when there is nothing to read, throws {@link ResponseBodyTooLargeException} when the
+     * decoded body would exceed the size limit.
+     */
+    public String read(InputStream inputStream, String contentEncoding) throws IOException {
+        if (inputStream == null) {
+            return null;
+        }
+
+        InputStream source = ACCEPT_ENCODING.equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(inputStream) : inputStream;
+        BodyOutputStream body = new BodyOutputStream();
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = source.read(buffer)) != -1) {
+                if (body.size() + read > maxBodySize) {
+                    throw new ResponseBodyTooLargeException(maxBodySize);
+                }
+                body.write(buffer, 0, read);
+            }
+        } finally {
+            source.close();
+        }
+
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(body.toByteBuffer())
+                .toString();
+    }
+
+    /**
+     * Drains up to the size limit without decoding, so that the connection can be handed back to the pool.
+     */
+    public void discard(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return;
+        }
+
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = maxBodySize;
+            int read;
+            while (remaining > 0 && (read = inputStream.read(buffer)) != -1) {
+                remaining -= read;
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static class BodyOutputStream extends ByteArrayOutputStream {
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
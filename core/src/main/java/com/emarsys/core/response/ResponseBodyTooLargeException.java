@@ -0,0 +1,16 @@
+package com.emarsys.core.response;
+
+import java.io.IOException;
+
+public class ResponseBodyTooLargeException extends IOException {
+    private final int maxBodySize;
+
+    public ResponseBodyTooLargeException(int maxBodySize) {
+        super("Response body exceeds " + maxBodySize + " bytes");
+        this.maxBodySize = maxBodySize;
+    }
+
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+}
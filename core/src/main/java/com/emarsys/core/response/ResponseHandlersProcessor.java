@@ -1,22 +1,27 @@
 package com.emarsys.core.response;
 
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ResponseHandlersProcessor {
 
     private final List<AbstractResponseHandler> responseHandlers;
+    private volatile DispatchIndex dispatchIndex;
 
     public ResponseHandlersProcessor(List<AbstractResponseHandler> responseHandlers) {
         Assert.notNull(responseHandlers, "ResponseHandlers must not be null!");
 
         this.responseHandlers = responseHandlers;
+        this.dispatchIndex = new DispatchIndex(responseHandlers);
     }
 
     public ResponseHandlersProcessor() {
-        this.responseHandlers = new ArrayList<>();
+        this(new ArrayList<AbstractResponseHandler>());
     }
 
     public List<AbstractResponseHandler> getResponseHandlers() {
@@ -24,14 +29,63 @@ public class ResponseHandlersProcessor {
     }
 
     public void process(ResponseModel responseModel) {
-        for (AbstractResponseHandler responseHandler : responseHandlers) {
-            responseHandler.processResponse(responseModel);
+        Assert.notNull(responseModel, "ResponseModel must not be null!");
+
+        for (AbstractResponseHandler responseHandler : dispatchIndex.handlersFor(responseModel.getRequestModel())) {
+            if (responseHandler.getRoute().matches(responseModel)) {
+                responseHandler.processResponse(responseModel);
+            }
         }
     }
 
+    public boolean isBodyRequired(RequestModel requestModel) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+
+        for (AbstractResponseHandler responseHandler : dispatchIndex.handlersFor(requestModel)) {
+            if (responseHandler.isBodyRequired(requestModel)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void addResponseHandlers(List<AbstractResponseHandler> responseHandlers) {
         Assert.notNull(responseHandlers, "ResponseHandlers must not be null!");
 
         this.responseHandlers.addAll(responseHandlers);
+        this.dispatchIndex = new DispatchIndex(this.responseHandlers);
+    }
+
+    private static class DispatchIndex {
+
+        private final Map<String, List<AbstractResponseHandler>> handlersByHost;
+        private final List<AbstractResponseHandler> anyHostHandlers;
+
+        DispatchIndex(List<AbstractResponseHandler> responseHandlers) {
+            handlersByHost = new HashMap<>();
+            anyHostHandlers = new ArrayList<>();
+            for (AbstractResponseHandler responseHandler : responseHandlers) {
+                if (responseHandler.getRoute().getHosts().isEmpty()) {
+                    anyHostHandlers.add(responseHandler);
+                }
+                for (String host : responseHandler.getRoute().getHosts()) {
+                    handlersByHost.put(host, new ArrayList<AbstractResponseHandler>());
+                }
+            }
+
+            for (Map.Entry<String, List<AbstractResponseHandler>> entry : handlersByHost.entrySet()) {
+                for (AbstractResponseHandler responseHandler : responseHandlers) {
+                    ResponseRoute route = responseHandler.getRoute();
+                    if (route.getHosts().isEmpty() || route.getHosts().contains(entry.getKey())) {
+                        entry.getValue().add(responseHandler);
+                    }
+                }
+            }
+        }
+
+        List<AbstractResponseHandler> handlersFor(RequestModel requestModel) {
+            List<AbstractResponseHandler> result = handlersByHost.get(requestModel.getUrl().getHost());
+            return result == null ? anyHostHandlers : result;
+        }
     }
 }
@@ -8,6 +8,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.net.HttpCookie;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -18,11 +19,14 @@ public class ResponseModel {
 
     private final int statusCode;
     private final String message;
-    private final Map<String, String> headers;
-    private final Map<String, HttpCookie> cookies;
+    private final Map<String, List<String>> rawHeaders;
     private final String body;
     private final long timestamp;
     private final RequestModel requestModel;
+    private Map<String, String> headers;
+    private Map<String, HttpCookie> cookies;
+    private JSONObject parsedBody;
+    private boolean bodyParsed;
 
     public ResponseModel(
             int statusCode,
@@ -40,8 +44,29 @@ public class ResponseModel {
         Assert.notNull(requestModel, "RequestModel must not be null!");
         this.statusCode = statusCode;
         this.message = message;
-        this.headers = headers;
-        this.cookies = cookies;
+        this.rawHeaders = null;
+        this.headers = Collections.unmodifiableMap(new HashMap<>(headers));
+        this.cookies = Collections.unmodifiableMap(new HashMap<>(cookies));
+        this.body = body;
+        this.timestamp = timestamp;
+        this.requestModel = requestModel;
+    }
+
+    ResponseModel(
+            int statusCode,
+            String message,
+            Map<String, List<String>> rawHeaders,
+            String body,
+            long timestamp,
+            RequestModel requestModel) {
+
+        checkStatusCode(statusCode);
+        Assert.notNull(message, "Message must not be null!");
+        Assert.notNull(rawHeaders, "Headers must not be null!");
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+        this.statusCode = statusCode;
+        this.message = message;
+        this.rawHeaders = rawHeaders;
         this.body = body;
         this.timestamp = timestamp;
         this.requestModel = requestModel;
@@ -61,11 +86,17 @@ public class ResponseModel {
         return message;
     }
 
-    public Map<String, String> getHeaders() {
+    public synchronized Map<String, String> getHeaders() {
+        if (headers == null) {
+            headers = Collections.unmodifiableMap(convertHeaders(rawHeaders));
+        }
         return headers;
     }
 
-    public Map<String, HttpCookie> getCookies() {
+    public synchronized Map<String, HttpCookie> getCookies() {
+        if (cookies == null) {
+            cookies = Collections.unmodifiableMap(extractCookies(rawHeaders));
+        }
         return cookies;
     }
 
@@ -73,17 +104,21 @@ public class ResponseModel {
         return body;
     }
 
-    public JSONObject getParsedBody() {
-        JSONObject result = null;
-
-        if (body != null) {
-            try {
-                result = new JSONObject(body);
-            } catch (JSONException ignored) {
+    /**
+     * Parses the body on first access and hands the same instance to every later caller,
+     * so the returned object must be treated as read-only.
+     */
+    public synchronized JSONObject getParsedBody() {
+        if (!bodyParsed) {
+            if (body != null) {
+                try {
+                    parsedBody = new JSONObject(body);
+                } catch (JSONException ignored) {
+                }
             }
+            bodyParsed = true;
         }
-
-        return result;
+        return parsedBody;
     }
 
     public long getTimestamp() {
@@ -104,8 +139,8 @@ public class ResponseModel {
         if (statusCode != that.statusCode) return false;
         if (timestamp != that.timestamp) return false;
         if (message != null ? !message.equals(that.message) : that.message != null) return false;
-        if (headers != null ? !headers.equals(that.headers) : that.headers != null) return false;
-        if (cookies != null ? !cookies.equals(that.cookies) : that.cookies != null) return false;
+        if (!getHeaders().equals(that.getHeaders())) return false;
+        if (!getCookies().equals(that.getCookies())) return false;
         if (body != null ? !body.equals(that.body) : that.body != null) return false;
         return requestModel != null ? requestModel.equals(that.requestModel) : that.requestModel == null;
     }
@@ -114,8 +149,8 @@ public class ResponseModel {
     public int hashCode() {
         int result = statusCode;
         result = 31 * result + (message != null ? message.hashCode() : 0);
-        result = 31 * result + (headers != null ? headers.hashCode() : 0);
-        result = 31 * result + (cookies != null ? cookies.hashCode() : 0);
+        result = 31 * result + getHeaders().hashCode();
+        result = 31 * result + getCookies().hashCode();
         result = 31 * result + (body != null ? body.hashCode() : 0);
         result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
         result = 31 * result + (requestModel != null ? requestModel.hashCode() : 0);
@@ -127,8 +162,8 @@ public class ResponseModel {
         return "ResponseModel{" +
                 "statusCode=" + statusCode +
                 ", message='" + message + '\'' +
-                ", headers=" + headers +
-                ", cookies=" + cookies +
+                ", headers=" + getHeaders() +
+                ", cookies=" + getCookies() +
                 ", body='" + body + '\'' +
                 ", timestamp=" + timestamp +
                 ", requestModel=" + requestModel +
@@ -138,8 +173,7 @@ public class ResponseModel {
     public static class Builder {
         private int statusCode;
         private String message;
-        private Map<String, String> headers;
-        private Map<String, HttpCookie> cookies;
+        private Map<String, List<String>> headers;
         private String body;
         private RequestModel requestModel;
         private TimestampProvider timestampProvider;
@@ -150,7 +184,6 @@ public class ResponseModel {
 
         public Builder(TimestampProvider timestampProvider) {
             this.headers = new HashMap<>();
-            this.cookies = new HashMap<>();
             this.timestampProvider = timestampProvider;
         }
 
@@ -165,8 +198,7 @@ public class ResponseModel {
         }
 
         public Builder headers(Map<String, List<String>> headers) {
-            this.headers = convertHeaders(headers);
-            this.cookies = extractCookies(headers);
+            this.headers = headers;
             return this;
         }
 
@@ -185,58 +217,56 @@ public class ResponseModel {
                     statusCode,
                     message,
                     headers,
-                    cookies,
                     body,
                     timestampProvider.provideTimestamp(),
                     requestModel);
         }
+    }
 
-        Map<String, String> convertHeaders(Map<String, List<String>> headers) {
-            Map<String, String> result = new HashMap<>();
-            Set<Map.Entry<String, List<String>>> entries = headers.entrySet();
+    static Map<String, String> convertHeaders(Map<String, List<String>> headers) {
+        Map<String, String> result = new HashMap<>();
+        Set<Map.Entry<String, List<String>>> entries = headers.entrySet();
 
-            for (Map.Entry<String, List<String>> entry : entries) {
-                result.put(entry.getKey(), join(", ", entry.getValue()));
-            }
-            return result;
+        for (Map.Entry<String, List<String>> entry : entries) {
+            result.put(entry.getKey(), join(", ", entry.getValue()));
         }
+        return result;
+    }
 
-        String join(String delimiter, List<String> strings) {
-            StringBuilder stringBuilder = new StringBuilder();
-            Iterator<String> iterator = strings.iterator();
+    static String join(String delimiter, List<String> strings) {
+        StringBuilder stringBuilder = new StringBuilder();
+        Iterator<String> iterator = strings.iterator();
 
-            if (iterator.hasNext()) {
+        if (iterator.hasNext()) {
+            stringBuilder.append(iterator.next());
+            while (iterator.hasNext()) {
+                stringBuilder.append(delimiter);
                 stringBuilder.append(iterator.next());
-                while (iterator.hasNext()) {
-                    stringBuilder.append(delimiter);
-                    stringBuilder.append(iterator.next());
-                }
             }
-            return stringBuilder.toString();
         }
+        return stringBuilder.toString();
+    }
 
-        private Map<String, HttpCookie> extractCookies(Map<String, List<String>> headers) {
-            Map<String, HttpCookie> result = new HashMap<>();
+    private static Map<String, HttpCookie> extractCookies(Map<String, List<String>> headers) {
+        Map<String, HttpCookie> result = new HashMap<>();
 
-            final String cookieKey = "set-cookie";
-            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
-                if (entry.getKey()!=null && entry.getKey().toLowerCase().equals(cookieKey)) {
+        final String cookieKey = "set-cookie";
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (entry.getKey()!=null && entry.getKey().toLowerCase().equals(cookieKey)) {
 
-                    List<String> rawCookies = entry.getValue();
-                    if (rawCookies != null) {
-                        for (String rawCookie : rawCookies) {
-                            List<HttpCookie> cookies = HttpCookie.parse(rawCookie);
-                            for (HttpCookie cookie : cookies) {
-                                result.put(cookie.getName(), cookie);
-                            }
+                List<String> rawCookies = entry.getValue();
+                if (rawCookies != null) {
+                    for (String rawCookie : rawCookies) {
+                        List<HttpCookie> cookies = HttpCookie.parse(rawCookie);
+                        for (HttpCookie cookie : cookies) {
+                            result.put(cookie.getName(), cookie);
                         }
                     }
-
                 }
-            }
 
-            return result;
+            }
         }
 
+        return result;
     }
 }
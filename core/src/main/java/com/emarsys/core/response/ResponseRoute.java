@@ -0,0 +1,112 @@
+package com.emarsys.core.response;
+
+import com.emarsys.core.util.Assert;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Describes which responses a response handler can apply to, so that {@link ResponseHandlersProcessor}
+ * only offers it those. Properties that are not set match every response.
+ */
+public class ResponseRoute {
+
+    public static final ResponseRoute ANY = new Builder().build();
+
+    private final Set<String> hosts;
+    private final Pattern pathPattern;
+    private final int statusClass;
+    private final String header;
+
+    private ResponseRoute(Set<String> hosts, Pattern pathPattern, int statusClass, String header) {
+        this.hosts = Collections.unmodifiableSet(hosts);
+        this.pathPattern = pathPattern;
+        this.statusClass = statusClass;
+        this.header = header;
+    }
+
+    /**
+     * Returns the hosts this route is limited to, or an empty set when it applies to every host.
+     */
+    public Set<String> getHosts() {
+        return hosts;
+    }
+
+    public boolean matches(ResponseModel responseModel) {
+        Assert.notNull(responseModel, "ResponseModel must not be null!");
+
+        URL url = responseModel.getRequestModel().getUrl();
+        return (hosts.isEmpty() || hosts.contains(url.getHost()))
+                && (pathPattern == null || pathPattern.matcher(url.getPath()).matches())
+                && (statusClass == 0 || responseModel.getStatusCode() / 100 == statusClass)
+                && (header == null || hasHeader(responseModel));
+    }
+
+    private boolean hasHeader(ResponseModel responseModel) {
+        for (String name : responseModel.getHeaders().keySet()) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Builder {
+        private Set<String> hosts;
+        private Pattern pathPattern;
+        private int statusClass;
+        private String header;
+
+        public Builder() {
+            this.hosts = new HashSet<>();
+        }
+
+        public Builder host(String host) {
+            Assert.notNull(host, "Host must not be null!");
+
+            hosts.add(host);
+            return this;
+        }
+
+        public Builder hostOf(String url) {
+            Assert.notNull(url, "Url must not be null!");
+
+            try {
+                return host(new URL(url).getHost());
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Url must be valid!", e);
+            }
+        }
+
+        public Builder path(String regex) {
+            Assert.notNull(regex, "Regex must not be null!");
+
+            this.pathPattern = Pattern.compile(regex);
+            return this;
+        }
+
+        public Builder statusClass(int statusClass) {
+            if (statusClass < 1 || statusClass > 5) {
+                throw new IllegalArgumentException("StatusClass must be between 1 and 5!");
+            }
+
+            this.statusClass = statusClass;
+            return this;
+        }
+
+        public Builder header(String header) {
+            Assert.notNull(header, "Header must not be null!");
+
+            this.header = header;
+            return this;
+        }
+
+        public ResponseRoute build() {
+            return new ResponseRoute(new HashSet<>(hosts), pathPattern, statusClass, header);
+        }
+    }
+}
@@ -6,8 +6,8 @@ import android.database.Cursor;
 import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.helper.CoreDbHelper;
 import com.emarsys.core.database.repository.AbstractSqliteRepository;
+import com.emarsys.core.util.serialization.BlobCodec;
 import com.emarsys.core.util.serialization.SerializationException;
-import com.emarsys.core.util.serialization.SerializationUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,7 +30,7 @@ public class ShardModelRepository extends AbstractSqliteRepository<ShardModel> {
         ContentValues contentValues = new ContentValues();
         contentValues.put(SHARD_COLUMN_ID, item.getId());
         contentValues.put(SHARD_COLUMN_TYPE, item.getType());
-        contentValues.put(SHARD_COLUMN_DATA, SerializationUtils.serializableToBlob(item.getData()));
+        contentValues.put(SHARD_COLUMN_DATA, BlobCodec.encode(item.getData()));
         contentValues.put(SHARD_COLUMN_TIMESTAMP, item.getTimestamp());
         contentValues.put(SHARD_COLUMN_TTL, item.getTtl());
 
@@ -45,8 +45,7 @@ public class ShardModelRepository extends AbstractSqliteRepository<ShardModel> {
 
         Map<String, Object> data = new HashMap<>();
         try {
-            data = (Map<String, Object>) SerializationUtils
-                    .blobToSerializable(cursor.getBlob(cursor.getColumnIndex(SHARD_COLUMN_DATA)));
+            data = (Map<String, Object>) BlobCodec.decode(cursor.getBlob(cursor.getColumnIndex(SHARD_COLUMN_DATA)));
         } catch (SerializationException | ClassCastException ignored) {
         }
 
@@ -10,4 +10,13 @@ public class DatabaseUtil {
         sb.append(")");
         return sb.toString();
     }
+
+    public static String generateNotInStatement(String columnName, String[] args) {
+        StringBuilder sb = new StringBuilder(columnName + " NOT IN (?");
+        for (int i = 1; i < args.length; i++) {
+            sb.append(", ?");
+        }
+        sb.append(")");
+        return sb.toString();
+    }
 }
@@ -0,0 +1,273 @@
+package com.emarsys.core.util;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes payload maps straight into an {@link OutputStream} as UTF-8 JSON, producing the same
+ * output as {@code JsonUtils.fromMap(map).toString()} without building the intermediate tree.
+ */
+public class JsonStreamWriter {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MEASURE_BUFFER_SIZE = 256;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+    private static final Double NEGATIVE_ZERO = -0d;
+
+    private final OutputStream outputStream;
+    private final byte[] buffer;
+    private int position;
+
+    public JsonStreamWriter(OutputStream outputStream) {
+        this(outputStream, DEFAULT_BUFFER_SIZE);
+    }
+
+    JsonStreamWriter(OutputStream outputStream, int bufferSize) {
+        Assert.notNull(outputStream, "OutputStream must not be null!");
+
+        this.outputStream = outputStream;
+        this.buffer = new byte[bufferSize];
+    }
+
+    public static long measure(Map<String, Object> map) throws IOException {
+        CountingOutputStream countingOutputStream = new CountingOutputStream();
+        JsonStreamWriter writer = new JsonStreamWriter(countingOutputStream, MEASURE_BUFFER_SIZE);
+        writer.write(map);
+        writer.flush();
+        return countingOutputStream.count;
+    }
+
+    public static byte[] toByteArray(Map<String, Object> map) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(MEASURE_BUFFER_SIZE);
+        JsonStreamWriter writer = new JsonStreamWriter(outputStream, MEASURE_BUFFER_SIZE);
+        try {
+            writer.write(map);
+            writer.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    static byte[] quote(String value) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(value.length() + 2);
+        JsonStreamWriter writer = new JsonStreamWriter(outputStream, MEASURE_BUFFER_SIZE);
+        try {
+            writer.writeString(value);
+            writer.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    public void write(Map<String, Object> map) throws IOException {
+        Assert.notNull(map, "Map must not be null!");
+
+        writeMap(map);
+    }
+
+    public void write(List<Object> list) throws IOException {
+        Assert.notNull(list, "List must not be null!");
+
+        writeList(list);
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeMap(Map<String, Object> map) throws IOException {
+        writeByte('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (entry.getKey() == null) {
+                throw new IllegalArgumentException("Map keys must not be null!");
+            }
+            if (entry.getValue() == null) {
+                continue;
+            }
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            writeString(entry.getKey());
+            writeByte(':');
+            writeValue(entry.getValue());
+        }
+        writeByte('}');
+    }
+
+    private void writeList(List<Object> list) throws IOException {
+        writeByte('[');
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeValue(list.get(i));
+        }
+        writeByte(']');
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(Object value) throws IOException {
+        if (value == null || value == JSONObject.NULL) {
+            writeRaw("null");
+        } else if (value instanceof Map) {
+            writeMap((Map<String, Object>) value);
+        } else if (value instanceof List) {
+            writeList((List<Object>) value);
+        } else if (value instanceof Boolean) {
+            writeRaw(value.toString());
+        } else if (value instanceof Number) {
+            writeRaw(numberToString((Number) value));
+        } else if (value instanceof RawJson) {
+            writeBytes(((RawJson) value).getBytes());
+        } else if (value instanceof JSONObject || value instanceof JSONArray) {
+            writeRaw(value.toString());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    private String numberToString(Number number) {
+        double doubleValue = number.doubleValue();
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            throw new IllegalArgumentException("Numbers must be finite!");
+        }
+        if (number.equals(NEGATIVE_ZERO)) {
+            return "-0";
+        }
+
+        long longValue = number.longValue();
+        if (doubleValue == (double) longValue) {
+            return Long.toString(longValue);
+        }
+        return number.toString();
+    }
+
+    private void writeString(String value) throws IOException {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    writeByte('\\');
+                    writeByte(c);
+                    break;
+                case '\t':
+                    writeByte('\\');
+                    writeByte('t');
+                    break;
+                case '\b':
+                    writeByte('\\');
+                    writeByte('b');
+                    break;
+                case '\n':
+                    writeByte('\\');
+                    writeByte('n');
+                    break;
+                case '\r':
+                    writeByte('\\');
+                    writeByte('r');
+                    break;
+                case '\f':
+                    writeByte('\\');
+                    writeByte('f');
+                    break;
+                default:
+                    if (c <= 0x1F) {
+                        writeByte('\\');
+                        writeByte('u');
+                        writeByte(HEX_DIGITS[(c >> 12) & 0xF]);
+                        writeByte(HEX_DIGITS[(c >> 8) & 0xF]);
+                        writeByte(HEX_DIGITS[(c >> 4) & 0xF]);
+                        writeByte(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        i = writeChar(value, i);
+                    }
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeRaw(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            i = writeChar(value, i);
+        }
+    }
+
+    private int writeChar(String value, int index) throws IOException {
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            writeByte(c);
+        } else if (c < 0x800) {
+            writeByte(0xC0 | (c >> 6));
+            writeByte(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++index));
+            writeByte(0xF0 | (codePoint >> 18));
+            writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            writeByte(0x80 | (codePoint & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            writeByte('?');
+        } else {
+            writeByte(0xE0 | (c >> 12));
+            writeByte(0x80 | ((c >> 6) & 0x3F));
+            writeByte(0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            outputStream.write(bytes, 0, bytes.length);
+        } else {
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
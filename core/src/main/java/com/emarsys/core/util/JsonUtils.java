@@ -4,6 +4,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -91,6 +92,39 @@ public class JsonUtils {
         return result;
     }
 
+    public static Map<String, Object> toMap(JSONObject jsonObject) {
+        Assert.notNull(jsonObject, "JsonObject must not be null!");
+
+        Map<String, Object> result = new HashMap<>();
+        Iterator<String> iterator = jsonObject.keys();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            result.put(key, toValue(jsonObject.opt(key)));
+        }
+        return result;
+    }
+
+    public static List<Object> toList(JSONArray jsonArray) {
+        Assert.notNull(jsonArray, "JsonArray must not be null!");
+
+        List<Object> result = new ArrayList<>(jsonArray.length());
+        for (int i = 0; i < jsonArray.length(); i++) {
+            result.add(toValue(jsonArray.opt(i)));
+        }
+        return result;
+    }
+
+    private static Object toValue(Object value) {
+        if (value instanceof JSONObject) {
+            return toMap((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            return toList((JSONArray) value);
+        } else if (value == JSONObject.NULL) {
+            return null;
+        }
+        return value;
+    }
+
     private static void validateArgument(JSONObject[] jsonObjects) {
         if (jsonObjects.length == 0) {
             throw new IllegalArgumentException("Argument must not be empty array!");
@@ -0,0 +1,201 @@
+package com.emarsys.core.util;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Already encoded UTF-8 JSON value, written verbatim by {@link JsonStreamWriter}.
+ */
+public final class RawJson implements Serializable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final byte[] bytes;
+
+    public RawJson(byte[] bytes) {
+        Assert.notNull(bytes, "Bytes must not be null!");
+
+        this.bytes = bytes;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the elements of the array stored under the given top level key of this JSON object
+     * as separate fragments, without decoding them. Returns an empty list if the key is missing or
+     * does not hold an array.
+     */
+    public List<RawJson> getArrayElements(String key) {
+        Assert.notNull(key, "Key must not be null!");
+
+        byte[] quotedKey = JsonStreamWriter.quote(key);
+        Scanner scanner = new Scanner(bytes);
+        scanner.expect('{');
+        if (scanner.skipIf('}')) {
+            return Collections.emptyList();
+        }
+        do {
+            scanner.skipWhitespace();
+            int keyStart = scanner.position;
+            scanner.skipString();
+            boolean matches = scanner.regionEquals(keyStart, quotedKey);
+            scanner.expect(':');
+            if (matches) {
+                return scanner.peek() == '[' ? scanner.readArrayElements() : Collections.<RawJson>emptyList();
+            }
+            scanner.skipValue();
+        } while (scanner.skipIf(','));
+        scanner.expect('}');
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RawJson rawJson = (RawJson) o;
+
+        return Arrays.equals(bytes, rawJson.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, UTF_8);
+    }
+
+    private static class Scanner {
+
+        private final byte[] json;
+        private int position;
+
+        Scanner(byte[] json) {
+            this.json = json;
+        }
+
+        List<RawJson> readArrayElements() {
+            List<RawJson> result = new ArrayList<>();
+            expect('[');
+            if (skipIf(']')) {
+                return result;
+            }
+            do {
+                skipWhitespace();
+                int start = position;
+                skipValue();
+                result.add(new RawJson(Arrays.copyOfRange(json, start, position)));
+            } while (skipIf(','));
+            expect(']');
+            return result;
+        }
+
+        void skipValue() {
+            int first = peek();
+            if (first == '"') {
+                skipString();
+            } else if (first == '{' || first == '[') {
+                skipContainer();
+            } else {
+                while (position < json.length && !isDelimiter(json[position])) {
+                    position++;
+                }
+            }
+        }
+
+        void skipString() {
+            expect('"');
+            while (true) {
+                int c = next();
+                if (c == '\\') {
+                    next();
+                } else if (c == '"') {
+                    return;
+                }
+            }
+        }
+
+        void skipContainer() {
+            int depth = 0;
+            do {
+                int c = peek();
+                if (c == '"') {
+                    skipString();
+                } else {
+                    position++;
+                    if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        depth--;
+                    }
+                }
+            } while (depth > 0);
+        }
+
+        boolean regionEquals(int start, byte[] expected) {
+            if (position - start != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (json[start + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void expect(char c) {
+            if (peek() != c) {
+                throw new IllegalArgumentException("Malformed JSON, expected '" + c + "' at " + position + "!");
+            }
+            position++;
+        }
+
+        boolean skipIf(char c) {
+            if (peek() == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        int peek() {
+            skipWhitespace();
+            if (position >= json.length) {
+                throw new IllegalArgumentException("Malformed JSON, unexpected end!");
+            }
+            return json[position];
+        }
+
+        private int next() {
+            if (position >= json.length) {
+                throw new IllegalArgumentException("Malformed JSON, unexpected end!");
+            }
+            return json[position++];
+        }
+
+        void skipWhitespace() {
+            while (position < json.length && isWhitespace(json[position])) {
+                position++;
+            }
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private static boolean isDelimiter(byte b) {
+            return b == ',' || b == '}' || b == ']' || isWhitespace(b);
+        }
+    }
+}
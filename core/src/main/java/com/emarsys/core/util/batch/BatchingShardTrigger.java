@@ -1,6 +1,7 @@
 package com.emarsys.core.util.batch;
 
 import com.emarsys.core.Mapper;
+import com.emarsys.core.concurrency.NetworkLane;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
 import com.emarsys.core.request.RequestManager;
@@ -10,6 +11,7 @@ import com.emarsys.core.shard.specification.FilterByShardIds;
 import com.emarsys.core.util.Assert;
 import com.emarsys.core.util.predicate.Predicate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class BatchingShardTrigger implements Runnable {
@@ -55,19 +57,29 @@ public class BatchingShardTrigger implements Runnable {
         List<ShardModel> shards = repository.query(querySpecification);
         if (predicate.evaluate(shards)) {
             List<List<ShardModel>> chunks = chunker.map(shards);
+            int submittable = Math.min(chunks.size(), getCapacity());
 
-            for (List<ShardModel> chunk : chunks) {
+            // chunks over the lane capacity stay in the database for the next trigger
+            List<SqlSpecification> submittedChunks = new ArrayList<>(submittable);
+            for (List<ShardModel> chunk : chunks.subList(0, submittable)) {
                 submit(merger.map(chunk));
-                repository.remove(new FilterByShardIds(chunk));
+                submittedChunks.add(new FilterByShardIds(chunk));
+            }
+            if (!submittedChunks.isEmpty()) {
+                repository.removeAll(submittedChunks);
             }
         }
     }
 
+    private int getCapacity() {
+        return requestStrategy == RequestStrategy.TRANSIENT ? requestManager.getRemainingCapacity(NetworkLane.TELEMETRY) : Integer.MAX_VALUE;
+    }
+
     private void submit(RequestModel requestModel) {
         if (requestStrategy == RequestStrategy.PERSISTENT) {
             requestManager.submit(requestModel, null);
         } else if (requestStrategy == RequestStrategy.TRANSIENT) {
-            requestManager.submitNow(requestModel);
+            requestManager.submitNow(requestModel, NetworkLane.TELEMETRY);
         }
     }
 }
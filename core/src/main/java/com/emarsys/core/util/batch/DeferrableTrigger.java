@@ -0,0 +1,40 @@
+package com.emarsys.core.util.batch;
+
+import com.emarsys.core.connection.MeteredNetworkPolicy;
+import com.emarsys.core.connection.TrafficClass;
+import com.emarsys.core.util.Assert;
+
+public class DeferrableTrigger implements Runnable {
+
+    private final Runnable trigger;
+    private final Runnable releaseTrigger;
+    private final TrafficClass trafficClass;
+    private final MeteredNetworkPolicy meteredNetworkPolicy;
+
+    public DeferrableTrigger(
+            Runnable trigger,
+            Runnable releaseTrigger,
+            TrafficClass trafficClass,
+            MeteredNetworkPolicy meteredNetworkPolicy) {
+        Assert.notNull(trigger, "Trigger must not be null!");
+        Assert.notNull(releaseTrigger, "ReleaseTrigger must not be null!");
+        Assert.notNull(trafficClass, "TrafficClass must not be null!");
+        Assert.notNull(meteredNetworkPolicy, "MeteredNetworkPolicy must not be null!");
+
+        this.trigger = trigger;
+        this.releaseTrigger = releaseTrigger;
+        this.trafficClass = trafficClass;
+        this.meteredNetworkPolicy = meteredNetworkPolicy;
+    }
+
+    @Override
+    public void run() {
+        if (!meteredNetworkPolicy.shouldDefer(trafficClass)) {
+            trigger.run();
+        }
+    }
+
+    public Runnable getReleaseTrigger() {
+        return releaseTrigger;
+    }
+}
@@ -0,0 +1,15 @@
+package com.emarsys.core.util.log;
+
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.predicate.Predicate;
+
+public class LogRequestPredicate implements Predicate<RequestModel> {
+
+    @Override
+    public boolean evaluate(RequestModel requestModel) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+
+        return LogShardListMerger.LOG_URL.equals(requestModel.getUrl().toString());
+    }
+}
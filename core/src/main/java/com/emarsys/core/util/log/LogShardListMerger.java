@@ -16,7 +16,7 @@ import java.util.Map;
 
 public class LogShardListMerger implements Mapper<List<ShardModel>, RequestModel> {
 
-    private static final String LOG_URL = "https://log-dealer.eservice.emarsys.net/v1/log";
+    static final String LOG_URL = "https://log-dealer.eservice.emarsys.net/v1/log";
 
     private final TimestampProvider timestampProvider;
     private final UUIDProvider uuidProvider;
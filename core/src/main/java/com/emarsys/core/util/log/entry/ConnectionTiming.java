@@ -0,0 +1,34 @@
+package com.emarsys.core.util.log.entry;
+
+import com.emarsys.core.connection.Transport;
+import com.emarsys.core.response.ResponseModel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ConnectionTiming implements LogEntry {
+
+    private final Map<String, Object> data;
+
+    public ConnectionTiming(ResponseModel responseModel, long connectStart, long handshakeStart, long connectEnd) {
+        boolean reused = handshakeStart == Transport.NO_HANDSHAKE;
+
+        data = new HashMap<>();
+        data.put("request_id", responseModel.getRequestModel().getId());
+        data.put("url", responseModel.getRequestModel().getUrl().toString());
+        data.put("connection_reused", reused);
+        data.put("connect_duration", connectEnd - connectStart);
+        data.put("tls_handshake_duration", reused ? 0 : connectEnd - handshakeStart);
+        data.put("transfer_duration", responseModel.getTimestamp() - connectEnd);
+    }
+
+    @Override
+    public String getTopic() {
+        return "log_connection_timing";
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        return data;
+    }
+}
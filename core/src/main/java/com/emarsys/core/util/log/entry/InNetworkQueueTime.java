@@ -0,0 +1,33 @@
+package com.emarsys.core.util.log.entry;
+
+import com.emarsys.core.concurrency.NetworkLane;
+import com.emarsys.core.request.model.RequestModel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class InNetworkQueueTime implements LogEntry {
+
+    private final Map<String, Object> data;
+
+    public InNetworkQueueTime(RequestModel requestModel, NetworkLane lane, int queueDepth, long start, long end) {
+        data = new HashMap<>();
+        data.put("request_id", requestModel.getId());
+        data.put("lane", lane.name());
+        data.put("queue_depth", queueDepth);
+        data.put("start", start);
+        data.put("end", end);
+        data.put("duration", end - start);
+        data.put("url", requestModel.getUrl().toString());
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    @Override
+    public String getTopic() {
+        return "log_in_network_queue_time";
+    }
+}
@@ -0,0 +1,30 @@
+package com.emarsys.core.util.log.entry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class QueueOverflow implements LogEntry {
+    private final String tableName;
+    private final int droppedCount;
+    private final int totalDroppedCount;
+
+    public QueueOverflow(String tableName, int droppedCount, int totalDroppedCount) {
+        this.tableName = tableName;
+        this.droppedCount = droppedCount;
+        this.totalDroppedCount = totalDroppedCount;
+    }
+
+    @Override
+    public String getTopic() {
+        return "log_queue_overflow";
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("table", tableName);
+        data.put("dropped_count", droppedCount);
+        data.put("total_dropped_count", totalDroppedCount);
+        return data;
+    }
+}
@@ -0,0 +1,30 @@
+package com.emarsys.core.util.log.entry;
+
+import com.emarsys.core.request.model.RequestModel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class RequestCompression implements LogEntry {
+
+    private final Map<String, Object> data;
+
+    public RequestCompression(RequestModel requestModel, int uncompressedSize, int compressedSize) {
+        data = new HashMap<>();
+        data.put("request_id", requestModel.getId());
+        data.put("url", requestModel.getUrl().toString());
+        data.put("uncompressed_size", uncompressedSize);
+        data.put("compressed_size", compressedSize);
+        data.put("saved_bytes", uncompressedSize - compressedSize);
+    }
+
+    @Override
+    public String getTopic() {
+        return "log_request_compression";
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        return data;
+    }
+}
@@ -0,0 +1,29 @@
+package com.emarsys.core.util.log.entry;
+
+import com.emarsys.core.request.model.RequestModel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ResponseBodyTooLarge implements LogEntry {
+
+    private final Map<String, Object> data;
+
+    public ResponseBodyTooLarge(RequestModel requestModel, int statusCode, int maxBodySize) {
+        data = new HashMap<>();
+        data.put("request_id", requestModel.getId());
+        data.put("url", requestModel.getUrl().toString());
+        data.put("status_code", statusCode);
+        data.put("max_body_size", maxBodySize);
+    }
+
+    @Override
+    public String getTopic() {
+        return "log_response_body_too_large";
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        return data;
+    }
+}
@@ -0,0 +1,24 @@
+package com.emarsys.core.util.log.entry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class TokenDecodingFailure implements LogEntry {
+    private final String reason;
+
+    public TokenDecodingFailure(String reason) {
+        this.reason = reason;
+    }
+
+    @Override
+    public String getTopic() {
+        return "log_token_decoding_failure";
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("reason", reason);
+        return data;
+    }
+}
@@ -0,0 +1,270 @@
+package com.emarsys.core.util.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, versioned binary format for the header, payload and shard data blobs stored in SQLite.
+ * Blobs start with a version byte, which never collides with the magic of the legacy Java
+ * serialization format, so both can be told apart and legacy rows can still be decoded.
+ */
+public final class BlobCodec {
+
+    public static final int VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int JAVA_SERIALIZATION_MAGIC_0 = 0xAC;
+    private static final int JAVA_SERIALIZATION_MAGIC_1 = 0xED;
+
+    private static final int TYPE_NULL = 0;
+    private static final int TYPE_FALSE = 1;
+    private static final int TYPE_TRUE = 2;
+    private static final int TYPE_INTEGER = 3;
+    private static final int TYPE_LONG = 4;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_FLOAT = 6;
+    private static final int TYPE_STRING = 7;
+    private static final int TYPE_MAP = 8;
+    private static final int TYPE_LIST = 9;
+    private static final int TYPE_SHORT = 10;
+    private static final int TYPE_BYTE = 11;
+    private static final int TYPE_SERIALIZABLE = 12;
+
+    private BlobCodec() {
+    }
+
+    public static byte[] encode(Object value) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(64);
+        output.write(VERSION);
+        writeValue(output, value);
+        return output.toByteArray();
+    }
+
+    public static Object decode(byte[] blob) throws SerializationException {
+        if (blob == null || blob.length == 0) {
+            throw new SerializationException();
+        }
+        if (isLegacy(blob)) {
+            return SerializationUtils.blobToSerializable(blob);
+        }
+        if ((blob[0] & 0xFF) != VERSION) {
+            throw new SerializationException();
+        }
+
+        try {
+            Reader reader = new Reader(blob, 1);
+            Object result = reader.readValue();
+            if (reader.position != blob.length) {
+                throw new SerializationException();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            throw new SerializationException();
+        }
+    }
+
+    public static boolean isLegacy(byte[] blob) {
+        return blob != null
+                && blob.length >= 2
+                && (blob[0] & 0xFF) == JAVA_SERIALIZATION_MAGIC_0
+                && (blob[1] & 0xFF) == JAVA_SERIALIZATION_MAGIC_1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(ByteArrayOutputStream output, Object value) {
+        if (value == null) {
+            output.write(TYPE_NULL);
+        } else if (value instanceof String) {
+            output.write(TYPE_STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Boolean) {
+            output.write((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof Integer) {
+            output.write(TYPE_INTEGER);
+            writeVarLong(output, zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            output.write(TYPE_LONG);
+            writeVarLong(output, zigZag((Long) value));
+        } else if (value instanceof Double) {
+            output.write(TYPE_DOUBLE);
+            writeFixedLong(output, Double.doubleToLongBits((Double) value), 8);
+        } else if (value instanceof Float) {
+            output.write(TYPE_FLOAT);
+            writeFixedLong(output, Float.floatToIntBits((Float) value), 4);
+        } else if (value instanceof Short) {
+            output.write(TYPE_SHORT);
+            writeVarLong(output, zigZag((Short) value));
+        } else if (value instanceof Byte) {
+            output.write(TYPE_BYTE);
+            output.write((Byte) value);
+        } else if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            output.write(TYPE_MAP);
+            writeVarLong(output, map.size());
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String)) {
+                    throw new IllegalArgumentException("Map keys must be Strings!");
+                }
+                writeString(output, (String) entry.getKey());
+                writeValue(output, entry.getValue());
+            }
+        } else if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            output.write(TYPE_LIST);
+            writeVarLong(output, list.size());
+            for (Object element : list) {
+                writeValue(output, element);
+            }
+        } else if (value instanceof Serializable) {
+            byte[] bytes = SerializationUtils.serializableToBlob(value);
+            output.write(TYPE_SERIALIZABLE);
+            writeVarLong(output, bytes.length);
+            output.write(bytes, 0, bytes.length);
+        } else {
+            throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream output, String value) {
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static void writeFixedLong(ByteArrayOutputStream output, long value, int byteCount) {
+        for (int i = byteCount - 1; i >= 0; i--) {
+            output.write((int) (value >>> (i * 8)));
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static class Reader {
+
+        private final byte[] blob;
+        private int position;
+
+        Reader(byte[] blob, int position) {
+            this.blob = blob;
+            this.position = position;
+        }
+
+        Object readValue() throws SerializationException {
+            int type = readByte();
+            switch (type) {
+                case TYPE_NULL:
+                    return null;
+                case TYPE_FALSE:
+                    return Boolean.FALSE;
+                case TYPE_TRUE:
+                    return Boolean.TRUE;
+                case TYPE_INTEGER:
+                    return (int) unZigZag(readVarLong());
+                case TYPE_LONG:
+                    return unZigZag(readVarLong());
+                case TYPE_DOUBLE:
+                    return Double.longBitsToDouble(readFixedLong(8));
+                case TYPE_FLOAT:
+                    return Float.intBitsToFloat((int) readFixedLong(4));
+                case TYPE_SHORT:
+                    return (short) unZigZag(readVarLong());
+                case TYPE_BYTE:
+                    return (byte) readByte();
+                case TYPE_STRING:
+                    return readString();
+                case TYPE_MAP:
+                    return readMap();
+                case TYPE_LIST:
+                    return readList();
+                case TYPE_SERIALIZABLE:
+                    int length = readLength();
+                    byte[] bytes = new byte[length];
+                    System.arraycopy(blob, position, bytes, 0, length);
+                    position += length;
+                    return SerializationUtils.blobToSerializable(bytes);
+                default:
+                    throw new SerializationException();
+            }
+        }
+
+        private Map<String, Object> readMap() throws SerializationException {
+            int size = readLength();
+            Map<String, Object> map = new LinkedHashMap<>(Math.max(4, size * 4 / 3 + 1));
+            for (int i = 0; i < size; i++) {
+                String key = readString();
+                map.put(key, readValue());
+            }
+            return map;
+        }
+
+        private List<Object> readList() throws SerializationException {
+            int size = readLength();
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue());
+            }
+            return list;
+        }
+
+        private String readString() throws SerializationException {
+            int length = readLength();
+            String result = new String(blob, position, length, UTF_8);
+            position += length;
+            return result;
+        }
+
+        private int readLength() throws SerializationException {
+            long length = readVarLong();
+            if (length < 0 || length > blob.length - position) {
+                throw new SerializationException();
+            }
+            return (int) length;
+        }
+
+        private long readVarLong() throws SerializationException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException();
+        }
+
+        private long readFixedLong(int byteCount) throws SerializationException {
+            long result = 0;
+            for (int i = 0; i < byteCount; i++) {
+                result = (result << 8) | readByte();
+            }
+            return result;
+        }
+
+        private int readByte() throws SerializationException {
+            if (position >= blob.length) {
+                throw new SerializationException();
+            }
+            return blob[position++] & 0xFF;
+        }
+    }
+}
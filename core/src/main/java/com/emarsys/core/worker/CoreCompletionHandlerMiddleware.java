@@ -1,6 +1,7 @@
 package com.emarsys.core.worker;
 
 import android.os.Handler;
+import android.os.Looper;
 
 import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.database.repository.Repository;
@@ -17,32 +18,40 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
     CoreCompletionHandler coreCompletionHandler;
     Repository<RequestModel, SqlSpecification> requestRepository;
     Worker worker;
+    RequestModel requestModel;
     Handler coreSDKHandler;
     Handler uiHandler;
     RunnableFactory runnableFactory;
+    RetryScheduler retryScheduler;
 
     public CoreCompletionHandlerMiddleware(
             Worker worker,
+            RequestModel requestModel,
             Repository<RequestModel, SqlSpecification> requestRepository,
             Handler uiHandler,
             Handler coreSDKHandler,
-            CoreCompletionHandler coreCompletionHandler) {
+            CoreCompletionHandler coreCompletionHandler,
+            RetryScheduler retryScheduler) {
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(worker, "Worker must not be null!");
+        Assert.notNull(requestModel, "RequestModel must not be null!");
         Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
         Assert.notNull(uiHandler, "uiHandler must not be null!");
         Assert.notNull(coreSDKHandler, "coreSDKHandler must not be null!");
+        Assert.notNull(retryScheduler, "RetryScheduler must not be null!");
         this.coreCompletionHandler = coreCompletionHandler;
         this.requestRepository = requestRepository;
         this.worker = worker;
+        this.requestModel = requestModel;
         this.coreSDKHandler = coreSDKHandler;
         this.runnableFactory = new DefaultRunnableFactory();
         this.uiHandler = uiHandler;
+        this.retryScheduler = retryScheduler;
     }
 
     @Override
     public void onSuccess(final String id, final ResponseModel responseModel) {
-        coreSDKHandler.post(runnableFactory.runnableFrom(new Runnable() {
+        runOnCoreSdkThread(runnableFactory.runnableFrom(new Runnable() {
             @Override
             public void run() {
                 requestRepository.remove(new FilterByRequestId(responseModel.getRequestModel()));
@@ -56,10 +65,10 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
 
     @Override
     public void onError(final String id, final ResponseModel responseModel) {
-        coreSDKHandler.post(runnableFactory.runnableFrom(new Runnable() {
+        runOnCoreSdkThread(runnableFactory.runnableFrom(new Runnable() {
             @Override
             public void run() {
-                if (isNonRetriableError(responseModel.getStatusCode())) {
+                if (isNonRetriableError(responseModel.getStatusCode()) || !retryScheduler.scheduleRetry(responseModel, worker)) {
                     requestRepository.remove(new FilterByRequestId(responseModel.getRequestModel()));
                     handleError(responseModel);
                     worker.unlock();
@@ -73,22 +82,32 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
 
     @Override
     public void onError(final String id, final Exception cause) {
-        coreSDKHandler.post(runnableFactory.runnableFrom(new Runnable() {
+        runOnCoreSdkThread(runnableFactory.runnableFrom(new Runnable() {
             @Override
             public void run() {
-                worker.unlock();
-                uiHandler.post(runnableFactory.runnableFrom(new Runnable() {
-                    @Override
-                    public void run() {
-                        coreCompletionHandler.onError(id, cause);
-                    }
-                }));
+                if (retryScheduler.scheduleRetry(requestModel, worker)) {
+                    worker.unlock();
+                } else {
+                    requestRepository.remove(new FilterByRequestId(requestModel));
+                    worker.unlock();
+                    worker.run();
+                }
+                handleError(cause);
             }
         }));
     }
 
+    private void runOnCoreSdkThread(Runnable runnable) {
+        Looper looper = Looper.myLooper();
+        if (looper != null && looper == coreSDKHandler.getLooper()) {
+            runnable.run();
+        } else {
+            coreSDKHandler.post(runnable);
+        }
+    }
+
     private boolean isNonRetriableError(int statusCode) {
-        if (statusCode == 408) {
+        if (statusCode == 408 || statusCode == 429) {
             return false;
         } else {
             return 400 <= statusCode && statusCode < 500;
@@ -106,6 +125,17 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
         }
     }
 
+    private void handleError(final Exception cause) {
+        for (final String id : RequestModelUtils.extractIdsFromCompositeRequestModel(requestModel)) {
+            uiHandler.post(runnableFactory.runnableFrom(new Runnable() {
+                @Override
+                public void run() {
+                    coreCompletionHandler.onError(id, cause);
+                }
+            }));
+        }
+    }
+
     private void handleError(final ResponseModel responseModel) {
         for (final String id : RequestModelUtils.extractIdsFromCompositeRequestModel(responseModel.getRequestModel())) {
             uiHandler.post(runnableFactory.runnableFrom(new Runnable() {
@@ -8,12 +8,9 @@ import com.emarsys.core.connection.ConnectionState;
 import com.emarsys.core.connection.ConnectionWatchDog;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
-import com.emarsys.core.database.repository.specification.Everything;
-import com.emarsys.core.request.RequestExpiredException;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.core.request.factory.CompletionHandlerProxyProvider;
 import com.emarsys.core.request.model.RequestModel;
-import com.emarsys.core.request.model.specification.FilterByRequestId;
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
 import com.emarsys.core.util.Assert;
 import com.emarsys.core.util.log.Logger;
@@ -25,6 +22,7 @@ import java.util.List;
 public class DefaultWorker implements ConnectionChangeListener, Worker {
 
     private final CompletionHandlerProxyProvider proxyProvider;
+    private final RetryScheduler retryScheduler;
     Repository<RequestModel, SqlSpecification> requestRepository;
     ConnectionWatchDog connectionWatchDog;
     private boolean locked;
@@ -32,13 +30,14 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
     RestClient restClient;
     private Handler uiHandler;
 
-    public DefaultWorker(Repository<RequestModel, SqlSpecification> requestRepository, ConnectionWatchDog connectionWatchDog, Handler uiHandler, CoreCompletionHandler coreCompletionHandler, RestClient restClient, CompletionHandlerProxyProvider proxyProvider) {
+    public DefaultWorker(Repository<RequestModel, SqlSpecification> requestRepository, ConnectionWatchDog connectionWatchDog, Handler uiHandler, CoreCompletionHandler coreCompletionHandler, RestClient restClient, CompletionHandlerProxyProvider proxyProvider, RetryScheduler retryScheduler) {
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(connectionWatchDog, "ConnectionWatchDog must not be null!");
         Assert.notNull(uiHandler, "UiHandler must not be null!");
         Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
         Assert.notNull(restClient, "RestClient must not be null!");
         Assert.notNull(proxyProvider, "ProxyProvider must not be null!");
+        Assert.notNull(retryScheduler, "RetryScheduler must not be null!");
 
         this.coreCompletionHandler = coreCompletionHandler;
         this.requestRepository = requestRepository;
@@ -47,6 +46,7 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
         this.uiHandler = uiHandler;
         this.restClient = restClient;
         this.proxyProvider = proxyProvider;
+        this.retryScheduler = retryScheduler;
     }
 
     @Override
@@ -68,11 +68,11 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
     public void run() {
         if (!isLocked() && connectionWatchDog.isConnected() && !requestRepository.isEmpty()) {
             lock();
-            RequestModel model = findFirstNonExpiredModel();
-            if (model != null) {
+            RequestModel model = findFirstModel();
+            if (model != null && !retryScheduler.isBackingOff(model)) {
                 restClient.execute(
                         model,
-                        proxyProvider.provideProxy(this));
+                        proxyProvider.provideProxy(this, model));
             } else {
                 unlock();
             }
@@ -82,40 +82,13 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
     @Override
     public void onConnectionChanged(ConnectionState connectionState, boolean isConnected) {
         if (isConnected) {
-            Logger.log(new OfflineQueueSize(requestRepository.query(new Everything()).size()));
+            Logger.log(new OfflineQueueSize(requestRepository.count()));
             run();
         }
     }
 
-    private RequestModel findFirstNonExpiredModel() {
-        while (!requestRepository.isEmpty()) {
-            List<RequestModel> result = requestRepository.query(new QueryLatestRequestModel());
-            if (!result.isEmpty()) {
-                RequestModel model = result.get(0);
-                if (isExpired(model)) {
-                    handleExpiration(model);
-                } else {
-                    return model;
-                }
-            } else {
-                break;
-            }
-        }
-        return null;
-    }
-
-    private boolean isExpired(RequestModel model) {
-        long now = System.currentTimeMillis();
-        return now - model.getTimestamp() > model.getTtl();
-    }
-
-    private void handleExpiration(final RequestModel expiredModel) {
-        requestRepository.remove(new FilterByRequestId(expiredModel));
-        uiHandler.post(new Runnable() {
-            @Override
-            public void run() {
-                coreCompletionHandler.onError(expiredModel.getId(), new RequestExpiredException("Request expired", expiredModel.getUrl().getPath()));
-            }
-        });
+    private RequestModel findFirstModel() {
+        List<RequestModel> result = requestRepository.query(new QueryLatestRequestModel());
+        return result.isEmpty() ? null : result.get(0);
     }
 }
\ No newline at end of file
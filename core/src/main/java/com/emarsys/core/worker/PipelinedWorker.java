@@ -0,0 +1,237 @@
+package com.emarsys.core.worker;
+
+import android.os.Handler;
+
+import com.emarsys.core.CoreCompletionHandler;
+import com.emarsys.core.connection.ConnectionChangeListener;
+import com.emarsys.core.connection.ConnectionState;
+import com.emarsys.core.connection.ConnectionWatchDog;
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.request.RestClient;
+import com.emarsys.core.request.factory.CompletionHandlerProxyProvider;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.specification.QueryNextRequestModels;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.RequestModelUtils;
+import com.emarsys.core.util.log.Logger;
+import com.emarsys.core.util.log.entry.OfflineQueueSize;
+import com.emarsys.core.util.predicate.Predicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class PipelinedWorker implements ConnectionChangeListener, Worker {
+
+    private static final int READ_AHEAD_FACTOR = 4;
+
+    private final CompletionHandlerProxyProvider proxyProvider;
+    private final RetryScheduler retryScheduler;
+    private final Predicate<RequestModel> barrierPredicate;
+    private final int maxInFlight;
+    private final List<InFlightSlot> inFlightSlots;
+    private final List<Predicate<RequestModel>> holdPredicates;
+    Repository<RequestModel, SqlSpecification> requestRepository;
+    ConnectionWatchDog connectionWatchDog;
+    CoreCompletionHandler coreCompletionHandler;
+    RestClient restClient;
+    private Handler uiHandler;
+    private boolean locked;
+
+    public PipelinedWorker(
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            ConnectionWatchDog connectionWatchDog,
+            Handler uiHandler,
+            CoreCompletionHandler coreCompletionHandler,
+            RestClient restClient,
+            CompletionHandlerProxyProvider proxyProvider,
+            RetryScheduler retryScheduler,
+            Predicate<RequestModel> barrierPredicate,
+            int maxInFlight) {
+        Assert.notNull(requestRepository, "RequestRepository must not be null!");
+        Assert.notNull(connectionWatchDog, "ConnectionWatchDog must not be null!");
+        Assert.notNull(uiHandler, "UiHandler must not be null!");
+        Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
+        Assert.notNull(restClient, "RestClient must not be null!");
+        Assert.notNull(proxyProvider, "ProxyProvider must not be null!");
+        Assert.notNull(retryScheduler, "RetryScheduler must not be null!");
+        Assert.notNull(barrierPredicate, "BarrierPredicate must not be null!");
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("MaxInFlight must be greater than 0!");
+        }
+
+        this.requestRepository = requestRepository;
+        this.connectionWatchDog = connectionWatchDog;
+        this.connectionWatchDog.registerReceiver(this);
+        this.uiHandler = uiHandler;
+        this.coreCompletionHandler = coreCompletionHandler;
+        this.restClient = restClient;
+        this.proxyProvider = proxyProvider;
+        this.retryScheduler = retryScheduler;
+        this.barrierPredicate = barrierPredicate;
+        this.maxInFlight = maxInFlight;
+        this.inFlightSlots = new ArrayList<>();
+        this.holdPredicates = new ArrayList<>();
+    }
+
+    public void addHoldPredicates(List<Predicate<RequestModel>> predicates) {
+        Assert.notNull(predicates, "Predicates must not be null!");
+        Assert.elementsNotNull(predicates, "Predicate elements must not be null!");
+
+        holdPredicates.addAll(predicates);
+    }
+
+    @Override
+    public void lock() {
+        locked = true;
+    }
+
+    @Override
+    public void unlock() {
+        locked = false;
+    }
+
+    @Override
+    public boolean isLocked() {
+        return locked || inFlightSlots.size() >= maxInFlight;
+    }
+
+    public int getInFlightCount() {
+        return inFlightSlots.size();
+    }
+
+    public String[] getInFlightRequestIds() {
+        List<String> result = new ArrayList<>();
+        for (InFlightSlot slot : inFlightSlots) {
+            result.addAll(slot.requestIds);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    @Override
+    public void run() {
+        while (!isLocked() && !isBarrierInFlight() && connectionWatchDog.isConnected()) {
+            RequestModel model = findNextDispatchableModel();
+            if (model == null) {
+                break;
+            }
+            dispatch(model);
+        }
+    }
+
+    @Override
+    public void onConnectionChanged(ConnectionState connectionState, boolean isConnected) {
+        if (isConnected) {
+            Logger.log(new OfflineQueueSize(requestRepository.count()));
+            run();
+        }
+    }
+
+    private void dispatch(RequestModel model) {
+        InFlightSlot slot = new InFlightSlot(model);
+        inFlightSlots.add(slot);
+        restClient.execute(model, proxyProvider.provideProxy(slot, model));
+    }
+
+    private RequestModel findNextDispatchableModel() {
+        Set<String> blockedHosts = new HashSet<>();
+        boolean skippedEarlierModel = false;
+        List<RequestModel> candidates = requestRepository.query(new QueryNextRequestModels(getInFlightRequestIds(), maxInFlight * READ_AHEAD_FACTOR));
+        for (RequestModel candidate : candidates) {
+            if (isExpired(candidate)) {
+                // left for the expiration sweeper, which removes it and notifies its listener
+                continue;
+            }
+
+            String host = candidate.getUrl().getHost();
+            if (isHeld(candidate)) {
+                blockedHosts.add(host);
+                skippedEarlierModel = true;
+                continue;
+            }
+
+            if (barrierPredicate.evaluate(candidate)) {
+                return inFlightSlots.isEmpty() && !skippedEarlierModel && !retryScheduler.isBackingOff(candidate) ? candidate : null;
+            }
+
+            if (isAlreadyInFlight(candidate)) {
+                skippedEarlierModel = true;
+            } else if (blockedHosts.contains(host) || retryScheduler.isBackingOff(candidate)) {
+                blockedHosts.add(host);
+                skippedEarlierModel = true;
+            } else {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean isExpired(RequestModel model) {
+        long now = System.currentTimeMillis();
+        return now - model.getTimestamp() > model.getTtl();
+    }
+
+    private boolean isHeld(RequestModel model) {
+        for (Predicate<RequestModel> holdPredicate : holdPredicates) {
+            if (holdPredicate.evaluate(model)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBarrierInFlight() {
+        for (InFlightSlot slot : inFlightSlots) {
+            if (slot.barrier) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAlreadyInFlight(RequestModel model) {
+        List<String> inFlightRequestIds = Arrays.asList(getInFlightRequestIds());
+        for (String id : RequestModelUtils.extractIdsFromCompositeRequestModel(model)) {
+            if (inFlightRequestIds.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    class InFlightSlot implements Worker {
+
+        final List<String> requestIds;
+        final String host;
+        final boolean barrier;
+
+        InFlightSlot(RequestModel model) {
+            this.requestIds = new ArrayList<>(RequestModelUtils.extractIdsFromCompositeRequestModel(model));
+            this.host = model.getUrl().getHost();
+            this.barrier = barrierPredicate.evaluate(model);
+        }
+
+        @Override
+        public void lock() {
+            PipelinedWorker.this.lock();
+        }
+
+        @Override
+        public void unlock() {
+            inFlightSlots.remove(this);
+        }
+
+        @Override
+        public boolean isLocked() {
+            return PipelinedWorker.this.isLocked();
+        }
+
+        @Override
+        public void run() {
+            PipelinedWorker.this.run();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.emarsys.core.worker;
+
+import android.os.Handler;
+
+import com.emarsys.core.CoreCompletionHandler;
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.provider.Gettable;
+import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.request.RequestExpiredException;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.specification.FilterByExpired;
+import com.emarsys.core.util.Assert;
+
+import java.util.List;
+
+public class RequestExpirationSweeper {
+
+    private final Handler coreSdkHandler;
+    private final Handler uiHandler;
+    private final Repository<RequestModel, SqlSpecification> requestRepository;
+    private final TimestampProvider timestampProvider;
+    private final CoreCompletionHandler coreCompletionHandler;
+    private final Gettable<String[]> inFlightRequestIds;
+    private final long sweepInterval;
+    private final Runnable periodicSweep;
+    private boolean started;
+
+    public RequestExpirationSweeper(
+            Handler coreSdkHandler,
+            Handler uiHandler,
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            TimestampProvider timestampProvider,
+            CoreCompletionHandler coreCompletionHandler,
+            Gettable<String[]> inFlightRequestIds,
+            long sweepInterval) {
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(uiHandler, "UiHandler must not be null!");
+        Assert.notNull(requestRepository, "RequestRepository must not be null!");
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
+        Assert.notNull(inFlightRequestIds, "InFlightRequestIds must not be null!");
+        if (sweepInterval < 1) {
+            throw new IllegalArgumentException("SweepInterval must be greater than 0!");
+        }
+
+        this.coreSdkHandler = coreSdkHandler;
+        this.uiHandler = uiHandler;
+        this.requestRepository = requestRepository;
+        this.timestampProvider = timestampProvider;
+        this.coreCompletionHandler = coreCompletionHandler;
+        this.inFlightRequestIds = inFlightRequestIds;
+        this.sweepInterval = sweepInterval;
+        this.periodicSweep = new Runnable() {
+            @Override
+            public void run() {
+                sweep();
+                RequestExpirationSweeper.this.coreSdkHandler.postDelayed(this, RequestExpirationSweeper.this.sweepInterval);
+            }
+        };
+    }
+
+    public void start() {
+        if (!started) {
+            started = true;
+            coreSdkHandler.post(periodicSweep);
+        }
+    }
+
+    public int sweep() {
+        SqlSpecification expired = new FilterByExpired(timestampProvider.provideTimestamp(), inFlightRequestIds.get());
+
+        final List<RequestModel> expiredModels = requestRepository.query(expired);
+        if (!expiredModels.isEmpty()) {
+            requestRepository.remove(expired);
+            uiHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    for (RequestModel expiredModel : expiredModels) {
+                        coreCompletionHandler.onError(expiredModel.getId(), new RequestExpiredException("Request expired", expiredModel.getUrl().getPath()));
+                    }
+                }
+            });
+        }
+        return expiredModels.size();
+    }
+}
@@ -0,0 +1,153 @@
+package com.emarsys.core.worker;
+
+import android.os.Handler;
+
+import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.RequestModelRepository;
+import com.emarsys.core.request.model.specification.FilterByRequestId;
+import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.RequestModelUtils;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+public class RetryScheduler {
+
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+    private static final int MAX_BACKOFF_SHIFT = 30;
+
+    private final Handler coreSdkHandler;
+    private final RequestModelRepository requestModelRepository;
+    private final TimestampProvider timestampProvider;
+    private final Random random;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final int maxAttempts;
+    private final Map<String, Long> nextAttemptTimestamps;
+
+    public RetryScheduler(
+            Handler coreSdkHandler,
+            RequestModelRepository requestModelRepository,
+            TimestampProvider timestampProvider,
+            Random random,
+            long baseDelay,
+            long maxDelay,
+            int maxAttempts) {
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(requestModelRepository, "RequestModelRepository must not be null!");
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
+        Assert.notNull(random, "Random must not be null!");
+        if (baseDelay < 1) {
+            throw new IllegalArgumentException("BaseDelay must be greater than 0!");
+        }
+        if (maxDelay < baseDelay) {
+            throw new IllegalArgumentException("MaxDelay must not be less than BaseDelay!");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("MaxAttempts must be greater than 0!");
+        }
+
+        this.coreSdkHandler = coreSdkHandler;
+        this.requestModelRepository = requestModelRepository;
+        this.timestampProvider = timestampProvider;
+        this.random = random;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.maxAttempts = maxAttempts;
+        this.nextAttemptTimestamps = new HashMap<>();
+    }
+
+    public boolean scheduleRetry(ResponseModel responseModel, Worker worker) {
+        Assert.notNull(responseModel, "ResponseModel must not be null!");
+
+        return scheduleRetry(responseModel.getRequestModel(), parseRetryAfter(responseModel), worker);
+    }
+
+    public boolean scheduleRetry(RequestModel requestModel, Worker worker) {
+        return scheduleRetry(requestModel, 0, worker);
+    }
+
+    public boolean isBackingOff(RequestModel requestModel) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+
+        long now = timestampProvider.provideTimestamp();
+        boolean result = false;
+        for (String id : RequestModelUtils.extractIdsFromCompositeRequestModel(requestModel)) {
+            Long nextAttempt = nextAttemptTimestamps.get(id);
+            if (nextAttempt != null) {
+                if (nextAttempt > now) {
+                    result = true;
+                } else {
+                    nextAttemptTimestamps.remove(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    long calculateBackoff(int attempt) {
+        long exponential = baseDelay << Math.min(attempt - 1, MAX_BACKOFF_SHIFT);
+        long cappedDelay = exponential > 0 ? Math.min(maxDelay, exponential) : maxDelay;
+        long halfDelay = cappedDelay / 2;
+        return halfDelay + (long) (random.nextDouble() * (cappedDelay - halfDelay));
+    }
+
+    long parseRetryAfter(ResponseModel responseModel) {
+        long result = 0;
+        for (Map.Entry<String, String> header : responseModel.getHeaders().entrySet()) {
+            if (header.getKey() != null && header.getKey().equalsIgnoreCase(RETRY_AFTER_HEADER) && header.getValue() != null) {
+                String value = header.getValue().trim();
+                try {
+                    result = Long.parseLong(value) * 1000;
+                } catch (NumberFormatException nfe) {
+                    try {
+                        Date retryDate = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US).parse(value);
+                        result = retryDate.getTime() - timestampProvider.provideTimestamp();
+                    } catch (ParseException ignored) {
+                    }
+                }
+            }
+        }
+        return Math.max(0, result);
+    }
+
+    private boolean scheduleRetry(RequestModel requestModel, long retryAfter, final Worker worker) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+        Assert.notNull(worker, "Worker must not be null!");
+
+        List<String> requestIds = RequestModelUtils.extractIdsFromCompositeRequestModel(requestModel);
+        int attempt = requestModel.getAttempt() + 1;
+
+        if (attempt >= maxAttempts) {
+            for (String id : requestIds) {
+                nextAttemptTimestamps.remove(id);
+            }
+            return false;
+        }
+
+        requestModelRepository.updateAttempt(new FilterByRequestId(requestModel), attempt);
+
+        long delay = Math.max(calculateBackoff(attempt), retryAfter);
+        long nextAttempt = timestampProvider.provideTimestamp() + delay;
+        for (String id : requestIds) {
+            nextAttemptTimestamps.put(id, nextAttempt);
+        }
+
+        coreSdkHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                worker.run();
+            }
+        }, delay);
+        return true;
+    }
+}
@@ -34,6 +34,7 @@ import com.emarsys.core.provider.uuid.UUIDProvider;
 import com.emarsys.core.provider.version.VersionProvider;
 import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.request.RestClient;
+import com.emarsys.core.request.coalescing.CoalescingRequestRepository;
 import com.emarsys.core.response.ResponseHandlersProcessor;
 import com.emarsys.core.shard.ShardModel;
 import com.emarsys.core.storage.Storage;
@@ -47,6 +48,7 @@ import com.emarsys.inapp.InAppApi;
 import com.emarsys.inapp.InAppProxy;
 import com.emarsys.inbox.InboxApi;
 import com.emarsys.inbox.InboxProxy;
+import com.emarsys.mobileengage.ContactTokenRefreshAction;
 import com.emarsys.mobileengage.DefaultMobileEngageInternal;
 import com.emarsys.mobileengage.LoggingMobileEngageInternal;
 import com.emarsys.mobileengage.MobileEngageInternal;
@@ -69,7 +71,6 @@ import com.emarsys.mobileengage.iam.InAppInternal;
 import com.emarsys.mobileengage.iam.InAppPresenter;
 import com.emarsys.mobileengage.iam.InAppStartAction;
 import com.emarsys.mobileengage.iam.LoggingInAppInternal;
-import com.emarsys.mobileengage.iam.model.requestRepositoryProxy.RequestRepositoryProxy;
 import com.emarsys.mobileengage.inbox.DefaultInboxInternal;
 import com.emarsys.mobileengage.inbox.InboxInternal;
 import com.emarsys.mobileengage.inbox.LoggingInboxInternal;
@@ -462,7 +463,7 @@ public class EmarsysTest {
     }
 
     @Test
-    public void testSetup_initializesRequestManager_withRequestModelRepositoryProxy() {
+    public void testSetup_initializesRequestManager_withCoalescingRequestRepository() {
         DependencyInjection.tearDown();
 
         Emarsys.setup(mobileEngageConfig);
@@ -473,7 +474,7 @@ public class EmarsysTest {
         Object repository = ReflectionTestUtils.getInstanceField(
                 requestManager,
                 "requestRepository");
-        assertEquals(RequestRepositoryProxy.class, repository.getClass());
+        assertEquals(CoalescingRequestRepository.class, repository.getClass());
     }
 
     @Test
@@ -542,6 +543,20 @@ public class EmarsysTest {
         assertEquals(1, CollectionTestUtils.numberOfElementsIn(actions, InAppStartAction.class));
     }
 
+    @Test
+    public void testSetup_registers_activityLifecycleWatchdog_withContactTokenRefreshAction() {
+        DependencyInjection.tearDown();
+
+        ArgumentCaptor<ActivityLifecycleWatchdog> captor = ArgumentCaptor.forClass(ActivityLifecycleWatchdog.class);
+
+        Emarsys.setup(mobileEngageConfig);
+
+        verify(application, times(2)).registerActivityLifecycleCallbacks(captor.capture());
+        ActivityLifecycleAction[] actions = CollectionTestUtils.getElementByType(captor.getAllValues(), ActivityLifecycleWatchdog.class).getApplicationStartActions();
+
+        assertEquals(1, CollectionTestUtils.numberOfElementsIn(actions, ContactTokenRefreshAction.class));
+    }
+
     @Test
     public void testSetup_registers_activityLifecycleWatchdog_withDeepLinkAction() {
         DependencyInjection.tearDown();
@@ -19,12 +19,20 @@ import com.emarsys.core.activity.ActivityLifecycleWatchdog;
 import com.emarsys.core.activity.CurrentActivityWatchdog;
 import com.emarsys.core.api.result.CompletionListener;
 import com.emarsys.core.concurrency.CoreSdkHandlerProvider;
+import com.emarsys.core.concurrency.DefaultNetworkExecutor;
 import com.emarsys.core.connection.ConnectionProvider;
 import com.emarsys.core.connection.ConnectionWatchDog;
+import com.emarsys.core.connection.MeteredNetworkPolicy;
+import com.emarsys.core.connection.TrafficClass;
 import com.emarsys.core.database.CoreSQLiteDatabase;
+import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.helper.CoreDbHelper;
+import com.emarsys.core.database.repository.BoundedRepository;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.database.repository.eviction.EvictionListener;
+import com.emarsys.core.database.repository.eviction.LowestPriorityFirst;
+import com.emarsys.core.database.repository.eviction.OldestFirst;
 import com.emarsys.core.database.trigger.TriggerKey;
 import com.emarsys.core.device.DeviceInfo;
 import com.emarsys.core.device.LanguageProvider;
@@ -32,17 +40,27 @@ import com.emarsys.core.feature.FeatureRegistry;
 import com.emarsys.core.notification.NotificationManagerHelper;
 import com.emarsys.core.notification.NotificationManagerProxy;
 import com.emarsys.core.notification.NotificationSettings;
+import com.emarsys.core.provider.Gettable;
 import com.emarsys.core.provider.activity.CurrentActivityProvider;
 import com.emarsys.core.provider.hardwareid.HardwareIdProvider;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.provider.uuid.UUIDProvider;
 import com.emarsys.core.provider.version.VersionProvider;
+import com.emarsys.core.request.FlushRequestBufferAction;
+import com.emarsys.core.request.RequestBodyCompressor;
+import com.emarsys.core.request.RequestEvictionListener;
 import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.request.RestClient;
+import com.emarsys.core.request.coalescing.CoalescingRequestRepository;
+import com.emarsys.core.request.coalescing.CoalescingStrategy;
 import com.emarsys.core.request.factory.CoreCompletionHandlerMiddlewareProvider;
+import com.emarsys.core.request.header.HeaderInjector;
+import com.emarsys.core.request.model.IndexedRequestModelRepository;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.request.model.RequestModelRepository;
+import com.emarsys.core.request.supersession.SupersedingRequestRepository;
 import com.emarsys.core.response.AbstractResponseHandler;
+import com.emarsys.core.response.ResponseBodyReader;
 import com.emarsys.core.response.ResponseHandlersProcessor;
 import com.emarsys.core.shard.ShardModel;
 import com.emarsys.core.shard.ShardModelRepository;
@@ -52,17 +70,22 @@ import com.emarsys.core.storage.KeyValueStore;
 import com.emarsys.core.storage.Storage;
 import com.emarsys.core.storage.StringStorage;
 import com.emarsys.core.util.batch.BatchingShardTrigger;
+import com.emarsys.core.util.batch.DeferrableTrigger;
 import com.emarsys.core.util.batch.ListChunker;
+import com.emarsys.core.util.log.LogRequestPredicate;
 import com.emarsys.core.util.log.LogShardListMerger;
 import com.emarsys.core.util.log.Logger;
 import com.emarsys.core.util.predicate.ListSizeAtLeast;
-import com.emarsys.core.worker.DefaultWorker;
-import com.emarsys.core.worker.Worker;
+import com.emarsys.core.util.predicate.Predicate;
+import com.emarsys.core.worker.PipelinedWorker;
+import com.emarsys.core.worker.RequestExpirationSweeper;
+import com.emarsys.core.worker.RetryScheduler;
 import com.emarsys.feature.InnerFeature;
 import com.emarsys.inapp.InAppApi;
 import com.emarsys.inapp.InAppProxy;
 import com.emarsys.inbox.InboxApi;
 import com.emarsys.inbox.InboxProxy;
+import com.emarsys.mobileengage.ContactTokenRefreshAction;
 import com.emarsys.mobileengage.DefaultMobileEngageInternal;
 import com.emarsys.mobileengage.LoggingMobileEngageInternal;
 import com.emarsys.mobileengage.MobileEngageInternal;
@@ -90,7 +113,6 @@ import com.emarsys.mobileengage.iam.LoggingInAppInternal;
 import com.emarsys.mobileengage.iam.dialog.IamDialogProvider;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedRepository;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIamRepository;
-import com.emarsys.mobileengage.iam.model.requestRepositoryProxy.RequestRepositoryProxy;
 import com.emarsys.mobileengage.iam.webview.IamWebViewProvider;
 import com.emarsys.mobileengage.inbox.InboxInternal;
 import com.emarsys.mobileengage.inbox.InboxInternalProvider;
@@ -98,9 +120,14 @@ import com.emarsys.mobileengage.inbox.model.NotificationCache;
 import com.emarsys.mobileengage.push.DefaultPushInternal;
 import com.emarsys.mobileengage.push.LoggingPushInternal;
 import com.emarsys.mobileengage.push.PushInternal;
+import com.emarsys.mobileengage.request.ContactStateChangingRequestPredicate;
 import com.emarsys.mobileengage.request.CoreCompletionHandlerRefreshTokenProxyProvider;
-import com.emarsys.mobileengage.request.MobileEngageHeaderMapper;
+import com.emarsys.mobileengage.request.CustomEventCoalescingStrategy;
+import com.emarsys.mobileengage.request.CustomEventRequestPredicate;
+import com.emarsys.mobileengage.request.MobileEngageHeaderInjector;
+import com.emarsys.mobileengage.request.PendingTokenRefreshPredicate;
 import com.emarsys.mobileengage.request.RequestModelFactory;
+import com.emarsys.mobileengage.request.SupersessionKey;
 import com.emarsys.mobileengage.responsehandler.ClientInfoResponseHandler;
 import com.emarsys.mobileengage.responsehandler.InAppCleanUpResponseHandler;
 import com.emarsys.mobileengage.responsehandler.InAppMessageResponseHandler;
@@ -120,12 +147,33 @@ import com.emarsys.push.PushApi;
 import com.emarsys.push.PushProxy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Random;
 
 public class DefaultEmarsysDependencyContainer implements EmarysDependencyContainer {
 
     private static final String EMARSYS_SHARED_PREFERENCES_NAME = "emarsys_shared_preferences";
+    private static final int MAX_IN_FLIGHT_REQUESTS = 4;
+    private static final long RETRY_BASE_DELAY = 1000;
+    private static final long RETRY_MAX_DELAY = 5 * 60 * 1000;
+    private static final int MAX_REQUEST_ATTEMPTS = 20;
+    private static final int MAX_CUSTOM_EVENT_BATCH_SIZE = 100;
+    private static final int REQUEST_WRITE_BUFFER_SIZE = 50;
+    private static final long REQUEST_WRITE_BUFFER_DELAY = 20;
+    private static final long REQUEST_EXPIRATION_SWEEP_INTERVAL = 60 * 1000;
+    private static final int REQUEST_READ_AHEAD_SIZE = 32;
+    private static final int REQUEST_QUEUE_MAX_ROWS = 1000;
+    private static final long REQUEST_QUEUE_MAX_BYTES = 5 * 1024 * 1024;
+    private static final int SHARD_QUEUE_MAX_ROWS = 1000;
+    private static final long SHARD_QUEUE_MAX_BYTES = 1024 * 1024;
+    private static final long TELEMETRY_MAX_DEFERRAL = 2 * 60 * 60 * 1000;
+    private static final int TELEMETRY_RELEASE_BATCH_SIZE = 100;
+    private static final long CONTACT_TOKEN_REFRESH_MARGIN = 5 * 60 * 1000;
+    private static final int REQUEST_COMPRESSION_THRESHOLD = 1024;
+    private static final int MAX_RESPONSE_BODY_SIZE = 1024 * 1024;
 
     private MobileEngageInternal mobileEngageInternal;
     private InboxInternal inboxInternal;
@@ -159,6 +207,7 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
     private ButtonClickedRepository buttonClickedRepository;
     private DisplayedIamRepository displayedIamRepository;
     private Repository<RequestModel, SqlSpecification> requestModelRepository;
+    private PipelinedWorker worker;
     private RestClient restClient;
     private Application application;
     private ActivityLifecycleWatchdog activityLifecycleWatchdog;
@@ -172,6 +221,7 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
     private EventServiceInternal eventServiceInternal;
     private InAppInternal inAppInternal;
     private MobileEngageTokenResponseHandler contactTokenResponseHandler;
+    private MobileEngageHeaderInjector mobileEngageHeaderInjector;
     private NotificationCache notificationCache;
     private InboxApi inboxApi;
     private InAppApi inAppApi;
@@ -408,28 +458,72 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
 
         inAppEventHandler = new InAppEventHandlerInternal();
 
-        requestModelRepository = createRequestModelRepository(coreDbHelper);
-        shardModelRepository = new ShardModelRepository(coreDbHelper);
-
-        restClient = new RestClient(new ConnectionProvider(), timestampProvider, getResponseHandlersProcessor(), createRequestModelMappers());
+        RequestModelRepository coreRequestModelRepository = new IndexedRequestModelRepository(coreDbHelper, REQUEST_READ_AHEAD_SIZE);
+        BoundedRepository<RequestModel> boundedRequestModelRepository = createBoundedRequestModelRepository(coreRequestModelRepository);
+        requestModelRepository = createRequestModelRepository(boundedRequestModelRepository);
+        shardModelRepository = new BoundedRepository<>(
+                new ShardModelRepository(coreDbHelper),
+                DatabaseContract.SHARD_COLUMN_ID,
+                new OldestFirst(),
+                SHARD_QUEUE_MAX_ROWS,
+                SHARD_QUEUE_MAX_BYTES,
+                new Gettable<String[]>() {
+                    @Override
+                    public String[] get() {
+                        return new String[0];
+                    }
+                });
+
+        RequestBodyCompressor requestBodyCompressor = new RequestBodyCompressor(REQUEST_COMPRESSION_THRESHOLD);
+        requestBodyCompressor.addCompressionPredicates(Arrays.<Predicate<RequestModel>>asList(
+                new CustomEventRequestPredicate(),
+                new LogRequestPredicate()));
+        mobileEngageHeaderInjector = new MobileEngageHeaderInjector(requestContext);
+
+        restClient = new RestClient(
+                new ConnectionProvider(),
+                timestampProvider,
+                getResponseHandlersProcessor(),
+                new ArrayList<Mapper<RequestModel, RequestModel>>(),
+                requestBodyCompressor,
+                new ResponseBodyReader(MAX_RESPONSE_BODY_SIZE),
+                new DefaultNetworkExecutor(),
+                coreSdkHandler);
+        restClient.addHeaderInjectors(createHeaderInjectors());
 
         requestModelFactory = new RequestModelFactory(requestContext);
 
-        contactTokenResponseHandler = new MobileEngageTokenResponseHandler("contactToken", contactTokenStorage);
+        contactTokenResponseHandler = new MobileEngageTokenResponseHandler("contactToken", contactTokenStorage, mobileEngageHeaderInjector);
 
         notificationCache = new NotificationCache();
 
         refreshTokenInternal = new MobileEngageRefreshTokenInternal(
                 contactTokenResponseHandler,
                 getRestClient(),
-                requestModelFactory);
+                requestModelFactory,
+                coreSdkHandler,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        worker.run();
+                    }
+                });
 
         ConnectionWatchDog connectionWatchDog = new ConnectionWatchDog(application, coreSdkHandler);
+        RetryScheduler retryScheduler = new RetryScheduler(
+                coreSdkHandler,
+                coreRequestModelRepository,
+                timestampProvider,
+                new Random(),
+                RETRY_BASE_DELAY,
+                RETRY_MAX_DELAY,
+                MAX_REQUEST_ATTEMPTS);
         CoreCompletionHandlerMiddlewareProvider coreCompletionHandlerMiddlewareProvider = new CoreCompletionHandlerMiddlewareProvider(
                 getCoreCompletionHandler(),
                 requestModelRepository,
                 uiHandler,
-                coreSdkHandler
+                coreSdkHandler,
+                retryScheduler
         );
 
         CoreCompletionHandlerRefreshTokenProxyProvider coreCompletionHandlerRefreshTokenProxyProvider = new CoreCompletionHandlerRefreshTokenProxyProvider(
@@ -438,13 +532,28 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
                 getRestClient(),
                 contactTokenStorage
         );
-        Worker worker = new DefaultWorker(
+        worker = new PipelinedWorker(
                 requestModelRepository,
                 connectionWatchDog,
                 uiHandler,
                 getCoreCompletionHandler(),
                 getRestClient(),
-                coreCompletionHandlerRefreshTokenProxyProvider);
+                coreCompletionHandlerRefreshTokenProxyProvider,
+                retryScheduler,
+                new ContactStateChangingRequestPredicate(),
+                MAX_IN_FLIGHT_REQUESTS);
+        worker.addHoldPredicates(Collections.<Predicate<RequestModel>>singletonList(
+                new PendingTokenRefreshPredicate(refreshTokenInternal)));
+
+        RequestExpirationSweeper requestExpirationSweeper = new RequestExpirationSweeper(
+                coreSdkHandler,
+                uiHandler,
+                boundedRequestModelRepository,
+                timestampProvider,
+                getCoreCompletionHandler(),
+                createInFlightRequestIdsGettable(),
+                REQUEST_EXPIRATION_SWEEP_INTERVAL);
+        requestExpirationSweeper.start();
 
         requestManager = new RequestManager(
                 coreSdkHandler,
@@ -453,23 +562,44 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
                 worker,
                 getRestClient(),
                 getCoreCompletionHandler(),
-                getCoreCompletionHandler());
+                getCoreCompletionHandler(),
+                REQUEST_WRITE_BUFFER_SIZE,
+                REQUEST_WRITE_BUFFER_DELAY);
 
         requestManager.setDefaultHeaders(RequestHeaderUtils.createDefaultHeaders(requestContext));
 
         sharedPrefsKeyStore = new DefaultKeyValueStore(prefs);
         notificationEventHandler = config.getNotificationEventHandler();
-        logShardTrigger = new BatchingShardTrigger(
-                shardModelRepository,
-                new ListSizeAtLeast<ShardModel>(10),
-                new FilterByShardType(FilterByShardType.SHARD_TYPE_LOG),
-                new ListChunker<ShardModel>(10),
-                new LogShardListMerger(timestampProvider, uuidProvider, getDeviceInfo(), config.getMobileEngageApplicationCode(), config.getPredictMerchantId()),
-                requestManager,
-                BatchingShardTrigger.RequestStrategy.TRANSIENT);
+        MeteredNetworkPolicy meteredNetworkPolicy = new MeteredNetworkPolicy(
+                coreSdkHandler,
+                new ConnectionWatchDog(application, coreSdkHandler),
+                timestampProvider,
+                TELEMETRY_MAX_DEFERRAL);
+        LogShardListMerger logShardListMerger = new LogShardListMerger(timestampProvider, uuidProvider, getDeviceInfo(), config.getMobileEngageApplicationCode(), config.getPredictMerchantId());
+        DeferrableTrigger deferrableLogShardTrigger = new DeferrableTrigger(
+                new BatchingShardTrigger(
+                        shardModelRepository,
+                        new ListSizeAtLeast<ShardModel>(10),
+                        new FilterByShardType(FilterByShardType.SHARD_TYPE_LOG),
+                        new ListChunker<ShardModel>(10),
+                        logShardListMerger,
+                        requestManager,
+                        BatchingShardTrigger.RequestStrategy.TRANSIENT),
+                new BatchingShardTrigger(
+                        shardModelRepository,
+                        new ListSizeAtLeast<ShardModel>(1),
+                        new FilterByShardType(FilterByShardType.SHARD_TYPE_LOG),
+                        new ListChunker<ShardModel>(TELEMETRY_RELEASE_BATCH_SIZE),
+                        logShardListMerger,
+                        requestManager,
+                        BatchingShardTrigger.RequestStrategy.TRANSIENT),
+                TrafficClass.DEFERRABLE,
+                meteredNetworkPolicy);
+        meteredNetworkPolicy.addReleaseActions(Collections.singletonList(deferrableLogShardTrigger.getReleaseTrigger()));
+        logShardTrigger = deferrableLogShardTrigger;
 
         if (FeatureRegistry.isFeatureEnabled(InnerFeature.PREDICT)) {
-            predictShardTrigger = new BatchingShardTrigger(
+            BatchingShardTrigger batchingPredictShardTrigger = new BatchingShardTrigger(
                     shardModelRepository,
                     new ListSizeAtLeast<ShardModel>(1),
                     new FilterByShardType(FilterByShardType.SHARD_TYPE_PREDICT),
@@ -482,6 +612,13 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
                             getDeviceInfo()),
                     requestManager,
                     BatchingShardTrigger.RequestStrategy.PERSISTENT);
+            DeferrableTrigger deferrablePredictShardTrigger = new DeferrableTrigger(
+                    batchingPredictShardTrigger,
+                    batchingPredictShardTrigger,
+                    TrafficClass.DEFERRABLE,
+                    meteredNetworkPolicy);
+            meteredNetworkPolicy.addReleaseActions(Collections.singletonList(deferrablePredictShardTrigger.getReleaseTrigger()));
+            predictShardTrigger = deferrablePredictShardTrigger;
             predictInternal = new DefaultPredictInternal(sharedPrefsKeyStore, requestManager, uuidProvider, timestampProvider);
         } else {
             predictInternal = new LoggingPredictInternal(Emarsys.Predict.class);
@@ -496,7 +633,7 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
 
             pushInternal = new DefaultPushInternal(requestManager, uiHandler, requestModelFactory, eventServiceInternal);
             inAppInternal = new DefaultInAppInternal(inAppEventHandler, eventServiceInternal);
-            mobileEngageInternal = new DefaultMobileEngageInternal(requestManager, requestModelFactory, requestContext);
+            mobileEngageInternal = new DefaultMobileEngageInternal(requestManager, requestModelFactory, requestContext, mobileEngageHeaderInjector);
 
             inboxInternal = inboxInternalProvider.provideInboxInternal(
                     requestManager,
@@ -521,36 +658,79 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
         logger = new Logger(coreSdkHandler, shardModelRepository, timestampProvider, uuidProvider);
     }
 
-    private Repository<RequestModel, SqlSpecification> createRequestModelRepository(CoreDbHelper coreDbHelper) {
-        RequestModelRepository requestModelRepository = new RequestModelRepository(coreDbHelper);
-        return new RequestRepositoryProxy(
+    private BoundedRepository<RequestModel> createBoundedRequestModelRepository(RequestModelRepository requestModelRepository) {
+        BoundedRepository<RequestModel> boundedRequestRepository = new BoundedRepository<>(
                 requestModelRepository,
-                displayedIamRepository,
-                buttonClickedRepository,
+                DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID,
+                new LowestPriorityFirst(),
+                REQUEST_QUEUE_MAX_ROWS,
+                REQUEST_QUEUE_MAX_BYTES,
+                createInFlightRequestIdsGettable());
+        boundedRequestRepository.addEvictionListeners(Collections.<EvictionListener<RequestModel>>singletonList(
+                new RequestEvictionListener(uiHandler, getCoreCompletionHandler())));
+        return boundedRequestRepository;
+    }
+
+    private Gettable<String[]> createInFlightRequestIdsGettable() {
+        return new Gettable<String[]>() {
+            @Override
+            public String[] get() {
+                return worker == null ? new String[0] : worker.getInFlightRequestIds();
+            }
+        };
+    }
+
+    private Repository<RequestModel, SqlSpecification> createRequestModelRepository(BoundedRepository<RequestModel> boundedRequestRepository) {
+        SupersedingRequestRepository supersedingRequestRepository = new SupersedingRequestRepository(
+                boundedRequestRepository,
+                getCoreCompletionHandler(),
+                createInFlightRequestIdsGettable());
+        supersedingRequestRepository.addTrailingOnlyKeys(Collections.singletonList(SupersessionKey.CONTACT));
+
+        CoalescingRequestRepository coalescingRequestRepository = new CoalescingRequestRepository(
+                supersedingRequestRepository,
                 timestampProvider,
                 uuidProvider,
-                inAppEventHandler);
+                createInFlightRequestIdsGettable());
+        coalescingRequestRepository.addStrategies(createCoalescingStrategies());
+        return coalescingRequestRepository;
     }
 
-    private List<Mapper<RequestModel, RequestModel>> createRequestModelMappers() {
-        List<Mapper<RequestModel, RequestModel>> mappers = new ArrayList<>();
-        mappers.add(new MobileEngageHeaderMapper(requestContext));
-        return mappers;
+    private List<CoalescingStrategy> createCoalescingStrategies() {
+        List<CoalescingStrategy> strategies = new ArrayList<>();
+        strategies.add(new CustomEventCoalescingStrategy(
+                displayedIamRepository,
+                buttonClickedRepository,
+                inAppEventHandler,
+                MAX_CUSTOM_EVENT_BATCH_SIZE));
+        return strategies;
+    }
+
+    private List<HeaderInjector> createHeaderInjectors() {
+        List<HeaderInjector> headerInjectors = new ArrayList<>();
+        headerInjectors.add(mobileEngageHeaderInjector);
+        return headerInjectors;
     }
 
     private void initializeActivityLifecycleWatchdog() {
         ActivityLifecycleAction[] applicationStartActions = new ActivityLifecycleAction[]{
                 new DeviceInfoStartAction(getClientServiceInternal(), deviceInfoHashStorage, getDeviceInfo()),
-                new InAppStartAction(eventServiceInternal, contactTokenStorage)
+                new InAppStartAction(eventServiceInternal, contactTokenStorage),
+                new ContactTokenRefreshAction(coreSdkHandler, refreshTokenInternal, requestContext, CONTACT_TOKEN_REFRESH_MARGIN)
         };
 
         ActivityLifecycleAction[] activityCreatedActions = new ActivityLifecycleAction[]{
                 new DeepLinkAction(deepLinkInternal)
         };
 
+        ActivityLifecycleAction[] applicationBackgroundActions = new ActivityLifecycleAction[]{
+                new FlushRequestBufferAction(requestManager)
+        };
+
         activityLifecycleWatchdog = new ActivityLifecycleWatchdog(
                 applicationStartActions,
-                activityCreatedActions);
+                activityCreatedActions,
+                applicationBackgroundActions);
     }
 
     private void initializeInAppPresenter(EmarsysConfig emarsysConfig) {
@@ -571,9 +751,9 @@ public class DefaultEmarsysDependencyContainer implements EmarysDependencyContai
 
         responseHandlers.add(new VisitorIdResponseHandler(sharedPrefsKeyStore));
 
-        responseHandlers.add(new MobileEngageTokenResponseHandler("refreshToken", refreshTokenStorage));
+        responseHandlers.add(new MobileEngageTokenResponseHandler("refreshToken", refreshTokenStorage, mobileEngageHeaderInjector));
         responseHandlers.add(contactTokenResponseHandler);
-        responseHandlers.add(new MobileEngageClientStateResponseHandler(getClientStateStorage()));
+        responseHandlers.add(new MobileEngageClientStateResponseHandler(getClientStateStorage(), mobileEngageHeaderInjector));
         responseHandlers.add(new ClientInfoResponseHandler(getDeviceInfo(), getDeviceInfoHashStorage()));
 
         responseHandlers.add(new InAppMessageResponseHandler(
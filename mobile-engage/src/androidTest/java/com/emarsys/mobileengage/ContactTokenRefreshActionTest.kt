@@ -0,0 +1,211 @@
+package com.emarsys.mobileengage
+
+import android.app.Activity
+import android.os.Handler
+import android.os.Looper
+import android.os.Message
+import android.util.Base64
+import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.storage.Storage
+import com.emarsys.testUtil.HandlerUtils
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.*
+
+class ContactTokenRefreshActionTest {
+
+    companion object {
+        const val EXPIRATION = 1_546_300_800_000L
+        const val MARGIN = 60_000L
+    }
+
+    private lateinit var mockCoreSdkHandler: Handler
+    private lateinit var mockRefreshTokenInternal: RefreshTokenInternal
+    private lateinit var mockRequestContext: RequestContext
+    private lateinit var mockContactTokenStorage: Storage<String>
+    private lateinit var mockRefreshTokenStorage: Storage<String>
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var action: ContactTokenRefreshAction
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+        mockCoreSdkHandler = spy(Handler(Looper.getMainLooper())).apply {
+            doReturn(true).`when`(this).sendMessageAtTime(any(Message::class.java), anyLong())
+        }
+        mockRefreshTokenInternal = mock(RefreshTokenInternal::class.java)
+        mockContactTokenStorage = (mock(Storage::class.java) as Storage<String>).apply {
+            whenever(get()).thenReturn(createToken(EXPIRATION / 1000))
+        }
+        mockRefreshTokenStorage = (mock(Storage::class.java) as Storage<String>).apply {
+            whenever(get()).thenReturn("refreshToken")
+        }
+        mockTimestampProvider = mock(TimestampProvider::class.java).apply {
+            whenever(provideTimestamp()).thenReturn(EXPIRATION - MARGIN - 1000)
+        }
+        mockRequestContext = mock(RequestContext::class.java).apply {
+            whenever(contactTokenStorage).thenReturn(mockContactTokenStorage)
+            whenever(refreshTokenStorage).thenReturn(mockRefreshTokenStorage)
+            whenever(timestampProvider).thenReturn(mockTimestampProvider)
+        }
+
+        action = ContactTokenRefreshAction(mockCoreSdkHandler, mockRefreshTokenInternal, mockRequestContext, MARGIN)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreSdkHandler_mustNotBeNull() {
+        ContactTokenRefreshAction(null, mockRefreshTokenInternal, mockRequestContext, MARGIN)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_refreshTokenInternal_mustNotBeNull() {
+        ContactTokenRefreshAction(mockCoreSdkHandler, null, mockRequestContext, MARGIN)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestContext_mustNotBeNull() {
+        ContactTokenRefreshAction(mockCoreSdkHandler, mockRefreshTokenInternal, null, MARGIN)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_refreshMargin_mustNotBeNegative() {
+        ContactTokenRefreshAction(mockCoreSdkHandler, mockRefreshTokenInternal, mockRequestContext, -1)
+    }
+
+    @Test
+    fun testExecute_checksExpiration_onCoreSdkHandler() {
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(EXPIRATION - MARGIN)
+
+        action.execute(mock(Activity::class.java))
+
+        verifyZeroInteractions(mockRefreshTokenInternal)
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockCoreSdkHandler).sendMessageAtTime(captor.capture(), anyLong())
+
+        captor.value.callback.run()
+
+        verify(mockRefreshTokenInternal).refreshContactToken(any(CompletionListener::class.java))
+    }
+
+    @Test
+    fun testRefreshIfExpiring_refreshes_whenWithinMargin() {
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(EXPIRATION - MARGIN + 1)
+
+        action.refreshIfExpiring()
+
+        verify(mockRefreshTokenInternal).refreshContactToken(any(CompletionListener::class.java))
+        verifyZeroInteractions(mockCoreSdkHandler)
+    }
+
+    @Test
+    fun testRefreshIfExpiring_refreshes_whenAlreadyExpired() {
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(EXPIRATION + 1)
+
+        action.refreshIfExpiring()
+
+        verify(mockRefreshTokenInternal).refreshContactToken(any(CompletionListener::class.java))
+    }
+
+    @Test
+    fun testRefreshIfExpiring_doesNotRefresh_whenRefreshIsAlreadyRunning() {
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(EXPIRATION)
+        whenever(mockRefreshTokenInternal.isRefreshing).thenReturn(true)
+
+        action.refreshIfExpiring()
+
+        verify(mockRefreshTokenInternal, never()).refreshContactToken(any(CompletionListener::class.java))
+    }
+
+    @Test
+    fun testRefreshIfExpiring_schedulesRefresh_beforeExpiration() {
+        action.refreshIfExpiring()
+
+        verify(mockRefreshTokenInternal, never()).refreshContactToken(any(CompletionListener::class.java))
+        val captor = ArgumentCaptor.forClass(Message::class.java)
+        verify(mockCoreSdkHandler).sendMessageAtTime(captor.capture(), anyLong())
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(EXPIRATION - MARGIN)
+        captor.value.callback.run()
+
+        verify(mockRefreshTokenInternal).refreshContactToken(any(CompletionListener::class.java))
+    }
+
+    @Test
+    fun testRefreshIfExpiring_schedulesRefresh_onlyOncePerToken() {
+        action.refreshIfExpiring()
+        action.refreshIfExpiring()
+
+        verify(mockCoreSdkHandler, times(1)).sendMessageAtTime(any(Message::class.java), anyLong())
+    }
+
+    @Test
+    fun testRefreshIfExpiring_reschedules_whenTokenChanges() {
+        action.refreshIfExpiring()
+        whenever(mockContactTokenStorage.get()).thenReturn(createToken(EXPIRATION / 1000 + 3600))
+        action.refreshIfExpiring()
+
+        verify(mockCoreSdkHandler, times(2)).sendMessageAtTime(any(Message::class.java), anyLong())
+    }
+
+    @Test
+    fun testRefreshIfExpiring_cancelsPendingRefresh_whenTokenChanges() {
+        val coreSdkHandler = spy(Handler(Looper.getMainLooper()))
+        action = ContactTokenRefreshAction(coreSdkHandler, mockRefreshTokenInternal, mockRequestContext, MARGIN)
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(EXPIRATION - MARGIN - 10)
+
+        action.refreshIfExpiring()
+        whenever(mockContactTokenStorage.get()).thenReturn(createToken(EXPIRATION / 1000 + 3600))
+        action.refreshIfExpiring()
+
+        Thread.sleep(100)
+        HandlerUtils.waitForEventLoopToFinish(Handler(Looper.getMainLooper()))
+        coreSdkHandler.removeCallbacksAndMessages(null)
+
+        verify(coreSdkHandler, times(2)).sendMessageAtTime(any(Message::class.java), anyLong())
+    }
+
+    @Test
+    fun testRefreshIfExpiring_doesNothing_withoutContactToken() {
+        whenever(mockContactTokenStorage.get()).thenReturn(null)
+
+        action.refreshIfExpiring()
+
+        verifyZeroInteractions(mockRefreshTokenInternal, mockCoreSdkHandler)
+    }
+
+    @Test
+    fun testRefreshIfExpiring_doesNothing_withoutRefreshToken() {
+        whenever(mockRefreshTokenStorage.get()).thenReturn(null)
+
+        action.refreshIfExpiring()
+
+        verifyZeroInteractions(mockRefreshTokenInternal, mockCoreSdkHandler)
+    }
+
+    @Test
+    fun testRefreshIfExpiring_doesNothing_whenExpirationIsUnknown() {
+        whenever(mockContactTokenStorage.get()).thenReturn("contactToken")
+
+        action.refreshIfExpiring()
+
+        verifyZeroInteractions(mockRefreshTokenInternal, mockCoreSdkHandler)
+    }
+
+    private fun createToken(exp: Long): String {
+        val flags = Base64.URL_SAFE or Base64.NO_PADDING or Base64.NO_WRAP
+        val payload = Base64.encodeToString("""{"exp":$exp}""".toByteArray(), flags)
+        return "header.$payload.signature"
+    }
+}
@@ -11,6 +11,7 @@ import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.storage.Storage
 import com.emarsys.mobileengage.event.EventServiceInternal
 import com.emarsys.mobileengage.push.PushInternal
+import com.emarsys.mobileengage.request.MobileEngageHeaderInjector
 import com.emarsys.mobileengage.request.RequestModelFactory
 import com.emarsys.testUtil.TimeoutUtils
 import com.emarsys.testUtil.mockito.whenever
@@ -57,6 +58,7 @@ class DefaultMobileEngageInternalTest {
     private lateinit var mockRefreshTokenStorage: Storage<String>
     private lateinit var mockContactTokenStorage: Storage<String>
     private lateinit var mockClientStateStorage: Storage<String>
+    private lateinit var mockHeaderInjector: MobileEngageHeaderInjector
 
     private lateinit var uiHandler: Handler
 
@@ -120,22 +122,29 @@ class DefaultMobileEngageInternalTest {
 
         mockCompletionListener = mock(CompletionListener::class.java)
 
-        mobileEngageInternal = DefaultMobileEngageInternal(mockRequestManager, mockRequestModelFactory, mockRequestContext)
+        mockHeaderInjector = mock(MobileEngageHeaderInjector::class.java)
+
+        mobileEngageInternal = DefaultMobileEngageInternal(mockRequestManager, mockRequestModelFactory, mockRequestContext, mockHeaderInjector)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_requestManager_mustNotBeNull() {
-        DefaultMobileEngageInternal(null, mockRequestModelFactory, mockRequestContext)
+        DefaultMobileEngageInternal(null, mockRequestModelFactory, mockRequestContext, mockHeaderInjector)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_requestModelFactory_mustNotBeNull() {
-        DefaultMobileEngageInternal(mockRequestManager, null, mockRequestContext)
+        DefaultMobileEngageInternal(mockRequestManager, null, mockRequestContext, mockHeaderInjector)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_requestContext_mustNotBeNull() {
-        DefaultMobileEngageInternal(mockRequestManager, mockRequestModelFactory, null)
+        DefaultMobileEngageInternal(mockRequestManager, mockRequestModelFactory, null, mockHeaderInjector)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_headerInjector_mustNotBeNull() {
+        DefaultMobileEngageInternal(mockRequestManager, mockRequestModelFactory, mockRequestContext, null)
     }
 
     @Test
@@ -182,5 +191,15 @@ class DefaultMobileEngageInternalTest {
         verify(mockContactFieldValueStorage).remove()
     }
 
+    @Test
+    fun testResetContext_shouldInvalidateHeaderProfiles_afterClearingTheContactToken() {
+        mobileEngageInternal.resetContext()
+
+        inOrder(mockContactTokenStorage, mockHeaderInjector).run {
+            verify(mockContactTokenStorage).remove()
+            verify(mockHeaderInjector).invalidate()
+        }
+    }
+
 
 }
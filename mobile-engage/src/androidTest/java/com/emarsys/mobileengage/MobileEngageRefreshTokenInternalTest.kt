@@ -1,20 +1,39 @@
 package com.emarsys.mobileengage
 
+import android.os.Handler
+import android.os.Looper
 import com.emarsys.core.CoreCompletionHandler
 import com.emarsys.core.api.ResponseErrorException
 import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.core.concurrency.NetworkLane
+import com.emarsys.core.connection.ConnectionWatchDog
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
 import com.emarsys.core.request.RestClient
+import com.emarsys.core.request.factory.CompletionHandlerProxyProvider
+import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.specification.QueryNextRequestModels
 import com.emarsys.core.response.ResponseModel
+import com.emarsys.core.util.predicate.Predicate
+import com.emarsys.core.worker.PipelinedWorker
+import com.emarsys.core.worker.RetryScheduler
+import com.emarsys.core.worker.Worker
+import com.emarsys.mobileengage.endpoint.Endpoint
 import com.emarsys.mobileengage.fake.FakeRestClient
+import com.emarsys.mobileengage.request.PendingTokenRefreshPredicate
 import com.emarsys.mobileengage.request.RequestModelFactory
 import com.emarsys.mobileengage.responsehandler.MobileEngageTokenResponseHandler
+import com.emarsys.testUtil.HandlerUtils
 import com.emarsys.testUtil.TimeoutUtils
 import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
 import org.mockito.ArgumentMatchers.any
 import org.mockito.ArgumentMatchers.eq
 import org.mockito.Mockito.*
@@ -30,6 +49,8 @@ class MobileEngageRefreshTokenInternalTest {
     private lateinit var mockRequestModel: RequestModel
     private lateinit var mockRequestModelFactory: RequestModelFactory
     private lateinit var mockResponseHandler: MobileEngageTokenResponseHandler
+    private lateinit var coreSdkHandler: Handler
+    private lateinit var mockOnRefreshCompleted: Runnable
 
     @Rule
     @JvmField
@@ -46,22 +67,35 @@ class MobileEngageRefreshTokenInternalTest {
             whenever(createRefreshContactTokenRequest()).thenReturn(mockRequestModel)
         }
 
-        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, mockRestClient, mockRequestModelFactory)
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+        mockOnRefreshCompleted = mock(Runnable::class.java)
+
+        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, mockRestClient, mockRequestModelFactory, coreSdkHandler, mockOnRefreshCompleted)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_tokenResponseHandler_mustNotBeNull() {
-        MobileEngageRefreshTokenInternal(null, mockRestClient, mockRequestModelFactory)
+        MobileEngageRefreshTokenInternal(null, mockRestClient, mockRequestModelFactory, coreSdkHandler, mockOnRefreshCompleted)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_requestManager_mustNotBeNull() {
-        MobileEngageRefreshTokenInternal(mockResponseHandler, null, mockRequestModelFactory)
+        MobileEngageRefreshTokenInternal(mockResponseHandler, null, mockRequestModelFactory, coreSdkHandler, mockOnRefreshCompleted)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_requestModelFactory_mustNotBeNull() {
-        MobileEngageRefreshTokenInternal(mockResponseHandler, mockRestClient, null)
+        MobileEngageRefreshTokenInternal(mockResponseHandler, mockRestClient, null, coreSdkHandler, mockOnRefreshCompleted)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_coreSdkHandler_mustNotBeNull() {
+        MobileEngageRefreshTokenInternal(mockResponseHandler, mockRestClient, mockRequestModelFactory, null, mockOnRefreshCompleted)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_onRefreshCompleted_mustNotBeNull() {
+        MobileEngageRefreshTokenInternal(mockResponseHandler, mockRestClient, mockRequestModelFactory, coreSdkHandler, null)
     }
 
     @Test
@@ -69,7 +103,7 @@ class MobileEngageRefreshTokenInternalTest {
         val mockCompletionListener = mock(CompletionListener::class.java)
         refreshTokenInternal.refreshContactToken(mockCompletionListener)
 
-        verify(mockRestClient).execute(eq(mockRequestModel), any(CoreCompletionHandler::class.java))
+        verify(mockRestClient).execute(eq(mockRequestModel), any(CoreCompletionHandler::class.java), eq(NetworkLane.INTERACTIVE))
     }
 
     @Test
@@ -81,7 +115,7 @@ class MobileEngageRefreshTokenInternalTest {
         val mockCompletionListener = mock(CompletionListener::class.java)
         val latch = CountDownLatch(1)
 
-        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, fakeRestClient, mockRequestModelFactory)
+        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, fakeRestClient, mockRequestModelFactory, coreSdkHandler, mockOnRefreshCompleted)
 
         refreshTokenInternal.refreshContactToken(mockCompletionListener)
         refreshTokenInternal.refreshContactToken {
@@ -106,7 +140,7 @@ class MobileEngageRefreshTokenInternalTest {
         val mockCompletionListener = mock(CompletionListener::class.java)
         val latch = CountDownLatch(1)
 
-        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, fakeRestClient, mockRequestModelFactory)
+        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, fakeRestClient, mockRequestModelFactory, coreSdkHandler, mockOnRefreshCompleted)
 
         refreshTokenInternal.refreshContactToken(mockCompletionListener)
         refreshTokenInternal.refreshContactToken {
@@ -122,7 +156,7 @@ class MobileEngageRefreshTokenInternalTest {
         val fakeRestClient = FakeRestClient(Exception())
         val mockCompletionListener = mock(CompletionListener::class.java)
         val latch = CountDownLatch(1)
-        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, fakeRestClient, mockRequestModelFactory)
+        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, fakeRestClient, mockRequestModelFactory, coreSdkHandler, mockOnRefreshCompleted)
 
         refreshTokenInternal.refreshContactToken(mockCompletionListener)
         refreshTokenInternal.refreshContactToken {
@@ -132,4 +166,104 @@ class MobileEngageRefreshTokenInternalTest {
         latch.await()
         verify(mockCompletionListener).onCompleted(any(Exception::class.java))
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testRefreshContactToken_isSingleFlight() {
+        val mockCompletionListener1 = mock(CompletionListener::class.java)
+        val mockCompletionListener2 = mock(CompletionListener::class.java)
+        val mockResponseModel = mock(ResponseModel::class.java)
+
+        refreshTokenInternal.refreshContactToken(mockCompletionListener1)
+        refreshTokenInternal.refreshContactToken(mockCompletionListener2)
+
+        val captor = ArgumentCaptor.forClass(CoreCompletionHandler::class.java)
+        verify(mockRestClient, times(1)).execute(eq(mockRequestModel), captor.capture(), eq(NetworkLane.INTERACTIVE))
+        refreshTokenInternal.isRefreshing shouldBe true
+
+        captor.value.onSuccess(REQUEST_ID, mockResponseModel)
+
+        verify(mockResponseHandler, times(1)).processResponse(mockResponseModel)
+        verify(mockCompletionListener1).onCompleted(null)
+        verify(mockCompletionListener2).onCompleted(null)
+        refreshTokenInternal.isRefreshing shouldBe false
+    }
+
+    @Test
+    fun testRefreshContactToken_startsNewRefresh_afterPreviousCompleted() {
+        refreshTokenInternal.refreshContactToken(mock(CompletionListener::class.java))
+
+        val captor = ArgumentCaptor.forClass(CoreCompletionHandler::class.java)
+        verify(mockRestClient).execute(eq(mockRequestModel), captor.capture(), eq(NetworkLane.INTERACTIVE))
+        captor.value.onError(REQUEST_ID, Exception())
+
+        refreshTokenInternal.refreshContactToken(mock(CompletionListener::class.java))
+
+        verify(mockRestClient, times(2)).execute(eq(mockRequestModel), any(CoreCompletionHandler::class.java), eq(NetworkLane.INTERACTIVE))
+    }
+
+    @Test
+    fun testRefreshContactToken_failsEveryWaitingListener() {
+        val mockCompletionListener1 = mock(CompletionListener::class.java)
+        val mockCompletionListener2 = mock(CompletionListener::class.java)
+        val cause = Exception()
+
+        refreshTokenInternal.refreshContactToken(mockCompletionListener1)
+        refreshTokenInternal.refreshContactToken(mockCompletionListener2)
+
+        val captor = ArgumentCaptor.forClass(CoreCompletionHandler::class.java)
+        verify(mockRestClient).execute(eq(mockRequestModel), captor.capture(), eq(NetworkLane.INTERACTIVE))
+        captor.value.onError(REQUEST_ID, cause)
+
+        verify(mockCompletionListener1).onCompleted(cause)
+        verify(mockCompletionListener2).onCompleted(cause)
+    }
+
+    @Test
+    fun testRefreshContactToken_runsOnRefreshCompleted_onCoreSdkHandler() {
+        refreshTokenInternal.refreshContactToken(mock(CompletionListener::class.java))
+
+        val captor = ArgumentCaptor.forClass(CoreCompletionHandler::class.java)
+        verify(mockRestClient).execute(eq(mockRequestModel), captor.capture(), eq(NetworkLane.INTERACTIVE))
+        verifyZeroInteractions(mockOnRefreshCompleted)
+
+        captor.value.onError(REQUEST_ID, Exception())
+        HandlerUtils.waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockOnRefreshCompleted).run()
+    }
+
+    @Test
+    @Suppress("UNCHECKED_CAST")
+    fun testRefreshContactToken_heldRequestIsDispatched_afterRefreshSucceeded() {
+        val heldModel = RequestModel("${Endpoint.ME_V3_CLIENT_HOST}/v3/apps/appCode/client/events", RequestMethod.POST, null, mapOf(), 0, Long.MAX_VALUE, "heldId")
+        val mockRepository = mock(Repository::class.java) as Repository<RequestModel, SqlSpecification>
+        whenever(mockRepository.query(any(QueryNextRequestModels::class.java))).thenReturn(listOf(heldModel))
+        val mockProxyProvider = mock(CompletionHandlerProxyProvider::class.java).apply {
+            whenever(provideProxy(any(Worker::class.java), any(RequestModel::class.java))).thenReturn(mock(CoreCompletionHandler::class.java))
+        }
+        val worker = PipelinedWorker(
+                mockRepository,
+                mock(ConnectionWatchDog::class.java).apply { whenever(isConnected).thenReturn(true) },
+                Handler(Looper.getMainLooper()),
+                mock(CoreCompletionHandler::class.java),
+                mockRestClient,
+                mockProxyProvider,
+                mock(RetryScheduler::class.java),
+                Predicate<RequestModel> { false },
+                1)
+        refreshTokenInternal = MobileEngageRefreshTokenInternal(mockResponseHandler, mockRestClient, mockRequestModelFactory, coreSdkHandler, Runnable { worker.run() })
+        worker.addHoldPredicates(listOf(PendingTokenRefreshPredicate(refreshTokenInternal)))
+
+        refreshTokenInternal.refreshContactToken(mock(CompletionListener::class.java))
+        worker.run()
+
+        val captor = ArgumentCaptor.forClass(CoreCompletionHandler::class.java)
+        verify(mockRestClient).execute(eq(mockRequestModel), captor.capture(), eq(NetworkLane.INTERACTIVE))
+        verify(mockRestClient, never()).execute(eq(heldModel), any(CoreCompletionHandler::class.java))
+
+        captor.value.onSuccess(REQUEST_ID, mock(ResponseModel::class.java))
+        HandlerUtils.waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockRestClient).execute(eq(heldModel), any(CoreCompletionHandler::class.java))
+    }
+}
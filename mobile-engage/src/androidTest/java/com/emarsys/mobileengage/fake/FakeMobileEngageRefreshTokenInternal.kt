@@ -12,4 +12,6 @@ class FakeMobileEngageRefreshTokenInternal(private val success: Boolean = false)
             completionListener.onCompleted(Exception())
         }
     }
+
+    override fun isRefreshing() = false
 }
@@ -8,6 +8,7 @@ import com.emarsys.core.api.ResponseErrorException
 import com.emarsys.core.api.result.CompletionListener
 import com.emarsys.core.api.result.ResultListener
 import com.emarsys.core.api.result.Try
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
 import com.emarsys.core.database.repository.Repository
 import com.emarsys.core.database.repository.SqlSpecification
 import com.emarsys.core.device.DeviceInfo
@@ -42,6 +43,7 @@ import io.kotlintest.shouldBe
 import org.json.JSONObject
 import org.junit.*
 import org.junit.rules.TestRule
+import org.mockito.ArgumentCaptor
 import org.mockito.ArgumentMatchers.*
 import org.mockito.Mockito.mock
 import org.mockito.Mockito.verify
@@ -64,6 +66,7 @@ class DefaultInboxInternalTest {
     private lateinit var defaultHeaders: Map<String, String>
     private lateinit var mockRequestManager: RequestManager
     private lateinit var latch: CountDownLatch
+    private lateinit var coreSdkHandler: Handler
     private lateinit var inbox: DefaultInboxInternal
 
     private lateinit var application: Application
@@ -86,6 +89,7 @@ class DefaultInboxInternalTest {
     @Suppress("UNCHECKED_CAST")
     fun init() {
         latch = CountDownLatch(1)
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
 
         application = InstrumentationRegistry.getTargetContext().applicationContext as Application
 
@@ -137,6 +141,7 @@ class DefaultInboxInternalTest {
 
     @After
     fun tearDown() {
+        coreSdkHandler.looper.quit()
         SharedPrefsUtils.clearSharedPrefs("emarsys_shared_preferences")
     }
 
@@ -169,6 +174,22 @@ class DefaultInboxInternalTest {
 
     }
 
+    @Test
+    fun testFetchNotifications_callsListenerOnMainThread_whenResponseArrivesOnCoreSdkThread() {
+        val listener = FakeInboxResultListener(latch, Mode.MAIN_THREAD)
+        inbox.fetchNotifications(listener)
+        val completionHandlerCaptor = ArgumentCaptor.forClass(CoreCompletionHandler::class.java)
+        verify(mockRequestManager).submitNow(any(), completionHandlerCaptor.capture())
+
+        coreSdkHandler.post {
+            completionHandlerCaptor.value.onSuccess(REQUEST_ID, createSuccessResponse())
+        }
+
+        latch.await()
+
+        listener.successCount shouldBe 1
+    }
+
     @Test
     fun testFetchNotifications_listener_success() {
         inbox = DefaultInboxInternal(
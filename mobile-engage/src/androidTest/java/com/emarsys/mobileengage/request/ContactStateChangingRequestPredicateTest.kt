@@ -0,0 +1,59 @@
+package com.emarsys.mobileengage.request
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.mobileengage.endpoint.Endpoint
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import java.net.URL
+
+class ContactStateChangingRequestPredicateTest {
+
+    private lateinit var predicate: ContactStateChangingRequestPredicate
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        predicate = ContactStateChangingRequestPredicate()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testEvaluate_requestModel_mustNotBeNull() {
+        predicate.evaluate(null)
+    }
+
+    @Test
+    fun testEvaluate_true_whenItIsMobileEngageClientRequest() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL(Endpoint.ME_V3_CLIENT_BASE + "/contact"))
+        }
+
+        predicate.evaluate(mockRequestModel) shouldBe true
+    }
+
+    @Test
+    fun testEvaluate_false_whenItIsCustomEvent() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL(Endpoint.ME_V3_EVENT_BASE))
+        }
+
+        predicate.evaluate(mockRequestModel) shouldBe false
+    }
+
+    @Test
+    fun testEvaluate_false_whenItIsNotMobileEngage() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL("https://not-mobile-engage.com"))
+        }
+
+        predicate.evaluate(mockRequestModel) shouldBe false
+    }
+}
@@ -2,6 +2,7 @@ package com.emarsys.mobileengage.request
 
 import com.emarsys.core.request.RestClient
 import com.emarsys.core.request.factory.CoreCompletionHandlerMiddlewareProvider
+import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.storage.Storage
 import com.emarsys.core.worker.CoreCompletionHandlerMiddleware
 import com.emarsys.core.worker.Worker
@@ -61,16 +62,22 @@ class CoreCompletionHandlerRefreshTokenProxyProviderTest {
 
     @Test(expected = IllegalArgumentException::class)
     fun testProvideCoreCompletionHandlerRefreshTokenProxy_worker_mustNotBeNull() {
-        coreCompletionHandlerRefreshTokenProxyProvider.provideProxy(null)
+        coreCompletionHandlerRefreshTokenProxyProvider.provideProxy(null, mock(RequestModel::class.java))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testProvideCoreCompletionHandlerRefreshTokenProxy_requestModel_mustNotBeNull() {
+        coreCompletionHandlerRefreshTokenProxyProvider.provideProxy(mock(Worker::class.java), null)
     }
 
     @Test
     fun testProvideCoreCompletionHandlerRefreshTokenProxy() {
         val mockWorker = mock(Worker::class.java)
-        whenever(mockCoreCompletionHandlerMiddlewareProvider.provideProxy(mockWorker)).thenReturn(mockCoreCompletionHandlerMiddleware)
+        val mockRequestModel = mock(RequestModel::class.java)
+        whenever(mockCoreCompletionHandlerMiddlewareProvider.provideProxy(mockWorker, mockRequestModel)).thenReturn(mockCoreCompletionHandlerMiddleware)
         val expectedProxy = CoreCompletionHandlerRefreshTokenProxy(mockCoreCompletionHandlerMiddleware, mockRefreshTokenInternal, mockRestClient, mockContactTokenStorage)
 
-        val result = coreCompletionHandlerRefreshTokenProxyProvider.provideProxy(mockWorker)
+        val result = coreCompletionHandlerRefreshTokenProxyProvider.provideProxy(mockWorker, mockRequestModel)
 
         result shouldBe expectedProxy
     }
@@ -1,4 +1,4 @@
-package com.emarsys.mobileengage.iam.model.requestRepositoryProxy;
+package com.emarsys.mobileengage.request;
 
 import android.content.Context;
 
@@ -10,13 +10,18 @@ import com.emarsys.core.database.repository.specification.Everything;
 import com.emarsys.core.database.trigger.TriggerKey;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.provider.uuid.UUIDProvider;
+import com.emarsys.core.request.coalescing.CoalescingRequestRepository;
+import com.emarsys.core.request.coalescing.CoalescingStrategy;
 import com.emarsys.core.request.model.CompositeRequestModel;
 import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.request.model.RequestModelRepository;
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
+import com.emarsys.core.util.JsonStreamWriter;
+import com.emarsys.core.util.RawJson;
 import com.emarsys.core.util.TimestampUtils;
 import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.endpoint.Endpoint;
 import com.emarsys.mobileengage.iam.InAppEventHandlerInternal;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClickedRepository;
@@ -45,19 +50,18 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
-public class RequestRepositoryProxyTest {
+public class CustomEventCoalescingStrategyTest {
 
     public static final long TIMESTAMP = 80_000L;
     public static final String REQUEST_ID = "REQUEST_ID";
+    public static final int MAX_BATCH_SIZE = 10;
 
     private RequestContext mockRequestContext;
 
-    private Repository<RequestModel, SqlSpecification> mockRequestModelRepository;
     private Repository<DisplayedIam, SqlSpecification> mockDisplayedIamRepository;
     private Repository<ButtonClicked, SqlSpecification> mockButtonClickedRepository;
 
@@ -68,7 +72,8 @@ public class RequestRepositoryProxyTest {
     private TimestampProvider timestampProvider;
     private InAppEventHandlerInternal inAppEventHandlerInternal;
 
-    private RequestRepositoryProxy compositeRepository;
+    private CustomEventCoalescingStrategy strategy;
+    private CoalescingRequestRepository compositeRepository;
     private UUIDProvider uuidProvider;
 
     @Rule
@@ -83,7 +88,6 @@ public class RequestRepositoryProxyTest {
 
         mockRequestContext = mock(RequestContext.class);
 
-        mockRequestModelRepository = mock(Repository.class);
         mockDisplayedIamRepository = mock(Repository.class);
         mockButtonClickedRepository = mock(Repository.class);
         when(mockRequestContext.getApplicationCode()).thenReturn("applicationCode");
@@ -102,86 +106,41 @@ public class RequestRepositoryProxyTest {
 
         inAppEventHandlerInternal = mock(InAppEventHandlerInternal.class);
 
-        compositeRepository = new RequestRepositoryProxy(
-                mockRequestModelRepository,
+        strategy = new CustomEventCoalescingStrategy(
                 mockDisplayedIamRepository,
                 mockButtonClickedRepository,
-                timestampProvider,
-                uuidProvider,
-                inAppEventHandlerInternal);
-    }
-
-    @Test(expected = IllegalArgumentException.class)
-    public void testConstructor_requestRepository_mustNotBeNull() {
-        new RequestRepositoryProxy(null, mockDisplayedIamRepository, mockButtonClickedRepository, timestampProvider, uuidProvider, inAppEventHandlerInternal);
+                inAppEventHandlerInternal,
+                MAX_BATCH_SIZE);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_displayedIamRepository_mustNotBeNull() {
-        new RequestRepositoryProxy(mockRequestModelRepository, null, mockButtonClickedRepository, timestampProvider, uuidProvider, inAppEventHandlerInternal);
+        new CustomEventCoalescingStrategy(null, mockButtonClickedRepository, inAppEventHandlerInternal, MAX_BATCH_SIZE);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_buttonClickedRepository_mustNotBeNull() {
-        new RequestRepositoryProxy(mockRequestModelRepository, mockDisplayedIamRepository, null, timestampProvider, uuidProvider, inAppEventHandlerInternal);
-    }
-
-    @Test(expected = IllegalArgumentException.class)
-    public void testConstructor_timestampProvider_mustNotBeNull() {
-        new RequestRepositoryProxy(mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, null, uuidProvider, inAppEventHandlerInternal);
+        new CustomEventCoalescingStrategy(mockDisplayedIamRepository, null, inAppEventHandlerInternal, MAX_BATCH_SIZE);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_inAppInternal_mustNotBeNull() {
-        new RequestRepositoryProxy(mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, timestampProvider, uuidProvider, null);
+        new CustomEventCoalescingStrategy(mockDisplayedIamRepository, mockButtonClickedRepository, null, MAX_BATCH_SIZE);
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void testConstructor_uuidProvider_mustNotBeNull() {
-        new RequestRepositoryProxy(mockRequestModelRepository, mockDisplayedIamRepository, buttonClickedRepository, timestampProvider, null, inAppEventHandlerInternal);
+    public void testConstructor_maxBatchSize_mustBeGreaterThanZero() {
+        new CustomEventCoalescingStrategy(mockDisplayedIamRepository, mockButtonClickedRepository, inAppEventHandlerInternal, 0);
     }
 
     @Test
-    public void testAdd_shouldDelegate_toRequestModelRepository() {
-        RequestModel requestModel = mock(RequestModel.class);
-
-        compositeRepository.add(requestModel);
-
-        verify(mockRequestModelRepository).add(requestModel);
+    public void testGetUrlPattern() {
+        assertEquals(Endpoint.ME_V3_EVENT_HOST + "%", strategy.getUrlPattern());
     }
 
     @Test
-    public void testAdd_shouldNotStoreCompositeRequestModels() {
-        CompositeRequestModel requestModel = mock(CompositeRequestModel.class);
-
-        compositeRepository.add(requestModel);
-
-        verifyZeroInteractions(mockRequestModelRepository);
-    }
-
-    @Test
-    public void testRemove_shouldDelegate_toRequestModelRepository() {
-        SqlSpecification spec = mock(SqlSpecification.class);
-
-        compositeRepository.remove(spec);
-
-        verify(mockRequestModelRepository).remove(spec);
-    }
-
-    @Test
-    public void testIsEmpty_whenEmpty_shouldDelegate_toRequestModelRepository() {
-        when(mockRequestModelRepository.isEmpty()).thenReturn(true);
-
-        assertTrue(compositeRepository.isEmpty());
-        verify(mockRequestModelRepository).isEmpty();
-    }
-
-    @Test
-    public void testIsEmpty_whenNotEmpty_shouldDelegate_toRequestModelRepository() {
-        when(mockRequestModelRepository.isEmpty()).thenReturn(false);
-
-        assertFalse(compositeRepository.isEmpty());
-        verify(mockRequestModelRepository).isEmpty();
+    public void testGetMaxBatchSize() {
+        assertEquals(MAX_BATCH_SIZE, strategy.getMaxBatchSize());
     }
 
     @Test
@@ -454,15 +413,88 @@ public class RequestRepositoryProxyTest {
         assertNull(payload.get("dnd"));
     }
 
-    private RequestRepositoryProxy compositeRepositoryWithRealRepositories() {
-        return new RequestRepositoryProxy(
+    @Test
+    public void testQuery_compositeShouldCarryHighestAttempt_ofOriginalRequests() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+
+        RequestModel customEvent1 = new RequestModel.Builder(customEvent_V3(900, "event1")).attempt(1).build();
+        RequestModel customEvent2 = new RequestModel.Builder(customEvent_V3(1000, "event2")).attempt(3).build();
+        requestModelRepository.add(customEvent1);
+        requestModelRepository.add(customEvent2);
+
+        List<RequestModel> result = compositeRepository.query(new Everything());
+
+        assertEquals(3, result.get(0).getAttempt());
+    }
+
+    @Test
+    public void testQuery_compositeShouldContainAtMostMaxBatchSizeCustomEvents() {
+        compositeRepository = compositeRepositoryWithRealRepositories(2);
+
+        RequestModel customEvent1 = customEvent_V3(900, "event1");
+        RequestModel customEvent2 = customEvent_V3(1000, "event2");
+        RequestModel customEvent3 = customEvent_V3(1200, "event3");
+        requestModelRepository.add(customEvent1);
+        requestModelRepository.add(customEvent2);
+        requestModelRepository.add(customEvent3);
+
+        List<RequestModel> result = compositeRepository.query(new Everything());
+
+        assertEquals(1, result.size());
+        assertTrue(Arrays.equals(
+                new String[]{customEvent1.getId(), customEvent2.getId()},
+                ((CompositeRequestModel) result.get(0)).getOriginalRequestIds()));
+        assertEquals(2, ((List) result.get(0).getPayload().get("events")).size());
+    }
+
+    @Test
+    public void testQuery_compositeShouldSplicePreEncodedEvents_withoutDecodingThem() {
+        compositeRepository = compositeRepositoryWithRealRepositories();
+
+        RequestModel customEvent1 = new RequestModel.Builder(customEvent_V3(900, "event1")).encodeBody().build();
+        RequestModel customEvent2 = customEvent_V3(1000, "event2");
+        requestModelRepository.add(customEvent1);
+        requestModelRepository.add(customEvent2);
+
+        Map<String, Object> event1 = new HashMap<>();
+        event1.put("type", "custom");
+        event1.put("name", "event1");
+        event1.put("timestamp", TimestampUtils.formatTimestampWithUTC(900));
+
+        Map<String, Object> event2 = new HashMap<>();
+        event2.put("type", "custom");
+        event2.put("name", "event2");
+        event2.put("timestamp", TimestampUtils.formatTimestampWithUTC(1000));
+
+        Map<String, Object> expectedPayload = RequestPayloadUtils.createCompositeRequestModelPayload(
+                Arrays.asList(event1, event2),
+                Collections.<DisplayedIam>emptyList(),
+                Collections.<ButtonClicked>emptyList(),
+                false);
+
+        List<RequestModel> result = compositeRepository.query(new Everything());
+        List events = (List) result.get(0).getPayload().get("events");
+
+        assertTrue(events.get(0) instanceof RawJson);
+        assertFalse(events.get(1) instanceof RawJson);
+        assertArrayEquals(JsonStreamWriter.toByteArray(expectedPayload), JsonStreamWriter.toByteArray(result.get(0).getPayload()));
+    }
+
+    private CoalescingRequestRepository compositeRepositoryWithRealRepositories() {
+        return compositeRepositoryWithRealRepositories(MAX_BATCH_SIZE);
+    }
+
+    private CoalescingRequestRepository compositeRepositoryWithRealRepositories(int maxBatchSize) {
+        CoalescingRequestRepository repository = new CoalescingRequestRepository(
                 requestModelRepository,
+                timestampProvider,
+                uuidProvider);
+        repository.addStrategies(Collections.<CoalescingStrategy>singletonList(new CustomEventCoalescingStrategy(
                 displayedIamRepository,
                 buttonClickedRepository,
-                timestampProvider,
-                uuidProvider,
-                inAppEventHandlerInternal
-        );
+                inAppEventHandlerInternal,
+                maxBatchSize)));
+        return repository;
     }
 
     private RequestModel customEvent_V3(long timestamp, String eventName) {
@@ -0,0 +1,274 @@
+package com.emarsys.mobileengage.request
+
+import com.emarsys.core.device.DeviceInfo
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.CompositeRequestModel
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.storage.Storage
+import com.emarsys.mobileengage.RequestContext
+import com.emarsys.mobileengage.endpoint.Endpoint
+import com.emarsys.mobileengage.util.RequestHeaderUtils
+import com.emarsys.mobileengage.util.RequestPayloadUtils
+import com.emarsys.mobileengage.util.RequestUrlUtils
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.verifyNoMoreInteractions
+import org.mockito.Mockito.verifyZeroInteractions
+import java.net.HttpURLConnection
+
+class MobileEngageHeaderInjectorTest {
+
+    private companion object {
+        const val CLIENT_STATE = "aslfjasglsdlfk"
+        const val CONTACT_TOKEN = "contact-token"
+        const val REFRESH_TOKEN = "refresh-token"
+        const val TIMESTAMP = 123456789L
+        const val REQUEST_ID = "request_id"
+        const val HARDWARE_ID = "hwid"
+    }
+
+    private lateinit var headerInjector: MobileEngageHeaderInjector
+    private lateinit var mockConnection: HttpURLConnection
+
+    private lateinit var mockRequestContext: RequestContext
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var mockUuidProvider: UUIDProvider
+    private lateinit var mockClientStateStorage: Storage<String>
+    private lateinit var mockContactTokenStorage: Storage<String>
+    private lateinit var mockRefreshTokenStorage: Storage<String>
+    private lateinit var mockDeviceInfo: DeviceInfo
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    @Suppress("UNCHECKED_CAST")
+    fun setUp() {
+
+        mockClientStateStorage = (mock(Storage::class.java) as Storage<String>).apply {
+            whenever(get()).thenReturn(CLIENT_STATE)
+        }
+
+        mockContactTokenStorage = (mock(Storage::class.java) as Storage<String>).apply {
+            whenever(get()).thenReturn(CONTACT_TOKEN)
+        }
+
+        mockRefreshTokenStorage = (mock(Storage::class.java) as Storage<String>).apply {
+            whenever(get()).thenReturn(REFRESH_TOKEN)
+        }
+
+        mockDeviceInfo = mock(DeviceInfo::class.java).apply {
+            whenever(hwid).thenReturn(HARDWARE_ID)
+        }
+
+        mockUuidProvider = mock(UUIDProvider::class.java).apply {
+            whenever(provideId()).thenReturn(REQUEST_ID)
+        }
+        mockTimestampProvider = mock(TimestampProvider::class.java).apply {
+            whenever(provideTimestamp()).thenReturn(TIMESTAMP)
+        }
+
+        mockRequestContext = mock(RequestContext::class.java).apply {
+            whenever(timestampProvider).thenReturn(mockTimestampProvider)
+            whenever(uuidProvider).thenReturn(mockUuidProvider)
+            whenever(deviceInfo).thenReturn(mockDeviceInfo)
+            whenever(clientStateStorage).thenReturn(mockClientStateStorage)
+            whenever(contactTokenStorage).thenReturn(mockContactTokenStorage)
+            whenever(refreshTokenStorage).thenReturn(mockRefreshTokenStorage)
+        }
+
+        mockConnection = mock(HttpURLConnection::class.java)
+
+        headerInjector = MobileEngageHeaderInjector(mockRequestContext)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_requestContext_mustNotBeNull() {
+        MobileEngageHeaderInjector(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testInjectHeaders_requestModel_mustNotBeNull() {
+        headerInjector.injectHeaders(null, mockConnection)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testInjectHeaders_connection_mustNotBeNull() {
+        headerInjector.injectHeaders(createMobileEngageRequest(), null)
+    }
+
+    @Test
+    fun testInjectHeaders_shouldAddHeaders_whenRequestIsForMobileEngage() {
+        headerInjector.injectHeaders(createMobileEngageRequest(), mockConnection)
+
+        verify(mockConnection).setRequestProperty("X-Client-State", CLIENT_STATE)
+        verify(mockConnection).setRequestProperty("X-Contact-Token", CONTACT_TOKEN)
+        verify(mockConnection).setRequestProperty("X-Request-Order", TIMESTAMP.toString())
+        verifyNoMoreInteractions(mockConnection)
+    }
+
+    @Test
+    fun testInjectHeaders_shouldLeaveOutContactTokenHeader_whenValueIsMissing() {
+        whenever(mockContactTokenStorage.get()).thenReturn(null)
+
+        headerInjector.injectHeaders(createMobileEngageRequest(), mockConnection)
+
+        verify(mockConnection).setRequestProperty("X-Client-State", CLIENT_STATE)
+        verify(mockConnection).setRequestProperty("X-Request-Order", TIMESTAMP.toString())
+        verifyNoMoreInteractions(mockConnection)
+    }
+
+    @Test
+    fun testInjectHeaders_shouldLeaveOutContactTokenHeader_whenRequestIsRefreshContactToken() {
+        headerInjector.injectHeaders(createRefreshContactTokenRequest(), mockConnection)
+
+        verify(mockConnection).setRequestProperty("X-Client-State", CLIENT_STATE)
+        verify(mockConnection).setRequestProperty("X-Request-Order", TIMESTAMP.toString())
+        verifyNoMoreInteractions(mockConnection)
+    }
+
+    @Test
+    fun testInjectHeaders_shouldLeaveOutClientStateHeader_whenValueIsMissing() {
+        whenever(mockClientStateStorage.get()).thenReturn(null)
+
+        headerInjector.injectHeaders(createMobileEngageRequest(), mockConnection)
+
+        verify(mockConnection).setRequestProperty("X-Contact-Token", CONTACT_TOKEN)
+        verify(mockConnection).setRequestProperty("X-Request-Order", TIMESTAMP.toString())
+        verifyNoMoreInteractions(mockConnection)
+    }
+
+    @Test
+    fun testInjectHeaders_shouldIgnoreRequest_whenRequestWasNotForMobileEngage() {
+        headerInjector.injectHeaders(createNonMobileEngageRequest(), mockConnection)
+
+        verifyZeroInteractions(mockConnection)
+    }
+
+    @Test
+    fun testInjectHeaders_shouldAddHeaders_whenCompositeRequestIsForMobileEngage() {
+        headerInjector.injectHeaders(createCustomEventCompositeRequest(), mockConnection)
+
+        verify(mockConnection).setRequestProperty("X-Client-State", CLIENT_STATE)
+        verify(mockConnection).setRequestProperty("X-Contact-Token", CONTACT_TOKEN)
+        verify(mockConnection).setRequestProperty("X-Request-Order", TIMESTAMP.toString())
+        verifyNoMoreInteractions(mockConnection)
+    }
+
+    @Test
+    fun testInjectHeaders_shouldNotModifyRequestModel() {
+        val requestModel = createMobileEngageRequest()
+
+        headerInjector.injectHeaders(requestModel, mockConnection)
+
+        requestModel shouldBe createMobileEngageRequest()
+    }
+
+    @Test
+    fun testGetHeaderProfile_isReused_whileStateIsUnchanged() {
+        val profile = headerInjector.getHeaderProfile(createMobileEngageRequest())
+
+        assertSame(profile, headerInjector.getHeaderProfile(createMobileEngageRequest()))
+        assertSame(profile, headerInjector.getHeaderProfile(createCustomEventCompositeRequest()))
+    }
+
+    @Test
+    fun testGetHeaderProfile_readsStoragesOnlyOnce_whileNotInvalidated() {
+        headerInjector.getHeaderProfile(createMobileEngageRequest())
+        headerInjector.getHeaderProfile(createRefreshContactTokenRequest())
+        headerInjector.getHeaderProfile(createMobileEngageRequest())
+
+        verify(mockClientStateStorage, times(1)).get()
+        verify(mockContactTokenStorage, times(1)).get()
+    }
+
+    @Test
+    fun testGetHeaderProfile_keepsProfile_whenStorageChangesWithoutInvalidation() {
+        val profile = headerInjector.getHeaderProfile(createMobileEngageRequest())
+
+        whenever(mockClientStateStorage.get()).thenReturn("new-client-state")
+
+        assertSame(profile, headerInjector.getHeaderProfile(createMobileEngageRequest()))
+    }
+
+    @Test
+    fun testGetHeaderProfile_isRebuilt_afterInvalidate_whenClientStateChanges() {
+        val profile = headerInjector.getHeaderProfile(createMobileEngageRequest())
+
+        whenever(mockClientStateStorage.get()).thenReturn("new-client-state")
+        headerInjector.invalidate()
+
+        val result = headerInjector.getHeaderProfile(createMobileEngageRequest())
+
+        assertNotSame(profile, result)
+        result.headers shouldBe mapOf("X-Client-State" to "new-client-state", "X-Contact-Token" to CONTACT_TOKEN)
+    }
+
+    @Test
+    fun testGetHeaderProfile_isRebuilt_afterInvalidate_whenContactTokenChanges() {
+        val profile = headerInjector.getHeaderProfile(createMobileEngageRequest())
+
+        whenever(mockContactTokenStorage.get()).thenReturn("new-contact-token")
+        headerInjector.invalidate()
+
+        val result = headerInjector.getHeaderProfile(createMobileEngageRequest())
+
+        assertNotSame(profile, result)
+        result.headers shouldBe mapOf("X-Client-State" to CLIENT_STATE, "X-Contact-Token" to "new-contact-token")
+    }
+
+    private fun createMobileEngageRequest(extraHeaders: Map<String, String> = mapOf()) = RequestModel(
+            Endpoint.ME_V3_CLIENT_BASE,
+            RequestMethod.POST,
+            null,
+            RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext) + extraHeaders,
+            TIMESTAMP,
+            Long.MAX_VALUE,
+            REQUEST_ID
+    )
+
+
+    private fun createRefreshContactTokenRequest(extraHeaders: Map<String, String> = mapOf()) = RequestModel(
+            RequestUrlUtils.createRefreshContactTokenUrl(mockRequestContext),
+            RequestMethod.POST,
+            RequestPayloadUtils.createRefreshContactTokenPayload(mockRequestContext),
+            RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext) + extraHeaders,
+            TIMESTAMP,
+            Long.MAX_VALUE,
+            REQUEST_ID
+    )
+
+    private fun createCustomEventCompositeRequest(extraHeaders: Map<String, String> = mapOf()) = CompositeRequestModel(
+            "0",
+            Endpoint.ME_V3_CLIENT_BASE,
+            RequestMethod.POST,
+            null,
+            RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext) + extraHeaders,
+            TIMESTAMP,
+            Long.MAX_VALUE,
+            arrayOf(REQUEST_ID)
+    )
+
+    private fun createNonMobileEngageRequest() = RequestModel(
+            "https://not-mobile-engage.com",
+            RequestMethod.POST,
+            null,
+            RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
+            TIMESTAMP,
+            Long.MAX_VALUE,
+            REQUEST_ID
+    )
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.emarsys.mobileengage.request
+
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.mobileengage.RefreshTokenInternal
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.Mockito.mock
+
+class PendingTokenRefreshPredicateTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockRefreshTokenInternal: RefreshTokenInternal
+    private lateinit var predicate: PendingTokenRefreshPredicate
+
+    @Before
+    fun setUp() {
+        mockRefreshTokenInternal = mock(RefreshTokenInternal::class.java)
+        predicate = PendingTokenRefreshPredicate(mockRefreshTokenInternal)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_refreshTokenInternal_mustNotBeNull() {
+        PendingTokenRefreshPredicate(null)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testEvaluate_requestModel_mustNotBeNull() {
+        predicate.evaluate(null)
+    }
+
+    @Test
+    fun testEvaluate_returnsTrue_forV3Request_whileRefreshing() {
+        whenever(mockRefreshTokenInternal.isRefreshing).thenReturn(true)
+
+        predicate.evaluate(createRequestModel("https://mobile-events.eservice.emarsys.net/v3/apps/code/client/events")) shouldBe true
+    }
+
+    @Test
+    fun testEvaluate_returnsFalse_forV3Request_whenNotRefreshing() {
+        whenever(mockRefreshTokenInternal.isRefreshing).thenReturn(false)
+
+        predicate.evaluate(createRequestModel("https://mobile-events.eservice.emarsys.net/v3/apps/code/client/events")) shouldBe false
+    }
+
+    @Test
+    fun testEvaluate_returnsFalse_forOtherRequests_whileRefreshing() {
+        whenever(mockRefreshTokenInternal.isRefreshing).thenReturn(true)
+
+        predicate.evaluate(createRequestModel("https://recommender.scarabresearch.com/merchants/1")) shouldBe false
+    }
+
+    private fun createRequestModel(url: String) =
+            RequestModel(url, RequestMethod.POST, null, mapOf(), 0, Long.MAX_VALUE, "id")
+}
@@ -6,8 +6,10 @@ import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestPriority
 import com.emarsys.core.storage.Storage
 import com.emarsys.core.storage.StringStorage
+import com.emarsys.core.util.JsonStreamWriter
 import com.emarsys.mobileengage.RequestContext
 import com.emarsys.mobileengage.endpoint.Endpoint.INBOX_FETCH_V1
 import com.emarsys.mobileengage.endpoint.Endpoint.INBOX_RESET_BADGE_COUNT_V1
@@ -103,7 +105,10 @@ class RequestModelFactoryTest {
                 RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
                 TIMESTAMP,
                 Long.MAX_VALUE,
-                REQUEST_ID
+                REQUEST_ID,
+                0,
+                RequestPriority.HIGH,
+                SupersessionKey.PUSH_TOKEN
         )
 
         val result = requestFactory.createSetPushTokenRequest(PUSH_TOKEN)
@@ -120,7 +125,10 @@ class RequestModelFactoryTest {
                 RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
                 TIMESTAMP,
                 Long.MAX_VALUE,
-                REQUEST_ID
+                REQUEST_ID,
+                0,
+                RequestPriority.HIGH,
+                SupersessionKey.PUSH_TOKEN
         )
 
         val result = requestFactory.createRemovePushTokenRequest()
@@ -137,7 +145,10 @@ class RequestModelFactoryTest {
                 RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
                 TIMESTAMP,
                 Long.MAX_VALUE,
-                REQUEST_ID
+                REQUEST_ID,
+                0,
+                RequestPriority.HIGH,
+                SupersessionKey.DEVICE_INFO
         )
         val result = requestFactory.createTrackDeviceInfoRequest()
 
@@ -153,7 +164,10 @@ class RequestModelFactoryTest {
                 RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
                 TIMESTAMP,
                 Long.MAX_VALUE,
-                REQUEST_ID
+                REQUEST_ID,
+                0,
+                RequestPriority.NORMAL,
+                SupersessionKey.CONTACT
         )
         val result = requestFactory.createSetContactRequest("contactFieldValue")
 
@@ -169,7 +183,10 @@ class RequestModelFactoryTest {
                 RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
                 TIMESTAMP,
                 Long.MAX_VALUE,
-                REQUEST_ID
+                REQUEST_ID,
+                0,
+                RequestPriority.NORMAL,
+                SupersessionKey.CONTACT
         )
         val result = requestFactory.createSetContactRequest(null)
 
@@ -183,14 +200,19 @@ class RequestModelFactoryTest {
 
     @Test
     fun testCreateCustomEventRequest() {
+        val payload = RequestPayloadUtils.createCustomEventPayload("eventName", emptyMap(), mockRequestContext)
         val expected = RequestModel(
                 RequestUrlUtils.createCustomEventUrl(mockRequestContext),
                 RequestMethod.POST,
-                RequestPayloadUtils.createCustomEventPayload("eventName", emptyMap(), mockRequestContext),
+                payload,
                 RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
                 TIMESTAMP,
                 Long.MAX_VALUE,
-                REQUEST_ID
+                REQUEST_ID,
+                0,
+                RequestPriority.NORMAL,
+                null,
+                JsonStreamWriter.toByteArray(payload)
         )
 
         val result = requestFactory.createCustomEventRequest("eventName", emptyMap())
@@ -205,14 +227,19 @@ class RequestModelFactoryTest {
 
     @Test
     fun testCreateInternalCustomEventRequest() {
+        val payload = RequestPayloadUtils.createInternalCustomEventPayload("eventName", emptyMap(), mockRequestContext)
         val expected = RequestModel(
                 RequestUrlUtils.createCustomEventUrl(mockRequestContext),
                 RequestMethod.POST,
-                RequestPayloadUtils.createInternalCustomEventPayload("eventName", emptyMap(), mockRequestContext),
+                payload,
                 RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
                 TIMESTAMP,
                 Long.MAX_VALUE,
-                REQUEST_ID
+                REQUEST_ID,
+                0,
+                RequestPriority.NORMAL,
+                null,
+                JsonStreamWriter.toByteArray(payload)
         )
 
         val result = requestFactory.createInternalCustomEventRequest("eventName", emptyMap())
@@ -73,4 +73,25 @@ class ClientInfoResponseHandlerTest {
 
         verify(mockDeviceInfoHashStorage).set(12345)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testIsBodyRequired_false() {
+        clientInfoResponseHandler.isBodyRequired(mockRequestModel) shouldBe false
+    }
+
+    @Test
+    fun testGetRoute_matchesClientResponses() {
+        clientInfoResponseHandler.route.matches(createResponseModel("https://me-client.eservice.emarsys.net/v3/apps/EMS12-34567/client")) shouldBe true
+    }
+
+    @Test
+    fun testGetRoute_doesNotMatchOtherResponses() {
+        clientInfoResponseHandler.route.matches(createResponseModel("https://me-client.eservice.emarsys.net/v3/apps/EMS12-34567/client/contact")) shouldBe false
+        clientInfoResponseHandler.route.matches(createResponseModel("https://mobile-events.eservice.emarsys.net/v3/apps/EMS12-34567/client")) shouldBe false
+    }
+
+    private fun createResponseModel(url: String, headers: Map<String, String> = mapOf()) =
+            ResponseModel(200, "", headers, mapOf(), null, 0, mock(RequestModel::class.java).apply {
+                whenever(this.url).thenReturn(URL(url))
+            })
+}
@@ -14,11 +14,19 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.net.HttpCookie;
 import java.net.URL;
+import java.util.Collections;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -42,6 +50,13 @@ public class InAppCleanUpResponseHandlerTest {
 
         mockDisplayedIamRepository = mock(Repository.class);
         mockButtonClickRepository = mock(Repository.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ((Runnable) invocation.getArguments()[0]).run();
+                return null;
+            }
+        }).when(mockDisplayedIamRepository).inTransaction(any(Runnable.class));
 
         handler = new InAppCleanUpResponseHandler(mockDisplayedIamRepository, mockButtonClickRepository);
     }
@@ -122,6 +137,17 @@ public class InAppCleanUpResponseHandlerTest {
         verify(mockButtonClickRepository).remove(new FilterByCampaignId("123", "456", "78910"));
     }
 
+    @Test
+    public void testHandleResponse_shouldDelete_inSingleTransaction() {
+        ResponseModel response = buildResponseModel("{'oldCampaigns': ['123']}", mockRequestModel);
+        handler.handleResponse(response);
+
+        InOrder inOrder = inOrder(mockDisplayedIamRepository, mockButtonClickRepository);
+        inOrder.verify(mockDisplayedIamRepository).inTransaction(any(Runnable.class));
+        inOrder.verify(mockDisplayedIamRepository).remove(new FilterByCampaignId("123"));
+        inOrder.verify(mockButtonClickRepository).remove(new FilterByCampaignId("123"));
+    }
+
     private ResponseModel buildResponseModel(String responseBody, RequestModel requestModel) {
         return new ResponseModel.Builder()
                 .statusCode(200)
@@ -131,4 +157,32 @@ public class InAppCleanUpResponseHandlerTest {
                 .build();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testIsBodyRequired_true_forCustomEventRequest() {
+        assertTrue(handler.isBodyRequired(mockRequestModel));
+    }
+
+    @Test
+    public void testIsBodyRequired_false_forOtherRequest() throws Exception {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getUrl()).thenReturn(new URL(Endpoint.ME_V3_CLIENT_BASE));
+
+        assertFalse(handler.isBodyRequired(requestModel));
+    }
+
+    @Test
+    public void testGetRoute_matchesCustomEventResponses() throws Exception {
+        assertTrue(handler.getRoute().matches(createResponseModel("https://mobile-events.eservice.emarsys.net/v3/apps/EMS12-34567/client/events")));
+    }
+
+    @Test
+    public void testGetRoute_doesNotMatchOtherResponses() throws Exception {
+        assertFalse(handler.getRoute().matches(createResponseModel("https://me-client.eservice.emarsys.net/v3/apps/EMS12-34567/client")));
+    }
+
+    private ResponseModel createResponseModel(String url) throws Exception {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getUrl()).thenReturn(new URL(url));
+        return new ResponseModel(200, "", Collections.<String, String>emptyMap(), Collections.<String, HttpCookie>emptyMap(), null, 0, requestModel);
+    }
+}
@@ -10,6 +10,7 @@ import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.provider.uuid.UUIDProvider;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.mobileengage.endpoint.Endpoint;
 import com.emarsys.mobileengage.iam.InAppInternal;
 import com.emarsys.mobileengage.iam.InAppPresenter;
 import com.emarsys.mobileengage.iam.dialog.IamDialog;
@@ -31,6 +32,9 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.ArgumentCaptor;
 
+import java.net.HttpCookie;
+import java.net.URL;
+import java.util.Collections;
 import java.util.List;
 
 import static android.os.Build.VERSION_CODES.KITKAT;
@@ -182,4 +186,37 @@ public class InAppMessageResponseHandlerTest {
                         .build())
                 .build();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIsBodyRequired_true_forMobileEngageRequest() throws Exception {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getUrl()).thenReturn(new URL(Endpoint.ME_V3_EVENT_BASE));
+
+        assertTrue(handler.isBodyRequired(requestModel));
+    }
+
+    @Test
+    public void testIsBodyRequired_false_forOtherRequest() throws Exception {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getUrl()).thenReturn(new URL("https://www.emarsys.com"));
+
+        assertFalse(handler.isBodyRequired(requestModel));
+    }
+
+    @Test
+    public void testGetRoute_matchesMobileEngageResponses() throws Exception {
+        assertTrue(handler.getRoute().matches(createResponseModel("https://mobile-events.eservice.emarsys.net/v3/apps/EMS12-34567/client/events")));
+        assertTrue(handler.getRoute().matches(createResponseModel("https://me-client.eservice.emarsys.net/v3/apps/EMS12-34567/client/contact")));
+    }
+
+    @Test
+    public void testGetRoute_doesNotMatchOtherResponses() throws Exception {
+        assertFalse(handler.getRoute().matches(createResponseModel("https://recommender.scarabresearch.com/merchants/1428C8EE286EC34B/")));
+    }
+
+    private ResponseModel createResponseModel(String url) throws Exception {
+        RequestModel requestModel = mock(RequestModel.class);
+        when(requestModel.getUrl()).thenReturn(new URL(url));
+        return new ResponseModel(200, "", Collections.<String, String>emptyMap(), Collections.<String, HttpCookie>emptyMap(), null, 0, requestModel);
+    }
+}
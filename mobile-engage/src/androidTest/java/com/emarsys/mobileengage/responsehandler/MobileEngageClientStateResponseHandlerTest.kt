@@ -4,6 +4,7 @@ import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.response.ResponseModel
 import com.emarsys.core.storage.Storage
 import com.emarsys.mobileengage.endpoint.Endpoint
+import com.emarsys.mobileengage.request.MobileEngageHeaderInjector
 import com.emarsys.testUtil.TimeoutUtils
 import com.emarsys.testUtil.mockito.whenever
 import io.kotlintest.shouldBe
@@ -22,6 +23,7 @@ class MobileEngageClientStateResponseHandlerTest {
     }
 
     private lateinit var mockStorage: Storage<String>
+    private lateinit var mockHeaderInjector: MobileEngageHeaderInjector
     private lateinit var requestModelMock: RequestModel
     private lateinit var clientStateResponseHandler: MobileEngageClientStateResponseHandler
 
@@ -33,16 +35,22 @@ class MobileEngageClientStateResponseHandlerTest {
     @Suppress("UNCHECKED_CAST")
     fun setUp() {
         mockStorage = Mockito.mock(Storage::class.java) as Storage<String>
+        mockHeaderInjector = Mockito.mock(MobileEngageHeaderInjector::class.java)
 
         requestModelMock = Mockito.mock(RequestModel::class.java).apply {
             whenever(url).thenReturn(URL(Endpoint.ME_V3_CLIENT_BASE))
         }
-        clientStateResponseHandler = MobileEngageClientStateResponseHandler(mockStorage)
+        clientStateResponseHandler = MobileEngageClientStateResponseHandler(mockStorage, mockHeaderInjector)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_clientStateStorage_mustNotBeNull() {
-        MobileEngageClientStateResponseHandler(null)
+        MobileEngageClientStateResponseHandler(null, mockHeaderInjector)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_headerInjector_mustNotBeNull() {
+        MobileEngageClientStateResponseHandler(mockStorage, null)
     }
 
     @Test
@@ -75,6 +83,16 @@ class MobileEngageClientStateResponseHandlerTest {
         verify(mockStorage).set(X_CLIENT_STATE_VALUE)
     }
 
+    @Test
+    fun testHandleResponse_invalidatesHeaderProfiles_afterStoringClientState() {
+        clientStateResponseHandler.handleResponse(responseModelWithClientState())
+
+        Mockito.inOrder(mockStorage, mockHeaderInjector).run {
+            verify(mockStorage).set(X_CLIENT_STATE_VALUE)
+            verify(mockHeaderInjector).invalidate()
+        }
+    }
+
     private fun responseModelWithClientState(): ResponseModel {
         return ResponseModel.Builder()
                 .statusCode(200)
@@ -91,4 +109,26 @@ class MobileEngageClientStateResponseHandlerTest {
                 .requestModel(requestModelMock)
                 .build()
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testIsBodyRequired_false() {
+        clientStateResponseHandler.isBodyRequired(requestModelMock) shouldBe false
+    }
+
+    @Test
+    fun testGetRoute_matchesMobileEngageResponses_withClientState() {
+        clientStateResponseHandler.route.matches(createResponseModel(Endpoint.ME_V3_CLIENT_HOST, mapOf("x-client-state" to "state"))) shouldBe true
+        clientStateResponseHandler.route.matches(createResponseModel(Endpoint.ME_V3_EVENT_HOST, mapOf("X-Client-State" to "state"))) shouldBe true
+    }
+
+    @Test
+    fun testGetRoute_doesNotMatchOtherResponses() {
+        clientStateResponseHandler.route.matches(createResponseModel(Endpoint.ME_V3_CLIENT_HOST)) shouldBe false
+        clientStateResponseHandler.route.matches(createResponseModel("https://www.emarsys.com", mapOf("X-Client-State" to "state"))) shouldBe false
+    }
+
+    private fun createResponseModel(url: String, headers: Map<String, String> = mapOf()) =
+            ResponseModel(200, "", headers, mapOf(), null, 0, Mockito.mock(RequestModel::class.java).apply {
+                whenever(this.url).thenReturn(URL(url))
+            })
+}
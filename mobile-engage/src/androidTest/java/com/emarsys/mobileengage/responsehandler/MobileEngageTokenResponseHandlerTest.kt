@@ -4,6 +4,7 @@ import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.response.ResponseModel
 import com.emarsys.core.storage.Storage
 import com.emarsys.mobileengage.endpoint.Endpoint
+import com.emarsys.mobileengage.request.MobileEngageHeaderInjector
 import com.emarsys.testUtil.TimeoutUtils
 import com.emarsys.testUtil.mockito.whenever
 import io.kotlintest.shouldBe
@@ -11,6 +12,7 @@ import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
+import org.mockito.Mockito.inOrder
 import org.mockito.Mockito.mock
 import org.mockito.Mockito.verify
 import java.net.URL
@@ -21,6 +23,7 @@ class MobileEngageTokenResponseHandlerTest {
     private lateinit var tokenKey: String
     private lateinit var tokenResponseHandler: MobileEngageTokenResponseHandler
     private lateinit var mockStorage: Storage<String>
+    private lateinit var mockHeaderInjector: MobileEngageHeaderInjector
     private lateinit var requestModelMock: RequestModel
 
     @Rule
@@ -33,21 +36,27 @@ class MobileEngageTokenResponseHandlerTest {
         token = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJ4IjoieSJ9.bKXKVZCwf8J55WzWagrg2S0o2k_xZQ-HYfHIIj_2Z_U"
         tokenKey = "refreshToken"
         mockStorage = mock(Storage::class.java) as Storage<String>
+        mockHeaderInjector = mock(MobileEngageHeaderInjector::class.java)
 
         requestModelMock = mock(RequestModel::class.java).apply {
             whenever(url).thenReturn(URL(Endpoint.ME_V3_CLIENT_BASE))
         }
-        tokenResponseHandler = MobileEngageTokenResponseHandler(tokenKey, mockStorage)
+        tokenResponseHandler = MobileEngageTokenResponseHandler(tokenKey, mockStorage, mockHeaderInjector)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_tokenKey_mustNotBeNull() {
-        MobileEngageTokenResponseHandler(null, mockStorage)
+        MobileEngageTokenResponseHandler(null, mockStorage, mockHeaderInjector)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_tokenStorage_mustNotBeNull() {
-        MobileEngageTokenResponseHandler(tokenKey, null)
+        MobileEngageTokenResponseHandler(tokenKey, null, mockHeaderInjector)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_headerInjector_mustNotBeNull() {
+        MobileEngageTokenResponseHandler(tokenKey, mockStorage, null)
     }
 
     @Test
@@ -80,6 +89,16 @@ class MobileEngageTokenResponseHandlerTest {
         verify(mockStorage).set(token)
     }
 
+    @Test
+    fun testHandleResponse_shouldInvalidateHeaderProfiles_afterStoringToken() {
+        tokenResponseHandler.handleResponse(responseModelWithToken())
+
+        inOrder(mockStorage, mockHeaderInjector).run {
+            verify(mockStorage).set(token)
+            verify(mockHeaderInjector).invalidate()
+        }
+    }
+
     private fun responseModelWithToken(): ResponseModel {
         return ResponseModel.Builder()
                 .statusCode(200)
@@ -97,4 +116,34 @@ class MobileEngageTokenResponseHandlerTest {
                 .requestModel(requestModelMock)
                 .build()
     }
+
+    @Test
+    fun testIsBodyRequired_true_forMobileEngageRequest() {
+        tokenResponseHandler.isBodyRequired(requestModelMock) shouldBe true
+    }
+
+    @Test
+    fun testIsBodyRequired_false_forOtherRequest() {
+        val requestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL("https://www.emarsys.com"))
+        }
+
+        tokenResponseHandler.isBodyRequired(requestModel) shouldBe false
+    }
+
+    @Test
+    fun testGetRoute_matchesMobileEngageResponses() {
+        tokenResponseHandler.route.matches(createResponseModel(Endpoint.ME_V3_CLIENT_HOST)) shouldBe true
+        tokenResponseHandler.route.matches(createResponseModel(Endpoint.ME_V3_EVENT_HOST)) shouldBe true
+    }
+
+    @Test
+    fun testGetRoute_doesNotMatchOtherResponses() {
+        tokenResponseHandler.route.matches(createResponseModel("https://recommender.scarabresearch.com/merchants/1428C8EE286EC34B/")) shouldBe false
+    }
+
+    private fun createResponseModel(url: String, headers: Map<String, String> = mapOf()) =
+            ResponseModel(200, "", headers, mapOf(), null, 0, mock(RequestModel::class.java).apply {
+                whenever(this.url).thenReturn(URL(url))
+            })
 }
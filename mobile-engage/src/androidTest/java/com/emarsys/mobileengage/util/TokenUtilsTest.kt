@@ -0,0 +1,46 @@
+package com.emarsys.mobileengage.util
+
+import android.util.Base64
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class TokenUtilsTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testGetExpiration_token_mustNotBeNull() {
+        TokenUtils.getExpiration(null)
+    }
+
+    @Test
+    fun testGetExpiration_returnsExpClaim_inMillis() {
+        TokenUtils.getExpiration(createToken("""{"sub":"contact","exp":1546300800}""")) shouldBe 1546300800000L
+    }
+
+    @Test
+    fun testGetExpiration_returnsNull_withoutExpClaim() {
+        TokenUtils.getExpiration(createToken("""{"sub":"contact"}""")) shouldBe null
+    }
+
+    @Test
+    fun testGetExpiration_returnsNull_whenTokenIsNotJwt() {
+        TokenUtils.getExpiration("contactToken") shouldBe null
+    }
+
+    @Test
+    fun testGetExpiration_returnsNull_whenPayloadIsNotJson() {
+        TokenUtils.getExpiration(createToken("not json")) shouldBe null
+    }
+
+    private fun createToken(payload: String): String {
+        val flags = Base64.URL_SAFE or Base64.NO_PADDING or Base64.NO_WRAP
+        val header = Base64.encodeToString("""{"alg":"HS256"}""".toByteArray(), flags)
+        return "$header.${Base64.encodeToString(payload.toByteArray(), flags)}.signature"
+    }
+}
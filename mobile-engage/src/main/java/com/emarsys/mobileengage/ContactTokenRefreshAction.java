@@ -0,0 +1,82 @@
+package com.emarsys.mobileengage;
+
+import android.app.Activity;
+import android.os.Handler;
+
+import com.emarsys.core.activity.ActivityLifecycleAction;
+import com.emarsys.core.api.result.CompletionListener;
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.util.TokenUtils;
+
+public class ContactTokenRefreshAction implements ActivityLifecycleAction {
+
+    private final Handler coreSdkHandler;
+    private final RefreshTokenInternal refreshTokenInternal;
+    private final RequestContext requestContext;
+    private final long refreshMargin;
+    private final Runnable scheduledRefresh;
+    private long scheduledExpiration;
+
+    public ContactTokenRefreshAction(
+            Handler coreSdkHandler,
+            RefreshTokenInternal refreshTokenInternal,
+            RequestContext requestContext,
+            long refreshMargin) {
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(refreshTokenInternal, "RefreshTokenInternal must not be null!");
+        Assert.notNull(requestContext, "RequestContext must not be null!");
+        if (refreshMargin < 0) {
+            throw new IllegalArgumentException("RefreshMargin must not be negative!");
+        }
+
+        this.coreSdkHandler = coreSdkHandler;
+        this.refreshTokenInternal = refreshTokenInternal;
+        this.requestContext = requestContext;
+        this.refreshMargin = refreshMargin;
+        this.scheduledRefresh = new Runnable() {
+            @Override
+            public void run() {
+                scheduledExpiration = 0;
+                refreshIfExpiring();
+            }
+        };
+    }
+
+    @Override
+    public void execute(Activity activity) {
+        coreSdkHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                refreshIfExpiring();
+            }
+        });
+    }
+
+    void refreshIfExpiring() {
+        String contactToken = requestContext.getContactTokenStorage().get();
+        if (contactToken == null || requestContext.getRefreshTokenStorage().get() == null) {
+            return;
+        }
+
+        Long expiration = TokenUtils.getExpiration(contactToken);
+        if (expiration == null) {
+            return;
+        }
+
+        long refreshAt = expiration - refreshMargin;
+        long now = requestContext.getTimestampProvider().provideTimestamp();
+        if (now >= refreshAt) {
+            if (!refreshTokenInternal.isRefreshing()) {
+                refreshTokenInternal.refreshContactToken(new CompletionListener() {
+                    @Override
+                    public void onCompleted(Throwable errorCause) {
+                    }
+                });
+            }
+        } else if (scheduledExpiration != expiration) {
+            scheduledExpiration = expiration;
+            coreSdkHandler.removeCallbacks(scheduledRefresh);
+            coreSdkHandler.postDelayed(scheduledRefresh, refreshAt - now);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.emarsys.core.api.result.CompletionListener;
 import com.emarsys.core.request.RequestManager;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.request.MobileEngageHeaderInjector;
 import com.emarsys.mobileengage.request.RequestModelFactory;
 
 
@@ -13,17 +14,21 @@ public class DefaultMobileEngageInternal implements MobileEngageInternal {
     private final RequestManager requestManager;
     private final RequestModelFactory requestModelFactory;
     private final RequestContext requestContext;
+    private final MobileEngageHeaderInjector headerInjector;
 
     public DefaultMobileEngageInternal(RequestManager requestManager,
                                        RequestModelFactory requestModelFactory,
-                                       RequestContext requestContext) {
+                                       RequestContext requestContext,
+                                       MobileEngageHeaderInjector headerInjector) {
         Assert.notNull(requestManager, "RequestManager must not be null!");
         Assert.notNull(requestModelFactory, "RequestModelFactory must not be null!");
         Assert.notNull(requestContext, "RequestContext must not be null!");
+        Assert.notNull(headerInjector, "HeaderInjector must not be null!");
 
         this.requestManager = requestManager;
         this.requestModelFactory = requestModelFactory;
         this.requestContext = requestContext;
+        this.headerInjector = headerInjector;
     }
 
     @Override
@@ -43,6 +48,7 @@ public class DefaultMobileEngageInternal implements MobileEngageInternal {
         requestContext.getRefreshTokenStorage().remove();
         requestContext.getContactTokenStorage().remove();
         requestContext.getContactFieldValueStorage().remove();
+        headerInjector.invalidate();
     }
 
 }
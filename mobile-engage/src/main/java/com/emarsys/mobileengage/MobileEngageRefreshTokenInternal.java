@@ -1,8 +1,11 @@
 package com.emarsys.mobileengage;
 
+import android.os.Handler;
+
 import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.api.ResponseErrorException;
 import com.emarsys.core.api.result.CompletionListener;
+import com.emarsys.core.concurrency.NetworkLane;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.ResponseModel;
@@ -10,34 +13,59 @@ import com.emarsys.core.util.Assert;
 import com.emarsys.mobileengage.request.RequestModelFactory;
 import com.emarsys.mobileengage.responsehandler.MobileEngageTokenResponseHandler;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class MobileEngageRefreshTokenInternal implements RefreshTokenInternal {
     MobileEngageTokenResponseHandler tokenResponseHandler;
     private RestClient restClient;
     private RequestModelFactory requestModelFactory;
+    private final Handler coreSdkHandler;
+    private final Runnable onRefreshCompleted;
+    private final List<CompletionListener> pendingListeners;
+    private volatile boolean refreshing;
 
-    public MobileEngageRefreshTokenInternal(MobileEngageTokenResponseHandler tokenResponseHandler, RestClient restClient, RequestModelFactory requestModelFactory) {
+    public MobileEngageRefreshTokenInternal(
+            MobileEngageTokenResponseHandler tokenResponseHandler,
+            RestClient restClient,
+            RequestModelFactory requestModelFactory,
+            Handler coreSdkHandler,
+            Runnable onRefreshCompleted) {
         Assert.notNull(tokenResponseHandler, "TokenResponseHandler must not be null!");
         Assert.notNull(restClient, "RestClient must not be null!");
         Assert.notNull(requestModelFactory, "RequestModelFactory must not be null!");
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(onRefreshCompleted, "OnRefreshCompleted must not be null!");
         this.tokenResponseHandler = tokenResponseHandler;
         this.restClient = restClient;
         this.requestModelFactory = requestModelFactory;
+        this.coreSdkHandler = coreSdkHandler;
+        this.onRefreshCompleted = onRefreshCompleted;
+        this.pendingListeners = new ArrayList<>();
     }
 
     @Override
     public void refreshContactToken(final CompletionListener completionListener) {
+        synchronized (pendingListeners) {
+            pendingListeners.add(completionListener);
+            if (refreshing) {
+                return;
+            }
+            refreshing = true;
+        }
+
         final RequestModel requestModel = requestModelFactory.createRefreshContactTokenRequest();
 
         restClient.execute(requestModel, new CoreCompletionHandler() {
             @Override
             public void onSuccess(String id, ResponseModel responseModel) {
                 tokenResponseHandler.processResponse(responseModel);
-                completionListener.onCompleted(null);
+                complete(null);
             }
 
             @Override
             public void onError(String id, ResponseModel responseModel) {
-                completionListener.onCompleted(new ResponseErrorException(
+                complete(new ResponseErrorException(
                         responseModel.getStatusCode(),
                         responseModel.getMessage(),
                         responseModel.getBody()));
@@ -45,8 +73,26 @@ public class MobileEngageRefreshTokenInternal implements RefreshTokenInternal {
 
             @Override
             public void onError(String id, Exception cause) {
-                completionListener.onCompleted(cause);
+                complete(cause);
             }
-        });
+        }, NetworkLane.INTERACTIVE);
+    }
+
+    @Override
+    public boolean isRefreshing() {
+        return refreshing;
+    }
+
+    private void complete(Throwable errorCause) {
+        List<CompletionListener> listeners;
+        synchronized (pendingListeners) {
+            listeners = new ArrayList<>(pendingListeners);
+            pendingListeners.clear();
+            refreshing = false;
+        }
+        coreSdkHandler.post(onRefreshCompleted);
+        for (CompletionListener listener : listeners) {
+            listener.onCompleted(errorCause);
+        }
     }
 }
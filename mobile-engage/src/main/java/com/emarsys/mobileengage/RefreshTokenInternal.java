@@ -5,4 +5,6 @@ import com.emarsys.core.api.result.CompletionListener;
 public interface RefreshTokenInternal {
 
     void refreshContactToken(CompletionListener completionListener);
+
+    boolean isRefreshing();
 }
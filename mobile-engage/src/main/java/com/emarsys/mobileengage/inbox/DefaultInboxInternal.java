@@ -62,23 +62,38 @@ public class DefaultInboxInternal implements InboxInternal {
 
         manager.submitNow(model, new CoreCompletionHandler() {
             @Override
-            public void onSuccess(String id, ResponseModel responseModel) {
-                NotificationInboxStatus status = InboxParseUtils.parseNotificationInboxStatus(responseModel.getBody());
-                NotificationInboxStatus resultStatus = new NotificationInboxStatus(cache.merge(status.getNotifications()), status.getBadgeCount());
-                resultListener.onResult(Try.success(resultStatus));
+            public void onSuccess(String id, final ResponseModel responseModel) {
+                final NotificationInboxStatus status = InboxParseUtils.parseNotificationInboxStatus(responseModel.getBody());
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        NotificationInboxStatus resultStatus = new NotificationInboxStatus(cache.merge(status.getNotifications()), status.getBadgeCount());
+                        resultListener.onResult(Try.success(resultStatus));
+                    }
+                });
             }
 
             @Override
-            public void onError(String id, ResponseModel responseModel) {
-                resultListener.onResult(Try.failure(new ResponseErrorException(
-                        responseModel.getStatusCode(),
-                        responseModel.getMessage(),
-                        responseModel.getBody())));
+            public void onError(String id, final ResponseModel responseModel) {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        resultListener.onResult(Try.failure(new ResponseErrorException(
+                                responseModel.getStatusCode(),
+                                responseModel.getMessage(),
+                                responseModel.getBody())));
+                    }
+                });
             }
 
             @Override
-            public void onError(String id, Exception cause) {
-                resultListener.onResult(Try.failure(cause));
+            public void onError(String id, final Exception cause) {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        resultListener.onResult(Try.failure(cause));
+                    }
+                });
             }
         });
     }
@@ -114,25 +129,30 @@ public class DefaultInboxInternal implements InboxInternal {
         manager.submitNow(model, new CoreCompletionHandler() {
             @Override
             public void onSuccess(String id, ResponseModel responseModel) {
-                if (resultListener != null) {
-                    resultListener.onCompleted(null);
-                }
+                complete(null);
             }
 
             @Override
             public void onError(String id, ResponseModel responseModel) {
-                if (resultListener != null) {
-                    resultListener.onCompleted(new ResponseErrorException(
-                            responseModel.getStatusCode(),
-                            responseModel.getMessage(),
-                            responseModel.getBody()));
-                }
+                complete(new ResponseErrorException(
+                        responseModel.getStatusCode(),
+                        responseModel.getMessage(),
+                        responseModel.getBody()));
             }
 
             @Override
             public void onError(String id, Exception cause) {
+                complete(cause);
+            }
+
+            private void complete(final Throwable errorCause) {
                 if (resultListener != null) {
-                    resultListener.onCompleted(cause);
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            resultListener.onCompleted(errorCause);
+                        }
+                    });
                 }
             }
         });
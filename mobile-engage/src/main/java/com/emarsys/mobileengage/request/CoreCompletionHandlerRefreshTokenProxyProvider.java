@@ -4,6 +4,7 @@ import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.core.request.factory.CompletionHandlerProxyProvider;
 import com.emarsys.core.request.factory.CoreCompletionHandlerMiddlewareProvider;
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.storage.Storage;
 import com.emarsys.core.util.Assert;
 import com.emarsys.core.worker.Worker;
@@ -28,10 +29,11 @@ public class CoreCompletionHandlerRefreshTokenProxyProvider implements Completio
     }
 
     @Override
-    public CoreCompletionHandlerRefreshTokenProxy provideProxy(Worker worker) {
+    public CoreCompletionHandlerRefreshTokenProxy provideProxy(Worker worker, RequestModel requestModel) {
         Assert.notNull(worker, "Worker must not be null!");
+        Assert.notNull(requestModel, "RequestModel must not be null!");
 
-        CoreCompletionHandler coreCompletionHandler = coreCompletionHandlerMiddlewareProvider.provideProxy(worker);
+        CoreCompletionHandler coreCompletionHandler = coreCompletionHandlerMiddlewareProvider.provideProxy(worker, requestModel);
 
         return new CoreCompletionHandlerRefreshTokenProxy(coreCompletionHandler, refreshTokenInternal, restClient, contactTokenStorage);
     }
@@ -0,0 +1,79 @@
+package com.emarsys.mobileengage.request;
+
+import com.emarsys.core.database.repository.Repository;
+import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.database.repository.specification.Everything;
+import com.emarsys.core.request.coalescing.CoalescingStrategy;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.RawJson;
+import com.emarsys.mobileengage.endpoint.Endpoint;
+import com.emarsys.mobileengage.iam.InAppEventHandlerInternal;
+import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
+import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIam;
+import com.emarsys.mobileengage.util.RequestPayloadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class CustomEventCoalescingStrategy implements CoalescingStrategy {
+
+    private static final String CUSTOM_EVENT_URL_PATTERN = Endpoint.ME_V3_EVENT_HOST + "%";
+
+    private final Repository<DisplayedIam, SqlSpecification> iamRepository;
+    private final Repository<ButtonClicked, SqlSpecification> buttonClickedRepository;
+    private final InAppEventHandlerInternal inAppEventHandlerInternal;
+    private final int maxBatchSize;
+
+    public CustomEventCoalescingStrategy(
+            Repository<DisplayedIam, SqlSpecification> iamRepository,
+            Repository<ButtonClicked, SqlSpecification> buttonClickedRepository,
+            InAppEventHandlerInternal inAppEventHandlerInternal,
+            int maxBatchSize) {
+        Assert.notNull(iamRepository, "IamRepository must not be null!");
+        Assert.notNull(buttonClickedRepository, "ButtonClickedRepository must not be null!");
+        Assert.notNull(inAppEventHandlerInternal, "InAppEventHandlerInternal must not be null!");
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("MaxBatchSize must be greater than 0!");
+        }
+
+        this.iamRepository = iamRepository;
+        this.buttonClickedRepository = buttonClickedRepository;
+        this.inAppEventHandlerInternal = inAppEventHandlerInternal;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public String getUrlPattern() {
+        return CUSTOM_EVENT_URL_PATTERN;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public Map<String, Object> mergePayloads(List<RequestModel> requestModels) {
+        List<Object> events = new ArrayList<>();
+
+        for (RequestModel model : requestModels) {
+            if (model.getBody() != null) {
+                events.addAll(new RawJson(model.getBody()).getArrayElements("events"));
+            } else {
+                Object individualEvents = model.getPayload().get("events");
+                if (individualEvents != null && individualEvents instanceof List) {
+                    events.addAll((List) individualEvents);
+                }
+            }
+        }
+
+        return RequestPayloadUtils.createCompositeRequestModelPayload(
+                events,
+                iamRepository.query(new Everything()),
+                buttonClickedRepository.query(new Everything()),
+                inAppEventHandlerInternal.isPaused()
+        );
+    }
+}
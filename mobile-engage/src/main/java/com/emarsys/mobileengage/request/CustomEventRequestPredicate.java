@@ -0,0 +1,16 @@
+package com.emarsys.mobileengage.request;
+
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.predicate.Predicate;
+import com.emarsys.mobileengage.util.RequestModelUtils;
+
+public class CustomEventRequestPredicate implements Predicate<RequestModel> {
+
+    @Override
+    public boolean evaluate(RequestModel requestModel) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+
+        return RequestModelUtils.isCustomEvent_V3(requestModel);
+    }
+}
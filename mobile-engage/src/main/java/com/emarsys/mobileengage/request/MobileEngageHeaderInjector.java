@@ -0,0 +1,84 @@
+package com.emarsys.mobileengage.request;
+
+import com.emarsys.core.request.header.HeaderInjector;
+import com.emarsys.core.request.header.HeaderProfile;
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.RequestContext;
+import com.emarsys.mobileengage.util.RequestModelUtils;
+
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MobileEngageHeaderInjector implements HeaderInjector {
+
+    private static final String CLIENT_STATE = "X-Client-State";
+    private static final String CONTACT_TOKEN = "X-Contact-Token";
+    private static final String REQUEST_ORDER = "X-Request-Order";
+
+    private final RequestContext requestContext;
+    private volatile Profiles profiles;
+
+    public MobileEngageHeaderInjector(RequestContext requestContext) {
+        Assert.notNull(requestContext, "RequestContext must not be null!");
+
+        this.requestContext = requestContext;
+    }
+
+    @Override
+    public void injectHeaders(RequestModel requestModel, HttpURLConnection connection) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+        Assert.notNull(connection, "Connection must not be null!");
+
+        if (RequestModelUtils.isMobileEngageV3Request(requestModel)) {
+            getHeaderProfile(requestModel).applyTo(connection);
+            connection.setRequestProperty(REQUEST_ORDER, String.valueOf(requestContext.getTimestampProvider().provideTimestamp()));
+        }
+    }
+
+    /**
+     * Drops the cached header profiles, so the next request rebuilds them from the client-state and
+     * contact-token storages. Must be called whenever either storage is written.
+     */
+    public synchronized void invalidate() {
+        profiles = null;
+    }
+
+    HeaderProfile getHeaderProfile(RequestModel requestModel) {
+        Profiles current = profiles;
+        if (current == null) {
+            current = rebuildProfiles();
+        }
+
+        return RequestModelUtils.isRefreshContactTokenRequest(requestModel) ? current.refreshContactToken : current.standard;
+    }
+
+    private synchronized Profiles rebuildProfiles() {
+        if (profiles == null) {
+            profiles = new Profiles(
+                    requestContext.getClientStateStorage().get(),
+                    requestContext.getContactTokenStorage().get());
+        }
+        return profiles;
+    }
+
+    private static class Profiles {
+
+        private final HeaderProfile standard;
+        private final HeaderProfile refreshContactToken;
+
+        Profiles(String clientState, String contactToken) {
+            Map<String, String> headers = new HashMap<>();
+            if (clientState != null) {
+                headers.put(CLIENT_STATE, clientState);
+            }
+            this.refreshContactToken = new HeaderProfile(headers);
+
+            if (contactToken != null) {
+                headers.put(CONTACT_TOKEN, contactToken);
+            }
+            this.standard = new HeaderProfile(headers);
+        }
+    }
+}
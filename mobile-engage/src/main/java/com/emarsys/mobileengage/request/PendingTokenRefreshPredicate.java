@@ -0,0 +1,25 @@
+package com.emarsys.mobileengage.request;
+
+import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.predicate.Predicate;
+import com.emarsys.mobileengage.RefreshTokenInternal;
+import com.emarsys.mobileengage.util.RequestModelUtils;
+
+public class PendingTokenRefreshPredicate implements Predicate<RequestModel> {
+
+    private final RefreshTokenInternal refreshTokenInternal;
+
+    public PendingTokenRefreshPredicate(RefreshTokenInternal refreshTokenInternal) {
+        Assert.notNull(refreshTokenInternal, "RefreshTokenInternal must not be null!");
+
+        this.refreshTokenInternal = refreshTokenInternal;
+    }
+
+    @Override
+    public boolean evaluate(RequestModel requestModel) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+
+        return refreshTokenInternal.isRefreshing() && RequestModelUtils.isMobileEngageV3Request(requestModel);
+    }
+}
@@ -2,6 +2,7 @@ package com.emarsys.mobileengage.request;
 
 import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.RequestPriority;
 import com.emarsys.core.util.Assert;
 import com.emarsys.mobileengage.RequestContext;
 import com.emarsys.mobileengage.util.RequestHeaderUtils;
@@ -31,6 +32,8 @@ public class RequestModelFactory {
         return new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getUUIDProvider())
                 .url(RequestUrlUtils.createSetPushTokenUrl(requestContext))
                 .method(RequestMethod.PUT)
+                .priority(RequestPriority.HIGH)
+                .supersessionKey(SupersessionKey.PUSH_TOKEN)
                 .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
                 .payload(RequestPayloadUtils.createSetPushTokenPayload(pushToken))
                 .build();
@@ -40,6 +43,8 @@ public class RequestModelFactory {
         return new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getUUIDProvider())
                 .url(RequestUrlUtils.createRemovePushTokenUrl(requestContext))
                 .method(RequestMethod.DELETE)
+                .priority(RequestPriority.HIGH)
+                .supersessionKey(SupersessionKey.PUSH_TOKEN)
                 .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
                 .build();
     }
@@ -48,6 +53,8 @@ public class RequestModelFactory {
         return new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getUUIDProvider())
                 .url(RequestUrlUtils.createTrackDeviceInfoUrl(requestContext))
                 .method(RequestMethod.POST)
+                .priority(RequestPriority.HIGH)
+                .supersessionKey(SupersessionKey.DEVICE_INFO)
                 .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
                 .payload(RequestPayloadUtils.createTrackDeviceInfoPayload(requestContext))
                 .build();
@@ -57,6 +64,7 @@ public class RequestModelFactory {
         RequestModel.Builder builder = new RequestModel.Builder(requestContext.getTimestampProvider(), requestContext.getUUIDProvider())
                 .url(RequestUrlUtils.createSetContactUrl(requestContext))
                 .method(RequestMethod.POST)
+                .supersessionKey(SupersessionKey.CONTACT)
                 .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext));
         if (contactFieldValue == null) {
             Map<String, String> queryParams = new HashMap<>();
@@ -121,6 +129,7 @@ public class RequestModelFactory {
                 .method(RequestMethod.POST)
                 .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
                 .payload(payload)
+                .encodeBody()
                 .build();
     }
 
@@ -0,0 +1,11 @@
+package com.emarsys.mobileengage.request;
+
+public final class SupersessionKey {
+
+    private SupersessionKey() {
+    }
+
+    public static final String PUSH_TOKEN = "push-token";
+    public static final String DEVICE_INFO = "device-info";
+    public static final String CONTACT = "contact";
+}
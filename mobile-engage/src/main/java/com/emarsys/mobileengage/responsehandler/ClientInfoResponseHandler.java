@@ -1,14 +1,21 @@
 package com.emarsys.mobileengage.responsehandler;
 
 import com.emarsys.core.device.DeviceInfo;
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.AbstractResponseHandler;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.response.ResponseRoute;
 import com.emarsys.core.storage.Storage;
 import com.emarsys.core.util.Assert;
 import com.emarsys.mobileengage.endpoint.Endpoint;
 
 public class ClientInfoResponseHandler extends AbstractResponseHandler {
 
+    private static final ResponseRoute ROUTE = new ResponseRoute.Builder()
+            .hostOf(Endpoint.ME_V3_CLIENT_HOST)
+            .path(".*/client")
+            .build();
+
     private final DeviceInfo deviceInfo;
     private final Storage<Integer> deviceInfoHashStorage;
 
@@ -20,6 +27,16 @@ public class ClientInfoResponseHandler extends AbstractResponseHandler {
         this.deviceInfoHashStorage = deviceInfoHashStorage;
     }
 
+    @Override
+    public boolean isBodyRequired(RequestModel requestModel) {
+        return false;
+    }
+
+    @Override
+    public ResponseRoute getRoute() {
+        return ROUTE;
+    }
+
     @Override
     protected boolean shouldHandleResponse(ResponseModel responseModel) {
         String url = responseModel.getRequestModel().getUrl().toString();
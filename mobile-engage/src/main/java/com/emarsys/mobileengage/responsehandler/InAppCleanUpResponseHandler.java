@@ -2,9 +2,12 @@ package com.emarsys.mobileengage.responsehandler;
 
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.AbstractResponseHandler;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.response.ResponseRoute;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.endpoint.Endpoint;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
 import com.emarsys.mobileengage.iam.model.displayediam.DisplayedIam;
 import com.emarsys.mobileengage.iam.model.specification.FilterByCampaignId;
@@ -16,6 +19,10 @@ import org.json.JSONObject;
 public class InAppCleanUpResponseHandler extends AbstractResponseHandler {
 
     private static final String OLD_MESSAGES = "oldCampaigns";
+    private static final ResponseRoute ROUTE = new ResponseRoute.Builder()
+            .hostOf(Endpoint.ME_V3_EVENT_HOST)
+            .path(".+/events")
+            .build();
 
     private final Repository<DisplayedIam, SqlSpecification> displayedIamRepository;
     private final Repository<ButtonClicked, SqlSpecification> buttonClickedRepository;
@@ -29,6 +36,16 @@ public class InAppCleanUpResponseHandler extends AbstractResponseHandler {
         this.buttonClickedRepository = buttonClickedRepository;
     }
 
+    @Override
+    public boolean isBodyRequired(RequestModel requestModel) {
+        return RequestModelUtils.isCustomEvent_V3(requestModel);
+    }
+
+    @Override
+    public ResponseRoute getRoute() {
+        return ROUTE;
+    }
+
     @Override
     protected boolean shouldHandleResponse(ResponseModel responseModel) {
         boolean shouldHandle = false;
@@ -49,11 +66,16 @@ public class InAppCleanUpResponseHandler extends AbstractResponseHandler {
     protected void handleResponse(ResponseModel responseModel) {
         JSONObject json = responseModel.getParsedBody();
         JSONArray oldMessages = json.optJSONArray(OLD_MESSAGES);
-        String[] ids = new String[oldMessages.length()];
+        final String[] ids = new String[oldMessages.length()];
         for (int i = 0; i < oldMessages.length(); i++) {
             ids[i] = oldMessages.optString(i);
         }
-        displayedIamRepository.remove(new FilterByCampaignId(ids));
-        buttonClickedRepository.remove(new FilterByCampaignId(ids));
+        displayedIamRepository.inTransaction(new Runnable() {
+            @Override
+            public void run() {
+                displayedIamRepository.remove(new FilterByCampaignId(ids));
+                buttonClickedRepository.remove(new FilterByCampaignId(ids));
+            }
+        });
     }
 }
@@ -3,17 +3,26 @@ package com.emarsys.mobileengage.responsehandler;
 import android.annotation.TargetApi;
 import android.os.Build;
 
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.AbstractResponseHandler;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.response.ResponseRoute;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.endpoint.Endpoint;
 import com.emarsys.mobileengage.iam.InAppPresenter;
 import com.emarsys.mobileengage.util.AndroidVersionUtils;
+import com.emarsys.mobileengage.util.RequestModelUtils;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
 public class InAppMessageResponseHandler extends AbstractResponseHandler {
 
+    private static final ResponseRoute ROUTE = new ResponseRoute.Builder()
+            .hostOf(Endpoint.ME_V3_CLIENT_HOST)
+            .hostOf(Endpoint.ME_V3_EVENT_HOST)
+            .build();
+
     private InAppPresenter inAppPresenter;
 
     public InAppMessageResponseHandler(InAppPresenter inAppPresenter) {
@@ -22,6 +31,16 @@ public class InAppMessageResponseHandler extends AbstractResponseHandler {
         this.inAppPresenter = inAppPresenter;
     }
 
+    @Override
+    public boolean isBodyRequired(RequestModel requestModel) {
+        return RequestModelUtils.isMobileEngageV3Request(requestModel);
+    }
+
+    @Override
+    public ResponseRoute getRoute() {
+        return ROUTE;
+    }
+
     @Override
     protected boolean shouldHandleResponse(ResponseModel responseModel) {
         JSONObject responseBody = responseModel.getParsedBody();
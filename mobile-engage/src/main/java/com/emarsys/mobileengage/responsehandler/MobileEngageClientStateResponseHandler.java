@@ -1,21 +1,43 @@
 package com.emarsys.mobileengage.responsehandler;
 
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.AbstractResponseHandler;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.response.ResponseRoute;
 import com.emarsys.core.storage.Storage;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.endpoint.Endpoint;
+import com.emarsys.mobileengage.request.MobileEngageHeaderInjector;
 import com.emarsys.mobileengage.util.RequestModelUtils;
 
 public class MobileEngageClientStateResponseHandler extends AbstractResponseHandler {
 
     private static final String X_CLIENT_STATE = "X-Client-State";
+    private static final ResponseRoute ROUTE = new ResponseRoute.Builder()
+            .hostOf(Endpoint.ME_V3_CLIENT_HOST)
+            .hostOf(Endpoint.ME_V3_EVENT_HOST)
+            .header(X_CLIENT_STATE)
+            .build();
 
     private final Storage<String> clientStateStorage;
+    private final MobileEngageHeaderInjector headerInjector;
 
-    public MobileEngageClientStateResponseHandler(Storage<String> clientStateStorage) {
+    public MobileEngageClientStateResponseHandler(Storage<String> clientStateStorage, MobileEngageHeaderInjector headerInjector) {
         Assert.notNull(clientStateStorage, "ClientStateStorage must not be null!");
+        Assert.notNull(headerInjector, "HeaderInjector must not be null!");
 
         this.clientStateStorage = clientStateStorage;
+        this.headerInjector = headerInjector;
+    }
+
+    @Override
+    public boolean isBodyRequired(RequestModel requestModel) {
+        return false;
+    }
+
+    @Override
+    public ResponseRoute getRoute() {
+        return ROUTE;
     }
 
     @Override
@@ -29,6 +51,7 @@ public class MobileEngageClientStateResponseHandler extends AbstractResponseHand
     @Override
     protected void handleResponse(ResponseModel responseModel) {
         clientStateStorage.set(getClientState(responseModel));
+        headerInjector.invalidate();
     }
 
     private String getClientState(ResponseModel responseModel) {
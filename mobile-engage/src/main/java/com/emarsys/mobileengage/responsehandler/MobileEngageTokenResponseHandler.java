@@ -3,8 +3,11 @@ package com.emarsys.mobileengage.responsehandler;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.AbstractResponseHandler;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.response.ResponseRoute;
 import com.emarsys.core.storage.Storage;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.endpoint.Endpoint;
+import com.emarsys.mobileengage.request.MobileEngageHeaderInjector;
 import com.emarsys.mobileengage.util.RequestModelUtils;
 
 import org.json.JSONException;
@@ -12,15 +15,33 @@ import org.json.JSONObject;
 
 public class MobileEngageTokenResponseHandler extends AbstractResponseHandler {
 
+    private static final ResponseRoute ROUTE = new ResponseRoute.Builder()
+            .hostOf(Endpoint.ME_V3_CLIENT_HOST)
+            .hostOf(Endpoint.ME_V3_EVENT_HOST)
+            .build();
+
     private final String tokenKey;
     private final Storage<String> tokenStorage;
+    private final MobileEngageHeaderInjector headerInjector;
 
-    public MobileEngageTokenResponseHandler(String tokenKey, Storage<String> tokenStorage) {
+    public MobileEngageTokenResponseHandler(String tokenKey, Storage<String> tokenStorage, MobileEngageHeaderInjector headerInjector) {
         Assert.notNull(tokenKey, "TokenKey must not be null!");
         Assert.notNull(tokenStorage, "TokenStorage must not be null!");
+        Assert.notNull(headerInjector, "HeaderInjector must not be null!");
 
         this.tokenKey = tokenKey;
         this.tokenStorage = tokenStorage;
+        this.headerInjector = headerInjector;
+    }
+
+    @Override
+    public boolean isBodyRequired(RequestModel requestModel) {
+        return isMobileEngage(requestModel);
+    }
+
+    @Override
+    public ResponseRoute getRoute() {
+        return ROUTE;
     }
 
     @Override
@@ -36,6 +57,7 @@ public class MobileEngageTokenResponseHandler extends AbstractResponseHandler {
         JSONObject body = responseModel.getParsedBody();
         try {
             tokenStorage.set(body.getString(tokenKey));
+            headerInjector.invalidate();
         } catch (JSONException ignore) {
         }
     }
@@ -2,6 +2,7 @@ package com.emarsys.mobileengage.util;
 
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.util.Assert;
+import com.emarsys.mobileengage.endpoint.Endpoint;
 
 
 public class RequestModelUtils {
@@ -14,6 +15,14 @@ public class RequestModelUtils {
         return RequestUrlUtils.isMobileEngageV3Url(url);
     }
 
+    public static boolean isMobileEngageClientRequest(RequestModel requestModel) {
+        Assert.notNull(requestModel, "RequestModel must not be null!");
+
+        String url = requestModel.getUrl().toString();
+
+        return url.startsWith(Endpoint.ME_V3_CLIENT_HOST);
+    }
+
     public static boolean isCustomEvent_V3(RequestModel requestModel) {
         Assert.notNull(requestModel, "RequestModel must not be null!");
 
@@ -0,0 +1,34 @@
+package com.emarsys.mobileengage.util;
+
+import android.util.Base64;
+
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.log.Logger;
+import com.emarsys.core.util.log.entry.TokenDecodingFailure;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.Charset;
+
+public class TokenUtils {
+
+    public static Long getExpiration(String token) {
+        Assert.notNull(token, "Token must not be null!");
+
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            Logger.log(new TokenDecodingFailure("Token must have 3 parts, but had " + parts.length));
+            return null;
+        }
+
+        try {
+            byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+            JSONObject claims = new JSONObject(new String(payload, Charset.forName("UTF-8")));
+            return claims.has("exp") ? claims.getLong("exp") * 1000 : null;
+        } catch (IllegalArgumentException | JSONException e) {
+            Logger.log(new TokenDecodingFailure(e.getClass().getName() + ": " + e.getMessage()));
+            return null;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.response.ResponseModel
 import com.emarsys.core.storage.KeyValueStore
 import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.whenever
 import org.junit.Assert
 import org.junit.Before
 import org.junit.Rule
@@ -13,6 +14,7 @@ import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.Mockito.mock
 import org.mockito.Mockito.verify
+import java.net.URL
 
 class VisitorIdResponseHandlerTest {
 
@@ -127,4 +129,24 @@ class VisitorIdResponseHandlerTest {
         verify(keyValueStore).putString("predict_visitor_id", visitorId)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun testIsBodyRequired_false() {
+        Assert.assertFalse(responseHandler.isBodyRequired(mock(RequestModel::class.java)))
+    }
+
+    @Test
+    fun testGetRoute_matchesPredictResponses_withCookies() {
+        Assert.assertTrue(responseHandler.route.matches(createResponseModel("https://recommender.scarabresearch.com/merchants/1428C8EE286EC34B/", mapOf("Set-Cookie" to "cdv=visitorId"))))
+    }
+
+    @Test
+    fun testGetRoute_doesNotMatchOtherResponses() {
+        Assert.assertFalse(responseHandler.route.matches(createResponseModel("https://recommender.scarabresearch.com/merchants/1428C8EE286EC34B/")))
+        Assert.assertFalse(responseHandler.route.matches(createResponseModel("https://www.emarsys.com/merchants", mapOf("Set-Cookie" to "cdv=visitorId"))))
+    }
+
+    private fun createResponseModel(url: String, headers: Map<String, String> = mapOf()) =
+            ResponseModel(200, "", headers, mapOf(), null, 0, mock(RequestModel::class.java).apply {
+                whenever(this.url).thenReturn(URL(url))
+            })
+}
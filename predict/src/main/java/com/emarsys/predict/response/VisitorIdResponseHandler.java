@@ -1,7 +1,9 @@
 package com.emarsys.predict.response;
 
+import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.AbstractResponseHandler;
 import com.emarsys.core.response.ResponseModel;
+import com.emarsys.core.response.ResponseRoute;
 import com.emarsys.core.storage.KeyValueStore;
 import com.emarsys.core.util.Assert;
 import com.emarsys.predict.DefaultPredictInternal;
@@ -9,6 +11,11 @@ import com.emarsys.predict.DefaultPredictInternal;
 public class VisitorIdResponseHandler extends AbstractResponseHandler {
 
     private static final String CDV = "cdv";
+    private static final ResponseRoute ROUTE = new ResponseRoute.Builder()
+            .hostOf(DefaultPredictInternal.BASE_URL)
+            .path("/merchants.*")
+            .header("Set-Cookie")
+            .build();
 
     private final KeyValueStore keyValueStore;
 
@@ -17,6 +24,16 @@ public class VisitorIdResponseHandler extends AbstractResponseHandler {
         this.keyValueStore = keyValueStore;
     }
 
+    @Override
+    public boolean isBodyRequired(RequestModel requestModel) {
+        return false;
+    }
+
+    @Override
+    public ResponseRoute getRoute() {
+        return ROUTE;
+    }
+
     @Override
     protected boolean shouldHandleResponse(ResponseModel responseModel) {
         boolean isPredictUrl = responseModel.getRequestModel().getUrl().toString().startsWith(DefaultPredictInternal.BASE_URL);